@@ -0,0 +1,8 @@
+-- Sala de cada paciente, para agrupar el ranking de alerta temprana.
+
+CREATE TABLE patient_wards (
+    patient_id  BIGINT      NOT NULL PRIMARY KEY,
+    ward        VARCHAR(50) NOT NULL
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_patient_wards_ward ON patient_wards (ward);
@@ -0,0 +1,34 @@
+-- vital_sign_records: una partición por mes de timestamp, para que la retención de lecturas crudas descarte
+-- meses enteros (DROP PARTITION) en lugar de borrar filas. Ver docs/database.md.
+-- Toda clave única de una tabla particionada debe incluir la columna de partición: la PK pasa a (id, timestamp).
+-- id sigue siendo único: lo asigna la secuencia.
+-- Particiones p<yyyyMM> desde el mes de la lectura más antigua hasta el mes siguiente al actual, y pmax
+-- (MAXVALUE), que el job de rollups mantiene vacía creando los meses por adelantado.
+-- Reescribe la tabla: ejecutar con la ingesta detenida.
+
+ALTER TABLE vital_sign_records DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`);
+
+SET @first_month = DATE_FORMAT(COALESCE((SELECT MIN(`timestamp`) FROM vital_sign_records), CURRENT_DATE), '%Y-%m-01');
+SET @months = TIMESTAMPDIFF(MONTH, @first_month, DATE_FORMAT(CURRENT_DATE, '%Y-%m-01')) + 2;
+
+SET SESSION group_concat_max_len = 1000000;
+SET SESSION cte_max_recursion_depth = 10000;
+
+WITH RECURSIVE months (n) AS (
+    SELECT 0
+    UNION ALL
+    SELECT n + 1 FROM months WHERE n + 1 < @months
+)
+SELECT GROUP_CONCAT(
+           CONCAT('PARTITION p', DATE_FORMAT(DATE_ADD(@first_month, INTERVAL n MONTH), '%Y%m'),
+                  ' VALUES LESS THAN (''', DATE_ADD(@first_month, INTERVAL n + 1 MONTH), ''')')
+           ORDER BY n SEPARATOR ', ')
+INTO @partitions
+FROM months;
+
+-- ALTER TABLE no acepta la lista de particiones calculada: se arma la sentencia
+SET @ddl = CONCAT('ALTER TABLE vital_sign_records PARTITION BY RANGE COLUMNS (`timestamp`) (',
+                  @partitions, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_vital_sign_records FROM @ddl;
+EXECUTE partition_vital_sign_records;
+DEALLOCATE PREPARE partition_vital_sign_records;
@@ -0,0 +1,13 @@
+-- vital_sign_records: ids por secuencia pooled (allocationSize = 50) en lugar de AUTO_INCREMENT.
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (next_val).
+-- Con el optimizador pooled, leer next_val = N reserva los ids N-49..N, así que la semilla debe
+-- dejar el bloque entero por encima del id más alto: MAX(id) + 1 + 50.
+-- La columna id conserva AUTO_INCREMENT; Hibernate ahora envía el id explícito.
+-- Ejecutar con la ingesta detenida.
+
+CREATE TABLE vital_sign_records_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO vital_sign_records_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM vital_sign_records;
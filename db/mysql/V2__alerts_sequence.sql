@@ -0,0 +1,10 @@
+-- alerts: ids por secuencia pooled (allocationSize = 50) en lugar de AUTO_INCREMENT.
+-- Misma semilla que V1: MAX(id) + 1 + 50 (ver docs/database.md).
+-- Ejecutar con el servicio detenido.
+
+CREATE TABLE alerts_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO alerts_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM alerts;
@@ -0,0 +1,3 @@
+-- Top-N global de mediciones recientes, y recorridos por rango de tiempo (rollups, retención).
+
+CREATE INDEX idx_vital_sign_records_ts ON vital_sign_records (timestamp DESC, id DESC);
@@ -0,0 +1,33 @@
+-- Rollups por minuto y por hora, y sus marcas de agua.
+-- La secuencia empieza en 1, como la crea Hibernate para una tabla vacía.
+
+CREATE TABLE vital_sign_rollups (
+    id               BIGINT      NOT NULL PRIMARY KEY,
+    granularity      VARCHAR(10) NOT NULL,
+    patient_id       BIGINT      NOT NULL,
+    bucket_start     DATETIME(6) NOT NULL,
+    sample_count     INT         NOT NULL,
+    heart_rate_sum   BIGINT      NOT NULL,
+    heart_rate_min   INT         NOT NULL,
+    heart_rate_max   INT         NOT NULL,
+    oxygen_level_sum BIGINT      NOT NULL,
+    oxygen_level_min INT         NOT NULL,
+    oxygen_level_max INT         NOT NULL,
+    temperature_sum  DOUBLE      NOT NULL,
+    temperature_min  DOUBLE      NOT NULL,
+    temperature_max  DOUBLE      NOT NULL,
+    CONSTRAINT uk_vital_sign_rollups_bucket UNIQUE (granularity, patient_id, bucket_start)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_vital_sign_rollups_granularity_start ON vital_sign_rollups (granularity, bucket_start);
+
+CREATE TABLE vital_sign_rollups_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO vital_sign_rollups_seq (next_val) VALUES (1);
+
+CREATE TABLE vital_sign_rollup_watermarks (
+    granularity   VARCHAR(10) NOT NULL PRIMARY KEY,
+    rolled_up_to  DATETIME(6) NOT NULL
+) ENGINE = InnoDB;
@@ -0,0 +1,7 @@
+-- Fin del episodio de una alerta del motor; null mientras sigue activa.
+-- Las alertas anteriores al motor no tienen episodio: se cierran en su creación para que el motor
+-- no las tome como activas al reconstruir el estado de un paciente.
+
+ALTER TABLE alerts ADD COLUMN resolved_at DATETIME(6) NULL;
+
+UPDATE alerts SET resolved_at = created_at WHERE resolved_at IS NULL;
@@ -0,0 +1,34 @@
+-- Reglas de umbrales por paciente, cohorte o globales, y cohortes de pacientes.
+-- scope (patient:<id> | cohort:<nombre> | global) lleva la unicidad por alcance: en un índice
+-- único, los NULL de patient_id / cohort no chocan entre sí.
+
+CREATE TABLE alert_threshold_rules (
+    id          BIGINT      NOT NULL PRIMARY KEY,
+    vital       VARCHAR(20) NOT NULL,
+    severity    VARCHAR(10) NOT NULL,
+    patient_id  BIGINT      NULL,
+    cohort      VARCHAR(50) NULL,
+    scope       VARCHAR(64) NOT NULL,
+    low_enter   DOUBLE      NULL,
+    low_exit    DOUBLE      NULL,
+    high_enter  DOUBLE      NULL,
+    high_exit   DOUBLE      NULL,
+    updated_at  DATETIME(6) NOT NULL,
+    CONSTRAINT uk_alert_threshold_rules_scope UNIQUE (vital, severity, scope)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_alert_threshold_rules_patient ON alert_threshold_rules (patient_id);
+CREATE INDEX idx_alert_threshold_rules_cohort ON alert_threshold_rules (cohort);
+
+CREATE TABLE alert_threshold_rules_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO alert_threshold_rules_seq (next_val) VALUES (1);
+
+CREATE TABLE patient_cohorts (
+    patient_id  BIGINT      NOT NULL PRIMARY KEY,
+    cohort      VARCHAR(50) NOT NULL
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_patient_cohorts_cohort ON patient_cohorts (cohort);
@@ -0,0 +1,8 @@
+-- Alertas del motor: sin texto (el mensaje se arma localizado al exponerlas) y con el valor medido.
+-- Sin estos cambios, cada INSERT de una alerta del motor falla por message NOT NULL.
+
+ALTER TABLE alerts MODIFY message VARCHAR(255) NULL;
+ALTER TABLE alerts ADD COLUMN measured_value DOUBLE NULL;
+
+CREATE INDEX idx_alerts_type_created ON alerts (type, created_at);
+CREATE INDEX idx_alerts_type_value ON alerts (type, measured_value);
@@ -0,0 +1,50 @@
+-- vital_sign_records: una partición por mes de timestamp, para que la retención de lecturas crudas descarte
+-- meses enteros (TRUNCATE ... WITH (PARTITIONS)) en lugar de borrar filas. Ver docs/database.md.
+-- La función es RANGE RIGHT con un límite por mes: cada límite abre su mes. La partición anterior al primer límite
+-- queda vacía, y la posterior al último la mantiene vacía el job de rollups creando los meses por adelantado.
+-- Límites desde el mes de la lectura más antigua hasta dos meses después del actual.
+-- La PK agrupada pasa a (id, timestamp) sobre el esquema de partición, y los índices se alinean con él
+-- (TRUNCATE por partición lo exige). id sigue siendo único: lo asigna la secuencia.
+-- Reescribe la tabla: ejecutar con la ingesta detenida.
+
+SET XACT_ABORT ON;
+
+DECLARE @oldest DATETIME2(6) = COALESCE((SELECT MIN([timestamp]) FROM vital_sign_records), SYSDATETIME());
+DECLARE @month DATE = DATEFROMPARTS(YEAR(@oldest), MONTH(@oldest), 1);
+DECLARE @last DATE = DATEADD(MONTH, 2, DATEFROMPARTS(YEAR(SYSDATETIME()), MONTH(SYSDATETIME()), 1));
+DECLARE @values NVARCHAR(MAX) = N'';
+
+WHILE @month <= @last
+BEGIN
+    SET @values += CASE WHEN @values = N'' THEN N'' ELSE N', ' END
+            + N'''' + CONVERT(NCHAR(10), @month, 23) + N'''';
+    SET @month = DATEADD(MONTH, 1, @month);
+END;
+
+-- FOR VALUES solo acepta constantes: se arma la sentencia con los límites calculados
+DECLARE @sql NVARCHAR(MAX) = N'CREATE PARTITION FUNCTION pf_vital_sign_records_month (DATETIME2(6)) '
+        + N'AS RANGE RIGHT FOR VALUES (' + @values + N')';
+EXEC sp_executesql @sql;
+GO
+
+CREATE PARTITION SCHEME ps_vital_sign_records_month
+    AS PARTITION pf_vital_sign_records_month ALL TO ([PRIMARY]);
+GO
+
+-- La PK de V1 no tiene nombre fijo
+DECLARE @pk SYSNAME = (SELECT name FROM sys.key_constraints
+                       WHERE parent_object_id = OBJECT_ID('vital_sign_records') AND type = 'PK');
+DECLARE @sql NVARCHAR(400) = N'ALTER TABLE vital_sign_records DROP CONSTRAINT ' + QUOTENAME(@pk);
+EXEC sp_executesql @sql;
+GO
+
+ALTER TABLE vital_sign_records
+    ADD CONSTRAINT pk_vital_sign_records PRIMARY KEY CLUSTERED (id, [timestamp])
+    ON ps_vital_sign_records_month ([timestamp]);
+
+CREATE INDEX idx_vital_sign_records_ts ON vital_sign_records ([timestamp] DESC, id DESC)
+    WITH (DROP_EXISTING = ON) ON ps_vital_sign_records_month ([timestamp]);
+
+CREATE INDEX idx_vital_sign_records_patient_ts ON vital_sign_records (patient_id, [timestamp] DESC, id DESC)
+    WITH (DROP_EXISTING = ON) ON ps_vital_sign_records_month ([timestamp]);
+GO
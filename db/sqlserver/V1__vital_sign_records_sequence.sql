@@ -0,0 +1,34 @@
+-- vital_sign_records: ids por secuencia pooled (allocationSize = 50) en lugar de IDENTITY.
+-- Hibernate envía el id explícito, y SQL Server lo rechaza en una columna IDENTITY. ALTER COLUMN no puede
+-- quitar IDENTITY, así que se copia la tabla a una sin IDENTITY y se reemplaza.
+-- Con el optimizador pooled, un NEXT VALUE = N reserva los ids N-49..N, así que la secuencia debe
+-- empezar con el bloque entero por encima del id más alto: MAX(id) + 1 + 50.
+-- Ejecutar con la ingesta detenida.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+CREATE TABLE vital_sign_records_new (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    patient_id   BIGINT       NOT NULL,
+    device_id    BIGINT       NOT NULL,
+    heart_rate   INT          NOT NULL,
+    oxygen_level INT          NOT NULL,
+    temperature  FLOAT(53)    NOT NULL,
+    [timestamp]  DATETIME2(6) NOT NULL
+);
+
+INSERT INTO vital_sign_records_new (id, patient_id, device_id, heart_rate, oxygen_level, temperature, [timestamp])
+SELECT id, patient_id, device_id, heart_rate, oxygen_level, temperature, [timestamp]
+FROM vital_sign_records WITH (TABLOCKX);
+
+DROP TABLE vital_sign_records;
+EXEC sp_rename 'vital_sign_records_new', 'vital_sign_records';
+
+-- START WITH solo acepta una constante: se arma la sentencia con el valor calculado
+DECLARE @sql NVARCHAR(200) = N'CREATE SEQUENCE vital_sign_records_seq AS BIGINT START WITH '
+        + CAST((SELECT COALESCE(MAX(id), 0) + 51 FROM vital_sign_records) AS NVARCHAR(20))
+        + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+COMMIT;
@@ -0,0 +1,30 @@
+-- alerts: ids por secuencia pooled (allocationSize = 50) en lugar de IDENTITY.
+-- Como en V1, la tabla se copia a una sin IDENTITY y la secuencia empieza en MAX(id) + 1 + 50
+-- (ver docs/database.md). Ejecutar con el servicio detenido.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+CREATE TABLE alerts_new (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    patient_id BIGINT       NOT NULL,
+    device_id  BIGINT       NOT NULL,
+    severity   VARCHAR(255) NOT NULL,
+    message    VARCHAR(255) NOT NULL,
+    created_at DATETIME2(6) NOT NULL,
+    type       VARCHAR(255) NULL
+);
+
+INSERT INTO alerts_new (id, patient_id, device_id, severity, message, created_at, type)
+SELECT id, patient_id, device_id, severity, message, created_at, type
+FROM alerts WITH (TABLOCKX);
+
+DROP TABLE alerts;
+EXEC sp_rename 'alerts_new', 'alerts';
+
+DECLARE @sql NVARCHAR(200) = N'CREATE SEQUENCE alerts_seq AS BIGINT START WITH '
+        + CAST((SELECT COALESCE(MAX(id), 0) + 51 FROM alerts) AS NVARCHAR(20))
+        + N' INCREMENT BY 50';
+EXEC sp_executesql @sql;
+
+COMMIT;
@@ -0,0 +1,4 @@
+-- Historial por paciente con paginación keyset sobre (timestamp, id).
+
+CREATE INDEX idx_vital_sign_records_patient_ts
+    ON vital_sign_records (patient_id, [timestamp] DESC, id DESC);
@@ -0,0 +1,5 @@
+-- Filtros, orden y paginación de alertas resueltos en la BD.
+
+CREATE INDEX idx_alerts_patient_created ON alerts (patient_id, created_at);
+CREATE INDEX idx_alerts_severity_created ON alerts (severity, created_at);
+CREATE INDEX idx_alerts_created ON alerts (created_at);
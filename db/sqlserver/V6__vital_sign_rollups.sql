@@ -0,0 +1,28 @@
+-- Rollups por minuto y por hora, y sus marcas de agua.
+
+CREATE TABLE vital_sign_rollups (
+    id               BIGINT       NOT NULL PRIMARY KEY,
+    granularity      VARCHAR(10)  NOT NULL,
+    patient_id       BIGINT       NOT NULL,
+    bucket_start     DATETIME2(6) NOT NULL,
+    sample_count     INT          NOT NULL,
+    heart_rate_sum   BIGINT       NOT NULL,
+    heart_rate_min   INT          NOT NULL,
+    heart_rate_max   INT          NOT NULL,
+    oxygen_level_sum BIGINT       NOT NULL,
+    oxygen_level_min INT          NOT NULL,
+    oxygen_level_max INT          NOT NULL,
+    temperature_sum  FLOAT(53)    NOT NULL,
+    temperature_min  FLOAT(53)    NOT NULL,
+    temperature_max  FLOAT(53)    NOT NULL,
+    CONSTRAINT uk_vital_sign_rollups_bucket UNIQUE (granularity, patient_id, bucket_start)
+);
+
+CREATE INDEX idx_vital_sign_rollups_granularity_start ON vital_sign_rollups (granularity, bucket_start);
+
+CREATE SEQUENCE vital_sign_rollups_seq AS BIGINT START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE vital_sign_rollup_watermarks (
+    granularity   VARCHAR(10)  NOT NULL PRIMARY KEY,
+    rolled_up_to  DATETIME2(6) NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Fin del episodio de una alerta del motor; null mientras sigue activa.
+-- Las alertas anteriores al motor no tienen episodio: se cierran en su creación para que el motor
+-- no las tome como activas al reconstruir el estado de un paciente.
+
+ALTER TABLE alerts ADD resolved_at DATETIME2(6) NULL;
+GO
+
+UPDATE alerts SET resolved_at = created_at WHERE resolved_at IS NULL;
+GO
@@ -0,0 +1,30 @@
+-- Reglas de umbrales por paciente, cohorte o globales, y cohortes de pacientes.
+-- scope (patient:<id> | cohort:<nombre> | global) lleva la unicidad por alcance. Es la misma restricción
+-- que en MySQL, donde los NULL de patient_id / cohort no chocarían en un índice único.
+
+CREATE TABLE alert_threshold_rules (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    vital       VARCHAR(20)  NOT NULL,
+    severity    VARCHAR(10)  NOT NULL,
+    patient_id  BIGINT       NULL,
+    cohort      VARCHAR(50)  NULL,
+    scope       VARCHAR(64)  NOT NULL,
+    low_enter   FLOAT(53)    NULL,
+    low_exit    FLOAT(53)    NULL,
+    high_enter  FLOAT(53)    NULL,
+    high_exit   FLOAT(53)    NULL,
+    updated_at  DATETIME2(6) NOT NULL,
+    CONSTRAINT uk_alert_threshold_rules_scope UNIQUE (vital, severity, scope)
+);
+
+CREATE INDEX idx_alert_threshold_rules_patient ON alert_threshold_rules (patient_id);
+CREATE INDEX idx_alert_threshold_rules_cohort ON alert_threshold_rules (cohort);
+
+CREATE SEQUENCE alert_threshold_rules_seq AS BIGINT START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE patient_cohorts (
+    patient_id  BIGINT      NOT NULL PRIMARY KEY,
+    cohort      VARCHAR(50) NOT NULL
+);
+
+CREATE INDEX idx_patient_cohorts_cohort ON patient_cohorts (cohort);
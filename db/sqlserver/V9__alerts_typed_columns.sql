@@ -0,0 +1,11 @@
+-- Alertas del motor: sin texto (el mensaje se arma localizado al exponerlas) y con el valor medido.
+-- Sin estos cambios, cada INSERT de una alerta del motor falla por message NOT NULL.
+-- GO separa los lotes: un lote no puede indexar una columna que agrega él mismo.
+
+ALTER TABLE alerts ALTER COLUMN message VARCHAR(255) NULL;
+ALTER TABLE alerts ADD measured_value FLOAT(53) NULL;
+GO
+
+CREATE INDEX idx_alerts_type_created ON alerts (type, created_at);
+CREATE INDEX idx_alerts_type_value ON alerts (type, measured_value);
+GO
@@ -0,0 +1,130 @@
+package com.upc.tukuntechmsmonitoring.benchmarks;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertEngineProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertStateMachine;
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.ThresholdRuleRegistry;
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.TrendDetectionProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Costo de la evaluación de alertas por medición en la máquina de estados (umbrales con histéresis,
+ * debounce y tendencias) y del armado localizado del mensaje al exponer una alerta.
+ * Reemplazan a los antiguos generateAlertIfNeeded e inferTypeFromMessage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlertingBenchmark {
+
+    private static final int PATIENTS = 1024;
+    /** Seis lecturas fuera de rango y seis normales: abre y cierra un episodio por ciclo. */
+    private static final int EPISODE = 12;
+    private static final int ABNORMAL = EPISODE / 2;
+    private static final LongFunction<List<Alert>> NO_OPEN_ALERTS = id -> List.of();
+
+    private AlertStateMachine stateMachine;
+    private AlertStateMachine episodeStateMachine;
+    private AlertMapper alertMapper;
+    private VitalSignRecord[] normal;
+    private Alert[] alerts;
+    private final List<Alert> opened = new ArrayList<>();
+    private final List<Alert> resolved = new ArrayList<>();
+    private int next;
+    private long reading;
+
+    @Setup
+    public void setUp() {
+        AlertEngineProperties engine = new AlertEngineProperties(null, null, null, null, null, null, null, null);
+        TrendDetectionProperties trends = new TrendDetectionProperties(null, null, null, null, null, null, null, null);
+        // Sin repositorios ni scheduler: el registro sirve los umbrales por defecto de la configuración
+        ThresholdRuleRegistry rules = new ThresholdRuleRegistry(null, null, null, engine);
+        stateMachine = new AlertStateMachine(engine, rules, trends);
+        // Sin ventana de deduplicación, para que cada ciclo vuelva a abrir sus alertas
+        AlertEngineProperties noDedup = new AlertEngineProperties(null, null, Duration.ZERO, null, null, null, null, null);
+        episodeStateMachine = new AlertStateMachine(noDedup, new ThresholdRuleRegistry(null, null, null, noDedup), trends);
+
+        ResourceBundleMessageSource messages = new ResourceBundleMessageSource();
+        messages.setBasename("messages");
+        messages.setDefaultEncoding("UTF-8");
+        messages.setFallbackToSystemLocale(false);
+        alertMapper = new AlertMapper(messages);
+
+        normal = new VitalSignRecord[PATIENTS];
+        alerts = new Alert[PATIENTS];
+        for (int p = 0; p < PATIENTS; p++) {
+            normal[p] = reading(p, 72 + p % 10, 97, 36.6);
+            AlertType type = AlertType.values()[p % 3];
+            alerts[p] = Alert.create((long) p, 1000L + p, LocalDateTime.now(), AlertSeverity.CRITICAL, type, 130 + p % 10);
+        }
+    }
+
+    private static VitalSignRecord reading(long patientId, int hr, int spo2, double temp) {
+        return VitalSignRecord.create(patientId, 1000L + patientId,
+                new HeartRate(hr), new OxygenLevel(spo2), new Temperature(temp));
+    }
+
+    /** Medición normal de un paciente sin alertas: el caso más frecuente. */
+    @Benchmark
+    public void evaluateNormal(Blackhole bh) {
+        next = (next + 1) & (PATIENTS - 1);
+        stateMachine.evaluate(normal[next], NO_OPEN_ALERTS, opened, resolved);
+        drain(bh);
+    }
+
+    /**
+     * Mediciones que abren y resuelven episodios en los tres signos. La medición se crea aquí porque la
+     * máquina de estados ignora lecturas más antiguas que la última del paciente: restar {@code createRecord}
+     * de {@link IngestBenchmark} para obtener solo la evaluación.
+     */
+    @Benchmark
+    public void evaluateEpisodes(Blackhole bh) {
+        long n = reading++;
+        long patientId = PATIENTS + (n & (PATIENTS - 1));
+        VitalSignRecord record = (n / PATIENTS) % EPISODE < ABNORMAL
+                ? reading(patientId, 130, 88, 38.6)
+                : reading(patientId, 80, 97, 36.8);
+        episodeStateMachine.evaluate(record, NO_OPEN_ALERTS, opened, resolved);
+        drain(bh);
+    }
+
+    @Benchmark
+    public AlertResponse mapAlertDefaultLocale() {
+        LocaleContextHolder.setLocale(null);
+        return alertMapper.toResponse(alerts[next = (next + 1) & (PATIENTS - 1)]);
+    }
+
+    @Benchmark
+    public AlertResponse mapAlertEnglish() {
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        return alertMapper.toResponse(alerts[next = (next + 1) & (PATIENTS - 1)]);
+    }
+
+    private void drain(Blackhole bh) {
+        bh.consume(opened.size() + resolved.size());
+        opened.clear();
+        resolved.clear();
+    }
+}
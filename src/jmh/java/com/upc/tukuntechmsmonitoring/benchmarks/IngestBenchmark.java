@@ -0,0 +1,68 @@
+package com.upc.tukuntechmsmonitoring.benchmarks;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.VitalSignMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.EarlyWarningScore;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por medición en la ingesta: creación del agregado con sus value objects (validación incluida),
+ * mapeo a DTO y puntaje de alerta temprana.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IngestBenchmark {
+
+    private static final int READINGS = 1024;
+
+    private final VitalSignMapper mapper = new VitalSignMapper();
+    private final int[] heartRates = new int[READINGS];
+    private final int[] oxygenLevels = new int[READINGS];
+    private final double[] temperatures = new double[READINGS];
+    private VitalSignRecord[] records;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        records = new VitalSignRecord[READINGS];
+        for (int i = 0; i < READINGS; i++) {
+            heartRates[i] = 45 + i % 90;
+            oxygenLevels[i] = 85 + i % 15;
+            temperatures[i] = 35.0 + (i % 40) / 10.0;
+            records[i] = VitalSignRecord.create((long) i, 1000L + i,
+                    new HeartRate(heartRates[i]), new OxygenLevel(oxygenLevels[i]), new Temperature(temperatures[i]));
+        }
+    }
+
+    private int nextIndex() {
+        return next = (next + 1) & (READINGS - 1);
+    }
+
+    @Benchmark
+    public VitalSignRecord createRecord() {
+        int i = nextIndex();
+        return VitalSignRecord.create((long) i, 1000L + i,
+                new HeartRate(heartRates[i]), new OxygenLevel(oxygenLevels[i]), new Temperature(temperatures[i]));
+    }
+
+    @Benchmark
+    public VitalSignResponse mapRecord() {
+        return mapper.toResponse(records[nextIndex()]);
+    }
+
+    @Benchmark
+    public EarlyWarningScore earlyWarningScore() {
+        int i = nextIndex();
+        return EarlyWarningScore.of(heartRates[i], oxygenLevels[i], temperatures[i]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.upc.tukuntechmsmonitoring.benchmarks;
+
+import com.upc.tukuntechmsmonitoring.shared.security.JwtProperties;
+import com.upc.tukuntechmsmonitoring.shared.security.JwtService;
+import com.upc.tukuntechmsmonitoring.shared.security.UserPrincipal;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de autenticar una petición: verificación completa del token (firma HMAC, claims)
+ * frente a un token ya verificado servido desde la caché.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String ISSUER = "tukuntech-iam";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        String secret = Base64.getEncoder().encodeToString(key);
+        uncached = new JwtService(new JwtProperties(secret, ISSUER, 0));
+        cached = new JwtService(new JwtProperties(secret, ISSUER, 10_000));
+        token = Jwts.builder()
+                .setSubject("caregiver@tukuntech.com")
+                .setIssuer(ISSUER)
+                .claim("uid", 42)
+                .claim("roles", List.of("CAREGIVER"))
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .compact();
+    }
+
+    @Benchmark
+    public UserPrincipal parseVerify() {
+        return uncached.parse(token);
+    }
+
+    @Benchmark
+    public UserPrincipal parseCached() {
+        return cached.parse(token);
+    }
+}
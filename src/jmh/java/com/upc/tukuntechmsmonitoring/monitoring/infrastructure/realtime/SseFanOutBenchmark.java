@@ -0,0 +1,85 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Costo de publicar a N suscriptores del mismo paciente: asignar id, registrar para reproducción
+ * y encolar en cada buffer (las mediciones se coalescen si el writer aún no envió la anterior).
+ * Los emitters descartan lo enviado, así que se mide el servicio y no el socket.
+ * Está en el paquete del servicio para registrar esos emitters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SseFanOutBenchmark {
+
+    private static final long PATIENT_ID = 7L;
+
+    /** Emitter que solo cuenta los envíos. */
+    static final class DiscardingEmitter extends SseEmitter {
+        static final LongAdder SENT = new LongAdder();
+
+        DiscardingEmitter() {
+            super(0L);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build();
+            SENT.increment();
+        }
+    }
+
+    @Param({"10", "100", "1000"})
+    public int subscribers;
+
+    private SseEmitterService service;
+    private VitalSignRecord record;
+    private AlertResponse alert;
+
+    @Setup
+    public void setUp() {
+        service = new SseEmitterService(new SseProperties(null, null, null, null, null, null), null, new SimpleMeterRegistry(),
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+        for (int i = 0; i < subscribers; i++) {
+            service.subscribe((long) i, Set.of(PATIENT_ID), false, null, Locale.ENGLISH, new DiscardingEmitter());
+        }
+        record = VitalSignRecord.create(PATIENT_ID, 1L, new HeartRate(80), new OxygenLevel(97), new Temperature(36.7));
+        alert = new AlertResponse(1L, PATIENT_ID, 1L, AlertType.HEART_RATE, AlertSeverity.CRITICAL, 135.0,
+                "Frecuencia cardíaca crítica", LocalDateTime.now(), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public void emitVitalSign() {
+        service.emitVitalSign(record);
+    }
+
+    @Benchmark
+    public void emitAlert() {
+        service.emitAlert(PATIENT_ID, locale -> alert);
+    }
+}
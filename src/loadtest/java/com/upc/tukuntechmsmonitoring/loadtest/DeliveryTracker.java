@@ -0,0 +1,81 @@
+package com.upc.tukuntechmsmonitoring.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide la latencia de punta a punta de cada medición: desde que el dispositivo la envía
+ * hasta que cada suscriptor SSE que observa al paciente recibe su {@code vital-sign-update}.
+ * El evento puede llegar antes que la respuesta del POST (se publica tras el commit), así que
+ * ambos lados se encuentran por id de medición, en el orden que sea.
+ */
+final class DeliveryTracker {
+
+    private static final class Pending {
+        long sentNanos = -1;
+        int expected;
+        int received;
+        long[] early = new long[0];
+    }
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder expected = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+
+    /**
+     * La medición fue aceptada por el servicio.
+     *
+     * @param sentNanos {@link System#nanoTime()} al enviarla
+     * @param watchers  suscriptores que deberían recibirla
+     */
+    void accepted(long measurementId, long sentNanos, int watchers) {
+        if (watchers == 0) return;
+        expected.add(watchers);
+        pending.compute(measurementId, (id, p) -> {
+            if (p == null) p = new Pending();
+            p.sentNanos = sentNanos;
+            p.expected = watchers;
+            for (long receivedNanos : p.early) record(p, receivedNanos);
+            p.early = null;
+            return p.received >= p.expected ? null : p;
+        });
+    }
+
+    /** Un suscriptor recibió la medición. */
+    void delivered(long measurementId, long receivedNanos) {
+        pending.compute(measurementId, (id, p) -> {
+            if (p == null) p = new Pending();
+            if (p.sentNanos < 0) {
+                p.early = Arrays.copyOf(p.early, p.early.length + 1);
+                p.early[p.early.length - 1] = receivedNanos;
+                return p;
+            }
+            record(p, receivedNanos);
+            return p.received >= p.expected ? null : p;
+        });
+    }
+
+    private void record(Pending p, long receivedNanos) {
+        p.received++;
+        delivered.increment();
+        latency.recordValue(Math.max(0, (receivedNanos - p.sentNanos) / 1_000));
+    }
+
+    /** Latencias (µs) registradas desde la llamada anterior. */
+    Histogram intervalLatency() {
+        return latency.getIntervalHistogram();
+    }
+
+    long expected() {
+        return expected.sum();
+    }
+
+    long delivered() {
+        return delivered.sum();
+    }
+}
@@ -0,0 +1,178 @@
+package com.upc.tukuntechmsmonitoring.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flota de dispositivos sintéticos que publican en {@code POST /monitoring/measurements}.
+ * La carga es de lazo abierto: cada dispositivo tiene una agenda fija de envíos y la latencia se mide
+ * desde el instante agendado, no desde el envío real. Si el servicio se atrasa, la espera acumulada
+ * aparece en los percentiles en lugar de reducir en silencio la carga ofrecida.
+ */
+final class DeviceFleet {
+
+    /** Ids de dispositivo: el dispositivo del paciente {@code p} es {@code DEVICE_ID_BASE + p}. */
+    static final long DEVICE_ID_BASE = 10_000;
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final TestTokens tokens;
+    private final LoadTestOptions options;
+    private final DeliveryTracker deliveries;
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder abnormal = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    DeviceFleet(HttpClient client, URI baseUrl, TestTokens tokens, LoadTestOptions options, DeliveryTracker deliveries) {
+        this.client = client;
+        this.endpoint = baseUrl.resolve("/monitoring/measurements");
+        this.tokens = tokens;
+        this.options = options;
+        this.deliveries = deliveries;
+    }
+
+    /**
+     * Arranca todos los dispositivos y bloquea hasta {@code endNanos}.
+     * Cada dispositivo empieza en un desfase aleatorio dentro de su intervalo para no enviar todos a la vez.
+     */
+    void run(long startNanos, long endNanos) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        SplittableRandom seeds = new SplittableRandom(42);
+        try (ExecutorService devices = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int d = 1; d <= options.devices(); d++) {
+                Device device = new Device(d, seeds.split());
+                long first = startNanos + seeds.nextLong(intervalNanos);
+                devices.execute(() -> device.run(first, intervalNanos, endNanos));
+            }
+            // close() espera a que cada dispositivo termine su último envío
+        }
+    }
+
+    /** Latencias de ingesta (µs) registradas desde la llamada anterior. */
+    Histogram intervalLatency() {
+        return latency.getIntervalHistogram();
+    }
+
+    long sent() { return sent.sum(); }
+
+    long accepted() { return accepted.sum(); }
+
+    long abnormal() { return abnormal.sum(); }
+
+    /** Fallos por código HTTP o tipo de excepción, ordenados. */
+    Map<String, Long> failures() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        failures.forEach((reason, count) -> snapshot.put(reason, count.sum()));
+        return snapshot;
+    }
+
+    private final class Device {
+        private final long patientId;
+        private final long deviceId;
+        private final String authorization;
+        private final int watchers;
+        private final SplittableRandom random;
+        /** Lecturas anormales que quedan del episodio en curso, y qué signo afecta (0 FC, 1 SpO2, 2 temperatura). */
+        private int episodeLeft;
+        private int episodeVital;
+
+        Device(long patientId, SplittableRandom random) {
+            this.patientId = patientId;
+            this.deviceId = DEVICE_ID_BASE + patientId;
+            this.authorization = "Bearer " + tokens.patient(patientId);
+            this.watchers = options.watchersOf(patientId);
+            this.random = random;
+        }
+
+        void run(long firstNanos, long intervalNanos, long endNanos) {
+            for (long scheduled = firstNanos; scheduled < endNanos; scheduled += intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+                if (Thread.currentThread().isInterrupted()) return;
+                send(scheduled);
+            }
+        }
+
+        private void send(long scheduledNanos) {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(nextReading()))
+                    .build();
+            sent.increment();
+            long sentNanos = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                latency.recordValue((System.nanoTime() - scheduledNanos) / 1_000);
+                if (response.statusCode() != 201) {
+                    fail("HTTP " + response.statusCode());
+                    return;
+                }
+                accepted.increment();
+                long id = json.readTree(response.body()).path("id").asLong();
+                deliveries.accepted(id, sentNanos, watchers);
+            } catch (IOException e) {
+                latency.recordValue((System.nanoTime() - scheduledNanos) / 1_000);
+                fail(e.getClass().getSimpleName());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Lectura normal o parte de un episodio anormal. Los episodios empiezan con la probabilidad que,
+         * a la larga, deja la fracción pedida de lecturas anormales.
+         */
+        private String nextReading() {
+            if (episodeLeft == 0) {
+                double ratio = options.abnormalRatio();
+                double start = ratio / (options.episodeLength() * (1 - ratio));
+                if (ratio > 0 && random.nextDouble() < start) {
+                    episodeLeft = options.episodeLength();
+                    episodeVital = random.nextInt(3);
+                }
+            }
+            boolean abnormalReading = episodeLeft > 0;
+            if (abnormalReading) {
+                episodeLeft--;
+                abnormal.increment();
+            }
+
+            int heartRate = abnormalReading && episodeVital == 0 ? random.nextInt(125, 141) : random.nextInt(60, 96);
+            int oxygen = abnormalReading && episodeVital == 1 ? random.nextInt(84, 89) : random.nextInt(95, 100);
+            double temperature = abnormalReading && episodeVital == 2
+                    ? 38.5 + random.nextInt(11) / 10.0
+                    : 36.2 + random.nextInt(11) / 10.0;
+            return String.format(Locale.ROOT,
+                    "{\"patientId\":%d,\"deviceId\":%d,\"heartRate\":%d,\"oxygenLevel\":%d,\"temperature\":%.1f}",
+                    patientId, deviceId, heartRate, oxygen, temperature);
+        }
+    }
+
+    private void fail(String reason) {
+        failures.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,163 @@
+package com.upc.tukuntechmsmonitoring.loadtest;
+
+import com.upc.tukuntechmsmonitoring.TukuntechMsMonitoringApplication;
+import com.upc.tukuntechmsmonitoring.shared.security.JwtProperties;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga de punta a punta. Levanta el servicio contra H2 en memoria (perfil {@code embedded-db})
+ * o apunta a una instancia existente, conecta los suscriptores SSE, hace publicar a la flota de dispositivos
+ * y reporta throughput de ingesta, percentiles de latencia y latencia de entrega ingesta → SSE.
+ * Ver docs/load-testing.md
+ */
+public final class LoadTestHarness {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+    /** Espera tras el último envío para recibir los eventos SSE que aún estaban en camino. */
+    private static final Duration DRAIN = Duration.ofSeconds(2);
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        ConfigurableApplicationContext app = null;
+        try {
+            URI baseUrl;
+            JwtProperties jwt;
+            if (options.target() == null) {
+                app = startEmbedded(options);
+                baseUrl = URI.create("http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort());
+                jwt = app.getBean(JwtProperties.class);
+            } else {
+                baseUrl = options.target();
+                jwt = new JwtProperties(options.jwtSecret(), options.jwtIssuer(), null);
+            }
+            run(options, baseUrl, jwt);
+        } finally {
+            if (app != null) app.close();
+        }
+        System.exit(0);
+    }
+
+    /** Levanta el servicio en este proceso, con un secreto JWT nuevo por corrida. */
+    private static ConfigurableApplicationContext startEmbedded(LoadTestOptions options) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        // devtools está en el classpath: su reinicio volvería a invocar el main del harness
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(TukuntechMsMonitoringApplication.class)
+                .profiles("embedded-db")
+                // Se desactiva por argumento: el import del config server se resuelve antes de leer el perfil
+                .run("--spring.cloud.config.enabled=false",
+                        "--server.port=" + options.port(),
+                        "--app.security.jwt.secret=" + Base64.getEncoder().encodeToString(secret));
+    }
+
+    private static void run(LoadTestOptions options, URI baseUrl, JwtProperties jwt) throws InterruptedException {
+        TestTokens tokens = new TestTokens(jwt, options.warmup().plus(options.duration()).plusMinutes(10));
+        DeliveryTracker deliveries = new DeliveryTracker();
+
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             SseSubscribers subscribers = new SseSubscribers(client, baseUrl, tokens, options, deliveries)) {
+
+            int connected = subscribers.connect(CONNECT_TIMEOUT);
+            System.out.printf("Suscriptores SSE conectados: %d de %d%n", connected, options.subscribers());
+
+            DeviceFleet fleet = new DeviceFleet(client, baseUrl, tokens, options, deliveries);
+            long start = System.nanoTime();
+            long measureStart = start + options.warmup().toNanos();
+            long end = measureStart + options.duration().toNanos();
+
+            // Al terminar el warmup se descartan sus latencias y se toma la base de los contadores
+            long[] acceptedAtWarmup = new long[1];
+            Thread warmupEnd = Thread.ofVirtual().start(() -> {
+                LockSupport.parkNanos(measureStart - System.nanoTime());
+                fleet.intervalLatency();
+                deliveries.intervalLatency();
+                acceptedAtWarmup[0] = fleet.accepted();
+            });
+
+            System.out.printf("Warmup %ds, medición %ds...%n", options.warmup().toSeconds(), options.duration().toSeconds());
+            fleet.run(start, end);
+            long accepted = fleet.accepted();
+            long measuredNanos = System.nanoTime() - measureStart;
+            warmupEnd.join();
+            Histogram ingestLatency = fleet.intervalLatency();
+
+            Thread.sleep(DRAIN.toMillis());
+            Histogram deliveryLatency = deliveries.intervalLatency();
+
+            report(System.out, options, baseUrl, fleet, subscribers, deliveries,
+                    (accepted - acceptedAtWarmup[0]) / (measuredNanos / (double) TimeUnit.SECONDS.toNanos(1)),
+                    ingestLatency, deliveryLatency);
+        }
+    }
+
+    private static void report(PrintStream out, LoadTestOptions options, URI baseUrl, DeviceFleet fleet,
+                               SseSubscribers subscribers, DeliveryTracker deliveries, double throughput,
+                               Histogram ingestLatency, Histogram deliveryLatency) {
+        out.println();
+        out.println("== Prueba de carga ==");
+        out.printf("Servicio            %s%s%n", baseUrl, options.target() == null ? " (H2 en memoria)" : "");
+        out.printf(Locale.ROOT, "Carga ofrecida      %d dispositivos x %.2f/s = %.1f mediciones/s, %.0f%% anormales%n",
+                options.devices(), options.rate(), options.offeredRate(), options.abnormalRatio() * 100);
+        out.printf("Duración            warmup %ds, medición %ds%n",
+                options.warmup().toSeconds(), options.duration().toSeconds());
+        out.println();
+        out.println("Ingesta (POST /monitoring/measurements)");
+        out.printf("  enviadas          %d (%d anormales)%n", fleet.sent(), fleet.abnormal());
+        out.printf(Locale.ROOT, "  aceptadas         %d, %.1f/s durante la medición%n", fleet.accepted(), throughput);
+        out.printf("  fallidas          %s%n", fleet.failures().isEmpty() ? "0" : fleet.failures());
+        out.printf("  latencia (ms)     %s%n", percentiles(ingestLatency));
+        out.println();
+        out.println("SSE (GET /monitoring/stream/user/{userId})");
+        out.printf("  suscriptores      %d de %d conectados, %d desconectados por el servicio%n",
+                subscribers.connected(), options.subscribers(), subscribers.disconnected());
+        out.printf("  fallidos          %s%n", subscribers.failures().isEmpty() ? "0" : subscribers.failures());
+        out.printf("  eventos           %s%n", subscribers.events());
+        long expected = deliveries.expected();
+        out.printf("  entregas          %d de %d esperadas (el resto fue coalescido o descartado)%n",
+                deliveries.delivered(), expected);
+        out.printf("  ingesta->SSE (ms) %s%n", percentiles(deliveryLatency));
+    }
+
+    /** Percentiles de un histograma en µs, expresados en ms. */
+    private static String percentiles(Histogram h) {
+        if (h.getTotalCount() == 0) return "sin datos";
+        return String.format(Locale.ROOT, "p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f  (n=%d)",
+                h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0,
+                h.getTotalCount());
+    }
+}
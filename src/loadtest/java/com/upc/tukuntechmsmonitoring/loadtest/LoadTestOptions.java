@@ -0,0 +1,120 @@
+package com.upc.tukuntechmsmonitoring.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Parámetros de una corrida, como argumentos {@code --nombre=valor}.
+ *
+ * @param devices               dispositivos simulados; cada uno reporta por un paciente distinto
+ * @param rate                  mediciones por segundo de cada dispositivo
+ * @param abnormalRatio         fracción de mediciones fuera de rango (0..1)
+ * @param episodeLength         lecturas anormales seguidas por episodio, para que las alertas lleguen a abrirse
+ * @param subscribers           conexiones SSE de cuidadores
+ * @param patientsPerSubscriber pacientes que observa cada suscriptor
+ * @param warmup                tiempo inicial que no entra en las estadísticas
+ * @param duration              tiempo medido, después del warmup
+ * @param target                URL de una instancia ya levantada; null levanta el servicio con H2 en memoria
+ * @param port                  puerto del servicio levantado por el harness (0 = libre)
+ * @param jwtSecret             secreto de firma (solo con target; por defecto JWT_SECRET)
+ * @param jwtIssuer             emisor de los tokens (solo con target; por defecto JWT_ISSUER)
+ */
+record LoadTestOptions(
+        int devices,
+        double rate,
+        double abnormalRatio,
+        int episodeLength,
+        int subscribers,
+        int patientsPerSubscriber,
+        Duration warmup,
+        Duration duration,
+        URI target,
+        int port,
+        String jwtSecret,
+        String jwtIssuer
+) {
+
+    private static final Set<String> OPTIONS = Set.of(
+            "devices", "rate", "abnormal-ratio", "episode-length", "subscribers", "patients-per-subscriber",
+            "warmup", "duration", "target", "port", "jwt-secret", "jwt-issuer");
+
+    static final String USAGE = """
+            Opciones (--nombre=valor):
+              --devices=100                  dispositivos simulados (uno por paciente)
+              --rate=1                       mediciones por segundo por dispositivo
+              --abnormal-ratio=0.05          fracción de mediciones fuera de rango
+              --episode-length=5             lecturas anormales seguidas por episodio
+              --subscribers=50               suscriptores SSE (cuidadores)
+              --patients-per-subscriber=10   pacientes observados por suscriptor
+              --warmup=10s                   tiempo excluido de las estadísticas
+              --duration=60s                 tiempo medido
+              --target=http://host:8080      instancia existente (por defecto levanta una con H2)
+              --port=0                       puerto de la instancia levantada por el harness
+              --jwt-secret=... --jwt-issuer=...  solo con --target (por defecto JWT_SECRET / JWT_ISSUER)
+            """;
+
+    LoadTestOptions {
+        if (devices < 1) throw new IllegalArgumentException("--devices debe ser al menos 1");
+        if (rate <= 0) throw new IllegalArgumentException("--rate debe ser positivo");
+        if (abnormalRatio < 0 || abnormalRatio >= 1) throw new IllegalArgumentException("--abnormal-ratio debe estar en [0, 1)");
+        if (episodeLength < 1) throw new IllegalArgumentException("--episode-length debe ser al menos 1");
+        if (subscribers < 0) throw new IllegalArgumentException("--subscribers no puede ser negativo");
+        if (patientsPerSubscriber < 1) throw new IllegalArgumentException("--patients-per-subscriber debe ser al menos 1");
+        if (duration.isNegative() || duration.isZero()) throw new IllegalArgumentException("--duration debe ser positiva");
+        if (warmup.isNegative()) throw new IllegalArgumentException("--warmup no puede ser negativo");
+        if (target != null && (jwtSecret == null || jwtIssuer == null)) {
+            throw new IllegalArgumentException("Con --target se requieren --jwt-secret y --jwt-issuer (o JWT_SECRET / JWT_ISSUER)");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) throw new IllegalArgumentException("Argumento inválido: " + arg);
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Set<String> unknown = new TreeSet<>(values.keySet());
+        unknown.removeAll(OPTIONS);
+        if (!unknown.isEmpty()) throw new IllegalArgumentException("Opciones desconocidas: " + unknown);
+
+        String target = values.get("target");
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("devices", "100")),
+                Double.parseDouble(values.getOrDefault("rate", "1")),
+                Double.parseDouble(values.getOrDefault("abnormal-ratio", "0.05")),
+                Integer.parseInt(values.getOrDefault("episode-length", "5")),
+                Integer.parseInt(values.getOrDefault("subscribers", "50")),
+                Integer.parseInt(values.getOrDefault("patients-per-subscriber", "10")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                target == null ? null : URI.create(target),
+                Integer.parseInt(values.getOrDefault("port", "0")),
+                values.getOrDefault("jwt-secret", System.getenv("JWT_SECRET")),
+                values.getOrDefault("jwt-issuer", System.getenv("JWT_ISSUER"))
+        );
+    }
+
+    /** Mediciones esperadas por segundo en toda la flota. */
+    double offeredRate() {
+        return devices * rate;
+    }
+
+    /** Suscriptores que observan al paciente (el mismo reparto que usa {@link SseSubscribers}). */
+    int watchersOf(long patientId) {
+        if (subscribers == 0) return 0;
+        int watched = Math.min(patientsPerSubscriber, devices);
+        // Cada suscriptor observa un bloque contiguo (circular) de pacientes que empieza en s * watched
+        long covered = (long) subscribers * watched;
+        long full = covered / devices;
+        long index = patientId - 1;
+        return (int) (full + (index < covered % devices ? 1 : 0));
+    }
+}
@@ -0,0 +1,183 @@
+package com.upc.tukuntechmsmonitoring.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Cuidadores conectados a {@code GET /monitoring/stream/user/{userId}}, cada uno observando un bloque
+ * de pacientes. Cada conexión corre en su propio hilo virtual, lee el stream línea a línea
+ * y entrega cada {@code vital-sign-update} al {@link DeliveryTracker}.
+ */
+final class SseSubscribers implements AutoCloseable {
+
+    /** Ids de usuario de los cuidadores, fuera del rango de los pacientes. */
+    static final long CAREGIVER_ID_BASE = 1_000_000;
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final TestTokens tokens;
+    private final LoadTestOptions options;
+    private final DeliveryTracker deliveries;
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Stream<String>> streams = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger disconnected = new AtomicInteger();
+    private final Map<String, LongAdder> events = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private volatile boolean closing;
+
+    SseSubscribers(HttpClient client, URI baseUrl, TestTokens tokens, LoadTestOptions options, DeliveryTracker deliveries) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.tokens = tokens;
+        this.options = options;
+        this.deliveries = deliveries;
+    }
+
+    /**
+     * Abre todas las conexiones y espera a que el servicio las acepte (o a que fallen).
+     *
+     * @return conexiones abiertas
+     */
+    int connect(Duration timeout) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(options.subscribers());
+        int watched = Math.min(options.patientsPerSubscriber(), options.devices());
+        for (int s = 0; s < options.subscribers(); s++) {
+            long userId = CAREGIVER_ID_BASE + s;
+            // Bloque contiguo y circular de pacientes: ver LoadTestOptions.watchersOf
+            StringJoiner patientIds = new StringJoiner(",");
+            for (int t = 0; t < watched; t++) {
+                patientIds.add(Long.toString(((long) s * watched + t) % options.devices() + 1));
+            }
+            readers.execute(() -> read(userId, patientIds.toString(), ready));
+        }
+        ready.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return connected.get();
+    }
+
+    private void read(long userId, String patientIds, CountDownLatch ready) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        baseUrl.resolve("/monitoring/stream/user/" + userId + "?patientIds=" + patientIds))
+                .header("Authorization", "Bearer " + tokens.caregiver(userId))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        boolean open = false;
+        try {
+            HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() != 200) {
+                response.body().close();
+                fail("HTTP " + response.statusCode());
+                return;
+            }
+            streams.add(response.body());
+            connected.incrementAndGet();
+            open = true;
+            ready.countDown();
+
+            EventParser parser = new EventParser();
+            response.body().forEach(parser::line);
+        } catch (IOException | UncheckedIOException e) {
+            if (!closing) fail(e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!open) ready.countDown();
+            else if (!closing) disconnected.incrementAndGet();
+        }
+    }
+
+    /** Arma eventos SSE a partir de sus líneas {@code field: value}; una línea vacía cierra el evento. */
+    private final class EventParser {
+        private String name = "message";
+        private final StringBuilder data = new StringBuilder();
+
+        void line(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+                return;
+            }
+            if (line.startsWith(":")) return; // comentario (keep-alive)
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) value = value.substring(1);
+            switch (field) {
+                case "event" -> name = value;
+                case "data" -> {
+                    if (!data.isEmpty()) data.append('\n');
+                    data.append(value);
+                }
+                default -> { }
+            }
+        }
+
+        private void dispatch() {
+            long receivedNanos = System.nanoTime();
+            if (!data.isEmpty()) {
+                events.computeIfAbsent(name, k -> new LongAdder()).increment();
+                if ("vital-sign-update".equals(name)) {
+                    try {
+                        deliveries.delivered(json.readTree(data.toString()).path("id").asLong(), receivedNanos);
+                    } catch (IOException e) {
+                        fail("evento inválido");
+                    }
+                }
+            }
+            name = "message";
+            data.setLength(0);
+        }
+    }
+
+    int connected() { return connected.get(); }
+
+    /** Conexiones que el servicio cerró durante la corrida. */
+    int disconnected() { return disconnected.get(); }
+
+    /** Eventos recibidos por nombre, ordenados. */
+    Map<String, Long> events() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        events.forEach((name, count) -> snapshot.put(name, count.sum()));
+        return snapshot;
+    }
+
+    Map<String, Long> failures() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        failures.forEach((reason, count) -> snapshot.put(reason, count.sum()));
+        return snapshot;
+    }
+
+    private void fail(String reason) {
+        failures.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void close() {
+        closing = true;
+        for (Stream<String> stream : new ArrayList<>(streams)) stream.close();
+        readers.shutdownNow();
+    }
+}
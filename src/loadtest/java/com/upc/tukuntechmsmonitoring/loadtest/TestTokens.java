@@ -0,0 +1,53 @@
+package com.upc.tukuntechmsmonitoring.loadtest;
+
+import com.upc.tukuntechmsmonitoring.shared.security.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Emite JWT de prueba con el mismo secreto y emisor que valida el servicio ({@link JwtProperties}),
+ * con los claims que espera {@code JwtService}: subject, {@code uid} y {@code roles}.
+ */
+final class TestTokens {
+
+    private final Key key;
+    private final String issuer;
+    private final Date expiration;
+
+    /**
+     * @param validity vigencia de los tokens; debe cubrir toda la corrida
+     */
+    TestTokens(JwtProperties props, Duration validity) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(props.secret()));
+        this.issuer = props.issuer();
+        this.expiration = new Date(System.currentTimeMillis() + validity.toMillis());
+    }
+
+    /** Token del paciente dueño de un dispositivo: con él el dispositivo publica sus mediciones. */
+    String patient(long patientId) {
+        return mint(patientId, "patient" + patientId + "@loadtest.local", "PATIENT");
+    }
+
+    /** Token de un cuidador que observa pacientes por SSE. */
+    String caregiver(long userId) {
+        return mint(userId, "caregiver" + userId + "@loadtest.local", "CAREGIVER");
+    }
+
+    private String mint(long userId, String email, String role) {
+        return Jwts.builder()
+                .setSubject(email)
+                .setIssuer(issuer)
+                .claim("uid", userId)
+                .claim("roles", List.of(role))
+                .setIssuedAt(new Date())
+                .setExpiration(expiration)
+                .signWith(key)
+                .compact();
+    }
+}
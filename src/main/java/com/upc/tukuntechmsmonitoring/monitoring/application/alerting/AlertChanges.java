@@ -0,0 +1,15 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+
+import java.util.List;
+
+/**
+ * Resultado de evaluar un lote de mediciones: alertas abiertas y alertas resueltas.
+ */
+public record AlertChanges(List<Alert> opened, List<Alert> resolved) {
+
+    public boolean isEmpty() {
+        return opened.isEmpty() && resolved.isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del motor de alertas con estado (app.monitoring.alert-engine).
+ *
+ * @param consecutiveReadings lecturas anormales seguidas necesarias para abrir una alerta
+ * @param resolveAfter        lecturas seguidas dentro del rango de salida necesarias para resolverla
+ * @param dedupWindow         tras abrir una alerta de un signo, otra del mismo signo dentro de esta ventana
+ *                            se suprime (salvo que el episodio siga activo al vencer la ventana)
+ * @param maxPatients         pacientes con estado en memoria; los desalojados se reconstruyen desde la BD
+ * @param rulesReloadInterval cada cuánto se releen las reglas de umbrales de la BD (cambios de otras réplicas)
+ * @param heartRate           umbrales CRITICAL por defecto de frecuencia cardiaca (bpm)
+ * @param oxygenLevel         umbrales CRITICAL por defecto de SpO2 (%)
+ * @param temperature         umbrales CRITICAL por defecto de temperatura (°C)
+ * Los umbrales WARNING y los específicos de paciente o cohorte se definen como reglas en la BD.
+ */
+@ConfigurationProperties(prefix = "app.monitoring.alert-engine")
+public record AlertEngineProperties(
+        Integer consecutiveReadings,
+        Integer resolveAfter,
+        Duration dedupWindow,
+        Integer maxPatients,
+        Duration rulesReloadInterval,
+        ThresholdBand heartRate,
+        ThresholdBand oxygenLevel,
+        ThresholdBand temperature
+) {
+
+    public AlertEngineProperties {
+        if (consecutiveReadings == null || consecutiveReadings < 1) consecutiveReadings = 3;
+        if (resolveAfter == null || resolveAfter < 1) resolveAfter = 3;
+        if (dedupWindow == null) dedupWindow = Duration.ofMinutes(5);
+        if (maxPatients == null || maxPatients < 1) maxPatients = 100_000;
+        if (rulesReloadInterval == null) rulesReloadInterval = Duration.ofMinutes(1);
+        if (heartRate == null) heartRate = new ThresholdBand(50d, 55d, 110d, 105d);
+        if (oxygenLevel == null) oxygenLevel = new ThresholdBand(90d, 92d, null, null);
+        if (temperature == null) temperature = new ThresholdBand(35d, 35.3d, 38d, 37.7d);
+    }
+
+    /**
+     * Umbrales con histéresis de un signo vital. Se entra en alerta por debajo de {@code lowEnter}
+     * o por encima de {@code highEnter}, y se sale solo al volver a [lowExit, highExit].
+     * Un lado en null no se vigila.
+     */
+    public record ThresholdBand(Double lowEnter, Double lowExit, Double highEnter, Double highExit) {
+
+        public ThresholdBand {
+            if (lowEnter != null && lowExit == null) lowExit = lowEnter;
+            if (highEnter != null && highExit == null) highExit = highEnter;
+        }
+    }
+}
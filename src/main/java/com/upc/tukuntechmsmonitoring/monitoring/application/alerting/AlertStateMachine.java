@@ -0,0 +1,200 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache.LongKeyedCache;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Máquina de estados de alertas por paciente, signo vital y nivel de severidad, delante de la persistencia de alertas.
+ * <ul>
+ *   <li>Histéresis: se entra con los umbrales "enter" y se sale solo al volver a los "exit".</li>
+ *   <li>Debounce: hacen falta N lecturas anormales seguidas para abrir la alerta, y M normales para resolverla.</li>
+ *   <li>Deduplicación: un nuevo episodio del mismo signo y nivel dentro de la ventana se suprime; si sigue activo
+ *       al vencer la ventana, se abre entonces la alerta.</li>
+ *   <li>Niveles: un episodio CRITICAL reemplaza (resuelve) la alerta WARNING del mismo signo; si al terminar
+ *       el CRITICAL el signo sigue en WARNING, se abre la alerta WARNING.</li>
+ * </ul>
+ * Además, un {@link TrendDetector} sigue la pendiente de cada signo y avisa de cambios rápidos antes de que
+ * crucen los umbrales.
+ * Los umbrales de cada paciente ({@link ThresholdRuleRegistry}) quedan en su estado y solo se vuelven a resolver
+ * cuando cambian las reglas: evaluar una lectura son comparaciones sobre arreglos primitivos, sin búsquedas.
+ * Cada paciente debe evaluarse desde un solo hilo a la vez y en orden (el pipeline particiona por paciente).
+ * El estado es local a la instancia: con varias réplicas, la ingesta de un paciente debe llegar siempre a la misma.
+ */
+@Component
+public class AlertStateMachine {
+
+    private static final VitalType[] VITALS = VitalType.values();
+
+    private final int consecutiveReadings;
+    private final int resolveAfter;
+    private final long dedupWindowMillis;
+    private final ThresholdRuleRegistry rules;
+    private final TrendDetector trends;
+    private final LongKeyedCache<PatientAlertState> states;
+
+    public AlertStateMachine(AlertEngineProperties props, ThresholdRuleRegistry rules,
+                             TrendDetectionProperties trendProps) {
+        this.consecutiveReadings = props.consecutiveReadings();
+        this.resolveAfter = props.resolveAfter();
+        this.dedupWindowMillis = props.dedupWindow().toMillis();
+        this.rules = rules;
+        this.trends = new TrendDetector(trendProps);
+        this.states = new LongKeyedCache<>(props.maxPatients());
+    }
+
+    /**
+     * Evalúa una medición y agrega a {@code opened} / {@code resolved} las alertas que cambian de estado,
+     * cada una con su tipo, severidad y valor medido (sin armar textos). Las alertas abiertas aún no están persistidas;
+     * las resueltas deben actualizarse.
+     *
+     * @param openAlerts carga las alertas abiertas del paciente si su estado no está en memoria
+     */
+    public void evaluate(VitalSignRecord record, LongFunction<List<Alert>> openAlerts,
+                         List<Alert> opened, List<Alert> resolved) {
+        long patientId = record.getPatientId();
+        PatientAlertState state = stateOf(patientId, openAlerts);
+        ThresholdRuleSet ruleSet = rules.current();
+        long now = toMillis(record.getTimestamp());
+
+        state.lock.lock();
+        try {
+            if (now < state.lastReadingMillis) return;
+            state.lastReadingMillis = now;
+            if (state.rulesVersion != ruleSet.version()) {
+                state.bands = ruleSet.bandsFor(patientId);
+                state.rulesVersion = ruleSet.version();
+            }
+            double[] t = state.bands.values;
+
+            for (int v = 0; v < VITALS.length; v++) {
+                double value = valueOf(record, v);
+                boolean higherActive = false;
+                // Del nivel más alto al más bajo: un episodio activo cubre a los de menor severidad
+                for (int tier = ThresholdBands.TIERS - 1; tier >= 0; tier--) {
+                    int s = ThresholdBands.slot(v, tier);
+                    int b = s * 4;
+                    if (!state.active[s]) {
+                        boolean abnormal = value < t[b + ThresholdBands.LOW_ENTER]
+                                || value > t[b + ThresholdBands.HIGH_ENTER];
+                        state.abnormalStreak[s] = abnormal ? state.abnormalStreak[s] + 1 : 0;
+                        if (state.abnormalStreak[s] >= consecutiveReadings) {
+                            state.active[s] = true;
+                            state.normalStreak[s] = 0;
+                        }
+                    } else {
+                        boolean recovered = value >= t[b + ThresholdBands.LOW_EXIT]
+                                && value <= t[b + ThresholdBands.HIGH_EXIT];
+                        state.normalStreak[s] = recovered ? state.normalStreak[s] + 1 : 0;
+                        if (state.normalStreak[s] >= resolveAfter) {
+                            state.active[s] = false;
+                            state.abnormalStreak[s] = 0;
+                            close(state, s, record, resolved);
+                        }
+                    }
+
+                    if (!state.active[s]) continue;
+                    if (higherActive) {
+                        close(state, s, record, resolved);
+                    } else if (state.alert[s] == null && !isDuplicate(state, s, now)) {
+                        // Episodio nuevo, o suprimido / cubierto antes y que sigue activo
+                        opened.add(open(state, s, v, tier, record, value, now));
+                    }
+                    higherActive = true;
+                }
+                trends.update(state.trend, record, v, value, now, higherActive, opened, resolved);
+            }
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta el estado de los pacientes indicados (p. ej. si la transacción que lo acompañaba falló);
+     * se reconstruirá desde la BD en su próxima medición.
+     */
+    public void forget(Iterable<Long> patientIds) {
+        for (Long patientId : patientIds) states.remove(patientId);
+    }
+
+    /** Si ya se abrió una alerta de este signo y nivel dentro de la ventana de deduplicación. */
+    private boolean isDuplicate(PatientAlertState state, int s, long now) {
+        long last = state.lastOpenedMillis[s];
+        return last != PatientAlertState.NEVER && now - last < dedupWindowMillis;
+    }
+
+    private Alert open(PatientAlertState state, int s, int v, int tier,
+                       VitalSignRecord record, double value, long now) {
+        Alert alert = Alert.create(record.getPatientId(), record.getDeviceId(), record.getTimestamp(),
+                ThresholdBands.severityOf(tier), AlertType.of(VITALS[v]), value);
+        state.alert[s] = alert;
+        state.lastOpenedMillis[s] = now;
+        return alert;
+    }
+
+    private static void close(PatientAlertState state, int s, VitalSignRecord record, List<Alert> resolved) {
+        Alert alert = state.alert[s];
+        if (alert == null) return;
+        state.alert[s] = null;
+        alert.resolve(record.getTimestamp());
+        resolved.add(alert);
+    }
+
+    private static double valueOf(VitalSignRecord record, int v) {
+        return switch (VITALS[v]) {
+            case HEART_RATE -> record.getHeartRate().getValue();
+            case OXYGEN_LEVEL -> record.getOxygenLevel().getValue();
+            case TEMPERATURE -> record.getTemperature().getValue();
+        };
+    }
+
+    /**
+     * Estado del paciente; si no está en memoria se reconstruye con sus alertas abiertas
+     * (la más reciente de cada signo y nivel vuelve a quedar activa).
+     */
+    private PatientAlertState stateOf(long patientId, LongFunction<List<Alert>> openAlerts) {
+        PatientAlertState state = states.get(patientId);
+        if (state != null) return state;
+
+        List<Alert> open = openAlerts.apply(patientId);
+        return states.computeIfAbsent(patientId, id -> {
+            PatientAlertState rebuilt = new PatientAlertState();
+            for (Alert alert : open) {
+                if (alert.getType() != null && alert.getType().isTrend()) {
+                    int v = alert.getType().vital().ordinal();
+                    if (rebuilt.trend.active[v]) continue;
+                    rebuilt.trend.active[v] = true;
+                    rebuilt.trend.alert[v] = alert;
+                    rebuilt.trend.lastOpenedMillis[v] = toMillis(alert.getCreatedAt());
+                    continue;
+                }
+                int s = slotOf(alert);
+                if (s < 0 || rebuilt.active[s]) continue;
+                rebuilt.active[s] = true;
+                rebuilt.alert[s] = alert;
+                rebuilt.lastOpenedMillis[s] = toMillis(alert.getCreatedAt());
+            }
+            return rebuilt;
+        });
+    }
+
+    /** Posición de la alerta en el estado, o -1 si no la generó este motor (tipo o severidad ajenos). */
+    private static int slotOf(Alert alert) {
+        if (alert.getType() == null || alert.getType().vital() == null || alert.getType().isTrend()) return -1;
+        if (alert.getSeverity() == AlertSeverity.INFO) return -1;
+        return ThresholdBands.slot(alert.getType().vital().ordinal(), ThresholdBands.tierOf(alert.getSeverity()));
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
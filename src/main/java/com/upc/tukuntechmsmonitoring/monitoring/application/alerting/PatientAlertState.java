@@ -0,0 +1,39 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estado del motor de alertas para un paciente: por cada signo vital y nivel de severidad, si hay
+ * un episodio activo, las rachas de lecturas anormales / normales y cuándo se abrió la última alerta.
+ * Los arreglos se indexan por {@link ThresholdBands#slot(int, int)}.
+ */
+final class PatientAlertState {
+
+    static final long NEVER = Long.MIN_VALUE;
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    /** Timestamp de la última lectura evaluada; las más antiguas se ignoran. */
+    long lastReadingMillis = NEVER;
+
+    /** Umbrales resueltos del paciente y versión de las reglas de la que salieron. */
+    ThresholdBands bands;
+    long rulesVersion = -1;
+
+    final boolean[] active = new boolean[ThresholdBands.SLOTS];
+    final int[] abnormalStreak = new int[ThresholdBands.SLOTS];
+    final int[] normalStreak = new int[ThresholdBands.SLOTS];
+    /** Alerta del episodio activo; null si se suprimió por deduplicación o la cubre un nivel superior. */
+    final Alert[] alert = new Alert[ThresholdBands.SLOTS];
+    final long[] lastOpenedMillis = new long[ThresholdBands.SLOTS];
+
+    /** Tendencia de cada signo vital (alertas tempranas). */
+    final PatientTrendState trend = new PatientTrendState();
+
+    PatientAlertState() {
+        Arrays.fill(lastOpenedMillis, NEVER);
+    }
+}
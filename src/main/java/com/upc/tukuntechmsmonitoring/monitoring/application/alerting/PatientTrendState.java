@@ -0,0 +1,44 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.util.Arrays;
+
+/**
+ * Estimación de tendencia de un paciente por signo vital: nivel y pendiente suavizados
+ * (unidades por milisegundo) y el estado de su alerta de tendencia.
+ * Los arreglos se indexan por {@link VitalType#ordinal()}; se protege con el lock de {@link PatientAlertState}.
+ */
+final class PatientTrendState {
+
+    private static final int VITALS = VitalType.values().length;
+
+    final double[] level = new double[VITALS];
+    final double[] slope = new double[VITALS];
+    final long[] firstMillis = new long[VITALS];
+    final long[] lastMillis = new long[VITALS];
+    final int[] samples = new int[VITALS];
+
+    final int[] steepStreak = new int[VITALS];
+    final int[] calmStreak = new int[VITALS];
+    final boolean[] active = new boolean[VITALS];
+    /** Alerta de la tendencia activa; null si se suprimió (enfriamiento o alerta de umbral del mismo signo). */
+    final Alert[] alert = new Alert[VITALS];
+    final long[] lastOpenedMillis = new long[VITALS];
+
+    PatientTrendState() {
+        Arrays.fill(lastOpenedMillis, PatientAlertState.NEVER);
+    }
+
+    /** Vuelve a empezar la estimación de un signo (primera lectura o hueco demasiado largo). */
+    void restart(int v, double value, long now) {
+        level[v] = value;
+        slope[v] = 0;
+        firstMillis[v] = now;
+        lastMillis[v] = now;
+        samples[v] = 1;
+        steepStreak[v] = 0;
+        calmStreak[v] = 0;
+    }
+}
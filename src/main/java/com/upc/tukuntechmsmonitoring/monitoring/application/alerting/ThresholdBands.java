@@ -0,0 +1,74 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.util.Arrays;
+
+/**
+ * Umbrales de un paciente compilados a un único arreglo plano: por cada signo vital y nivel
+ * (WARNING, CRITICAL) cuatro valores consecutivos lowEnter, lowExit, highEnter, highExit.
+ * Un lado no vigilado es ±infinito, así la evaluación es solo comparaciones sin ramas por nulos.
+ * Inmutable una vez publicado en un {@link ThresholdRuleSet}.
+ */
+final class ThresholdBands {
+
+    static final int TIERS = 2;
+    static final int SLOTS = VitalType.values().length * TIERS;
+
+    static final int LOW_ENTER = 0;
+    static final int LOW_EXIT = 1;
+    static final int HIGH_ENTER = 2;
+    static final int HIGH_EXIT = 3;
+
+    private static final AlertSeverity[] TIER_SEVERITY = {AlertSeverity.WARNING, AlertSeverity.CRITICAL};
+
+    final double[] values;
+
+    private ThresholdBands(double[] values) {
+        this.values = values;
+    }
+
+    /** Todos los signos sin vigilar. */
+    static ThresholdBands unmonitored() {
+        double[] values = new double[SLOTS * 4];
+        for (int s = 0; s < SLOTS; s++) {
+            values[s * 4 + LOW_ENTER] = Double.NEGATIVE_INFINITY;
+            values[s * 4 + LOW_EXIT] = Double.NEGATIVE_INFINITY;
+            values[s * 4 + HIGH_ENTER] = Double.POSITIVE_INFINITY;
+            values[s * 4 + HIGH_EXIT] = Double.POSITIVE_INFINITY;
+        }
+        return new ThresholdBands(values);
+    }
+
+    ThresholdBands copy() {
+        return new ThresholdBands(Arrays.copyOf(values, values.length));
+    }
+
+    /** Reemplaza los umbrales de un signo y nivel; solo se usa mientras se construye el conjunto. */
+    void apply(VitalType vital, AlertSeverity severity,
+               Double lowEnter, Double lowExit, Double highEnter, Double highExit) {
+        int base = slot(vital.ordinal(), tierOf(severity)) * 4;
+        values[base + LOW_ENTER] = lowEnter != null ? lowEnter : Double.NEGATIVE_INFINITY;
+        values[base + LOW_EXIT] = lowExit != null ? lowExit : values[base + LOW_ENTER];
+        values[base + HIGH_ENTER] = highEnter != null ? highEnter : Double.POSITIVE_INFINITY;
+        values[base + HIGH_EXIT] = highExit != null ? highExit : values[base + HIGH_ENTER];
+    }
+
+    /** Posición de un signo y nivel en los arreglos de estado (y, por 4, en {@link #values}). */
+    static int slot(int vital, int tier) {
+        return vital * TIERS + tier;
+    }
+
+    static int tierOf(AlertSeverity severity) {
+        return switch (severity) {
+            case WARNING -> 0;
+            case CRITICAL -> 1;
+            case INFO -> throw new IllegalArgumentException("INFO has no threshold tier");
+        };
+    }
+
+    static AlertSeverity severityOf(int tier) {
+        return TIER_SEVERITY[tier];
+    }
+}
@@ -0,0 +1,151 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.AlertThresholdRule;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientCohort;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertThresholdRuleRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientCohortRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carga las reglas de umbrales y las cohortes de pacientes desde la BD y las compila en un
+ * {@link ThresholdRuleSet}. Precedencia: regla del paciente, luego de su cohorte, luego global
+ * y por último los umbrales CRITICAL de la configuración.
+ * Se recarga tras cada cambio local y periódicamente (cambios hechos desde otra réplica);
+ * la versión solo avanza si las reglas cambiaron.
+ */
+@Component
+public class ThresholdRuleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ThresholdRuleRegistry.class);
+
+    /** Regla tal como se leyó, para detectar si algo cambió entre recargas. */
+    private record LoadedRule(VitalType vital, AlertSeverity severity, Long patientId, String cohort,
+                              Double lowEnter, Double lowExit, Double highEnter, Double highExit) {}
+
+    private final AlertThresholdRuleRepository ruleRepository;
+    private final PatientCohortRepository cohortRepository;
+    private final TaskScheduler scheduler;
+    private final AlertEngineProperties props;
+    private final ThresholdBands defaults;
+
+    private volatile ThresholdRuleSet current;
+    /** Serializa las recargas; lock y no synchronized porque adentro se consulta la BD (no fija hilos virtuales). */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private List<LoadedRule> loadedRules = List.of();
+    private Map<Long, String> loadedCohorts = Map.of();
+
+    public ThresholdRuleRegistry(AlertThresholdRuleRepository ruleRepository,
+                                 PatientCohortRepository cohortRepository,
+                                 TaskScheduler scheduler,
+                                 AlertEngineProperties props) {
+        this.ruleRepository = ruleRepository;
+        this.cohortRepository = cohortRepository;
+        this.scheduler = scheduler;
+        this.props = props;
+        this.defaults = ThresholdBands.unmonitored();
+        applyDefault(VitalType.HEART_RATE, props.heartRate());
+        applyDefault(VitalType.OXYGEN_LEVEL, props.oxygenLevel());
+        applyDefault(VitalType.TEMPERATURE, props.temperature());
+        this.current = new ThresholdRuleSet(0, defaults, Map.of());
+    }
+
+    private void applyDefault(VitalType vital, AlertEngineProperties.ThresholdBand band) {
+        defaults.apply(vital, AlertSeverity.CRITICAL, band.lowEnter(), band.lowExit(), band.highEnter(), band.highExit());
+    }
+
+    @PostConstruct
+    void start() {
+        // La primera ejecución es inmediata; hasta entonces rigen los umbrales de la configuración
+        scheduler.scheduleWithFixedDelay(this::refresh, props.rulesReloadInterval());
+    }
+
+    ThresholdRuleSet current() {
+        return current;
+    }
+
+    /**
+     * Vuelve a leer reglas y cohortes y publica un nuevo conjunto si cambiaron.
+     * Los pacientes toman los umbrales nuevos en su siguiente medición.
+     */
+    void reload() {
+        reloadLock.lock();
+        try {
+            reloadLocked();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadLocked() {
+        List<LoadedRule> rules = ruleRepository.findAll().stream()
+                .map(r -> new LoadedRule(r.getVital(), r.getSeverity(), r.getPatientId(), r.getCohort(),
+                        r.getLowEnter(), r.getLowExit(), r.getHighEnter(), r.getHighExit()))
+                .toList();
+        Map<Long, String> cohorts = new HashMap<>();
+        for (PatientCohort pc : cohortRepository.findAll()) cohorts.put(pc.getPatientId(), pc.getCohort());
+
+        if (rules.equals(loadedRules) && cohorts.equals(loadedCohorts)) return;
+
+        ThresholdRuleSet compiled = compile(current.version() + 1, rules, cohorts);
+        loadedRules = rules;
+        loadedCohorts = cohorts;
+        current = compiled;
+        log.info("Alert threshold rules reloaded: {} rules, {} patients with cohort (version {})",
+                rules.size(), cohorts.size(), compiled.version());
+    }
+
+    /** Como {@link #reload()}, pero un fallo solo se registra y se conserva el conjunto vigente. */
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Alert threshold rules reload failed; keeping version {}", current.version(), e);
+        }
+    }
+
+    private ThresholdRuleSet compile(long version, List<LoadedRule> rules, Map<Long, String> cohorts) {
+        // 1️⃣ Global: configuración + reglas sin alcance
+        ThresholdBands global = defaults.copy();
+        for (LoadedRule r : rules) {
+            if (r.patientId() == null && r.cohort() == null) apply(global, r);
+        }
+
+        // 2️⃣ Cohortes con reglas propias, sobre el global
+        Map<String, ThresholdBands> byCohort = new HashMap<>();
+        for (LoadedRule r : rules) {
+            if (r.cohort() != null) apply(byCohort.computeIfAbsent(r.cohort(), c -> global.copy()), r);
+        }
+
+        // 3️⃣ Pacientes: comparten los umbrales de su cohorte salvo que tengan reglas propias
+        Map<Long, ThresholdBands> byPatient = new HashMap<>();
+        cohorts.forEach((patientId, cohort) -> {
+            ThresholdBands bands = byCohort.get(cohort);
+            if (bands != null) byPatient.put(patientId, bands);
+        });
+        Map<Long, ThresholdBands> own = new HashMap<>();
+        for (LoadedRule r : rules) {
+            if (r.patientId() == null) continue;
+            ThresholdBands bands = own.computeIfAbsent(r.patientId(),
+                    id -> byPatient.getOrDefault(id, global).copy());
+            apply(bands, r);
+        }
+        byPatient.putAll(own);
+
+        return new ThresholdRuleSet(version, global, byPatient);
+    }
+
+    private static void apply(ThresholdBands bands, LoadedRule r) {
+        bands.apply(r.vital(), r.severity(), r.lowEnter(), r.lowExit(), r.highEnter(), r.highExit());
+    }
+}
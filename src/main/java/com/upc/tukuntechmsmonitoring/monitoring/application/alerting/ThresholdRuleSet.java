@@ -0,0 +1,29 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import java.util.Map;
+
+/**
+ * Foto inmutable de las reglas de umbrales ya resueltas por paciente. Solo tienen entrada los pacientes
+ * con reglas propias o de su cohorte; el resto usa los umbrales globales.
+ * El motor guarda los umbrales resueltos en el estado del paciente y solo vuelve a buscarlos cuando
+ * cambia {@link #version()}.
+ */
+final class ThresholdRuleSet {
+
+    private final long version;
+    private final ThresholdBands global;
+    private final Map<Long, ThresholdBands> byPatient;
+
+    ThresholdRuleSet(long version, ThresholdBands global, Map<Long, ThresholdBands> byPatient) {
+        this.version = version;
+        this.global = global;
+        this.byPatient = byPatient;
+    }
+
+    long version() { return version; }
+
+    ThresholdBands bandsFor(long patientId) {
+        ThresholdBands bands = byPatient.get(patientId);
+        return bands != null ? bands : global;
+    }
+}
@@ -0,0 +1,58 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la detección de tendencias (app.monitoring.trends): alertas tempranas cuando un signo
+ * vital cambia demasiado rápido aunque todavía esté dentro de sus umbrales.
+ *
+ * @param enabled             si se evalúan tendencias
+ * @param minSamples          lecturas mínimas antes de alertar
+ * @param consecutiveReadings lecturas seguidas con la pendiente fuera de límite para alertar
+ *                            (y por debajo de la mitad del límite para resolver)
+ * @param maxGap              un hueco mayor entre lecturas reinicia la estimación
+ * @param cooldown            tras una alerta de tendencia de un signo, no se abre otra del mismo signo
+ * @param heartRate           límites de cambio de frecuencia cardiaca (bpm)
+ * @param oxygenLevel         límites de cambio de SpO2 (%)
+ * @param temperature         límites de cambio de temperatura (°C)
+ */
+@ConfigurationProperties(prefix = "app.monitoring.trends")
+public record TrendDetectionProperties(
+        Boolean enabled,
+        Integer minSamples,
+        Integer consecutiveReadings,
+        Duration maxGap,
+        Duration cooldown,
+        TrendLimit heartRate,
+        TrendLimit oxygenLevel,
+        TrendLimit temperature
+) {
+
+    public TrendDetectionProperties {
+        if (enabled == null) enabled = true;
+        if (minSamples == null || minSamples < 2) minSamples = 5;
+        if (consecutiveReadings == null || consecutiveReadings < 1) consecutiveReadings = 3;
+        if (maxGap == null) maxGap = Duration.ofMinutes(15);
+        if (cooldown == null) cooldown = Duration.ofMinutes(30);
+        if (heartRate == null) heartRate = new TrendLimit(30d, 30d, Duration.ofMinutes(10), null);
+        if (oxygenLevel == null) oxygenLevel = new TrendLimit(null, 5d, Duration.ofMinutes(10), null);
+        if (temperature == null) temperature = new TrendLimit(1d, null, Duration.ofHours(1), null);
+    }
+
+    /**
+     * Cambio máximo tolerado de un signo durante {@code over}: subir más de {@code rise} o bajar más
+     * de {@code fall} a ese ritmo abre una alerta. Un lado en null no se vigila.
+     * {@code smoothing} es la constante de tiempo del promedio exponencial de la pendiente (por defecto
+     * un tercio de {@code over}: tendencias lentas necesitan más suavizado para no confundirse con ruido);
+     * el valor se suaviza con un tercio de esa constante y no se alerta con menos datos que {@code smoothing}.
+     */
+    public record TrendLimit(Double rise, Double fall, Duration over, Duration smoothing) {
+
+        public TrendLimit {
+            if (over == null || over.isZero() || over.isNegative()) over = Duration.ofMinutes(10);
+            if (smoothing == null || smoothing.isZero() || smoothing.isNegative()) smoothing = over.dividedBy(3);
+        }
+    }
+}
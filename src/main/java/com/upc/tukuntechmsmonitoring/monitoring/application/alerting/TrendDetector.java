@@ -0,0 +1,123 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.util.List;
+
+/**
+ * Detección de tendencias en streaming: suavizado exponencial doble (Holt) del valor y de su pendiente
+ * por paciente y signo, con constantes de tiempo para tolerar muestreo irregular.
+ * Cada lectura actualiza el estado en O(1) sin releer el historial; si la pendiente supera el límite
+ * configurado durante varias lecturas seguidas se abre una alerta WARNING de tendencia, que se resuelve
+ * cuando la pendiente baja de la mitad del límite.
+ * La usa {@link AlertStateMachine} bajo el lock del paciente.
+ */
+final class TrendDetector {
+
+    private static final VitalType[] VITALS = VitalType.values();
+
+    private final boolean enabled;
+    private final int minSamples;
+    private final int consecutiveReadings;
+    private final long maxGapMillis;
+    private final long cooldownMillis;
+
+    /** Límites de pendiente en unidades por milisegundo (ambos positivos); +infinito si no se vigila. */
+    private final double[] maxRise = new double[VITALS.length];
+    private final double[] maxFall = new double[VITALS.length];
+    /** Constantes de tiempo (ms) del suavizado del valor y de la pendiente, por signo. */
+    private final double[] levelTauMillis = new double[VITALS.length];
+    private final double[] slopeTauMillis = new double[VITALS.length];
+
+    TrendDetector(TrendDetectionProperties props) {
+        this.enabled = props.enabled();
+        this.minSamples = props.minSamples();
+        this.consecutiveReadings = props.consecutiveReadings();
+        this.maxGapMillis = props.maxGap().toMillis();
+        this.cooldownMillis = props.cooldown().toMillis();
+        compile(VitalType.HEART_RATE, props.heartRate());
+        compile(VitalType.OXYGEN_LEVEL, props.oxygenLevel());
+        compile(VitalType.TEMPERATURE, props.temperature());
+    }
+
+    private void compile(VitalType vital, TrendDetectionProperties.TrendLimit limit) {
+        int v = vital.ordinal();
+        double over = limit.over().toMillis();
+        maxRise[v] = limit.rise() != null ? limit.rise() / over : Double.POSITIVE_INFINITY;
+        maxFall[v] = limit.fall() != null ? limit.fall() / over : Double.POSITIVE_INFINITY;
+        slopeTauMillis[v] = limit.smoothing().toMillis();
+        levelTauMillis[v] = slopeTauMillis[v] / 3;
+    }
+
+    /**
+     * Incorpora una lectura de un signo y agrega a {@code opened} / {@code resolved} la alerta de tendencia
+     * que cambie de estado.
+     *
+     * @param thresholdActive si el signo ya tiene un episodio de umbral activo: la alerta de tendencia
+     *                        sería redundante y no se abre
+     */
+    void update(PatientTrendState t, VitalSignRecord record, int v, double value, long now,
+                boolean thresholdActive, List<Alert> opened, List<Alert> resolved) {
+        if (!enabled) return;
+        if (t.samples[v] == 0 || now - t.lastMillis[v] > maxGapMillis) {
+            t.restart(v, value, now);
+            return;
+        }
+        long dt = now - t.lastMillis[v];
+        if (dt <= 0) return;
+
+        // 1️⃣ Holt: nivel hacia la lectura, pendiente hacia el cambio observado del nivel
+        double alpha = 1 - Math.exp(-dt / levelTauMillis[v]);
+        double beta = 1 - Math.exp(-dt / slopeTauMillis[v]);
+        double predicted = t.level[v] + t.slope[v] * dt;
+        double level = predicted + alpha * (value - predicted);
+        t.slope[v] += beta * ((level - t.level[v]) / dt - t.slope[v]);
+        t.level[v] = level;
+        t.lastMillis[v] = now;
+        t.samples[v]++;
+
+        // 2️⃣ Sin alertar hasta que la pendiente se apoye en suficientes datos
+        if (t.samples[v] < minSamples || now - t.firstMillis[v] < slopeTauMillis[v]) return;
+
+        // 3️⃣ Debounce e histéresis sobre la pendiente
+        double slope = t.slope[v];
+        if (!t.active[v]) {
+            boolean steep = slope > maxRise[v] || -slope > maxFall[v];
+            t.steepStreak[v] = steep ? t.steepStreak[v] + 1 : 0;
+            if (t.steepStreak[v] >= consecutiveReadings) {
+                t.active[v] = true;
+                t.calmStreak[v] = 0;
+            }
+        } else {
+            boolean calm = slope < maxRise[v] / 2 && -slope < maxFall[v] / 2;
+            t.calmStreak[v] = calm ? t.calmStreak[v] + 1 : 0;
+            if (t.calmStreak[v] >= consecutiveReadings) {
+                t.active[v] = false;
+                t.steepStreak[v] = 0;
+                Alert alert = t.alert[v];
+                t.alert[v] = null;
+                if (alert != null) {
+                    alert.resolve(record.getTimestamp());
+                    resolved.add(alert);
+                }
+            }
+        }
+
+        if (t.active[v] && t.alert[v] == null && !thresholdActive && !coolingDown(t, v, now)) {
+            Alert alert = Alert.create(record.getPatientId(), record.getDeviceId(), record.getTimestamp(),
+                    AlertSeverity.WARNING, AlertType.trendOf(VITALS[v]), value);
+            t.alert[v] = alert;
+            t.lastOpenedMillis[v] = now;
+            opened.add(alert);
+        }
+    }
+
+    private boolean coolingDown(PatientTrendState t, int v, long now) {
+        long last = t.lastOpenedMillis[v];
+        return last != PatientAlertState.NEVER && now - last < cooldownMillis;
+    }
+}
@@ -0,0 +1,7 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.commands;
+
+import java.util.List;
+
+public record CreateVitalSignBatchCommand(
+        List<CreateVitalSignCommand> items
+) {}
@@ -0,0 +1,83 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.commands.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.commands.CreateVitalSignBatchCommand;
+import com.upc.tukuntechmsmonitoring.monitoring.application.commands.CreateVitalSignCommand;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation.RollingAggregatesEngine;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache.LatestVitalsCache;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring.EarlyWarningBoard;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceTelemetry;
+import com.upc.tukuntechmsmonitoring.shared.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command Handler responsable de persistir un lote de mediciones en una sola transacción.
+ * Los elementos ya llegan validados; con ids por secuencia Hibernate agrupa los INSERT en batches JDBC.
+ * Mide el tiempo hasta el commit, incluido, en {@code monitoring.ingest.persist{mode=batch}}.
+ */
+@Component
+public class CreateVitalSignBatchCommandHandler {
+
+    private final VitalSignRecordRepository recordRepo;
+    private final LatestVitalsCache latestVitalsCache;
+    private final RollingAggregatesEngine rollingAggregates;
+    private final EarlyWarningBoard earlyWarningBoard;
+    private final DeviceTelemetry deviceTelemetry;
+    private final Timer persistTimer;
+    private final Counter measurements;
+
+    public CreateVitalSignBatchCommandHandler(VitalSignRecordRepository recordRepo,
+                                              LatestVitalsCache latestVitalsCache,
+                                              RollingAggregatesEngine rollingAggregates,
+                                              EarlyWarningBoard earlyWarningBoard,
+                                              DeviceTelemetry deviceTelemetry,
+                                              MeterRegistry meterRegistry) {
+        this.recordRepo = recordRepo;
+        this.latestVitalsCache = latestVitalsCache;
+        this.rollingAggregates = rollingAggregates;
+        this.earlyWarningBoard = earlyWarningBoard;
+        this.deviceTelemetry = deviceTelemetry;
+        this.persistTimer = IngestMeters.persistTimer(meterRegistry, "batch");
+        this.measurements = IngestMeters.measurementCounter(meterRegistry, "batch");
+    }
+
+    @Transactional
+    public List<VitalSignRecord> handle(CreateVitalSignBatchCommand command) {
+        long start = System.nanoTime();
+        List<VitalSignRecord> records = new ArrayList<>(command.items().size());
+        for (CreateVitalSignCommand item : command.items()) {
+            records.add(VitalSignRecord.create(
+                    item.patientId(),
+                    item.deviceId(),
+                    new HeartRate(item.heartRate()),
+                    new OxygenLevel(item.oxygenLevel()),
+                    new Temperature(item.temperature())
+            ));
+        }
+        List<VitalSignRecord> saved = recordRepo.saveAll(records);
+        TransactionCallbacks.afterCommit(() -> {
+            persistTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            measurements.increment(saved.size());
+            saved.forEach(record -> {
+                latestVitalsCache.update(record);
+                rollingAggregates.record(record);
+                earlyWarningBoard.record(record);
+                deviceTelemetry.record(record);
+            });
+        });
+        return saved;
+    }
+}
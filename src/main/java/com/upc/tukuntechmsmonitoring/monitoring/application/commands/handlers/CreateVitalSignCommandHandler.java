@@ -1,57 +1,88 @@
 package com.upc.tukuntechmsmonitoring.monitoring.application.commands.handlers;
 
 
-import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.commands.CreateVitalSignCommand;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation.RollingAggregatesEngine;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache.LatestVitalsCache;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring.EarlyWarningBoard;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceTelemetry;
+import com.upc.tukuntechmsmonitoring.shared.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Command Handler responsable de crear un nuevo registro de signos vitales.
- * Solo ejecuta la operación principal del caso de uso (persistencia).
- * La lógica de alertas y SSE se maneja en capas superiores.
+ * Solo ejecuta la operación principal del caso de uso (persistencia) y devuelve
+ * el agregado persistido para que las capas superiores lo reutilicen (alertas y SSE).
+ * Tras el commit actualiza la caché de últimas mediciones, los agregados por ventana,
+ * el puntaje de alerta temprana y la telemetría del dispositivo.
+ * Mide el tiempo hasta el commit, incluido, en {@code monitoring.ingest.persist{mode=single}}.
  */
 @Component
 public class CreateVitalSignCommandHandler {
 
     private final VitalSignRecordRepository recordRepo;
+    private final LatestVitalsCache latestVitalsCache;
+    private final RollingAggregatesEngine rollingAggregates;
+    private final EarlyWarningBoard earlyWarningBoard;
+    private final DeviceTelemetry deviceTelemetry;
+    private final Timer persistTimer;
+    private final Counter measurements;
 
-    public CreateVitalSignCommandHandler(VitalSignRecordRepository recordRepo) {
+    public CreateVitalSignCommandHandler(VitalSignRecordRepository recordRepo,
+                                         LatestVitalsCache latestVitalsCache,
+                                         RollingAggregatesEngine rollingAggregates,
+                                         EarlyWarningBoard earlyWarningBoard,
+                                         DeviceTelemetry deviceTelemetry,
+                                         MeterRegistry meterRegistry) {
         this.recordRepo = recordRepo;
+        this.latestVitalsCache = latestVitalsCache;
+        this.rollingAggregates = rollingAggregates;
+        this.earlyWarningBoard = earlyWarningBoard;
+        this.deviceTelemetry = deviceTelemetry;
+        this.persistTimer = IngestMeters.persistTimer(meterRegistry, "single");
+        this.measurements = IngestMeters.measurementCounter(meterRegistry, "single");
     }
 
     @Transactional
-    public VitalSignResponse handle(Long patientId, Long deviceId, Integer hr, Integer spo2, Double temp) {
-        if (patientId == null || deviceId == null)
+    public VitalSignRecord handle(CreateVitalSignCommand command) {
+        if (command.patientId() == null || command.deviceId() == null)
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patient and Device IDs are required");
+        long start = System.nanoTime();
 
         // 1️⃣ Crear entidad de dominio con Value Objects
         VitalSignRecord record = VitalSignRecord.create(
-                patientId,
-                deviceId,
-                new HeartRate(hr),
-                new OxygenLevel(spo2),
-                new Temperature(temp)
+                command.patientId(),
+                command.deviceId(),
+                new HeartRate(command.heartRate()),
+                new OxygenLevel(command.oxygenLevel()),
+                new Temperature(command.temperature())
         );
 
         // 2️⃣ Persistir registro
         VitalSignRecord saved = recordRepo.save(record);
 
-        // 3️⃣ Construir respuesta DTO
-        return new VitalSignResponse(
-                saved.getId(),
-                saved.getPatientId(),
-                saved.getDeviceId(),
-                saved.getHeartRate().getValue(),
-                saved.getOxygenLevel().getValue(),
-                saved.getTemperature().getValue(),
-                saved.getTimestamp()
-        );
+        // 3️⃣ Actualizar las vistas en memoria una vez confirmado
+        TransactionCallbacks.afterCommit(() -> {
+            persistTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            measurements.increment();
+            latestVitalsCache.update(saved);
+            rollingAggregates.record(saved);
+            earlyWarningBoard.record(saved);
+            deviceTelemetry.record(saved);
+        });
+        return saved;
     }
 }
@@ -0,0 +1,30 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.commands.handlers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas de ingesta compartidas por los handlers de medición individual y por lote,
+ * diferenciadas por la etiqueta {@code mode} (single / batch).
+ */
+final class IngestMeters {
+
+    private IngestMeters() {}
+
+    /** Desde que el handler recibe el comando hasta el commit de la transacción que lo contiene. */
+    static Timer persistTimer(MeterRegistry registry, String mode) {
+        return Timer.builder("monitoring.ingest.persist")
+                .tag("mode", mode)
+                .description("Tiempo de persistencia de mediciones hasta el commit")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    static Counter measurementCounter(MeterRegistry registry, String mode) {
+        return Counter.builder("monitoring.ingest.measurements")
+                .tag("mode", mode)
+                .description("Mediciones confirmadas en la BD")
+                .register(registry);
+    }
+}
@@ -0,0 +1,167 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.devices;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.service.AlertDomainService;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseEmitterService;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceStats;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceTelemetry;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceTelemetryProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Barrido periódico de dispositivos: abre una alerta DEVICE_SILENT cuando un dispositivo deja de reportar
+ * y la resuelve cuando vuelve a hacerlo. Recorre la telemetría en memoria sin consultar la BD;
+ * solo escribe cuando algún dispositivo cambia de estado.
+ * Si la escritura falla, el estado en memoria no cambia y el próximo barrido lo reintenta.
+ * De paso muestrea la tasa de ingesta de cada dispositivo en {@code monitoring.devices.ingest.rate}.
+ * Un dispositivo silencioso por más de {@code forget-after} se olvida; si vuelve a reportar, su alerta
+ * se repone desde la BD y se resuelve como la de cualquier otro.
+ * <p>
+ * Ve solo la telemetría de esta instancia. Con varias réplicas, las mediciones de cada dispositivo deben llegar
+ * siempre a la misma (enrutamiento por dispositivo); si no, cada réplica abre alertas duplicadas o falsas
+ * para los dispositivos que reportan a otra, y conviene deshabilitar el barrido ({@code enabled: false}).
+ */
+@Component
+public class DeviceSilenceSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceSilenceSweeper.class);
+
+    private final DeviceTelemetry telemetry;
+    private final AlertDomainService alertDomainService;
+    private final SseEmitterService sseEmitterService;
+    private final AlertMapper alertMapper;
+    private final TaskScheduler scheduler;
+    private final DeviceTelemetryProperties props;
+    private final DistributionSummary ingestRate;
+    private final long forgetAfterMillis;
+
+    /** Las alertas abiertas antes del arranque se reponen en el primer barrido que logra leerlas. */
+    private boolean restored;
+    private volatile int silentDevices;
+
+    public DeviceSilenceSweeper(DeviceTelemetry telemetry,
+                                AlertDomainService alertDomainService,
+                                SseEmitterService sseEmitterService,
+                                AlertMapper alertMapper,
+                                TaskScheduler scheduler,
+                                DeviceTelemetryProperties props,
+                                MeterRegistry meterRegistry) {
+        this.telemetry = telemetry;
+        this.alertDomainService = alertDomainService;
+        this.sseEmitterService = sseEmitterService;
+        this.alertMapper = alertMapper;
+        this.scheduler = scheduler;
+        this.props = props;
+        this.forgetAfterMillis = props.forgetAfter().toMillis();
+
+        Gauge.builder("monitoring.devices.silent", this, s -> s.silentDevices)
+                .description("Dispositivos en memoria con una alerta de silencio abierta")
+                .register(meterRegistry);
+        // Una muestra por dispositivo y barrido, sin tag de dispositivo: los percentiles muestran la distribución
+        // de tasas de la flota sin crear una serie por dispositivo (el detalle está en GET /monitoring/devices/health)
+        this.ingestRate = DistributionSummary.builder("monitoring.devices.ingest.rate")
+                .baseUnit("readings.per.minute")
+                .description("Mediciones por minuto de cada dispositivo, en la ventana de tasa")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000.0)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (props.enabled()) scheduler.scheduleWithFixedDelay(this::sweep, props.sweepInterval());
+    }
+
+    void sweep() {
+        try {
+            long now = DeviceTelemetry.now();
+            if (!restored) restoreOpenAlerts(now);
+
+            // 1️⃣ Detectar cambios de estado recorriendo la memoria
+            List<DeviceStats> unknown = new ArrayList<>();
+            List<DeviceStats> wentSilent = new ArrayList<>();
+            List<DeviceStats> resumed = new ArrayList<>();
+            int[] silent = {0};
+            telemetry.forEach(stats -> {
+                if (stats.isAlertUnknown()) {
+                    unknown.add(stats); // se evalúa en el próximo barrido, ya con su alerta repuesta
+                    return;
+                }
+                boolean quiet = telemetry.isQuiet(stats, now);
+                if (quiet && stats.isSilent() && now - stats.silentSinceMillis() > forgetAfterMillis) {
+                    telemetry.forget(stats);
+                    return;
+                }
+                if (quiet && !stats.isSilent()) wentSilent.add(stats);
+                else if (!quiet && stats.isSilent()) resumed.add(stats);
+                if (stats.isSilent()) silent[0]++;
+                else ingestRate.record(stats.readingsPerMinute(now));
+            });
+            silentDevices = silent[0];
+            if (!unknown.isEmpty()) restoreOpenAlerts(unknown, now);
+            if (wentSilent.isEmpty() && resumed.isEmpty()) return;
+
+            // 2️⃣ Persistir alertas nuevas y resoluciones en una transacción
+            LocalDateTime at = DeviceTelemetry.toTimestamp(now);
+            List<Alert> opened = new ArrayList<>(wentSilent.size());
+            for (DeviceStats stats : wentSilent) {
+                double silentMinutes = stats.lastSeenMillis() > 0 ? (now - stats.lastSeenMillis()) / 60_000.0 : 0;
+                opened.add(Alert.create(stats.patientId(), stats.deviceId(), at,
+                        AlertSeverity.WARNING, AlertType.DEVICE_SILENT, Math.floor(silentMinutes)));
+            }
+            List<Long> resolvedIds = new ArrayList<>(resumed.size());
+            for (DeviceStats stats : resumed) {
+                if (stats.silentAlertId() != null) resolvedIds.add(stats.silentAlertId());
+            }
+            List<Alert> resolved = alertDomainService.applyDeviceSilence(opened, resolvedIds, at);
+
+            // 3️⃣ Confirmado: actualizar la memoria y emitir por SSE
+            for (int i = 0; i < wentSilent.size(); i++) wentSilent.get(i).markSilent(opened.get(i).getId(), now);
+            resumed.forEach(DeviceStats::markOnline);
+            silentDevices += wentSilent.size() - resumed.size();
+            opened.forEach(a -> sseEmitterService.emitAlert(a.getPatientId(), alertMapper.toLocalizedResponse(a)));
+            resolved.forEach(a -> sseEmitterService.emitAlertResolved(a.getPatientId(), alertMapper.toLocalizedResponse(a)));
+        } catch (RuntimeException e) {
+            log.error("Device silence sweep failed", e);
+        }
+    }
+
+    /** Repone las alertas de silencio abiertas para poder resolverlas cuando el dispositivo vuelva. */
+    private void restoreOpenAlerts(long now) {
+        alertDomainService.openDeviceSilentAlerts().forEach(alert -> restore(alert, now));
+        // Las que no tenían alerta abierta ya no necesitan consultarse
+        telemetry.forEach(stats -> {
+            if (stats.isAlertUnknown()) stats.markAlertKnown();
+        });
+        restored = true;
+    }
+
+    /** Lo mismo para los dispositivos que aparecieron tras el arranque o tras ser olvidados. */
+    private void restoreOpenAlerts(List<DeviceStats> unknown, long now) {
+        List<Long> deviceIds = unknown.stream().map(DeviceStats::deviceId).toList();
+        alertDomainService.openDeviceSilentAlerts(deviceIds).forEach(alert -> restore(alert, now));
+        unknown.forEach(stats -> {
+            if (stats.isAlertUnknown()) stats.markAlertKnown();
+        });
+    }
+
+    private void restore(Alert alert, long now) {
+        DeviceStats stats = telemetry.get(alert.getDeviceId());
+        if (stats != null && stats.isSilent()) return; // ya repuesta con una más reciente
+        telemetry.restoreSilent(alert.getDeviceId(), alert.getPatientId(), alert.getId(), now);
+    }
+}
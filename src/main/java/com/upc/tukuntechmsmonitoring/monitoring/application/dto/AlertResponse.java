@@ -1,17 +1,27 @@
 package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
 
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+
 import java.time.LocalDateTime;
 
 /**
  * DTO de salida para representar alertas generadas por signos vitales anómalos.
- * Se usa en REST y también para eventos SSE (alert).
+ * Se usa en REST y también para eventos SSE (alert, alert-resolved).
  */
 public record AlertResponse(
         Long id,
         Long patientId,
         Long deviceId,
-        String type,      // TEMPERATURE / HEART_RATE / OXYGENATION
-        String severity,  // CRITICAL / HIGH / LOW
-        String message,   // Descripción human-readable
-        LocalDateTime createdAt
-) {}
+        AlertType type,           // TEMPERATURE / HEART_RATE / OXYGENATION / GENERAL
+        AlertSeverity severity,   // CRITICAL / WARNING / INFO
+        Double value,             // valor medido que disparó la alerta (null en alertas externas)
+        String message,           // Descripción human-readable, en el idioma del cliente
+        LocalDateTime createdAt,
+        LocalDateTime resolvedAt  // null mientras el episodio sigue activo
+) {
+
+    public AlertResponse withMessage(String message) {
+        return new AlertResponse(id, patientId, deviceId, type, severity, value, message, createdAt, resolvedAt);
+    }
+}
@@ -0,0 +1,29 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO de entrada para crear o reemplazar una regla de umbrales.
+ * La regla se identifica por signo, severidad y alcance (paciente, cohorte o global si ambos faltan).
+ */
+public record AlertThresholdRuleRequest(
+
+        @NotNull(message = "El signo vital es obligatorio")
+        VitalType vital,
+
+        @NotNull(message = "La severidad es obligatoria")
+        AlertSeverity severity,
+
+        Long patientId,
+
+        @Size(max = 50, message = "La cohorte no puede superar 50 caracteres")
+        String cohort,
+
+        Double lowEnter,
+        Double lowExit,
+        Double highEnter,
+        Double highExit
+) {}
@@ -0,0 +1,22 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de salida de una regla de umbrales de alertas.
+ */
+public record AlertThresholdRuleResponse(
+        Long id,
+        VitalType vital,
+        AlertSeverity severity,
+        Long patientId,   // null salvo en reglas de paciente
+        String cohort,    // null salvo en reglas de cohorte
+        Double lowEnter,
+        Double lowExit,
+        Double highEnter,
+        Double highExit,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,12 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import java.util.List;
+
+/**
+ * DTO de salida que describe por qué un elemento de un lote de mediciones fue rechazado.
+ * El índice corresponde a la posición del elemento en el arreglo recibido.
+ */
+public record BatchItemError(
+        int index,
+        List<String> errors
+) {}
@@ -0,0 +1,15 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import java.util.List;
+
+/**
+ * DTO de salida para la ingesta por lotes de mediciones.
+ * Incluye las mediciones persistidas y los errores por elemento rechazado.
+ */
+public record BatchMeasurementResponse(
+        int received,
+        int accepted,
+        int rejected,
+        List<VitalSignResponse> created,
+        List<BatchItemError> errors
+) {}
@@ -0,0 +1,18 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.DeviceStatus;
+
+import java.time.LocalDateTime;
+
+public record DeviceHealthResponse(
+        Long deviceId,
+        Long patientId,
+        DeviceStatus status,
+        LocalDateTime lastSeenAt,
+        Long secondsSinceLastSeen,
+        double readingsPerMinute,
+        long readings,
+        long gaps,
+        long longestGapSeconds,
+        Long silentAlertId
+) {}
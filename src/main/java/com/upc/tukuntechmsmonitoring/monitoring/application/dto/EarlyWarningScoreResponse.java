@@ -0,0 +1,19 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.ClinicalRisk;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.ScoreTrend;
+
+import java.time.LocalDateTime;
+
+public record EarlyWarningScoreResponse(
+        Long patientId,
+        String ward,
+        int score,
+        ClinicalRisk risk,
+        int heartRatePoints,
+        int oxygenPoints,
+        int temperaturePoints,
+        double baseline,
+        ScoreTrend trend,
+        LocalDateTime scoredAt
+) {}
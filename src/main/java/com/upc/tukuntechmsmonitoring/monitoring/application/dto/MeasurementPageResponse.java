@@ -0,0 +1,13 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import java.util.List;
+
+/**
+ * DTO de salida para una página del historial de mediciones.
+ * {@code nextCursor} es opaco: se envía tal cual para pedir la página siguiente; es null en la última.
+ */
+public record MeasurementPageResponse(
+        List<VitalSignResponse> items,
+        String nextCursor,
+        boolean hasMore
+) {}
@@ -0,0 +1,23 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.series.DownsampleMode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Series reducidas de los signos vitales de un paciente.
+ *
+ * @param resolution   origen de los datos: RAW (lecturas), MINUTE u HOUR (rollups, con las lecturas
+ *                     crudas aún no resumidas al final del rango)
+ * @param sourcePoints filas leídas de la BD para construir las series
+ */
+public record MeasurementSeriesResponse(
+        Long patientId,
+        DownsampleMode mode,
+        LocalDateTime from,
+        LocalDateTime to,
+        String resolution,
+        long sourcePoints,
+        List<VitalSeriesResponse> series
+) {}
@@ -0,0 +1,14 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO de entrada para asignar un paciente a una cohorte clínica.
+ */
+public record PatientCohortRequest(
+
+        @NotBlank(message = "La cohorte es obligatoria")
+        @Size(max = 50, message = "La cohorte no puede superar 50 caracteres")
+        String cohort
+) {}
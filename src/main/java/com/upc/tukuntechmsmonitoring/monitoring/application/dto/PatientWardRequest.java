@@ -0,0 +1,14 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO de entrada para ubicar a un paciente en una sala.
+ */
+public record PatientWardRequest(
+
+        @NotBlank(message = "La sala es obligatoria")
+        @Size(max = 50, message = "La sala no puede superar 50 caracteres")
+        String ward
+) {}
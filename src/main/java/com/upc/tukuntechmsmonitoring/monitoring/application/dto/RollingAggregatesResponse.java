@@ -0,0 +1,10 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record RollingAggregatesResponse(
+        Long patientId,
+        LocalDateTime asOf,
+        List<WindowAggregatesResponse> windows
+) {}
@@ -0,0 +1,19 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Punto de una serie reducida. En modo LTTB solo lleva {@code value} (una lectura real);
+ * en modo MIN_MAX_AVG lleva el inicio del intervalo y sus estadísticas.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SeriesPointResponse(
+        LocalDateTime timestamp,
+        Double value,
+        Double min,
+        Double max,
+        Double avg,
+        Integer count
+) {}
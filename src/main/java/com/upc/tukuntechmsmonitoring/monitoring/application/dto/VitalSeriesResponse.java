@@ -0,0 +1,10 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.util.List;
+
+public record VitalSeriesResponse(
+        VitalType vital,
+        List<SeriesPointResponse> points
+) {}
@@ -0,0 +1,12 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+/**
+ * Estadísticas de un signo vital en una ventana. Sin lecturas, count es 0 y el resto null.
+ */
+public record VitalStatsResponse(
+        long count,
+        Double min,
+        Double max,
+        Double avg,
+        Double p95
+) {}
@@ -0,0 +1,8 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.dto;
+
+public record WindowAggregatesResponse(
+        String window,
+        VitalStatsResponse heartRate,
+        VitalStatsResponse oxygenLevel,
+        VitalStatsResponse temperature
+) {}
@@ -0,0 +1,24 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.export;
+
+/**
+ * Formatos soportados para la exportación de historial.
+ */
+public enum ExportFormat {
+
+    /** Un objeto JSON por línea. */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Valores separados por coma con cabecera (RFC 4180). */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() { return contentType; }
+
+    public String extension() { return extension; }
+}
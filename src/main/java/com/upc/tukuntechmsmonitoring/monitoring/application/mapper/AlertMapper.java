@@ -4,30 +4,67 @@ package com.upc.tukuntechmsmonitoring.monitoring.application.mapper;
 
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+import java.util.function.Function;
+
 /**
  * Mapper para convertir entidades de dominio Alert a DTOs de capa de aplicación.
  * Mantiene consistencia con otros mappers (naming y estructura).
+ * El mensaje de las alertas del motor se arma aquí, en el idioma de la petición
+ * (messages*.properties), y no al crearlas. Para SSE, en el idioma de cada suscriptor
+ * ({@link #toLocalizedResponse}).
  */
 @Component
 public class AlertMapper {
 
+    private final MessageSource messageSource;
+
+    public AlertMapper(MessageSource messageSource) {
+        this.messageSource = messageSource;
+    }
+
     /**
      * Convierte una entidad Alert en un DTO AlertResponse.
      */
     public AlertResponse toResponse(Alert alert) {
         if (alert == null) return null;
+        return toResponse(alert, LocaleContextHolder.getLocale());
+    }
+
+    /**
+     * Toma los datos de la alerta ahora y arma el mensaje en el idioma que se pida después.
+     * Lo usan los eventos SSE, que se publican desde hilos sin petición ni idioma.
+     */
+    public Function<Locale, AlertResponse> toLocalizedResponse(Alert alert) {
+        AlertResponse snapshot = toResponse(alert, Locale.ROOT);
+        if (alert.getMessage() != null) return locale -> snapshot;
+        return locale -> snapshot.withMessage(messageOf(alert.getType(), alert.getMeasuredValue(), locale));
+    }
+
+    private AlertResponse toResponse(Alert alert, Locale locale) {
         return new AlertResponse(
                 alert.getId(),
                 alert.getPatientId(),
                 alert.getDeviceId(),
                 alert.getType(),
                 alert.getSeverity(),
-                alert.getMessage(),
-                alert.getCreatedAt()
+                alert.getMeasuredValue(),
+                alert.getMessage() != null
+                        ? alert.getMessage()
+                        : messageOf(alert.getType(), alert.getMeasuredValue(), locale),
+                alert.getCreatedAt(),
+                alert.getResolvedAt()
         );
     }
 
-
+    private String messageOf(AlertType type, Double measuredValue, Locale locale) {
+        if (type == null) type = AlertType.GENERAL;
+        return messageSource.getMessage("alert.message." + type.name(),
+                new Object[]{measuredValue}, type.name(), locale);
+    }
 }
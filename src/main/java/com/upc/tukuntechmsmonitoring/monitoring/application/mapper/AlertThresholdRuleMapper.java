@@ -0,0 +1,28 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.mapper;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertThresholdRuleResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.AlertThresholdRule;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para convertir reglas de umbrales a DTOs de capa de aplicación.
+ */
+@Component
+public class AlertThresholdRuleMapper {
+
+    public AlertThresholdRuleResponse toResponse(AlertThresholdRule rule) {
+        if (rule == null) return null;
+        return new AlertThresholdRuleResponse(
+                rule.getId(),
+                rule.getVital(),
+                rule.getSeverity(),
+                rule.getPatientId(),
+                rule.getCohort(),
+                rule.getLowEnter(),
+                rule.getLowExit(),
+                rule.getHighEnter(),
+                rule.getHighExit(),
+                rule.getUpdatedAt()
+        );
+    }
+}
@@ -3,6 +3,7 @@ package com.upc.tukuntechmsmonitoring.monitoring.application.mapper;
 
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.LatestVitals;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,5 +30,22 @@ public class VitalSignMapper {
         );
     }
 
+    /**
+     * Convierte una instantánea de la caché de últimas mediciones a VitalSignResponse.
+     */
+    public VitalSignResponse toResponse(LatestVitals snapshot) {
+        if (snapshot == null) return null;
+
+        return new VitalSignResponse(
+                snapshot.recordId(),
+                snapshot.patientId(),
+                snapshot.deviceId(),
+                snapshot.heartRate(),
+                snapshot.oxygenLevel(),
+                snapshot.temperature(),
+                snapshot.timestamp()
+        );
+    }
+
 
 }
@@ -0,0 +1,293 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.pipeline;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertChanges;
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertStateMachine;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.service.AlertDomainService;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseEmitterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline asíncrono que desacopla la evaluación de alertas del hilo de la petición.
+ * La ingesta solo encola la medición ya confirmada en BD; cada worker drena su propia cola
+ * por lotes, persiste los cambios de alertas en una transacción y los emite por SSE.
+ * Las colas se particionan por paciente: las mediciones de un paciente las evalúa siempre el mismo
+ * worker y en orden, como requiere el motor de alertas con estado.
+ * Las colas son acotadas y su desborde se resuelve según {@link AlertPipelineProperties.OverflowPolicy}.
+ * Con SPILL, lo desbordado se re-lee de la BD en una tarea periódica del {@link TaskScheduler}.
+ */
+@Component
+public class AlertPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertPipeline.class);
+
+    private record PendingMeasurement(VitalSignRecord record, long enqueuedAtNanos) {}
+
+    private final AlertDomainService alertDomainService;
+    private final AlertStateMachine alertStateMachine;
+    private final SseEmitterService sseEmitterService;
+    private final AlertMapper alertMapper;
+    private final VitalSignRecordRepository vitalSignRecordRepository;
+    private final TaskScheduler scheduler;
+    private final AlertPipelineProperties props;
+    private final boolean virtualThreads;
+    private final SpilledMeasurements spilled = new SpilledMeasurements();
+    private final List<BlockingQueue<PendingMeasurement>> queues;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Counter droppedCounter;
+    private final Counter blockedCounter;
+    private final Counter spilledCounter;
+    private final Counter failedCounter;
+    private final Timer queueWaitTimer;
+    private final Timer evaluationTimer;
+
+    private volatile boolean running;
+
+    public AlertPipeline(AlertDomainService alertDomainService,
+                         AlertStateMachine alertStateMachine,
+                         SseEmitterService sseEmitterService,
+                         AlertMapper alertMapper,
+                         VitalSignRecordRepository vitalSignRecordRepository,
+                         TaskScheduler scheduler,
+                         AlertPipelineProperties props,
+                         MeterRegistry registry,
+                         Environment environment) {
+        this.alertDomainService = alertDomainService;
+        this.alertStateMachine = alertStateMachine;
+        this.sseEmitterService = sseEmitterService;
+        this.alertMapper = alertMapper;
+        this.vitalSignRecordRepository = vitalSignRecordRepository;
+        this.scheduler = scheduler;
+        this.props = props;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        int perWorker = Math.max(1, props.queueCapacity() / props.workers());
+        this.queues = new ArrayList<>(props.workers());
+        for (int i = 0; i < props.workers(); i++) queues.add(new ArrayBlockingQueue<>(perWorker));
+
+        Gauge.builder("monitoring.alert.pipeline.queue.depth", this, AlertPipeline::totalDepth)
+                .description("Mediciones pendientes de evaluación de alertas")
+                .register(registry);
+        Gauge.builder("monitoring.alert.pipeline.lag", this, AlertPipeline::currentLagMillis)
+                .description("Antigüedad de la medición más vieja en cola")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("monitoring.alert.pipeline.spilled.patients", spilled, SpilledMeasurements::size)
+                .description("Pacientes con mediciones desbordadas pendientes de re-lectura desde la BD")
+                .register(registry);
+        this.queueWaitTimer = Timer.builder("monitoring.alert.pipeline.queue.wait")
+                .description("Tiempo que una medición espera en cola antes de ser evaluada")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.evaluationTimer = Timer.builder("monitoring.alert.pipeline.evaluation")
+                .description("Evaluación de un lote con la máquina de estados y persistencia de sus alertas, hasta el commit")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.droppedCounter = Counter.builder("monitoring.alert.pipeline.dropped")
+                .description("Mediciones descartadas por cola llena")
+                .register(registry);
+        this.blockedCounter = Counter.builder("monitoring.alert.pipeline.blocked")
+                .description("Veces que el productor tuvo que esperar lugar en una cola llena")
+                .register(registry);
+        this.spilledCounter = Counter.builder("monitoring.alert.pipeline.spilled")
+                .description("Mediciones que no se encolaron y quedaron para la re-lectura desde la BD")
+                .register(registry);
+        this.failedCounter = Counter.builder("monitoring.alert.pipeline.failed")
+                .description("Lotes cuya evaluación de alertas falló")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        // Con spring.threads.virtual.enabled los workers son virtuales, como el resto de la aplicación
+        ThreadFactory factory = virtualThreads
+                ? Thread.ofVirtual().name("alert-pipeline-", 0).factory()
+                : Thread.ofPlatform().name("alert-pipeline-", 0).daemon(true).factory();
+        for (BlockingQueue<PendingMeasurement> queue : queues) {
+            Thread worker = factory.newThread(() -> runWorker(queue));
+            workers.add(worker);
+            worker.start();
+        }
+        scheduler.scheduleWithFixedDelay(this::rescanSpilled, props.spillInterval());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + props.shutdownTimeout().toNanos();
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+            worker.interrupt();
+        }
+        int pending = totalDepth();
+        if (pending > 0)
+            log.warn("Alert pipeline stopped with {} measurements not evaluated", pending);
+        if (spilled.size() > 0)
+            log.warn("Alert pipeline stopped with spilled measurements of {} patients not evaluated", spilled.size());
+    }
+
+    /**
+     * Encola una medición confirmada para evaluación asíncrona de alertas.
+     */
+    public void submit(VitalSignRecord record) {
+        // Un paciente con mediciones desbordadas sigue por la re-lectura hasta ponerse al día
+        if (spilled.contains(record.getPatientId())) {
+            spill(record);
+            return;
+        }
+        PendingMeasurement pending = new PendingMeasurement(record, System.nanoTime());
+        BlockingQueue<PendingMeasurement> queue = queueFor(record.getPatientId());
+        if (queue.offer(pending)) return;
+
+        switch (props.overflowPolicy()) {
+            case DROP_NEWEST -> droppedCounter.increment();
+            case DROP_OLDEST -> {
+                while (!queue.offer(pending)) {
+                    if (queue.poll() != null) droppedCounter.increment();
+                }
+            }
+            case SPILL -> spill(record);
+            // Esperar en un hilo de petición alargaría la respuesta de la ingesta, que ya está confirmada
+            case BLOCK -> {
+                if (RequestContextHolder.getRequestAttributes() != null) {
+                    spill(record);
+                    return;
+                }
+                blockedCounter.increment();
+                try {
+                    if (!queue.offer(pending, props.blockTimeout().toNanos(), TimeUnit.NANOSECONDS))
+                        droppedCounter.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCounter.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Encola un lote de mediciones confirmadas.
+     */
+    public void submitAll(List<VitalSignRecord> records) {
+        records.forEach(this::submit);
+    }
+
+    private void spill(VitalSignRecord record) {
+        spilled.add(record.getPatientId(), record.getId());
+        spilledCounter.increment();
+    }
+
+    /**
+     * Re-lee de la BD las mediciones desbordadas, en orden de id y a lo sumo un lote por paciente,
+     * y las encola mientras haya lugar. Un paciente se libera cuando no le queda nada pendiente.
+     */
+    void rescanSpilled() {
+        try {
+            for (Long patientId : spilled.patientIds()) {
+                if (!running) return;
+                long from = spilled.beginRescan(patientId);
+                if (from < 0) continue;
+
+                List<VitalSignRecord> records = vitalSignRecordRepository
+                        .findByPatientIdAndIdGreaterThanEqualOrderByIdAsc(patientId, from, Limit.of(props.maxBatchSize()));
+                BlockingQueue<PendingMeasurement> queue = queueFor(patientId);
+                int offered = 0;
+                for (VitalSignRecord record : records) {
+                    if (!queue.offer(new PendingMeasurement(record, System.nanoTime()))) break;
+                    offered++;
+                }
+                if (offered > 0) spilled.advance(patientId, records.get(offered - 1).getId() + 1);
+                if (offered == records.size() && records.size() < props.maxBatchSize()) spilled.release(patientId);
+            }
+        } catch (RuntimeException e) {
+            // Lo pendiente sigue registrado: la próxima ejecución lo reintenta
+            log.warn("Could not re-read spilled measurements", e);
+        }
+    }
+
+    private BlockingQueue<PendingMeasurement> queueFor(Long patientId) {
+        return queues.get(Math.floorMod(Long.hashCode(patientId), queues.size()));
+    }
+
+    private void runWorker(BlockingQueue<PendingMeasurement> queue) {
+        List<PendingMeasurement> batch = new ArrayList<>(props.maxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMeasurement first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, props.maxBatchSize() - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingMeasurement> batch) {
+        long now = System.nanoTime();
+        List<VitalSignRecord> records = new ArrayList<>(batch.size());
+        for (PendingMeasurement pending : batch) {
+            queueWaitTimer.record(now - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+            records.add(pending.record());
+        }
+
+        try {
+            AlertChanges changes = evaluationTimer.record(() -> alertDomainService.processMeasurements(records));
+            changes.opened().forEach(a -> sseEmitterService.emitAlert(a.getPatientId(), alertMapper.toLocalizedResponse(a)));
+            changes.resolved().forEach(a -> sseEmitterService.emitAlertResolved(a.getPatientId(), alertMapper.toLocalizedResponse(a)));
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            // El estado en memoria avanzó junto con una transacción revertida: se reconstruye desde la BD
+            Set<Long> patientIds = new HashSet<>();
+            for (VitalSignRecord record : records) patientIds.add(record.getPatientId());
+            alertStateMachine.forget(patientIds);
+            log.error("Alert evaluation failed for a batch of {} measurements", records.size(), e);
+        }
+    }
+
+    private int totalDepth() {
+        int depth = 0;
+        for (BlockingQueue<PendingMeasurement> queue : queues) depth += queue.size();
+        return depth;
+    }
+
+    private double currentLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (BlockingQueue<PendingMeasurement> queue : queues) {
+            PendingMeasurement head = queue.peek();
+            if (head != null) oldest = Math.min(oldest, head.enqueuedAtNanos());
+        }
+        if (oldest == Long.MAX_VALUE) return 0;
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+    }
+}
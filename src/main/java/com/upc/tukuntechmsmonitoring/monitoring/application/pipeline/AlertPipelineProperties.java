@@ -0,0 +1,58 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.pipeline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del pipeline asíncrono de alertas (app.monitoring.alert-pipeline).
+ *
+ * @param queueCapacity   profundidad máxima total de las colas de mediciones pendientes de evaluar
+ * @param workers         hilos que consumen las colas (una cola por worker, particionada por paciente)
+ * @param maxBatchSize    máximo de mediciones que un worker evalúa por transacción
+ * @param overflowPolicy  qué hacer cuando la cola de un worker está llena
+ * @param blockTimeout    espera máxima del productor con la política BLOCK antes de descartar
+ * @param spillInterval   cada cuánto se re-leen de la BD las mediciones desbordadas con la política SPILL
+ * @param shutdownTimeout tiempo máximo para drenar las colas al apagar el servicio
+ */
+@ConfigurationProperties(prefix = "app.monitoring.alert-pipeline")
+public record AlertPipelineProperties(
+        Integer queueCapacity,
+        Integer workers,
+        Integer maxBatchSize,
+        OverflowPolicy overflowPolicy,
+        Duration blockTimeout,
+        Duration spillInterval,
+        Duration shutdownTimeout
+) {
+
+    public AlertPipelineProperties {
+        if (queueCapacity == null || queueCapacity < 1) queueCapacity = 10_000;
+        if (workers == null || workers < 1) workers = 2;
+        if (maxBatchSize == null || maxBatchSize < 1) maxBatchSize = 100;
+        if (overflowPolicy == null) overflowPolicy = OverflowPolicy.SPILL;
+        if (blockTimeout == null) blockTimeout = Duration.ofSeconds(1);
+        if (spillInterval == null) spillInterval = Duration.ofSeconds(5);
+        if (shutdownTimeout == null) shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    public enum OverflowPolicy {
+        /** Descarta la medición entrante (la lectura ya está persistida; solo se pierde su evaluación). */
+        DROP_NEWEST,
+        /** Descarta la medición más antigua en cola para hacer lugar a la entrante. */
+        DROP_OLDEST,
+        /**
+         * El productor espera lugar en la cola hasta {@code blockTimeout} y luego descarta. No se evalúa en el
+         * hilo productor: rompería el orden por paciente que necesita el motor de alertas con estado.
+         * Nunca espera en un hilo de petición HTTP (la ingesta encola tras el commit, en el hilo de la petición):
+         * ahí se comporta como SPILL.
+         */
+        BLOCK,
+        /**
+         * No descarta: recuerda desde qué medición quedó pendiente el paciente y la re-lee de la BD cada
+         * {@code spillInterval}, cuando la cola tiene lugar. Las mediciones siguientes del paciente esperan
+         * esa re-lectura para conservar el orden. Lo pendiente vive en memoria y se pierde si la instancia se detiene.
+         */
+        SPILL
+    }
+}
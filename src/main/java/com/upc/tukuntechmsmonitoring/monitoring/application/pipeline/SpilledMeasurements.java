@@ -0,0 +1,77 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.pipeline;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pacientes con mediciones desbordadas del pipeline (política SPILL).
+ * Las mediciones ya están confirmadas en BD, así que no se guardan: por paciente basta el id de la primera
+ * medición pendiente de encolar. Mientras un paciente figura aquí, sus mediciones nuevas tampoco se encolan
+ * directamente; la re-lectura periódica las recupera de la BD en orden de id, sin adelantar ninguna.
+ */
+class SpilledMeasurements {
+
+    /** Estado de un paciente; {@code touched} indica que llegaron mediciones desde la última re-lectura. */
+    private static final class Spill {
+        long nextId;
+        boolean touched;
+
+        Spill(long nextId) {
+            this.nextId = nextId;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Spill> patients = new ConcurrentHashMap<>();
+
+    boolean contains(Long patientId) {
+        return patients.containsKey(patientId);
+    }
+
+    /**
+     * Registra una medición desbordada. Si el paciente ya estaba, la medición queda cubierta por su re-lectura.
+     */
+    void add(Long patientId, long recordId) {
+        patients.compute(patientId, (id, spill) -> {
+            if (spill == null) return new Spill(recordId);
+            spill.touched = true;
+            return spill;
+        });
+    }
+
+    List<Long> patientIds() {
+        return List.copyOf(patients.keySet());
+    }
+
+    int size() {
+        return patients.size();
+    }
+
+    /**
+     * Inicia la re-lectura de un paciente: devuelve el id desde el que leer, o -1 si ya no está.
+     */
+    long beginRescan(Long patientId) {
+        long[] from = {-1};
+        patients.computeIfPresent(patientId, (id, spill) -> {
+            spill.touched = false;
+            from[0] = spill.nextId;
+            return spill;
+        });
+        return from[0];
+    }
+
+    /** Las mediciones con id menor a {@code nextId} ya se encolaron. */
+    void advance(Long patientId, long nextId) {
+        patients.computeIfPresent(patientId, (id, spill) -> {
+            spill.nextId = Math.max(spill.nextId, nextId);
+            return spill;
+        });
+    }
+
+    /**
+     * Libera al paciente tras encolar todo lo leído, salvo que haya llegado otra medición desde
+     * {@link #beginRescan}: puede haberse confirmado después de la lectura y la cubre la próxima re-lectura.
+     */
+    void release(Long patientId) {
+        patients.computeIfPresent(patientId, (id, spill) -> spill.touched ? spill : null);
+    }
+}
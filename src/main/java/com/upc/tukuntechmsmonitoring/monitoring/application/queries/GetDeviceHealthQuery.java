@@ -0,0 +1,5 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.DeviceStatus;
+
+public record GetDeviceHealthQuery(Long deviceId, DeviceStatus status, Integer limit) {}
@@ -0,0 +1,3 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries;
+
+public record GetEarlyWarningRankingQuery(String ward, Integer limit) {}
@@ -0,0 +1,13 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.series.DownsampleMode;
+
+import java.time.LocalDateTime;
+
+public record GetMeasurementSeriesQuery(
+        Long patientId,
+        LocalDateTime from,
+        LocalDateTime to,
+        Integer points,
+        DownsampleMode mode
+) {}
@@ -0,0 +1,11 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries;
+
+import java.time.LocalDateTime;
+
+public record GetMeasurementsPageQuery(
+        Long patientId,
+        LocalDateTime from,
+        LocalDateTime to,
+        String cursor,
+        Integer size
+) {}
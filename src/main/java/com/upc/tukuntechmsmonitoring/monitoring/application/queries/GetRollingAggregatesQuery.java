@@ -0,0 +1,5 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries;
+
+import java.util.List;
+
+public record GetRollingAggregatesQuery(Long patientId, List<String> windows) {}
@@ -0,0 +1,25 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ventana temporal cerrada [from, to] para consultas de historial.
+ * Los extremos omitidos se reemplazan por límites soportados por MySQL y SQL Server,
+ * así las consultas siempre usan comparaciones de rango simples sobre el índice.
+ */
+public record TimeWindow(LocalDateTime from, LocalDateTime to) {
+
+    public static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public static TimeWindow of(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from != null ? from : MIN_TIMESTAMP;
+        LocalDateTime end = to != null ? to : MAX_TIMESTAMP;
+        if (start.isAfter(end))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        return new TimeWindow(start, end);
+    }
+}
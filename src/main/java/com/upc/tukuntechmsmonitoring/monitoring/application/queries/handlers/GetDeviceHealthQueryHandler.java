@@ -0,0 +1,78 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.DeviceHealthResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetDeviceHealthQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.DeviceStatus;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceStats;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceTelemetry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Query Handler responsable del estado de los dispositivos (último reporte, tasa, huecos),
+ * servido desde la telemetría en memoria. Sin dispositivo indicado lista la flota,
+ * los que llevan más tiempo sin reportar primero.
+ */
+@Component
+public class GetDeviceHealthQueryHandler {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final DeviceTelemetry telemetry;
+
+    public GetDeviceHealthQueryHandler(DeviceTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    public List<DeviceHealthResponse> handle(GetDeviceHealthQuery query) {
+        long now = DeviceTelemetry.now();
+
+        if (query.deviceId() != null) {
+            DeviceStats stats = telemetry.get(query.deviceId());
+            if (stats == null)
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No telemetry for device " + query.deviceId());
+            return List.of(toResponse(stats, now));
+        }
+
+        int limit = query.limit() == null ? DEFAULT_LIMIT : query.limit();
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+
+        List<DeviceStats> matching = new ArrayList<>();
+        telemetry.forEach(stats -> {
+            if (query.status() == null || statusOf(stats, now) == query.status()) matching.add(stats);
+        });
+        return matching.stream()
+                .sorted(Comparator.comparingLong(DeviceStats::lastSeenMillis).thenComparingLong(DeviceStats::deviceId))
+                .limit(limit)
+                .map(stats -> toResponse(stats, now))
+                .toList();
+    }
+
+    private DeviceStatus statusOf(DeviceStats stats, long now) {
+        return telemetry.isQuiet(stats, now) ? DeviceStatus.SILENT : DeviceStatus.ONLINE;
+    }
+
+    private DeviceHealthResponse toResponse(DeviceStats stats, long now) {
+        long lastSeen = stats.lastSeenMillis();
+        return new DeviceHealthResponse(
+                stats.deviceId(),
+                stats.patientId(),
+                statusOf(stats, now),
+                lastSeen > 0 ? DeviceTelemetry.toTimestamp(lastSeen) : null,
+                lastSeen > 0 ? Math.max(0, (now - lastSeen) / 1000) : null,
+                Math.round(stats.readingsPerMinute(now) * 100) / 100.0,
+                stats.readings(),
+                stats.gaps(),
+                stats.longestGapMillis() / 1000,
+                stats.silentAlertId()
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.EarlyWarningScoreResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetEarlyWarningRankingQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring.EarlyWarningBoard;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring.PatientScore;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Query Handler responsable del ranking de pacientes por puntaje de alerta temprana
+ * ("quién está empeorando") de una sala o de todo el hospital, servido desde el tablero en memoria.
+ */
+@Component
+public class GetEarlyWarningRankingQueryHandler {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private final EarlyWarningBoard board;
+
+    public GetEarlyWarningRankingQueryHandler(EarlyWarningBoard board) {
+        this.board = board;
+    }
+
+    public List<EarlyWarningScoreResponse> handle(GetEarlyWarningRankingQuery query) {
+        int limit = query.limit() == null ? DEFAULT_LIMIT : query.limit();
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        String ward = query.ward() == null || query.ward().isBlank() ? null : query.ward().trim();
+
+        return board.top(ward, limit).stream()
+                .map(GetEarlyWarningRankingQueryHandler::toResponse)
+                .toList();
+    }
+
+    private static EarlyWarningScoreResponse toResponse(PatientScore entry) {
+        return new EarlyWarningScoreResponse(
+                entry.patientId(),
+                entry.ward(),
+                entry.total(),
+                entry.score().risk(),
+                entry.score().heartRatePoints(),
+                entry.score().oxygenPoints(),
+                entry.score().temperaturePoints(),
+                Math.round(entry.baseline() * 100) / 100.0,
+                entry.trend(),
+                entry.scoredAt()
+        );
+    }
+}
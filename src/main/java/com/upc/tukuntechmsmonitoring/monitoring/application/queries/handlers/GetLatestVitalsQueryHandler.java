@@ -0,0 +1,43 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.VitalSignMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetLatestVitalsQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache.LatestVitalsCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Query Handler responsable de obtener la última medición de varios pacientes (una sala completa)
+ * desde la caché en memoria.
+ */
+@Component
+public class GetLatestVitalsQueryHandler {
+
+    public static final int MAX_PATIENTS = 500;
+
+    private final LatestVitalsCache cache;
+    private final VitalSignMapper mapper;
+
+    public GetLatestVitalsQueryHandler(LatestVitalsCache cache, VitalSignMapper mapper) {
+        this.cache = cache;
+        this.mapper = mapper;
+    }
+
+    public List<VitalSignResponse> handle(GetLatestVitalsQuery query) {
+        if (query.patientIds() == null || query.patientIds().isEmpty())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one patient id is required");
+        if (query.patientIds().size() > MAX_PATIENTS)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_PATIENTS + " patient ids per request");
+
+        return cache.getLatest(query.patientIds().stream().distinct().toList())
+                .stream()
+                .map(mapper::toResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.MeasurementSeriesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetMeasurementSeriesQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.series.DownsampleMode;
+import com.upc.tukuntechmsmonitoring.monitoring.application.series.SeriesDownsampler;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.RollupWatermark;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.RollupWatermarkRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRollupRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Query Handler responsable de construir series reducidas para gráficos de rango largo.
+ * Las filas se leen con un cursor (solo columnas, sin entidades) y se reducen a medida que llegan,
+ * así el tamaño de la respuesta y la memoria usada dependen de {@code points} y no del rango.
+ * <p>
+ * Según el ancho de cada punto pedido se lee la resolución más gruesa que alcanza: rollups por hora,
+ * por minuto o lecturas crudas. Lo que aún no tiene rollup (bordes no alineados y el tramo posterior
+ * a la marca del job) se completa con lecturas crudas.
+ */
+@Component
+public class GetMeasurementSeriesQueryHandler {
+
+    public static final int DEFAULT_POINTS = 500;
+    public static final int MIN_POINTS = 3;
+    public static final int MAX_POINTS = 5000;
+    /** Rango por defecto cuando no se indica {@code from}. */
+    public static final int DEFAULT_RANGE_HOURS = 24;
+
+    private static final String RAW = "RAW";
+
+    private final VitalSignRecordRepository recordRepo;
+    private final VitalSignRollupRepository rollupRepo;
+    private final RollupWatermarkRepository watermarkRepo;
+
+    public GetMeasurementSeriesQueryHandler(VitalSignRecordRepository recordRepo,
+                                            VitalSignRollupRepository rollupRepo,
+                                            RollupWatermarkRepository watermarkRepo) {
+        this.recordRepo = recordRepo;
+        this.rollupRepo = rollupRepo;
+        this.watermarkRepo = watermarkRepo;
+    }
+
+    @Transactional(readOnly = true)
+    public MeasurementSeriesResponse handle(GetMeasurementSeriesQuery query) {
+        int points = query.points() == null ? DEFAULT_POINTS : query.points();
+        if (points < MIN_POINTS || points > MAX_POINTS)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "points must be between " + MIN_POINTS + " and " + MAX_POINTS);
+
+        LocalDateTime to = query.to() != null ? query.to() : LocalDateTime.now();
+        LocalDateTime from = query.from() != null ? query.from() : to.minusHours(DEFAULT_RANGE_HOURS);
+        if (!from.isBefore(to))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to'");
+
+        DownsampleMode mode = query.mode() != null ? query.mode() : DownsampleMode.MIN_MAX_AVG;
+        SeriesDownsampler downsampler = SeriesDownsampler.create(
+                mode, SeriesDownsampler.toMillis(from), SeriesDownsampler.toMillis(to), points);
+
+        // 1️⃣ Elegir la resolución y el tramo [rollupFrom, rollupTo) que se puede leer de rollups
+        Duration pointWidth = Duration.between(from, to).dividedBy(points);
+        RollupGranularity granularity = granularityFor(pointWidth);
+        LocalDateTime rollupFrom = to;
+        LocalDateTime rollupTo = to;
+        if (granularity != null) {
+            LocalDateTime mark = watermarkRepo.findById(granularity).map(RollupWatermark::getRolledUpTo).orElse(null);
+            LocalDateTime alignedFrom = ceil(granularity, from);
+            LocalDateTime alignedTo = granularity.truncate(to);
+            if (mark != null && mark.isBefore(alignedTo)) alignedTo = mark;
+            if (mark != null && alignedFrom.isBefore(alignedTo)) {
+                rollupFrom = alignedFrom;
+                rollupTo = alignedTo;
+            } else {
+                granularity = null;
+            }
+        }
+
+        // 2️⃣ Recorrer en orden cronológico: crudo antes del tramo, rollups, crudo después
+        long sourcePoints = feedRaw(query.patientId(), from, rollupFrom, downsampler);
+        if (granularity != null) {
+            sourcePoints += feedRollups(granularity, query.patientId(), rollupFrom, rollupTo, downsampler);
+            sourcePoints += feedRaw(query.patientId(), rollupTo, to, downsampler);
+        }
+
+        return new MeasurementSeriesResponse(query.patientId(), mode, from, to,
+                granularity != null ? granularity.name() : RAW, sourcePoints, downsampler.finish());
+    }
+
+    /** Resolución más gruesa cuyo bucket no supera el ancho de un punto; null para leer crudo. */
+    private static RollupGranularity granularityFor(Duration pointWidth) {
+        if (pointWidth.compareTo(RollupGranularity.HOUR.width()) >= 0) return RollupGranularity.HOUR;
+        if (pointWidth.compareTo(RollupGranularity.MINUTE.width()) >= 0) return RollupGranularity.MINUTE;
+        return null;
+    }
+
+    private static LocalDateTime ceil(RollupGranularity granularity, LocalDateTime timestamp) {
+        LocalDateTime start = granularity.truncate(timestamp);
+        return start.equals(timestamp) ? start : start.plus(granularity.width());
+    }
+
+    private long feedRaw(Long patientId, LocalDateTime from, LocalDateTime to, SeriesDownsampler downsampler) {
+        if (!from.isBefore(to)) return 0;
+        long rows = 0;
+        double[] values = new double[VitalType.values().length];
+        try (Stream<VitalSignRecordRepository.VitalSample> samples =
+                     recordRepo.streamSamplesByPatient(patientId, from, to)) {
+            Iterator<VitalSignRecordRepository.VitalSample> it = samples.iterator();
+            while (it.hasNext()) {
+                var sample = it.next();
+                values[VitalType.HEART_RATE.ordinal()] = sample.getHeartRate();
+                values[VitalType.OXYGEN_LEVEL.ordinal()] = sample.getOxygenLevel();
+                values[VitalType.TEMPERATURE.ordinal()] = sample.getTemperature();
+                downsampler.accept(SeriesDownsampler.toMillis(sample.getTimestamp()), values);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long feedRollups(RollupGranularity granularity, Long patientId, LocalDateTime from, LocalDateTime to,
+                             SeriesDownsampler downsampler) {
+        long rows = 0;
+        long width = granularity.width().toMillis();
+        int vitals = VitalType.values().length;
+        double[] sums = new double[vitals];
+        double[] mins = new double[vitals];
+        double[] maxs = new double[vitals];
+        try (Stream<VitalSignRollupRepository.RollupValues> rollups =
+                     rollupRepo.streamByPatient(granularity, patientId, from, to)) {
+            Iterator<VitalSignRollupRepository.RollupValues> it = rollups.iterator();
+            while (it.hasNext()) {
+                var r = it.next();
+                set(sums, r.getHeartRateSum(), r.getOxygenLevelSum(), r.getTemperatureSum());
+                set(mins, r.getHeartRateMin(), r.getOxygenLevelMin(), r.getTemperatureMin());
+                set(maxs, r.getHeartRateMax(), r.getOxygenLevelMax(), r.getTemperatureMax());
+                downsampler.acceptBucket(SeriesDownsampler.toMillis(r.getBucketStart()), width, r.getSampleCount(),
+                        sums, mins, maxs);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void set(double[] values, double heartRate, double oxygenLevel, double temperature) {
+        values[VitalType.HEART_RATE.ordinal()] = heartRate;
+        values[VitalType.OXYGEN_LEVEL.ordinal()] = oxygenLevel;
+        values[VitalType.TEMPERATURE.ordinal()] = temperature;
+    }
+}
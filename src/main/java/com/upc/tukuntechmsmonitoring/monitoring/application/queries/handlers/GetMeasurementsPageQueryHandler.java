@@ -0,0 +1,97 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.MeasurementPageResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.VitalSignMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetMeasurementsPageQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.TimeWindow;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Query Handler responsable de paginar el historial de un paciente con cursor (keyset sobre timestamp, id).
+ * Cada página cuesta lo mismo sin importar cuán profunda sea, a diferencia de OFFSET.
+ */
+@Component
+public class GetMeasurementsPageQueryHandler {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final VitalSignRecordRepository repository;
+    private final VitalSignMapper mapper;
+
+    public GetMeasurementsPageQueryHandler(VitalSignRecordRepository repository,
+                                           VitalSignMapper mapper) {
+        this.repository = repository;
+        this.mapper = mapper;
+    }
+
+    public MeasurementPageResponse handle(GetMeasurementsPageQuery query) {
+        int size = query.size() == null ? DEFAULT_PAGE_SIZE : query.size();
+        if (size < 1)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be positive");
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        TimeWindow window = TimeWindow.of(query.from(), query.to());
+
+        // Primera página: todo lo que sea <= to. Siguientes: lo anterior al último elemento entregado.
+        LocalDateTime cursorTs = window.to();
+        long cursorId = Long.MAX_VALUE;
+        if (query.cursor() != null && !query.cursor().isBlank()) {
+            Cursor cursor = Cursor.decode(query.cursor());
+            if (!cursor.timestamp().isAfter(window.to())) {
+                cursorTs = cursor.timestamp();
+                cursorId = cursor.id();
+            }
+        }
+
+        // Se pide una fila extra para saber si hay más páginas sin un COUNT
+        List<VitalSignRecord> rows = repository.findPageByPatient(
+                query.patientId(), window.from(), cursorTs, cursorId, Limit.of(size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<VitalSignRecord> page = hasMore ? rows.subList(0, size) : rows;
+        List<VitalSignResponse> items = page.stream()
+                .map(mapper::toResponse)
+                .toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            VitalSignRecord last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new MeasurementPageResponse(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Posición (timestamp, id) del último elemento entregado, serializada en base64 URL-safe.
+     */
+    private record Cursor(LocalDateTime timestamp, long id) {
+
+        String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
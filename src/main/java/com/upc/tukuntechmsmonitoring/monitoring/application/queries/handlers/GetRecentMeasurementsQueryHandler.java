@@ -4,19 +4,25 @@ package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.VitalSignMapper;
 import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetRecentMeasurementsQuery;
-import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 /**
  * Query Handler responsable de obtener las mediciones más recientes,
  * para dashboards o paneles en tiempo real.
+ * El top-N se resuelve en la base de datos; si la consulta falla, el error se propaga
+ * en lugar de degradar a una lectura completa de la tabla.
  */
 @Component
 public class GetRecentMeasurementsQueryHandler {
 
+    public static final int MAX_LIMIT = 500;
+
     private final VitalSignRecordRepository repository;
     private final VitalSignMapper mapper;
 
@@ -27,21 +33,11 @@ public class GetRecentMeasurementsQueryHandler {
     }
 
     public List<VitalSignResponse> handle(GetRecentMeasurementsQuery query) {
-        // Usa el método custom findRecent() si existe; de lo contrario, fallback a findAll con paginación
-        List<VitalSignRecord> records;
-
-        try {
-            records = repository.findRecent(query.limit());
-        } catch (Exception e) {
-            // fallback si la BD no soporta LIMIT en @Query
-            records = repository.findAll()
-                    .stream()
-                    .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
-                    .limit(query.limit())
-                    .toList();
-        }
-
-        return records.stream()
+        if (query.limit() < 1)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+
+        return repository.findByOrderByTimestampDescIdDesc(Limit.of(Math.min(query.limit(), MAX_LIMIT)))
+                .stream()
                 .map(mapper::toResponse)
                 .toList();
     }
@@ -0,0 +1,78 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers;
+
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.RollingAggregatesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalStatsResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.WindowAggregatesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetRollingAggregatesQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation.RollingAggregatesEngine;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation.VitalSummary;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query Handler responsable de los resúmenes por ventana deslizante ("últimos 15 min / 1 h / 24 h")
+ * de un paciente. Se responden desde el motor de agregados en memoria, sin recorrer el historial.
+ */
+@Component
+public class GetRollingAggregatesQueryHandler {
+
+    public static final List<String> DEFAULT_WINDOWS = List.of("15m", "1h", "24h");
+    public static final int MAX_WINDOWS = 10;
+
+    private final RollingAggregatesEngine engine;
+
+    public GetRollingAggregatesQueryHandler(RollingAggregatesEngine engine) {
+        this.engine = engine;
+    }
+
+    public RollingAggregatesResponse handle(GetRollingAggregatesQuery query) {
+        if (query.patientId() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patient ID is required");
+
+        List<String> windows = query.windows() == null || query.windows().isEmpty()
+                ? DEFAULT_WINDOWS
+                : query.windows();
+        if (windows.size() > MAX_WINDOWS)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_WINDOWS + " windows per request");
+
+        LocalDateTime asOf = LocalDateTime.now();
+        List<WindowAggregatesResponse> result = new ArrayList<>(windows.size());
+        for (String window : windows) {
+            Map<VitalType, VitalSummary> summaries = engine.summarize(query.patientId(), parseWindow(window));
+            result.add(new WindowAggregatesResponse(
+                    window,
+                    toResponse(summaries.get(VitalType.HEART_RATE)),
+                    toResponse(summaries.get(VitalType.OXYGEN_LEVEL)),
+                    toResponse(summaries.get(VitalType.TEMPERATURE))
+            ));
+        }
+        return new RollingAggregatesResponse(query.patientId(), asOf, result);
+    }
+
+    /** Acepta el formato simple de Spring ("15m", "1h", "24h") o ISO-8601 ("PT15M"). */
+    private static Duration parseWindow(String window) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid window: " + window);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(RollingAggregatesEngine.MAX_WINDOW) > 0)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window must be positive and at most 24h: " + window);
+        return duration;
+    }
+
+    private static VitalStatsResponse toResponse(VitalSummary summary) {
+        return new VitalStatsResponse(summary.count(), summary.min(), summary.max(), summary.avg(), summary.p95());
+    }
+}
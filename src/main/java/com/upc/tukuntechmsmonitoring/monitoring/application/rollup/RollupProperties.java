@@ -0,0 +1,61 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.rollup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de rollups y retención del historial (app.monitoring.rollups).
+ *
+ * @param enabled          si el job corre en esta instancia (desactivado por defecto)
+ * @param interval         espera entre ejecuciones del job
+ * @param lateness         margen para mediciones aún sin confirmar antes de cerrar un minuto
+ * @param recheck          tramo de minutos ya cerrados que se vuelve a agregar en cada ejecución, para incluir
+ *                         mediciones confirmadas tarde; cero lo desactiva
+ * @param maxChunk         tramo máximo de tiempo procesado por transacción
+ * @param rawRetention     antigüedad a partir de la cual se borran las lecturas crudas; sin valor no se borran.
+ *                         No puede superar {@code minuteRetention}
+ * @param rawPartitioning  cómo se aplica {@code rawRetention}: borrando lecturas por lotes, o descartando meses
+ *                         enteros de la tabla particionada por el script V11 del motor indicado
+ * @param minuteRetention  antigüedad a partir de la cual se borran los rollups por minuto
+ * @param hourRetention    antigüedad a partir de la cual se borran los rollups por hora
+ * @param deleteBatchSize  filas borradas por transacción al aplicar la retención
+ */
+@ConfigurationProperties(prefix = "app.monitoring.rollups")
+public record RollupProperties(
+        Boolean enabled,
+        Duration interval,
+        Duration lateness,
+        Duration recheck,
+        Duration maxChunk,
+        Duration rawRetention,
+        RawPartitioning rawPartitioning,
+        Duration minuteRetention,
+        Duration hourRetention,
+        Integer deleteBatchSize
+) {
+
+    public RollupProperties {
+        if (enabled == null) enabled = false;
+        if (interval == null) interval = Duration.ofMinutes(1);
+        if (lateness == null) lateness = Duration.ofSeconds(30);
+        if (recheck == null) recheck = Duration.ofMinutes(5);
+        if (maxChunk == null) maxChunk = Duration.ofHours(1);
+        if (rawPartitioning == null) rawPartitioning = RawPartitioning.NONE;
+        if (minuteRetention == null) minuteRetention = Duration.ofDays(90);
+        if (hourRetention == null) hourRetention = Duration.ofDays(730);
+        if (deleteBatchSize == null || deleteBatchSize < 1) deleteBatchSize = 1_000;
+        // Un minuto crudo se corrige sobre su rollup antes de borrarse; ese rollup tiene que seguir existiendo
+        if (rawRetention != null && rawRetention.compareTo(minuteRetention) > 0)
+            throw new IllegalArgumentException("raw-retention must not exceed minute-retention");
+    }
+
+    public enum RawPartitioning {
+        /** Tabla sin particionar: las lecturas vencidas se borran minuto a minuto, en lotes. */
+        NONE,
+        /** Particiones p&lt;yyyyMM&gt; de db/mysql/V11: un mes vencido se descarta con DROP PARTITION. */
+        MYSQL,
+        /** Función pf_vital_sign_records_month de db/sqlserver/V11: TRUNCATE de la partición y MERGE del límite. */
+        SQLSERVER
+    }
+}
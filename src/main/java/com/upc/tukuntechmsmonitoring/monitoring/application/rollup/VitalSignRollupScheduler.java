@@ -0,0 +1,124 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.rollup;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.VitalSignRollupService.RawMonth;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.partitioning.VitalSignRecordPartitions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecuta periódicamente el cálculo incremental de rollups y la retención del historial.
+ * Cada paso es una transacción corta; una ejecución continúa hasta ponerse al día.
+ * Corre en un hilo propio y no en el {@code TaskScheduler} compartido: en modo virtual ese scheduler ejecuta
+ * sus tareas de a una, y una puesta al día larga retrasaría los heartbeats SSE y el barrido de dispositivos.
+ * Con la tabla cruda particionada, también crea por adelantado las particiones de los meses próximos.
+ */
+@Component
+public class VitalSignRollupScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(VitalSignRollupScheduler.class);
+
+    private final VitalSignRollupService rollupService;
+    private final VitalSignRecordPartitions partitions;
+    private final RollupProperties props;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("vital-sign-rollup").daemon(true).factory());
+
+    public VitalSignRollupScheduler(VitalSignRollupService rollupService,
+                                    VitalSignRecordPartitions partitions,
+                                    RollupProperties props) {
+        this.rollupService = rollupService;
+        this.partitions = partitions;
+        this.props = props;
+    }
+
+    @PostConstruct
+    void start() {
+        if (props.enabled()) {
+            executor.scheduleWithFixedDelay(this::run, 0, props.interval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Cancela las próximas ejecuciones; la que está en curso termina su paso y no empieza otro. */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    void run() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+
+            // 1️⃣ Rollups: primero minutos (desde crudo), luego horas (desde minutos)
+            while (running() && rollupService.rollUpMinutes(now)) { }
+            if (!running()) return;
+            int corrected = rollupService.reaggregateRecent();
+            if (corrected > 0) log.info("Re-aggregated {} vital sign minutes with late readings", corrected);
+            while (running() && rollupService.rollUpHours()) { }
+
+            // 2️⃣ Retención: nunca un DELETE sobre toda la tabla. Las lecturas crudas se descartan por mes
+            //    si la tabla está particionada; si no, minuto a minuto, solo las que su rollup ya contiene
+            int batch = props.deleteBatchSize();
+            if (partitions.enabled()) {
+                dropExpiredRawMonths(now);
+            } else {
+                List<Long> expired;
+                while (running() && !(expired = rollupService.prepareRawPurge(now)).isEmpty()) {
+                    for (int from = 0; from < expired.size(); from += batch) {
+                        rollupService.deleteRaw(expired.subList(from, Math.min(from + batch, expired.size())));
+                    }
+                }
+            }
+            while (running() && rollupService.purgeRollupBatch(RollupGranularity.MINUTE, now) == batch) { }
+            while (running() && rollupService.purgeRollupBatch(RollupGranularity.HOUR, now) == batch) { }
+        } catch (RuntimeException e) {
+            // Se reintenta en la próxima ejecución desde la última marca confirmada
+            log.error("Vital sign rollup run failed", e);
+        }
+    }
+
+    /**
+     * Descarta los meses crudos vencidos, del más antiguo en adelante. Un mes con lecturas que faltan en sus
+     * rollups se corrige por tramos de {@code max-chunk} antes de descartarlo; si sigue sin cuadrar, se conserva.
+     */
+    private void dropExpiredRawMonths(LocalDateTime now) {
+        partitions.ensureMonthsAhead(now.toLocalDate());
+        Optional<YearMonth> oldest;
+        while (running() && (oldest = partitions.oldestMonth()).isPresent()) {
+            YearMonth month = oldest.get();
+            RawMonth state = rollupService.checkRawMonth(month, now);
+            if (state == RawMonth.INCOMPLETE) {
+                LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+                for (LocalDateTime from = month.atDay(1).atStartOfDay(); running() && from.isBefore(end); ) {
+                    LocalDateTime to = from.plus(props.maxChunk()).isBefore(end) ? from.plus(props.maxChunk()) : end;
+                    rollupService.reaggregateRange(from, to);
+                    from = to;
+                }
+                if (!running()) return;
+                state = rollupService.checkRawMonth(month, now);
+                if (state == RawMonth.INCOMPLETE) {
+                    log.warn("Raw readings of {} do not match their minute rollups; partition kept", month);
+                    return;
+                }
+            }
+            if (state != RawMonth.ROLLED_UP) return;
+            partitions.dropMonth(month);
+            log.info("Dropped raw vital sign readings of {}", month);
+        }
+    }
+
+    private boolean running() {
+        return !executor.isShutdown();
+    }
+}
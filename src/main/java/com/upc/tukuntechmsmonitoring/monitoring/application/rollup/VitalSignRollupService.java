@@ -0,0 +1,323 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.rollup;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.RollupWatermark;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRollup;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.RollupWatermarkRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRollupRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Calcula los rollups por minuto (desde las lecturas crudas) y por hora (desde los de minuto)
+ * de forma incremental, y aplica la retención por lotes. Cada método procesa un tramo acotado
+ * en su propia transacción, con la marca de agua bloqueada para que una sola instancia lo haga.
+ * <p>
+ * Un minuto se cierra una vez pasado {@code lateness}, pero una medición puede confirmarse después
+ * (una transacción lenta, relojes distintos entre instancias). Esos minutos se corrigen al volver a
+ * agregarlos ({@link #reaggregateRecent}) y, en todo caso, antes de borrar sus lecturas crudas: solo se
+ * borran las lecturas que el rollup corregido contiene.
+ * <p>
+ * Con la tabla cruda particionada por mes ({@code raw-partitioning}), la retención descarta meses enteros
+ * en lugar de borrar filas, tras contrastar cada mes con sus rollups por minuto ({@link #checkRawMonth}).
+ */
+@Service
+public class VitalSignRollupService {
+
+    private final VitalSignRecordRepository recordRepo;
+    private final VitalSignRollupRepository rollupRepo;
+    private final RollupWatermarkRepository watermarkRepo;
+    private final RollupProperties props;
+
+    public VitalSignRollupService(VitalSignRecordRepository recordRepo,
+                                  VitalSignRollupRepository rollupRepo,
+                                  RollupWatermarkRepository watermarkRepo,
+                                  RollupProperties props) {
+        this.recordRepo = recordRepo;
+        this.rollupRepo = rollupRepo;
+        this.watermarkRepo = watermarkRepo;
+        this.props = props;
+    }
+
+    private record BucketKey(Long patientId, LocalDateTime start) {}
+
+    /** Estado de un mes de lecturas crudas particionado frente a la retención. */
+    public enum RawMonth {
+        /** No vence aún, o sus minutos no están todos calculados. */
+        RETAINED,
+        /** Vencido y con todas sus lecturas en los rollups por minuto: puede descartarse. */
+        ROLLED_UP,
+        /** Vencido, pero sus rollups no contienen lecturas confirmadas tarde: corregir antes de descartarlo. */
+        INCOMPLETE
+    }
+
+    /**
+     * Calcula el siguiente tramo de rollups por minuto, hasta {@code now - lateness}.
+     *
+     * @return true si quedan minutos cerrados por procesar
+     */
+    @Transactional
+    public boolean rollUpMinutes(LocalDateTime now) {
+        Optional<RollupWatermark> found = lockOrCreate(RollupGranularity.MINUTE, () ->
+                recordRepo.findFirstByOrderByTimestampAsc()
+                        .map(VitalSignRecord::getTimestamp)
+                        .map(RollupGranularity.MINUTE::truncate));
+        if (found.isEmpty()) return false;
+        RollupWatermark watermark = found.get();
+
+        LocalDateTime limit = RollupGranularity.MINUTE.truncate(now.minus(props.lateness()));
+        LocalDateTime from = watermark.getRolledUpTo();
+        if (!from.isBefore(limit)) return false;
+        LocalDateTime to = min(limit, from.plus(props.maxChunk()));
+
+        // 1️⃣ Agregar las lecturas del tramo por (paciente, minuto)
+        Map<BucketKey, VitalSignRollup> buckets = new HashMap<>();
+        try (Stream<VitalSignRecordRepository.PatientVitalSample> samples = recordRepo.streamSamplesBetween(from, to)) {
+            samples.forEach(sample -> {
+                LocalDateTime start = RollupGranularity.MINUTE.truncate(sample.getTimestamp());
+                buckets.computeIfAbsent(new BucketKey(sample.getPatientId(), start),
+                                key -> VitalSignRollup.start(RollupGranularity.MINUTE, key.patientId(), key.start()))
+                        .add(sample.getHeartRate(), sample.getOxygenLevel(), sample.getTemperature());
+            });
+        }
+
+        // 2️⃣ Persistir y avanzar la marca en la misma transacción
+        rollupRepo.saveAll(buckets.values());
+        watermark.advanceTo(to);
+        return to.isBefore(limit);
+    }
+
+    /**
+     * Calcula el siguiente tramo de rollups por hora a partir de las horas completas por minuto.
+     *
+     * @return true si quedan horas cerradas por procesar
+     */
+    @Transactional
+    public boolean rollUpHours() {
+        Optional<LocalDateTime> minuteMark = rolledUpTo(RollupGranularity.MINUTE);
+        if (minuteMark.isEmpty()) return false;
+
+        Optional<RollupWatermark> found = lockOrCreate(RollupGranularity.HOUR, () ->
+                rollupRepo.findFirstByGranularityOrderByBucketStartAsc(RollupGranularity.MINUTE)
+                        .map(VitalSignRollup::getBucketStart)
+                        .map(RollupGranularity.HOUR::truncate));
+        if (found.isEmpty()) return false;
+        RollupWatermark watermark = found.get();
+
+        LocalDateTime limit = RollupGranularity.HOUR.truncate(minuteMark.get());
+        LocalDateTime from = watermark.getRolledUpTo();
+        if (!from.isBefore(limit)) return false;
+        LocalDateTime to = min(limit, from.plus(props.maxChunk()));
+
+        Map<BucketKey, VitalSignRollup> buckets = new HashMap<>();
+        List<VitalSignRollup> minutes = rollupRepo.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                RollupGranularity.MINUTE, from, to);
+        for (VitalSignRollup minute : minutes) {
+            LocalDateTime start = RollupGranularity.HOUR.truncate(minute.getBucketStart());
+            buckets.computeIfAbsent(new BucketKey(minute.getPatientId(), start),
+                            key -> VitalSignRollup.start(RollupGranularity.HOUR, key.patientId(), key.start()))
+                    .merge(minute);
+        }
+
+        rollupRepo.saveAll(buckets.values());
+        watermark.advanceTo(to);
+        return to.isBefore(limit);
+    }
+
+    /**
+     * Vuelve a agregar los últimos {@code recheck} minutos cerrados para incluir mediciones confirmadas tarde.
+     *
+     * @return minutos corregidos
+     */
+    @Transactional
+    public int reaggregateRecent() {
+        if (props.recheck().isZero()) return 0;
+        Optional<RollupWatermark> watermark = watermarkRepo.lockByGranularity(RollupGranularity.MINUTE);
+        if (watermark.isEmpty()) return 0;
+        LocalDateTime to = watermark.get().getRolledUpTo();
+        return reaggregate(to.minus(props.recheck()), to, null);
+    }
+
+    /**
+     * Prepara el borrado del minuto crudo vencido más antiguo: corrige su rollup con las mediciones tardías
+     * y devuelve los ids de las lecturas que ese rollup contiene. Lo confirmado después queda para la
+     * siguiente llamada, que vuelve a corregir el mismo minuto.
+     *
+     * @return ids a borrar con {@link #deleteRaw}; vacío si no queda nada vencido o si no hay {@code raw-retention}
+     */
+    @Transactional
+    public List<Long> prepareRawPurge(LocalDateTime now) {
+        if (props.rawRetention() == null) return List.of();
+        Optional<RollupWatermark> watermark = watermarkRepo.lockByGranularity(RollupGranularity.MINUTE);
+        if (watermark.isEmpty()) return List.of();
+        LocalDateTime cutoff = RollupGranularity.MINUTE.truncate(
+                min(watermark.get().getRolledUpTo(), now.minus(props.rawRetention())));
+
+        Optional<LocalDateTime> oldest = recordRepo.findFirstByOrderByTimestampAsc()
+                .map(VitalSignRecord::getTimestamp)
+                .map(RollupGranularity.MINUTE::truncate);
+        if (oldest.isEmpty() || !oldest.get().isBefore(cutoff)) return List.of();
+
+        List<Long> ids = new ArrayList<>();
+        reaggregate(oldest.get(), oldest.get().plus(RollupGranularity.MINUTE.width()), ids);
+        return ids;
+    }
+
+    /**
+     * Decide si un mes de la tabla cruda particionada puede descartarse entero: vencido según {@code raw-retention},
+     * detrás de la marca de minutos y con tantas lecturas como suman sus rollups por minuto. Como las lecturas
+     * no se modifican, igual cantidad implica las mismas lecturas. Las lecturas toman el timestamp del servidor
+     * al crearse, así que un mes vencido no recibe filas nuevas entre esta comprobación y el descarte.
+     */
+    @Transactional
+    public RawMonth checkRawMonth(YearMonth month, LocalDateTime now) {
+        if (props.rawRetention() == null) return RawMonth.RETAINED;
+        Optional<RollupWatermark> watermark = watermarkRepo.lockByGranularity(RollupGranularity.MINUTE);
+        if (watermark.isEmpty()) return RawMonth.RETAINED;
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        if (to.isAfter(min(watermark.get().getRolledUpTo(), now.minus(props.rawRetention())))) return RawMonth.RETAINED;
+
+        long raw = recordRepo.countByTimestampGreaterThanEqualAndTimestampLessThan(from, to);
+        long rolledUp = rollupRepo.sumSampleCount(RollupGranularity.MINUTE, from, to);
+        return rolledUp >= raw ? RawMonth.ROLLED_UP : RawMonth.INCOMPLETE;
+    }
+
+    /**
+     * Corrige los minutos de [from, to) con las lecturas confirmadas tarde (un tramo de un mes incompleto).
+     *
+     * @return minutos corregidos
+     */
+    @Transactional
+    public int reaggregateRange(LocalDateTime from, LocalDateTime to) {
+        if (watermarkRepo.lockByGranularity(RollupGranularity.MINUTE).isEmpty()) return 0;
+        return reaggregate(from, to, null);
+    }
+
+    /** Borra un lote de lecturas crudas devueltas por {@link #prepareRawPurge}. */
+    @Transactional
+    public void deleteRaw(List<Long> ids) {
+        recordRepo.deleteAllByIdInBatch(ids);
+    }
+
+    /**
+     * Borra un lote de rollups vencidos de la resolución indicada. Los de minuto solo se borran
+     * una vez incluidos en los de hora, y no mientras se conserven sus lecturas crudas: son el contraste
+     * antes de borrarlas.
+     */
+    @Transactional
+    public int purgeRollupBatch(RollupGranularity granularity, LocalDateTime now) {
+        Optional<LocalDateTime> cutoff = switch (granularity) {
+            case MINUTE -> retentionCutoff(now.minus(props.minuteRetention()), RollupGranularity.HOUR)
+                    .map(this::keepRawCovered);
+            case HOUR -> Optional.of(now.minus(props.hourRetention()));
+        };
+        if (cutoff.isEmpty()) return 0;
+        List<Long> ids = rollupRepo.findIdsOlderThan(granularity, cutoff.get(), Limit.of(props.deleteBatchSize()));
+        if (!ids.isEmpty()) rollupRepo.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    /**
+     * Hasta dónde (excluido) hay rollups calculados de la resolución, o vacío si aún no hay ninguno.
+     */
+    public Optional<LocalDateTime> rolledUpTo(RollupGranularity granularity) {
+        return watermarkRepo.findById(granularity).map(RollupWatermark::getRolledUpTo);
+    }
+
+    /**
+     * Recalcula los minutos de [from, to) desde las lecturas crudas y corrige los rollups que tienen menos
+     * lecturas. Como las lecturas no se modifican, igual cantidad implica las mismas lecturas. Si la hora
+     * ya estaba calculada, se le suma lo que creció el minuto.
+     *
+     * @param ids si no es null, recibe los ids de todas las lecturas recorridas
+     * @return minutos corregidos
+     */
+    private int reaggregate(LocalDateTime from, LocalDateTime to, List<Long> ids) {
+        // 1️⃣ Agregar las lecturas crudas del tramo por (paciente, minuto)
+        Map<BucketKey, VitalSignRollup> recomputed = new HashMap<>();
+        try (Stream<VitalSignRecordRepository.PatientVitalSample> samples = recordRepo.streamSamplesBetween(from, to)) {
+            samples.forEach(sample -> {
+                if (ids != null) ids.add(sample.getId());
+                LocalDateTime start = RollupGranularity.MINUTE.truncate(sample.getTimestamp());
+                recomputed.computeIfAbsent(new BucketKey(sample.getPatientId(), start),
+                                key -> VitalSignRollup.start(RollupGranularity.MINUTE, key.patientId(), key.start()))
+                        .add(sample.getHeartRate(), sample.getOxygenLevel(), sample.getTemperature());
+            });
+        }
+        if (recomputed.isEmpty()) return 0;
+
+        // 2️⃣ Comparar con los rollups guardados; la hora se bloquea para no competir con rollUpHours
+        Map<BucketKey, VitalSignRollup> stored = new HashMap<>();
+        for (VitalSignRollup minute : rollupRepo.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                RollupGranularity.MINUTE, from, to)) {
+            stored.put(new BucketKey(minute.getPatientId(), minute.getBucketStart()), minute);
+        }
+        Optional<LocalDateTime> hourMark = watermarkRepo.lockByGranularity(RollupGranularity.HOUR)
+                .map(RollupWatermark::getRolledUpTo);
+
+        // 3️⃣ Corregir los minutos cortos y las horas que ya los incluían
+        List<VitalSignRollup> changed = new ArrayList<>();
+        Map<BucketKey, VitalSignRollup> hours = new HashMap<>();
+        for (Map.Entry<BucketKey, VitalSignRollup> entry : recomputed.entrySet()) {
+            BucketKey key = entry.getKey();
+            VitalSignRollup fresh = entry.getValue();
+            VitalSignRollup minute = stored.get(key);
+            if (minute != null && minute.getSampleCount() >= fresh.getSampleCount()) continue;
+
+            LocalDateTime hourStart = RollupGranularity.HOUR.truncate(key.start());
+            if (hourMark.isPresent() && hourStart.isBefore(hourMark.get())) {
+                hours.computeIfAbsent(new BucketKey(key.patientId(), hourStart), hourKey ->
+                                rollupRepo.findByGranularityAndPatientIdAndBucketStart(
+                                                RollupGranularity.HOUR, hourKey.patientId(), hourKey.start())
+                                        .orElseGet(() -> VitalSignRollup.start(
+                                                RollupGranularity.HOUR, hourKey.patientId(), hourKey.start())))
+                        .mergeGrowth(minute, fresh);
+            }
+            if (minute == null) {
+                changed.add(fresh);
+            } else {
+                minute.replaceWith(fresh);
+                changed.add(minute);
+            }
+        }
+        rollupRepo.saveAll(changed);
+        rollupRepo.saveAll(hours.values());
+        return changed.size();
+    }
+
+    private LocalDateTime keepRawCovered(LocalDateTime cutoff) {
+        if (props.rawRetention() == null) return cutoff;
+        return recordRepo.findFirstByOrderByTimestampAsc()
+                .map(oldest -> min(cutoff, RollupGranularity.MINUTE.truncate(oldest.getTimestamp())))
+                .orElse(cutoff);
+    }
+
+    private Optional<LocalDateTime> retentionCutoff(LocalDateTime retention, RollupGranularity coveredBy) {
+        return rolledUpTo(coveredBy).map(mark -> min(mark, retention));
+    }
+
+    private Optional<RollupWatermark> lockOrCreate(RollupGranularity granularity,
+                                                   Supplier<Optional<LocalDateTime>> initial) {
+        Optional<RollupWatermark> watermark = watermarkRepo.lockByGranularity(granularity);
+        if (watermark.isPresent()) return watermark;
+        return initial.get().map(start -> watermarkRepo.save(new RollupWatermark(granularity, start)));
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
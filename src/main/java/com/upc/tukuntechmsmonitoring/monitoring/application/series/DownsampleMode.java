@@ -0,0 +1,12 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.series;
+
+/**
+ * Estrategias de reducción de una serie para gráficos de rango largo.
+ */
+public enum DownsampleMode {
+
+    /** Un punto por intervalo de tiempo con mínimo, máximo y promedio (conserva los extremos). */
+    MIN_MAX_AVG,
+    /** Largest-Triangle-Three-Buckets: elige lecturas reales que preservan la forma visual de la curva. */
+    LTTB
+}
@@ -0,0 +1,175 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.series;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.SeriesPointResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSeriesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LTTB (Largest-Triangle-Three-Buckets) en streaming con preselección MinMax:
+ * mientras llegan las filas se conserva solo la lectura mínima y máxima de cada uno de
+ * {@value #PRESELECTION_RATIO}·N sub-intervalos de tiempo (más la primera y la última),
+ * y al terminar se aplica LTTB sobre esos candidatos. La memoria depende de N y no del rango;
+ * los extremos visibles del gráfico se preservan porque siempre están entre los candidatos.
+ * Si el rango tiene N lecturas o menos se devuelven todas, aunque caigan en el mismo sub-intervalo.
+ */
+final class LttbDownsampler implements SeriesDownsampler {
+
+    private static final VitalType[] VITALS = VitalType.values();
+    static final int PRESELECTION_RATIO = 4;
+
+    private final long fromMillis;
+    private final long toMillis;
+    private final int points;
+    private final int slots;
+    /** Lecturas por sub-intervalo (común a los tres signos). */
+    private final int[] counts;
+    /** Indexados como [sub-intervalo * signos + signo]. */
+    private final long[] minTimes;
+    private final double[] minValues;
+    private final long[] maxTimes;
+    private final double[] maxValues;
+    /** Las primeras N lecturas tal cual, indexadas como los arreglos de sub-intervalos. */
+    private final long[] rawTimes;
+    private final double[] rawValues;
+    private int total;
+
+    private long firstTime = Long.MIN_VALUE;
+    private final double[] firstValues = new double[VITALS.length];
+    private long lastTime;
+    private final double[] lastValues = new double[VITALS.length];
+
+    LttbDownsampler(long fromMillis, long toMillis, int points) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.points = points;
+        this.slots = points * PRESELECTION_RATIO;
+        this.counts = new int[slots];
+        this.minTimes = new long[slots * VITALS.length];
+        this.minValues = new double[slots * VITALS.length];
+        this.maxTimes = new long[slots * VITALS.length];
+        this.maxValues = new double[slots * VITALS.length];
+        this.rawTimes = new long[points];
+        this.rawValues = new double[points * VITALS.length];
+    }
+
+    @Override
+    public void accept(long timestampMillis, double[] values) {
+        if (timestampMillis < fromMillis || timestampMillis >= toMillis) return;
+        if (firstTime == Long.MIN_VALUE) {
+            firstTime = timestampMillis;
+            System.arraycopy(values, 0, firstValues, 0, VITALS.length);
+        }
+        lastTime = timestampMillis;
+        System.arraycopy(values, 0, lastValues, 0, VITALS.length);
+        if (total < points) {
+            rawTimes[total] = timestampMillis;
+            System.arraycopy(values, 0, rawValues, total * VITALS.length, VITALS.length);
+        }
+        total++;
+
+        int slot = (int) ((timestampMillis - fromMillis) * slots / (toMillis - fromMillis));
+        boolean first = counts[slot]++ == 0;
+        for (int v = 0; v < VITALS.length; v++) {
+            int i = slot * VITALS.length + v;
+            double value = values[v];
+            if (first || value < minValues[i]) {
+                minValues[i] = value;
+                minTimes[i] = timestampMillis;
+            }
+            if (first || value > maxValues[i]) {
+                maxValues[i] = value;
+                maxTimes[i] = timestampMillis;
+            }
+        }
+    }
+
+    @Override
+    public List<VitalSeriesResponse> finish() {
+        List<VitalSeriesResponse> series = new ArrayList<>(VITALS.length);
+        for (VitalType vital : VITALS) {
+            series.add(new VitalSeriesResponse(vital, finish(vital.ordinal())));
+        }
+        return series;
+    }
+
+    private List<SeriesPointResponse> finish(int v) {
+        if (firstTime == Long.MIN_VALUE) return List.of();
+        if (total <= points) {
+            List<SeriesPointResponse> all = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) all.add(point(rawTimes[i], rawValues[i * VITALS.length + v]));
+            return all;
+        }
+
+        // Candidatos en orden cronológico: primera lectura, min/max de cada sub-intervalo, última lectura
+        long[] xs = new long[slots * 2 + 2];
+        double[] ys = new double[slots * 2 + 2];
+        int n = 0;
+        xs[n] = firstTime;
+        ys[n++] = firstValues[v];
+        for (int slot = 0; slot < slots; slot++) {
+            if (counts[slot] == 0) continue;
+            int i = slot * VITALS.length + v;
+            boolean minFirst = minTimes[i] <= maxTimes[i];
+            n = addCandidate(xs, ys, n, minFirst ? minTimes[i] : maxTimes[i], minFirst ? minValues[i] : maxValues[i]);
+            n = addCandidate(xs, ys, n, minFirst ? maxTimes[i] : minTimes[i], minFirst ? maxValues[i] : minValues[i]);
+        }
+        n = addCandidate(xs, ys, n, lastTime, lastValues[v]);
+
+        List<SeriesPointResponse> result = new ArrayList<>(Math.min(n, points));
+        if (n <= points) {
+            for (int i = 0; i < n; i++) result.add(point(xs[i], ys[i]));
+            return result;
+        }
+
+        // LTTB clásico sobre los candidatos: se fijan el primero y el último; en cada bucket intermedio
+        // se elige el punto que forma el triángulo de mayor área con el elegido anterior y el promedio del siguiente
+        double every = (double) (n - 2) / (points - 2);
+        int a = 0;
+        result.add(point(xs[0], ys[0]));
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += xs[j] - fromMillis;
+                avgY += ys[j];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int start = (int) Math.floor(bucket * every) + 1;
+            int end = (int) Math.floor((bucket + 1) * every) + 1;
+            double ax = xs[a] - fromMillis;
+            double ay = ys[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((ax - avgX) * (ys[j] - ay) - (ax - (xs[j] - fromMillis)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            result.add(point(xs[chosen], ys[chosen]));
+            a = chosen;
+        }
+        result.add(point(xs[n - 1], ys[n - 1]));
+        return result;
+    }
+
+    /** Agrega el candidato salvo que sea la misma lectura que el anterior (min = max, o primera/última). */
+    private static int addCandidate(long[] xs, double[] ys, int n, long x, double y) {
+        if (n > 0 && xs[n - 1] == x && ys[n - 1] == y) return n;
+        xs[n] = x;
+        ys[n] = y;
+        return n + 1;
+    }
+
+    private static SeriesPointResponse point(long timestampMillis, double value) {
+        return new SeriesPointResponse(SeriesDownsampler.fromMillis(timestampMillis), value, null, null, null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.series;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.SeriesPointResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSeriesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divide el rango en N intervalos de igual duración y acumula cantidad, suma, mínimo y máximo
+ * de cada signo vital por intervalo. Los intervalos sin lecturas se omiten.
+ */
+final class MinMaxAvgDownsampler implements SeriesDownsampler {
+
+    private static final VitalType[] VITALS = VitalType.values();
+
+    private final long fromMillis;
+    private final long toMillis;
+    private final int points;
+    /** Todas las lecturas traen los tres signos, así que la cantidad por intervalo es común. */
+    private final int[] counts;
+    /** Indexados como [intervalo * signos + signo]. */
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+
+    MinMaxAvgDownsampler(long fromMillis, long toMillis, int points) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.points = points;
+        this.counts = new int[points];
+        this.sums = new double[points * VITALS.length];
+        this.mins = new double[points * VITALS.length];
+        this.maxs = new double[points * VITALS.length];
+    }
+
+    @Override
+    public void accept(long timestampMillis, double[] values) {
+        if (timestampMillis < fromMillis || timestampMillis >= toMillis) return;
+        int bucket = (int) ((timestampMillis - fromMillis) * points / (toMillis - fromMillis));
+        boolean first = counts[bucket]++ == 0;
+        for (int v = 0; v < VITALS.length; v++) {
+            int i = bucket * VITALS.length + v;
+            double value = values[v];
+            sums[i] += value;
+            if (first || value < mins[i]) mins[i] = value;
+            if (first || value > maxs[i]) maxs[i] = value;
+        }
+    }
+
+    /** Un rollup se suma entero al intervalo que contiene su inicio: el resultado es exacto. */
+    @Override
+    public void acceptBucket(long startMillis, long widthMillis, int count,
+                             double[] bucketSums, double[] bucketMins, double[] bucketMaxs) {
+        if (count == 0 || startMillis < fromMillis || startMillis >= toMillis) return;
+        int bucket = (int) ((startMillis - fromMillis) * points / (toMillis - fromMillis));
+        boolean first = counts[bucket] == 0;
+        counts[bucket] += count;
+        for (int v = 0; v < VITALS.length; v++) {
+            int i = bucket * VITALS.length + v;
+            sums[i] += bucketSums[v];
+            if (first || bucketMins[v] < mins[i]) mins[i] = bucketMins[v];
+            if (first || bucketMaxs[v] > maxs[i]) maxs[i] = bucketMaxs[v];
+        }
+    }
+
+    @Override
+    public List<VitalSeriesResponse> finish() {
+        List<VitalSeriesResponse> series = new ArrayList<>(VITALS.length);
+        for (VitalType vital : VITALS) {
+            int v = vital.ordinal();
+            List<SeriesPointResponse> result = new ArrayList<>();
+            for (int bucket = 0; bucket < points; bucket++) {
+                int count = counts[bucket];
+                if (count == 0) continue;
+                int i = bucket * VITALS.length + v;
+                long start = fromMillis + (toMillis - fromMillis) * bucket / points;
+                result.add(new SeriesPointResponse(
+                        SeriesDownsampler.fromMillis(start),
+                        null,
+                        mins[i],
+                        maxs[i],
+                        SeriesDownsampler.round(sums[i] / count),
+                        count
+                ));
+            }
+            series.add(new VitalSeriesResponse(vital, result));
+        }
+        return series;
+    }
+}
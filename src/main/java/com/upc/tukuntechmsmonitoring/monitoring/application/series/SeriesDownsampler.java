@@ -0,0 +1,60 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.series;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSeriesResponse;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Reduce en línea las lecturas de un paciente (en orden cronológico) a como máximo N puntos por signo vital.
+ * Consume una lectura a la vez y mantiene estado de tamaño proporcional a N, nunca al rango consultado.
+ */
+public interface SeriesDownsampler {
+
+    /**
+     * @param timestampMillis instante de la lectura (ver {@link #toMillis})
+     * @param values          valores indexados por {@link com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType#ordinal()}
+     */
+    void accept(long timestampMillis, double[] values);
+
+    /**
+     * Consume un bucket precalculado (rollup) en lugar de sus lecturas crudas.
+     * Por defecto se trata como dos lecturas en el centro del bucket: el mínimo y el máximo de cada signo.
+     */
+    default void acceptBucket(long startMillis, long widthMillis, int count,
+                              double[] sums, double[] mins, double[] maxs) {
+        long middle = startMillis + widthMillis / 2;
+        accept(middle, mins);
+        accept(middle, maxs);
+    }
+
+    /** Una serie por signo vital, en el orden de {@code VitalType}. */
+    List<VitalSeriesResponse> finish();
+
+    /**
+     * @param fromMillis inicio del rango (incluido)
+     * @param toMillis   fin del rango (excluido)
+     * @param points     puntos máximos por serie
+     */
+    static SeriesDownsampler create(DownsampleMode mode, long fromMillis, long toMillis, int points) {
+        return switch (mode) {
+            case MIN_MAX_AVG -> new MinMaxAvgDownsampler(fromMillis, toMillis, points);
+            case LTTB -> new LttbDownsampler(fromMillis, toMillis, points);
+        };
+    }
+
+    /** Los timestamps son LocalDateTime del servidor; se usa un offset fijo solo para operar con números. */
+    static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    static double round(double value) {
+        return Math.round(value * 10d) / 10d;
+    }
+}
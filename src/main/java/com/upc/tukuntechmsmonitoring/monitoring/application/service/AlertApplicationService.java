@@ -3,20 +3,30 @@ package com.upc.tukuntechmsmonitoring.monitoring.application.service;
 
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 
 /**
  * Application Service para gestionar la lectura y exposición de alertas.
  * Solo ejecuta consultas y mapeos; la lógica de generación está en el dominio.
+ * Filtrado, orden y paginación se resuelven en la base de datos sobre índices compuestos.
  */
 @Service
 public class AlertApplicationService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final AlertRepository repository;
     private final AlertMapper mapper;
 
@@ -28,34 +38,68 @@ public class AlertApplicationService {
     /**
      * Devuelve las alertas más recientes de un paciente.
      */
-    public List<AlertResponse> getAlertsByPatient(Long patientId) {
-        return repository.findByPatientId(patientId)
+    public List<AlertResponse> getAlertsByPatient(Long patientId, int page, int size) {
+        return repository.findByPatientIdOrderByCreatedAtDesc(patientId, pageOf(page, size))
                 .stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt())) // más recientes primero
                 .map(mapper::toResponse)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     /**
      * Devuelve las alertas recientes (últimas N horas) para paneles o dashboards.
      */
-    public List<AlertResponse> getRecentAlerts(int hours) {
+    public List<AlertResponse> getRecentAlerts(int hours, int page, int size) {
+        if (hours < 1)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hours must be positive");
         LocalDateTime cutoff = LocalDateTime.now().minusHours(hours);
-        return repository.findAll().stream()
-                .filter(a -> a.getCreatedAt().isAfter(cutoff))
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
+        return repository.findByCreatedAtAfterOrderByCreatedAtDesc(cutoff, pageOf(page, size))
+                .stream()
                 .map(mapper::toResponse)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     /**
      * Devuelve las alertas filtradas por severidad.
      */
-    public List<AlertResponse> getAlertsBySeverity(String severity) {
-        return repository.findBySeverityIgnoreCase(severity)
+    public List<AlertResponse> getAlertsBySeverity(String severity, int page, int size) {
+        return repository.findBySeverityOrderByCreatedAtDesc(severityOf(severity), pageOf(page, size))
+                .stream()
+                .map(mapper::toResponse)
+                .toList();
+    }
+
+    /**
+     * Devuelve las alertas de un tipo, opcionalmente solo las cuyo valor medido está en [minValue, maxValue].
+     */
+    public List<AlertResponse> getAlertsByType(AlertType type, Double minValue, Double maxValue, int page, int size) {
+        Pageable pageable = pageOf(page, size);
+        if (minValue == null && maxValue == null) {
+            return repository.findByTypeOrderByCreatedAtDesc(type, pageable)
+                    .stream()
+                    .map(mapper::toResponse)
+                    .toList();
+        }
+        double min = minValue != null ? minValue : -Double.MAX_VALUE;
+        double max = maxValue != null ? maxValue : Double.MAX_VALUE;
+        if (min > max)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minValue must not exceed maxValue");
+        return repository.findByTypeAndMeasuredValueBetweenOrderByCreatedAtDesc(type, min, max, pageable)
                 .stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
                 .map(mapper::toResponse)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    private static AlertSeverity severityOf(String severity) {
+        try {
+            return AlertSeverity.valueOf(severity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown severity: " + severity);
+        }
+    }
+
+    private static Pageable pageOf(int page, int size) {
+        if (page < 0 || size < 1)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page must be >= 0 and size must be positive");
+        return PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE));
     }
 }
@@ -1,36 +1,100 @@
 package com.upc.tukuntechmsmonitoring.monitoring.application.service;
 
 
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertChanges;
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertStateMachine;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertRepository;
 import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseEmitterService;
+import com.upc.tukuntechmsmonitoring.shared.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persistencia de las alertas: las que abre y resuelve el motor, las de dispositivos silenciosos y las externas.
+ * Cuenta las confirmadas por tipo y severidad en {@code monitoring.alerts.opened} / {@code monitoring.alerts.resolved}.
+ */
 @Service
 public class AlertDomainService {
 
+    /** Alertas abiertas leídas por paciente al reconstruir su estado. */
+    private static final int OPEN_ALERTS_LIMIT = 20;
+
     private final AlertRepository alertRepository;
     private final SseEmitterService sseEmitterService;
+    private final AlertStateMachine alertStateMachine;
+    private final AlertMapper alertMapper;
+    private final MeterRegistry meterRegistry;
 
     public AlertDomainService(AlertRepository alertRepository,
-                              SseEmitterService sseEmitterService) {
+                              SseEmitterService sseEmitterService,
+                              AlertStateMachine alertStateMachine,
+                              AlertMapper alertMapper,
+                              MeterRegistry meterRegistry) {
         this.alertRepository = alertRepository;
         this.sseEmitterService = sseEmitterService;
+        this.alertStateMachine = alertStateMachine;
+        this.alertMapper = alertMapper;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
-     * Analiza una medición completa y genera (si aplica) una alerta de dominio.
-     * El dominio (VitalSignRecord) decide si es anormal; este servicio orquesta la persistencia y emisión.
+     * Evalúa un lote de mediciones con la máquina de estados de alertas: persiste las alertas que se abren
+     * y marca como resueltas las que terminan, todo en una transacción.
+     * La emisión SSE queda a cargo del llamador, una vez confirmada la transacción.
+     * Usa siempre una transacción propia: el pipeline puede invocarlo desde un callback afterCommit.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public AlertChanges processMeasurements(List<VitalSignRecord> records) {
+        List<Alert> opened = new ArrayList<>();
+        List<Alert> resolved = new ArrayList<>();
+        for (VitalSignRecord record : records) {
+            alertStateMachine.evaluate(record, this::openAlertsOf, opened, resolved);
+        }
+
+        if (!opened.isEmpty()) alertRepository.saveAll(opened);
+        if (!resolved.isEmpty()) alertRepository.saveAll(resolved);
+        countAfterCommit(opened, resolved);
+        return new AlertChanges(opened, resolved);
+    }
+
+    /**
+     * Persiste los cambios del barrido de dispositivos silenciosos: guarda las alertas nuevas y
+     * resuelve las indicadas por id. Devuelve las resueltas; la emisión SSE queda a cargo del llamador.
      */
     @Transactional
-    public void processMeasurement(VitalSignRecord record) {
-        record.generateAlertIfNeeded().ifPresent(alert -> {
-            alertRepository.save(alert);
-            // 🔸 Enviar en tiempo real a cuidadores suscritos
-            sseEmitterService.emitAlert(alert);
-        });
+    public List<Alert> applyDeviceSilence(List<Alert> opened, Collection<Long> resolvedIds, LocalDateTime at) {
+        if (!opened.isEmpty()) alertRepository.saveAll(opened);
+        List<Alert> resolved = resolvedIds.isEmpty() ? List.of() : alertRepository.findAllById(resolvedIds);
+        resolved.forEach(alert -> alert.resolve(at));
+        countAfterCommit(opened, resolved);
+        return resolved;
+    }
+
+    /**
+     * Alertas de dispositivo silencioso aún abiertas, más recientes primero.
+     */
+    public List<Alert> openDeviceSilentAlerts() {
+        return alertRepository.findByTypeAndResolvedAtIsNullOrderByCreatedAtDesc(AlertType.DEVICE_SILENT);
+    }
+
+    /**
+     * Alertas de dispositivo silencioso aún abiertas de los dispositivos dados, más recientes primero.
+     */
+    public List<Alert> openDeviceSilentAlerts(Collection<Long> deviceIds) {
+        return alertRepository.findByTypeAndDeviceIdInAndResolvedAtIsNullOrderByCreatedAtDesc(
+                AlertType.DEVICE_SILENT, deviceIds);
     }
 
     /**
@@ -39,6 +103,34 @@ public class AlertDomainService {
     @Transactional
     public void registerExternalAlert(Alert alert) {
         alertRepository.save(alert);
-        sseEmitterService.emitAlert(alert);
+        countAfterCommit(List.of(alert), List.of());
+        sseEmitterService.emitAlert(alert.getPatientId(), alertMapper.toLocalizedResponse(alert));
+    }
+
+    /** Cuenta las alertas solo si la transacción se confirma. Tipos y severidades son enums: cardinalidad acotada. */
+    private void countAfterCommit(List<Alert> opened, List<Alert> resolved) {
+        if (opened.isEmpty() && resolved.isEmpty()) return;
+        TransactionCallbacks.afterCommit(() -> {
+            for (Alert alert : opened) {
+                Counter.builder("monitoring.alerts.opened")
+                        .tag("type", alert.getType().name())
+                        .tag("severity", alert.getSeverity().name())
+                        .description("Alertas abiertas")
+                        .register(meterRegistry)
+                        .increment();
+            }
+            for (Alert alert : resolved) {
+                Counter.builder("monitoring.alerts.resolved")
+                        .tag("type", alert.getType().name())
+                        .description("Alertas resueltas")
+                        .register(meterRegistry)
+                        .increment();
+            }
+        });
+    }
+
+    private List<Alert> openAlertsOf(long patientId) {
+        return alertRepository.findByPatientIdAndResolvedAtIsNullOrderByCreatedAtDesc(
+                patientId, Limit.of(OPEN_ALERTS_LIMIT));
     }
 }
@@ -0,0 +1,105 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.service;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.ThresholdRuleRegistry;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertThresholdRuleRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertThresholdRuleResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertThresholdRuleMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.AlertThresholdRule;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientCohort;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertThresholdRuleRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientCohortRepository;
+import com.upc.tukuntechmsmonitoring.shared.transaction.TransactionCallbacks;
+import jakarta.transaction.Transactional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Application Service para administrar las reglas de umbrales de alertas y las cohortes de pacientes.
+ * Cada cambio confirmado recarga de inmediato las reglas compiladas del motor de alertas.
+ */
+@Service
+public class AlertRuleApplicationService {
+
+    private final AlertThresholdRuleRepository ruleRepository;
+    private final PatientCohortRepository cohortRepository;
+    private final AlertThresholdRuleMapper mapper;
+    private final ThresholdRuleRegistry thresholdRules;
+
+    public AlertRuleApplicationService(AlertThresholdRuleRepository ruleRepository,
+                                       PatientCohortRepository cohortRepository,
+                                       AlertThresholdRuleMapper mapper,
+                                       ThresholdRuleRegistry thresholdRules) {
+        this.ruleRepository = ruleRepository;
+        this.cohortRepository = cohortRepository;
+        this.mapper = mapper;
+        this.thresholdRules = thresholdRules;
+    }
+
+    public List<AlertThresholdRuleResponse> getRules() {
+        return ruleRepository.findAll().stream()
+                .map(mapper::toResponse)
+                .toList();
+    }
+
+    /**
+     * Crea la regla del alcance indicado o reemplaza sus umbrales si ya existe.
+     * Si otra petición crea la misma regla a la vez, la segunda falla con 409 y puede reintentarse.
+     */
+    @Transactional
+    public AlertThresholdRuleResponse upsertRule(AlertThresholdRuleRequest request) {
+        String cohort = request.cohort() == null || request.cohort().isBlank() ? null : request.cohort().trim();
+        try {
+            // 1️⃣ Buscar la regla del mismo alcance o crearla
+            AlertThresholdRule rule = ruleRepository
+                    .findByVitalAndSeverityAndScope(request.vital(), request.severity(),
+                            AlertThresholdRule.scopeOf(request.patientId(), cohort))
+                    .orElseGet(() -> AlertThresholdRule.create(
+                            request.vital(), request.severity(), request.patientId(), cohort));
+
+            // 2️⃣ Validar y aplicar umbrales; el flush hace chocar aquí un alta concurrente del mismo alcance
+            rule.updateBands(request.lowEnter(), request.lowExit(), request.highEnter(), request.highExit());
+            AlertThresholdRule saved = ruleRepository.saveAndFlush(rule);
+
+            // 3️⃣ Recargar reglas compiladas tras el commit
+            TransactionCallbacks.afterCommit(thresholdRules::refresh);
+            return mapper.toResponse(saved);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A rule for this vital, severity and scope was created concurrently; retry the request");
+        }
+    }
+
+    @Transactional
+    public void deleteRule(Long id) {
+        if (!ruleRepository.existsById(id))
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Rule not found");
+        ruleRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(thresholdRules::refresh);
+    }
+
+    /**
+     * Asigna (o cambia) la cohorte de un paciente.
+     */
+    @Transactional
+    public void assignCohort(Long patientId, String cohort) {
+        String normalized = cohort.trim();
+        cohortRepository.findById(patientId)
+                .ifPresentOrElse(pc -> pc.assign(normalized),
+                        () -> cohortRepository.save(new PatientCohort(patientId, normalized)));
+        TransactionCallbacks.afterCommit(thresholdRules::refresh);
+    }
+
+    @Transactional
+    public void removeCohort(Long patientId) {
+        if (!cohortRepository.existsById(patientId))
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Patient has no cohort");
+        cohortRepository.deleteById(patientId);
+        TransactionCallbacks.afterCommit(thresholdRules::refresh);
+    }
+}
@@ -0,0 +1,132 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.service;
+
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.export.ExportFormat;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.VitalSignMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.TimeWindow;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Application Service para exportar historiales completos (mediciones y alertas) en streaming.
+ * Las filas se leen con un cursor JDBC y se escriben en la respuesta a medida que llegan;
+ * el contexto de persistencia se limpia periódicamente, así el consumo de memoria no depende del rango.
+ */
+@Service
+public class ExportApplicationService {
+
+    /** Filas entre cada limpieza del contexto de persistencia y flush de la respuesta. */
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String MEASUREMENT_CSV_HEADER =
+            "id,patientId,deviceId,heartRate,oxygenLevel,temperature,timestamp";
+    private static final String ALERT_CSV_HEADER =
+            "id,patientId,deviceId,type,severity,value,message,createdAt,resolvedAt";
+
+    private final VitalSignRecordRepository recordRepo;
+    private final AlertRepository alertRepo;
+    private final VitalSignMapper vitalSignMapper;
+    private final AlertMapper alertMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public ExportApplicationService(VitalSignRecordRepository recordRepo,
+                                    AlertRepository alertRepo,
+                                    VitalSignMapper vitalSignMapper,
+                                    AlertMapper alertMapper,
+                                    ObjectMapper objectMapper,
+                                    EntityManager entityManager) {
+        this.recordRepo = recordRepo;
+        this.alertRepo = alertRepo;
+        this.vitalSignMapper = vitalSignMapper;
+        this.alertMapper = alertMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Escribe en {@code out} las mediciones del paciente dentro de la ventana, en orden cronológico.
+     */
+    @Transactional(readOnly = true)
+    public void exportMeasurements(Long patientId, TimeWindow window, ExportFormat format, OutputStream out) {
+        try (Stream<VitalSignRecord> rows = recordRepo.streamByPatient(patientId, window.from(), window.to())) {
+            write(rows, vitalSignMapper::toResponse, format, MEASUREMENT_CSV_HEADER,
+                    ExportApplicationService::toCsv, out);
+        }
+    }
+
+    /**
+     * Escribe en {@code out} las alertas del paciente dentro de la ventana, en orden cronológico.
+     */
+    @Transactional(readOnly = true)
+    public void exportAlerts(Long patientId, TimeWindow window, ExportFormat format, OutputStream out) {
+        try (Stream<Alert> rows = alertRepo.streamByPatient(patientId, window.from(), window.to())) {
+            write(rows, alertMapper::toResponse, format, ALERT_CSV_HEADER,
+                    ExportApplicationService::toCsv, out);
+        }
+    }
+
+    private <E, D> void write(Stream<E> rows, Function<E, D> mapper, ExportFormat format, String csvHeader,
+                              Function<D, String> csvLine, OutputStream out) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (format == ExportFormat.CSV) writer.write(csvHeader + "\n");
+
+            int count = 0;
+            Iterator<E> it = rows.iterator();
+            while (it.hasNext()) {
+                D dto = mapper.apply(it.next());
+                writer.write(format == ExportFormat.CSV ? csvLine.apply(dto) : objectMapper.writeValueAsString(dto));
+                writer.write('\n');
+
+                if (++count % CHUNK_SIZE == 0) {
+                    entityManager.clear(); // las entidades ya escritas no se vuelven a usar
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsv(VitalSignResponse r) {
+        return r.id() + "," + r.patientId() + "," + r.deviceId() + "," + r.heartRate() + ","
+                + r.oxygenLevel() + "," + r.temperature() + "," + r.timestamp();
+    }
+
+    private static String toCsv(AlertResponse a) {
+        return a.id() + "," + a.patientId() + "," + a.deviceId() + "," + (a.type() != null ? a.type() : "") + ","
+                + a.severity() + "," + (a.value() != null ? a.value() : "") + ","
+                + csvField(a.message()) + "," + a.createdAt() + ","
+                + (a.resolvedAt() != null ? a.resolvedAt() : "");
+    }
+
+    /** Escapa un campo de texto según RFC 4180. */
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
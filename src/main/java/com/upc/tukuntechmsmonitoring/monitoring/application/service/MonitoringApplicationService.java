@@ -1,85 +1,193 @@
 package com.upc.tukuntechmsmonitoring.monitoring.application.service;
 
 
+import com.upc.tukuntechmsmonitoring.monitoring.application.commands.CreateVitalSignBatchCommand;
+import com.upc.tukuntechmsmonitoring.monitoring.application.commands.CreateVitalSignCommand;
+import com.upc.tukuntechmsmonitoring.monitoring.application.commands.handlers.CreateVitalSignBatchCommandHandler;
 import com.upc.tukuntechmsmonitoring.monitoring.application.commands.handlers.CreateVitalSignCommandHandler;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.BatchItemError;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.BatchMeasurementResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.CreateVitalSignRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.DeviceHealthResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.EarlyWarningScoreResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.MeasurementPageResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.MeasurementSeriesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.RollingAggregatesResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.VitalSignMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.pipeline.AlertPipeline;
+import com.upc.tukuntechmsmonitoring.monitoring.application.series.DownsampleMode;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetDeviceHealthQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetEarlyWarningRankingQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetLatestVitalsQuery;
 import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetMeasurementsByPatientQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetMeasurementSeriesQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetMeasurementsPageQuery;
 import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetRecentMeasurementsQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.GetRollingAggregatesQuery;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetDeviceHealthQueryHandler;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetEarlyWarningRankingQueryHandler;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetLatestVitalsQueryHandler;
 import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetMeasurementsByPatientQueryHandler;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetMeasurementSeriesQueryHandler;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetMeasurementsPageQueryHandler;
 import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetRecentMeasurementsQueryHandler;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.handlers.GetRollingAggregatesQueryHandler;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
-import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
-import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
-import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.DeviceStatus;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
 import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseEmitterService;
+import com.upc.tukuntechmsmonitoring.shared.transaction.TransactionCallbacks;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class MonitoringApplicationService {
 
+    /** Tamaño máximo aceptado por lote; lotes mayores deben partirse en el gateway. */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final CreateVitalSignCommandHandler createHandler;
+    private final CreateVitalSignBatchCommandHandler createBatchHandler;
     private final GetMeasurementsByPatientQueryHandler getByPatientHandler;
+    private final GetMeasurementsPageQueryHandler getPageHandler;
     private final GetRecentMeasurementsQueryHandler getRecentHandler;
-    private final AlertDomainService alertDomainService;
+    private final GetLatestVitalsQueryHandler getLatestHandler;
+    private final GetRollingAggregatesQueryHandler getAggregatesHandler;
+    private final GetMeasurementSeriesQueryHandler getSeriesHandler;
+    private final GetEarlyWarningRankingQueryHandler getEarlyWarningHandler;
+    private final GetDeviceHealthQueryHandler getDeviceHealthHandler;
+    private final AlertPipeline alertPipeline;
     private final SseEmitterService emitterService;
     private final VitalSignRecordRepository recordRepo;
     private final VitalSignMapper vitalSignMapper;
+    private final Validator validator;
 
 
     public MonitoringApplicationService(
             CreateVitalSignCommandHandler createHandler,
+            CreateVitalSignBatchCommandHandler createBatchHandler,
             GetMeasurementsByPatientQueryHandler getByPatientHandler,
+            GetMeasurementsPageQueryHandler getPageHandler,
             GetRecentMeasurementsQueryHandler getRecentHandler,
-            AlertDomainService alertDomainService,
+            GetLatestVitalsQueryHandler getLatestHandler,
+            GetRollingAggregatesQueryHandler getAggregatesHandler,
+            GetMeasurementSeriesQueryHandler getSeriesHandler,
+            GetEarlyWarningRankingQueryHandler getEarlyWarningHandler,
+            GetDeviceHealthQueryHandler getDeviceHealthHandler,
+            AlertPipeline alertPipeline,
             SseEmitterService emitterService,
             VitalSignRecordRepository recordRepo,
-            VitalSignMapper vitalSignMapper
+            VitalSignMapper vitalSignMapper,
+            Validator validator
     ) {
         this.createHandler = createHandler;
+        this.createBatchHandler = createBatchHandler;
         this.getByPatientHandler = getByPatientHandler;
+        this.getPageHandler = getPageHandler;
         this.getRecentHandler = getRecentHandler;
-        this.alertDomainService = alertDomainService;
+        this.getLatestHandler = getLatestHandler;
+        this.getAggregatesHandler = getAggregatesHandler;
+        this.getSeriesHandler = getSeriesHandler;
+        this.getEarlyWarningHandler = getEarlyWarningHandler;
+        this.getDeviceHealthHandler = getDeviceHealthHandler;
+        this.alertPipeline = alertPipeline;
         this.emitterService = emitterService;
         this.recordRepo = recordRepo;
         this.vitalSignMapper = vitalSignMapper;
+        this.validator = validator;
     }
 
     /**
-     * Crea una nueva medición y analiza automáticamente si hay valores fuera de rango.
+     * Crea una nueva medición y la encola para el análisis asíncrono de valores fuera de rango.
+     * La petición solo espera el commit del registro; tras el commit se emite el evento SSE
+     * de la medición y la evaluación, persistencia y difusión de alertas ocurre en el {@link AlertPipeline}.
      */
+    @Transactional
     public VitalSignResponse createMeasurement(CreateVitalSignRequest request) {
-        // 1️⃣ Ejecutar comando → guardar medición en BD
-        VitalSignResponse response = createHandler.handle(
+        // 1️⃣ Ejecutar comando → agregado persistido
+        VitalSignRecord saved = createHandler.handle(new CreateVitalSignCommand(
                 request.patientId(),
                 request.deviceId(),
                 request.heartRate(),
                 request.oxygenLevel(),
                 request.temperature()
-        );
+        ));
 
-        // 2️⃣ Reconstruir entidad de dominio desde la request
-        VitalSignRecord record = VitalSignRecord.create(
-                request.patientId(),
-                request.deviceId(),
-                new HeartRate(request.heartRate()),
-                new OxygenLevel(request.oxygenLevel()),
-                new Temperature(request.temperature())
-        );
+        // 2️⃣ Tras el commit: SSE de la medición y evaluación asíncrona de alertas
+        TransactionCallbacks.afterCommit(() -> {
+            emitterService.emitVitalSign(saved);
+            alertPipeline.submit(saved);
+        });
+
+        return vitalSignMapper.toResponse(saved);
+    }
+
+    /**
+     * Registra un lote de mediciones enviado por un gateway.
+     * Cada elemento se valida por separado: los inválidos se reportan por índice y
+     * los válidos se persisten juntos en una sola transacción con batching JDBC.
+     * Tras el commit se emite un evento SSE por paciente y el lote se encola en el {@link AlertPipeline}.
+     */
+    @Transactional
+    public BatchMeasurementResponse createMeasurements(List<CreateVitalSignRequest> requests) {
+        if (requests == null || requests.isEmpty())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must contain at least one measurement");
+        if (requests.size() > MAX_BATCH_SIZE)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size " + requests.size() + " exceeds maximum of " + MAX_BATCH_SIZE);
+
+        // 1️⃣ Validar cada elemento por separado
+        List<CreateVitalSignCommand> commands = new ArrayList<>(requests.size());
+        List<BatchItemError> errors = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateVitalSignRequest item = requests.get(i);
+            if (item == null) {
+                errors.add(new BatchItemError(i, List.of("Measurement must not be null")));
+                continue;
+            }
+            Set<ConstraintViolation<CreateVitalSignRequest>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                errors.add(new BatchItemError(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .toList()));
+                continue;
+            }
+            commands.add(new CreateVitalSignCommand(
+                    item.patientId(),
+                    item.deviceId(),
+                    item.heartRate(),
+                    item.oxygenLevel(),
+                    item.temperature()
+            ));
+        }
+
+        if (commands.isEmpty())
+            return new BatchMeasurementResponse(requests.size(), 0, errors.size(), List.of(), errors);
 
-        // 3️⃣ Procesar posibles alertas de dominio
-        alertDomainService.processMeasurement(record);
+        // 2️⃣ Persistir todos los válidos en una sola transacción
+        List<VitalSignRecord> saved = createBatchHandler.handle(new CreateVitalSignBatchCommand(commands));
 
-        // 4️⃣ Emitir evento SSE de la medición al paciente
-        emitterService.emitVitalSign(record);
+        // 3️⃣ Tras el commit: SSE por paciente y evaluación asíncrona de alertas
+        TransactionCallbacks.afterCommit(() -> {
+            emitterService.emitVitalSigns(saved);
+            alertPipeline.submitAll(saved);
+        });
 
-        return response;
+        List<VitalSignResponse> created = saved.stream()
+                .map(vitalSignMapper::toResponse)
+                .toList();
+        return new BatchMeasurementResponse(requests.size(), created.size(), errors.size(), created, errors);
     }
 
     /**
@@ -90,6 +198,15 @@ public class MonitoringApplicationService {
         return getByPatientHandler.handle(query);
     }
 
+    /**
+     * Devuelve una página del historial de un paciente dentro de una ventana temporal, más recientes primero.
+     */
+    public MeasurementPageResponse getMeasurementsPage(Long patientId, LocalDateTime from, LocalDateTime to,
+                                                       String cursor, Integer size) {
+        var query = new GetMeasurementsPageQuery(patientId, from, to, cursor, size);
+        return getPageHandler.handle(query);
+    }
+
     /**
      * Devuelve las mediciones más recientes (para dashboards en tiempo real).
      */
@@ -98,6 +215,55 @@ public class MonitoringApplicationService {
         return getRecentHandler.handle(query);
     }
 
+    /**
+     * Devuelve la última medición de cada paciente indicado (vista de sala), servida desde memoria.
+     */
+    public List<VitalSignResponse> getLatestMeasurements(List<Long> patientIds) {
+        var query = new GetLatestVitalsQuery(patientIds);
+        return getLatestHandler.handle(query);
+    }
+
+    /**
+     * Resúmenes (min, max, promedio, p95) por signo vital en las ventanas pedidas, servidos desde memoria.
+     */
+    public RollingAggregatesResponse getRollingAggregates(Long patientId, List<String> windows) {
+        var query = new GetRollingAggregatesQuery(patientId, windows);
+        return getAggregatesHandler.handle(query);
+    }
+
+    /**
+     * Series reducidas a {@code points} puntos por signo vital para graficar rangos largos.
+     */
+    public MeasurementSeriesResponse getMeasurementSeries(Long patientId, LocalDateTime from, LocalDateTime to,
+                                                          Integer points, DownsampleMode mode) {
+        var query = new GetMeasurementSeriesQuery(patientId, from, to, points, mode);
+        return getSeriesHandler.handle(query);
+    }
+
+    /**
+     * Pacientes de la sala (o de todo el hospital) ordenados por puntaje de alerta temprana, más graves primero.
+     */
+    public List<EarlyWarningScoreResponse> getEarlyWarningRanking(String ward, Integer limit) {
+        var query = new GetEarlyWarningRankingQuery(ward, limit);
+        return getEarlyWarningHandler.handle(query);
+    }
+
+    /**
+     * Estado de los dispositivos (opcionalmente solo los de un estado), los que llevan más tiempo sin reportar primero.
+     */
+    public List<DeviceHealthResponse> getDeviceHealth(DeviceStatus status, Integer limit) {
+        var query = new GetDeviceHealthQuery(null, status, limit);
+        return getDeviceHealthHandler.handle(query);
+    }
+
+    /**
+     * Estado de un dispositivo; 404 si no reportó desde el arranque del servicio.
+     */
+    public DeviceHealthResponse getDeviceHealth(Long deviceId) {
+        var query = new GetDeviceHealthQuery(deviceId, null, null);
+        return getDeviceHealthHandler.handle(query).get(0);
+    }
+
     public VitalSignResponse getMeasurementById(Long id) {
         var record = recordRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(
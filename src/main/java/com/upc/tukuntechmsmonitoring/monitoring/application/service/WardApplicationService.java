@@ -0,0 +1,46 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.service;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientWard;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientWardRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring.EarlyWarningBoard;
+import com.upc.tukuntechmsmonitoring.shared.transaction.TransactionCallbacks;
+import jakarta.transaction.Transactional;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Application Service para ubicar pacientes en salas.
+ * Cada cambio confirmado reubica de inmediato al paciente en el ranking de alerta temprana.
+ */
+@Service
+public class WardApplicationService {
+
+    private final PatientWardRepository wardRepository;
+    private final EarlyWarningBoard earlyWarningBoard;
+
+    public WardApplicationService(PatientWardRepository wardRepository, EarlyWarningBoard earlyWarningBoard) {
+        this.wardRepository = wardRepository;
+        this.earlyWarningBoard = earlyWarningBoard;
+    }
+
+    /**
+     * Asigna (o cambia) la sala de un paciente.
+     */
+    @Transactional
+    public void assignWard(Long patientId, String ward) {
+        String normalized = ward.trim();
+        wardRepository.findById(patientId)
+                .ifPresentOrElse(pw -> pw.moveTo(normalized),
+                        () -> wardRepository.save(new PatientWard(patientId, normalized)));
+        TransactionCallbacks.afterCommit(earlyWarningBoard::refreshWards);
+    }
+
+    @Transactional
+    public void removeWard(Long patientId) {
+        if (!wardRepository.existsById(patientId))
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Patient has no ward");
+        wardRepository.deleteById(patientId);
+        TransactionCallbacks.afterCommit(earlyWarningBoard::refreshWards);
+    }
+}
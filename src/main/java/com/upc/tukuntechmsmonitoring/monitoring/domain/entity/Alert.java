@@ -1,5 +1,7 @@
 package com.upc.tukuntechmsmonitoring.monitoring.domain.entity;
 
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -8,41 +10,78 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "alerts")
+@Table(name = "alerts", indexes = {
+        @Index(name = "idx_alerts_patient_created", columnList = "patient_id, created_at"),
+        @Index(name = "idx_alerts_severity_created", columnList = "severity, created_at"),
+        @Index(name = "idx_alerts_created", columnList = "created_at"),
+        // Filtros por tipo y por rango del valor medido
+        @Index(name = "idx_alerts_type_created", columnList = "type, created_at"),
+        @Index(name = "idx_alerts_type_value", columnList = "type, measured_value")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Alert {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alerts_seq")
+    @SequenceGenerator(name = "alerts_seq", sequenceName = "alerts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false) private Long patientId;
     @Column(nullable = false) private Long deviceId;
-    @Column(nullable = false) private String severity; // CRITICAL / WARNING / INFO
-    @Column(nullable = false) private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AlertSeverity severity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = true, length = 20)
+    private AlertType type;
+
+    /** Valor del signo vital que disparó la alerta; null en alertas externas sin valor. */
+    @Column(name = "measured_value", nullable = true) private Double measuredValue;
+
+    /**
+     * Texto libre, solo en alertas externas. Las del motor no guardan texto: el mensaje se arma
+     * (localizado) al exponer la alerta, a partir del tipo y el valor.
+     */
+    @Column(nullable = true)  private String message;
+
     @Column(nullable = false) private LocalDateTime createdAt;
-    @Column(nullable = true)  private String type;     // TEMPERATURE / HEART_RATE / OXYGENATION
+    @Column(nullable = true)  private LocalDateTime resolvedAt; // null mientras el episodio sigue activo
 
     // --- Factory Methods ---
-    public static Alert createCritical(Long patientId, Long deviceId, LocalDateTime ts, String message) {
+
+    /** Alerta de un signo vital generada por el motor de alertas. */
+    public static Alert create(Long patientId, Long deviceId, LocalDateTime ts,
+                               AlertSeverity severity, AlertType type, double measuredValue) {
+        Alert a = of(patientId, deviceId, ts, severity, type);
+        a.measuredValue = measuredValue;
+        return a;
+    }
+
+    /** Alerta recibida de otro sistema (IoT, servicios externos) con su propio texto. */
+    public static Alert createExternal(Long patientId, Long deviceId, LocalDateTime ts,
+                                       AlertSeverity severity, AlertType type, String message) {
+        Alert a = of(patientId, deviceId, ts, severity, type != null ? type : AlertType.GENERAL);
+        a.message = message;
+        return a;
+    }
+
+    private static Alert of(Long patientId, Long deviceId, LocalDateTime ts, AlertSeverity severity, AlertType type) {
+        if (patientId == null || deviceId == null || severity == null)
+            throw new IllegalArgumentException("patientId/deviceId/severity required");
         Alert a = new Alert();
         a.patientId = patientId;
         a.deviceId = deviceId;
         a.createdAt = ts != null ? ts : LocalDateTime.now();
-        a.severity = "CRITICAL";
-        a.message = message;
-        a.type = inferTypeFromMessage(message);
+        a.severity = severity;
+        a.type = type;
         return a;
     }
 
-    // --- Helper to infer type automatically ---
-    private static String inferTypeFromMessage(String message) {
-        if (message == null) return "GENERAL";
-        String lower = message.toLowerCase();
-        if (lower.contains("temp")) return "TEMPERATURE";
-        if (lower.contains("spo2")) return "OXYGENATION";
-        if (lower.contains("hr")) return "HEART_RATE";
-        return "GENERAL";
+    /** Cierra el episodio: el signo vital volvió al rango normal. */
+    public void resolve(LocalDateTime at) {
+        if (resolvedAt == null) resolvedAt = at != null ? at : LocalDateTime.now();
     }
 }
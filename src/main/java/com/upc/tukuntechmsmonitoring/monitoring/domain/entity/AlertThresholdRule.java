@@ -0,0 +1,105 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.entity;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Umbrales con histéresis de un signo vital para un nivel de severidad.
+ * El alcance lo define quién la usa: un paciente ({@code patientId}), una cohorte ({@code cohort})
+ * o, si ambos son null, todos los pacientes. Gana la regla más específica.
+ * Un lado sin umbral ({@code lowEnter} / {@code highEnter} en null) no se vigila.
+ * <p>
+ * Hay a lo sumo una regla por signo, severidad y alcance. La unicidad se declara sobre {@code scope}, que nunca
+ * es null: en un índice único los null de {@code patient_id} / {@code cohort} no chocan entre sí.
+ */
+@Entity
+@Table(name = "alert_threshold_rules",
+        uniqueConstraints = @UniqueConstraint(name = "uk_alert_threshold_rules_scope",
+                columnNames = {"vital", "severity", "scope"}),
+        indexes = {
+                @Index(name = "idx_alert_threshold_rules_patient", columnList = "patient_id"),
+                @Index(name = "idx_alert_threshold_rules_cohort", columnList = "cohort")
+        })
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class AlertThresholdRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alert_threshold_rules_seq")
+    @SequenceGenerator(name = "alert_threshold_rules_seq", sequenceName = "alert_threshold_rules_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private VitalType vital;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AlertSeverity severity;
+
+    @Column(nullable = true) private Long patientId;
+    @Column(nullable = true, length = 50) private String cohort;
+    @Column(nullable = false, length = 64) private String scope;
+
+    @Column(nullable = true) private Double lowEnter;
+    @Column(nullable = true) private Double lowExit;
+    @Column(nullable = true) private Double highEnter;
+    @Column(nullable = true) private Double highExit;
+
+    @Column(nullable = false) private LocalDateTime updatedAt;
+
+    public static AlertThresholdRule create(VitalType vital, AlertSeverity severity, Long patientId, String cohort) {
+        if (vital == null || severity == null)
+            throw new IllegalArgumentException("vital/severity required");
+        if (severity == AlertSeverity.INFO)
+            throw new IllegalArgumentException("Threshold rules must be WARNING or CRITICAL");
+        if (patientId != null && cohort != null)
+            throw new IllegalArgumentException("A rule targets a patient or a cohort, not both");
+        AlertThresholdRule r = new AlertThresholdRule();
+        r.vital = vital;
+        r.severity = severity;
+        r.patientId = patientId;
+        r.cohort = cohort;
+        r.scope = scopeOf(patientId, cohort);
+        return r;
+    }
+
+    /** Clave del alcance: {@code patient:<id>}, {@code cohort:<nombre>} o {@code global}. */
+    public static String scopeOf(Long patientId, String cohort) {
+        if (patientId != null) return "patient:" + patientId;
+        if (cohort != null) return "cohort:" + cohort;
+        return "global";
+    }
+
+    /**
+     * Reemplaza los umbrales. Un exit ausente toma el valor del enter (sin histéresis) y debe quedar
+     * del lado normal del enter.
+     */
+    public void updateBands(Double lowEnter, Double lowExit, Double highEnter, Double highExit) {
+        if (lowEnter == null && highEnter == null)
+            throw new IllegalArgumentException("At least one of lowEnter/highEnter is required");
+        if (lowEnter == null) lowExit = null;
+        else if (lowExit == null) lowExit = lowEnter;
+        if (highEnter == null) highExit = null;
+        else if (highExit == null) highExit = highEnter;
+
+        if (lowEnter != null && lowExit < lowEnter)
+            throw new IllegalArgumentException("lowExit must be >= lowEnter");
+        if (highEnter != null && highExit > highEnter)
+            throw new IllegalArgumentException("highExit must be <= highEnter");
+        if (lowExit != null && highExit != null && lowExit >= highExit)
+            throw new IllegalArgumentException("lowExit must be below highExit");
+
+        this.lowEnter = lowEnter;
+        this.lowExit = lowExit;
+        this.highEnter = highEnter;
+        this.highExit = highExit;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
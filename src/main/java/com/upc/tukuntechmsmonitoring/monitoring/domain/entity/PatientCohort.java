@@ -0,0 +1,36 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cohorte clínica a la que pertenece un paciente (p. ej. "uci", "epoc", "pediatria");
+ * determina qué reglas de umbrales de cohorte le aplican.
+ */
+@Entity
+@Table(name = "patient_cohorts", indexes = @Index(name = "idx_patient_cohorts_cohort", columnList = "cohort"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PatientCohort {
+
+    @Id
+    private Long patientId;
+
+    @Column(nullable = false, length = 50)
+    private String cohort;
+
+    public PatientCohort(Long patientId, String cohort) {
+        if (patientId == null || cohort == null || cohort.isBlank())
+            throw new IllegalArgumentException("patientId/cohort required");
+        this.patientId = patientId;
+        this.cohort = cohort;
+    }
+
+    public void assign(String cohort) {
+        if (cohort == null || cohort.isBlank())
+            throw new IllegalArgumentException("cohort required");
+        this.cohort = cohort;
+    }
+}
@@ -0,0 +1,35 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sala (unidad de internación) en la que está un paciente; agrupa el ranking de alerta temprana.
+ */
+@Entity
+@Table(name = "patient_wards", indexes = @Index(name = "idx_patient_wards_ward", columnList = "ward"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PatientWard {
+
+    @Id
+    private Long patientId;
+
+    @Column(nullable = false, length = 50)
+    private String ward;
+
+    public PatientWard(Long patientId, String ward) {
+        if (patientId == null || ward == null || ward.isBlank())
+            throw new IllegalArgumentException("patientId/ward required");
+        this.patientId = patientId;
+        this.ward = ward;
+    }
+
+    public void moveTo(String ward) {
+        if (ward == null || ward.isBlank())
+            throw new IllegalArgumentException("ward required");
+        this.ward = ward;
+    }
+}
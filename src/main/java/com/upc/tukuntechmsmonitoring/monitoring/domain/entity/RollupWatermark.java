@@ -0,0 +1,37 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.entity;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hasta dónde (excluido) están calculados los rollups de una resolución.
+ * El job avanza la marca de forma incremental; las consultas usan rollups solo antes de ella.
+ */
+@Entity
+@Table(name = "vital_sign_rollup_watermarks")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class RollupWatermark {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime rolledUpTo;
+
+    public RollupWatermark(RollupGranularity granularity, LocalDateTime rolledUpTo) {
+        this.granularity = granularity;
+        this.rolledUpTo = rolledUpTo;
+    }
+
+    public void advanceTo(LocalDateTime timestamp) {
+        if (timestamp.isAfter(rolledUpTo)) rolledUpTo = timestamp;
+    }
+}
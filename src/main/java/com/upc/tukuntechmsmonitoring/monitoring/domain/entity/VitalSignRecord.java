@@ -8,14 +8,24 @@ import jakarta.persistence.*;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
 
 @Entity
-@Table(name = "vital_sign_records")
+@Table(name = "vital_sign_records", indexes = {
+        // Historial por paciente (más recientes primero) y paginación keyset sobre (timestamp, id)
+        @Index(name = "idx_vital_sign_records_patient_ts", columnList = "patient_id, timestamp DESC, id DESC"),
+        // Top-N global de mediciones recientes para dashboards
+        @Index(name = "idx_vital_sign_records_ts", columnList = "timestamp DESC, id DESC")
+})
 @Getter
 public class VitalSignRecord {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    /**
+     * Secuencia con optimizador pooled: Hibernate reserva bloques de ids y puede
+     * agrupar los INSERT en batches JDBC (IDENTITY desactiva el batching).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vital_sign_records_seq")
+    @SequenceGenerator(name = "vital_sign_records_seq", sequenceName = "vital_sign_records_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -61,21 +71,4 @@ public class VitalSignRecord {
         r.timestamp = LocalDateTime.now();
         return r;
     }
-
-    public boolean isAbnormal() {
-        return heartRate.isAbnormal() || oxygenLevel.isAbnormal() || temperature.isAbnormal();
-    }
-
-    /** Produce un Alert básico si hay anormalidad. */
-    public Optional<Alert> generateAlertIfNeeded() {
-        if (!isAbnormal()) return Optional.empty();
-
-        StringBuilder msg = new StringBuilder("Valores fuera de rango → ");
-        if (heartRate.isAbnormal())   msg.append("HR=").append(heartRate.getValue()).append(" bpm | ");
-        if (oxygenLevel.isAbnormal()) msg.append("SpO2=").append(oxygenLevel.getValue()).append("% | ");
-        if (temperature.isAbnormal()) msg.append("Temp=").append(temperature.getValue()).append(" °C");
-
-        Alert alert = Alert.createCritical(patientId, deviceId, timestamp, msg.toString().trim());
-        return Optional.of(alert);
-    }
 }
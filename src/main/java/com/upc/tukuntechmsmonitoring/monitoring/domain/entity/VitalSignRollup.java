@@ -0,0 +1,125 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.entity;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen precalculado de las mediciones de un paciente en un minuto o una hora:
+ * cantidad, suma, mínimo y máximo de cada signo vital. Las consultas de rango largo
+ * leen estas filas en lugar de las lecturas crudas.
+ */
+@Entity
+@Table(name = "vital_sign_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_vital_sign_rollups_bucket",
+                columnNames = {"granularity", "patient_id", "bucket_start"}),
+        indexes = {
+                // Retención por antigüedad
+                @Index(name = "idx_vital_sign_rollups_granularity_start", columnList = "granularity, bucket_start")
+        })
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class VitalSignRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vital_sign_rollups_seq")
+    @SequenceGenerator(name = "vital_sign_rollups_seq", sequenceName = "vital_sign_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false) private Long patientId;
+    @Column(nullable = false) private LocalDateTime bucketStart;
+    @Column(nullable = false) private int sampleCount;
+
+    @Column(nullable = false) private long heartRateSum;
+    @Column(nullable = false) private int heartRateMin;
+    @Column(nullable = false) private int heartRateMax;
+
+    @Column(nullable = false) private long oxygenLevelSum;
+    @Column(nullable = false) private int oxygenLevelMin;
+    @Column(nullable = false) private int oxygenLevelMax;
+
+    @Column(nullable = false) private double temperatureSum;
+    @Column(nullable = false) private double temperatureMin;
+    @Column(nullable = false) private double temperatureMax;
+
+    public static VitalSignRollup start(RollupGranularity granularity, Long patientId, LocalDateTime bucketStart) {
+        VitalSignRollup r = new VitalSignRollup();
+        r.granularity = granularity;
+        r.patientId = patientId;
+        r.bucketStart = bucketStart;
+        return r;
+    }
+
+    /** Suma una lectura cruda al bucket. */
+    public void add(int heartRate, int oxygenLevel, double temperature) {
+        boolean first = sampleCount++ == 0;
+        heartRateSum += heartRate;
+        oxygenLevelSum += oxygenLevel;
+        temperatureSum += temperature;
+        if (first || heartRate < heartRateMin) heartRateMin = heartRate;
+        if (first || heartRate > heartRateMax) heartRateMax = heartRate;
+        if (first || oxygenLevel < oxygenLevelMin) oxygenLevelMin = oxygenLevel;
+        if (first || oxygenLevel > oxygenLevelMax) oxygenLevelMax = oxygenLevel;
+        if (first || temperature < temperatureMin) temperatureMin = temperature;
+        if (first || temperature > temperatureMax) temperatureMax = temperature;
+    }
+
+    /** Suma un bucket de menor resolución (p. ej. un minuto dentro de una hora). */
+    public void merge(VitalSignRollup other) {
+        if (other.sampleCount == 0) return;
+        boolean first = sampleCount == 0;
+        sampleCount += other.sampleCount;
+        heartRateSum += other.heartRateSum;
+        oxygenLevelSum += other.oxygenLevelSum;
+        temperatureSum += other.temperatureSum;
+        heartRateMin = first ? other.heartRateMin : Math.min(heartRateMin, other.heartRateMin);
+        heartRateMax = first ? other.heartRateMax : Math.max(heartRateMax, other.heartRateMax);
+        oxygenLevelMin = first ? other.oxygenLevelMin : Math.min(oxygenLevelMin, other.oxygenLevelMin);
+        oxygenLevelMax = first ? other.oxygenLevelMax : Math.max(oxygenLevelMax, other.oxygenLevelMax);
+        temperatureMin = first ? other.temperatureMin : Math.min(temperatureMin, other.temperatureMin);
+        temperatureMax = first ? other.temperatureMax : Math.max(temperatureMax, other.temperatureMax);
+    }
+
+    /**
+     * Suma lo que {@code recomputed} agrega respecto de {@code previous}, dos cálculos del mismo bucket de menor
+     * resolución donde el segundo contiene las lecturas del primero y otras tardías.
+     */
+    public void mergeGrowth(VitalSignRollup previous, VitalSignRollup recomputed) {
+        if (previous == null || sampleCount == 0) {
+            merge(recomputed);
+            return;
+        }
+        sampleCount += recomputed.sampleCount - previous.sampleCount;
+        heartRateSum += recomputed.heartRateSum - previous.heartRateSum;
+        oxygenLevelSum += recomputed.oxygenLevelSum - previous.oxygenLevelSum;
+        temperatureSum += recomputed.temperatureSum - previous.temperatureSum;
+        heartRateMin = Math.min(heartRateMin, recomputed.heartRateMin);
+        heartRateMax = Math.max(heartRateMax, recomputed.heartRateMax);
+        oxygenLevelMin = Math.min(oxygenLevelMin, recomputed.oxygenLevelMin);
+        oxygenLevelMax = Math.max(oxygenLevelMax, recomputed.oxygenLevelMax);
+        temperatureMin = Math.min(temperatureMin, recomputed.temperatureMin);
+        temperatureMax = Math.max(temperatureMax, recomputed.temperatureMax);
+    }
+
+    /** Reemplaza los valores por los de un nuevo cálculo del mismo bucket. */
+    public void replaceWith(VitalSignRollup recomputed) {
+        sampleCount = recomputed.sampleCount;
+        heartRateSum = recomputed.heartRateSum;
+        heartRateMin = recomputed.heartRateMin;
+        heartRateMax = recomputed.heartRateMax;
+        oxygenLevelSum = recomputed.oxygenLevelSum;
+        oxygenLevelMin = recomputed.oxygenLevelMin;
+        oxygenLevelMax = recomputed.oxygenLevelMax;
+        temperatureSum = recomputed.temperatureSum;
+        temperatureMin = recomputed.temperatureMin;
+        temperatureMax = recomputed.temperatureMax;
+    }
+}
@@ -0,0 +1,10 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Severidad de una alerta, de menor a mayor: el orden de declaración es significativo.
+ */
+public enum AlertSeverity {
+    INFO,
+    WARNING,
+    CRITICAL
+}
@@ -0,0 +1,52 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Qué originó una alerta: un signo vital fuera de sus umbrales, una tendencia anormal de un signo
+ * (alerta temprana), un dispositivo que dejó de reportar o, para alertas externas, GENERAL.
+ */
+public enum AlertType {
+    HEART_RATE(VitalType.HEART_RATE, false),
+    OXYGENATION(VitalType.OXYGEN_LEVEL, false),
+    TEMPERATURE(VitalType.TEMPERATURE, false),
+    HEART_RATE_TREND(VitalType.HEART_RATE, true),
+    OXYGENATION_TREND(VitalType.OXYGEN_LEVEL, true),
+    TEMPERATURE_TREND(VitalType.TEMPERATURE, true),
+    DEVICE_SILENT(null, false),
+    GENERAL(null, false);
+
+    private static final AlertType[] BY_VITAL = new AlertType[VitalType.values().length];
+    private static final AlertType[] TREND_BY_VITAL = new AlertType[VitalType.values().length];
+
+    static {
+        for (AlertType type : values()) {
+            if (type.vital == null) continue;
+            (type.trend ? TREND_BY_VITAL : BY_VITAL)[type.vital.ordinal()] = type;
+        }
+    }
+
+    private final VitalType vital;
+    private final boolean trend;
+
+    AlertType(VitalType vital, boolean trend) {
+        this.vital = vital;
+        this.trend = trend;
+    }
+
+    /** Signo vital de la alerta, o null si no corresponde a uno. */
+    public VitalType vital() {
+        return vital;
+    }
+
+    /** Si la alerta avisa de una tendencia (velocidad de cambio) y no de un valor fuera de umbral. */
+    public boolean isTrend() {
+        return trend;
+    }
+
+    public static AlertType of(VitalType vital) {
+        return BY_VITAL[vital.ordinal()];
+    }
+
+    public static AlertType trendOf(VitalType vital) {
+        return TREND_BY_VITAL[vital.ordinal()];
+    }
+}
@@ -0,0 +1,12 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Nivel de riesgo clínico asociado a un puntaje de alerta temprana (escala NEWS2).
+ */
+public enum ClinicalRisk {
+    LOW,
+    /** Puntaje bajo, pero algún parámetro en su banda extrema (3 puntos). */
+    LOW_MEDIUM,
+    MEDIUM,
+    HIGH
+}
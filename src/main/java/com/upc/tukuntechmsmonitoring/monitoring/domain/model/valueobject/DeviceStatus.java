@@ -0,0 +1,10 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Estado de un dispositivo según su último reporte: ONLINE si reportó dentro del plazo configurado,
+ * SILENT si dejó de hacerlo.
+ */
+public enum DeviceStatus {
+    ONLINE,
+    SILENT
+}
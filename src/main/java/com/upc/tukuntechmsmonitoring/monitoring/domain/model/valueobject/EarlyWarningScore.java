@@ -0,0 +1,51 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Puntaje de alerta temprana al estilo NEWS2 calculado con los parámetros que mide el servicio:
+ * frecuencia cardiaca, SpO2 (escala 1) y temperatura. Es un NEWS2 parcial (sin frecuencia respiratoria,
+ * presión arterial, O2 suplementario ni nivel de conciencia), por lo que su máximo es 9.
+ */
+public record EarlyWarningScore(int heartRatePoints, int oxygenPoints, int temperaturePoints) {
+
+    public static EarlyWarningScore of(int heartRate, int oxygenLevel, double temperature) {
+        return new EarlyWarningScore(heartRatePoints(heartRate), oxygenPoints(oxygenLevel), temperaturePoints(temperature));
+    }
+
+    public int total() {
+        return heartRatePoints + oxygenPoints + temperaturePoints;
+    }
+
+    /** Riesgo según NEWS2: 7+ alto, 5–6 medio, un parámetro con 3 puntos bajo-medio, resto bajo. */
+    public ClinicalRisk risk() {
+        int total = total();
+        if (total >= 7) return ClinicalRisk.HIGH;
+        if (total >= 5) return ClinicalRisk.MEDIUM;
+        if (heartRatePoints == 3 || oxygenPoints == 3 || temperaturePoints == 3) return ClinicalRisk.LOW_MEDIUM;
+        return ClinicalRisk.LOW;
+    }
+
+    private static int heartRatePoints(int bpm) {
+        if (bpm <= 40) return 3;
+        if (bpm <= 50) return 1;
+        if (bpm <= 90) return 0;
+        if (bpm <= 110) return 1;
+        if (bpm <= 130) return 2;
+        return 3;
+    }
+
+    private static int oxygenPoints(int spo2) {
+        if (spo2 <= 91) return 3;
+        if (spo2 <= 93) return 2;
+        if (spo2 <= 95) return 1;
+        return 0;
+    }
+
+    /** La temperatura llega redondeada a 0.1 °C, como las bandas de NEWS2. */
+    private static int temperaturePoints(double celsius) {
+        if (celsius <= 35.0) return 3;
+        if (celsius <= 36.0) return 1;
+        if (celsius <= 38.0) return 0;
+        if (celsius <= 39.0) return 1;
+        return 2;
+    }
+}
@@ -16,9 +16,5 @@ public class HeartRate {
         this.value = value;
     }
 
-    public boolean isAbnormal() {
-        return value < 50 || value > 110;
-    }
-
     public Integer getValue() { return value; }
 }
@@ -0,0 +1,31 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * Instantánea inmutable y compacta de la última medición de un paciente (campos primitivos).
+ */
+public record LatestVitals(
+        long recordId,
+        long patientId,
+        long deviceId,
+        int heartRate,
+        int oxygenLevel,
+        double temperature,
+        LocalDateTime timestamp
+) {
+
+    public static LatestVitals of(VitalSignRecord record) {
+        return new LatestVitals(
+                record.getId(),
+                record.getPatientId(),
+                record.getDeviceId(),
+                record.getHeartRate().getValue(),
+                record.getOxygenLevel().getValue(),
+                record.getTemperature().getValue(),
+                record.getTimestamp()
+        );
+    }
+}
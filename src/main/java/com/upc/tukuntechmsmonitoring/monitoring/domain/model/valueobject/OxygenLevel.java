@@ -16,9 +16,5 @@ public class OxygenLevel {
         this.value = value;
     }
 
-    public boolean isAbnormal() {
-        return value < 90;
-    }
-
     public Integer getValue() { return value; }
 }
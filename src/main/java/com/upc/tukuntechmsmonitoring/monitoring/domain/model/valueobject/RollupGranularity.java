@@ -0,0 +1,28 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resolución de las tablas de rollup de signos vitales.
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Duration width() {
+        return unit.getDuration();
+    }
+
+    /** Inicio del bucket que contiene {@code timestamp}. */
+    public LocalDateTime truncate(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+}
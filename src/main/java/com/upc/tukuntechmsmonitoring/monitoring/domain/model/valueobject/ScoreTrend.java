@@ -0,0 +1,10 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Dirección del puntaje de alerta temprana respecto de su línea base reciente.
+ */
+public enum ScoreTrend {
+    RISING,
+    STABLE,
+    FALLING
+}
@@ -17,9 +17,5 @@ public class Temperature {
         this.value = Math.round(value * 10d) / 10d;
     }
 
-    public boolean isAbnormal() {
-        return value < 35.0 || value > 38.0;
-    }
-
     public Double getValue() { return value; }
 }
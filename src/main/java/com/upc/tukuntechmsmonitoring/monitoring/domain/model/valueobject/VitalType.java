@@ -0,0 +1,11 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+/**
+ * Signos vitales que mide el servicio. Permite referirse a cada uno de forma tipada
+ * (agregados, reglas, series) en lugar de usar cadenas.
+ */
+public enum VitalType {
+    HEART_RATE,
+    OXYGEN_LEVEL,
+    TEMPERATURE
+}
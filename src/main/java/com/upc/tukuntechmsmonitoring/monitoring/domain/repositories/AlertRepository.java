@@ -1,11 +1,22 @@
 package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
 
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio de dominio para gestionar las alertas generadas por signos vitales anómalos.
@@ -14,14 +25,49 @@ import java.util.List;
 public interface AlertRepository extends JpaRepository<Alert, Long> {
 
     /**
-     * Devuelve todas las alertas asociadas a un paciente.
+     * Devuelve una página de alertas de un paciente, más recientes primero (idx_alerts_patient_created).
      */
-    List<Alert> findByPatientId(Long patientId);
+    List<Alert> findByPatientIdOrderByCreatedAtDesc(Long patientId, Pageable pageable);
 
     /**
-     * Devuelve todas las alertas filtradas por nivel de severidad.
+     * Devuelve las alertas aún abiertas (sin resolver) de un paciente, más recientes primero.
+     * Sirve para reconstruir el estado del motor de alertas tras un reinicio.
      */
-    List<Alert> findBySeverityIgnoreCase(String severity);
+    List<Alert> findByPatientIdAndResolvedAtIsNullOrderByCreatedAtDesc(Long patientId, Limit limit);
+
+    /**
+     * Devuelve una página de alertas de una severidad, más recientes primero (idx_alerts_severity_created).
+     */
+    List<Alert> findBySeverityOrderByCreatedAtDesc(AlertSeverity severity, Pageable pageable);
+
+    /**
+     * Devuelve las alertas abiertas de un tipo, más recientes primero.
+     * Sirve para reponer las alertas de dispositivo silencioso tras un reinicio.
+     */
+    List<Alert> findByTypeAndResolvedAtIsNullOrderByCreatedAtDesc(AlertType type);
+
+    /**
+     * Devuelve las alertas abiertas de un tipo de los dispositivos dados, más recientes primero.
+     */
+    List<Alert> findByTypeAndDeviceIdInAndResolvedAtIsNullOrderByCreatedAtDesc(AlertType type,
+                                                                               Collection<Long> deviceIds);
+
+    /**
+     * Devuelve una página de alertas de un tipo, más recientes primero (idx_alerts_type_created).
+     */
+    List<Alert> findByTypeOrderByCreatedAtDesc(AlertType type, Pageable pageable);
+
+    /**
+     * Devuelve una página de alertas de un tipo cuyo valor medido está en [min, max], más recientes primero.
+     * El rango se resuelve sobre idx_alerts_type_value.
+     */
+    List<Alert> findByTypeAndMeasuredValueBetweenOrderByCreatedAtDesc(AlertType type, Double min, Double max,
+                                                                       Pageable pageable);
+
+    /**
+     * Devuelve una página de alertas creadas después de un instante, más recientes primero (idx_alerts_created).
+     */
+    List<Alert> findByCreatedAtAfterOrderByCreatedAtDesc(LocalDateTime cutoff, Pageable pageable);
 
     /**
      * Devuelve todas las alertas creadas dentro de un rango temporal.
@@ -32,4 +78,23 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
      * Devuelve las alertas más recientes (limitadas por tiempo o id).
      */
     List<Alert> findTop20ByOrderByCreatedAtDesc();
+
+    /**
+     * Recorre las alertas de un paciente dentro de [from, to] en orden cronológico sin materializarlas.
+     * Debe consumirse dentro de una transacción de solo lectura y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT a FROM Alert a
+            WHERE a.patientId = :patientId
+              AND a.createdAt >= :from
+              AND a.createdAt <= :to
+            ORDER BY a.createdAt ASC, a.id ASC
+            """)
+    Stream<Alert> streamByPatient(@Param("patientId") Long patientId,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
 }
\ No newline at end of file
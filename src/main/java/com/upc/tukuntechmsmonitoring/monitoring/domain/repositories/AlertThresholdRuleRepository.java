@@ -0,0 +1,23 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.AlertThresholdRule;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio de reglas de umbrales de alertas. La tabla es pequeña: el motor la carga completa
+ * y la compila en memoria.
+ */
+@Repository
+public interface AlertThresholdRuleRepository extends JpaRepository<AlertThresholdRule, Long> {
+
+    /**
+     * Regla de un signo y severidad para un alcance exacto ({@link AlertThresholdRule#scopeOf}).
+     * Resuelto por uk_alert_threshold_rules_scope.
+     */
+    Optional<AlertThresholdRule> findByVitalAndSeverityAndScope(VitalType vital, AlertSeverity severity, String scope);
+}
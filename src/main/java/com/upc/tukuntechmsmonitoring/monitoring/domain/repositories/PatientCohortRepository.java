@@ -0,0 +1,12 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientCohort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de la pertenencia de pacientes a cohortes clínicas.
+ */
+@Repository
+public interface PatientCohortRepository extends JpaRepository<PatientCohort, Long> {
+}
@@ -0,0 +1,12 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientWard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio de la asignación de pacientes a salas.
+ */
+@Repository
+public interface PatientWardRepository extends JpaRepository<PatientWard, Long> {
+}
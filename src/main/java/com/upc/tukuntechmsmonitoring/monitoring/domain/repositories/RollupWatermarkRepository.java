@@ -0,0 +1,24 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.RollupWatermark;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, RollupGranularity> {
+
+    /**
+     * Lee la marca bloqueándola hasta el fin de la transacción, para que una sola instancia
+     * del servicio calcule cada tramo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM RollupWatermark w WHERE w.granularity = :granularity")
+    Optional<RollupWatermark> lockByGranularity(@Param("granularity") RollupGranularity granularity);
+}
@@ -1,13 +1,20 @@
 package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
 
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio de dominio para acceder a registros de signos vitales.
@@ -26,6 +33,119 @@ public interface VitalSignRecordRepository extends JpaRepository<VitalSignRecord
      */
     List<VitalSignRecord> findByDeviceId(Long deviceId);
 
+    /**
+     * Página keyset del historial de un paciente dentro de [from, to], más recientes primero.
+     * Devuelve las filas estrictamente anteriores al cursor (cursorTs, cursorId); para la primera
+     * página se usa cursorTs = to y cursorId = Long.MAX_VALUE. Resuelto por idx_vital_sign_records_patient_ts.
+     */
+    @Query("""
+            SELECT v FROM VitalSignRecord v
+            WHERE v.patientId = :patientId
+              AND v.timestamp >= :from
+              AND (v.timestamp < :cursorTs OR (v.timestamp = :cursorTs AND v.id < :cursorId))
+            ORDER BY v.timestamp DESC, v.id DESC
+            """)
+    List<VitalSignRecord> findPageByPatient(@Param("patientId") Long patientId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("cursorTs") LocalDateTime cursorTs,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
+
+    /**
+     * Recorre el historial de un paciente dentro de [from, to] en orden cronológico sin materializarlo.
+     * Debe consumirse dentro de una transacción de solo lectura y cerrarse al terminar.
+     * En MySQL, el driver solo respeta el fetch size con useCursorFetch=true en DB_URL.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT v FROM VitalSignRecord v
+            WHERE v.patientId = :patientId
+              AND v.timestamp >= :from
+              AND v.timestamp <= :to
+            ORDER BY v.timestamp ASC, v.id ASC
+            """)
+    Stream<VitalSignRecord> streamByPatient(@Param("patientId") Long patientId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    /**
+     * Valores de una medición sin materializar la entidad (proyección por columnas).
+     */
+    interface VitalSample {
+        long getId();
+        LocalDateTime getTimestamp();
+        int getHeartRate();
+        int getOxygenLevel();
+        double getTemperature();
+    }
+
+    /**
+     * Recorre los valores de las mediciones de un paciente dentro de [from, to) en orden cronológico,
+     * sin cargar entidades en el contexto de persistencia. Debe consumirse dentro de una transacción
+     * y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT v.id AS id,
+                   v.timestamp AS timestamp,
+                   v.heartRate.value AS heartRate,
+                   v.oxygenLevel.value AS oxygenLevel,
+                   v.temperature.value AS temperature
+            FROM VitalSignRecord v
+            WHERE v.patientId = :patientId
+              AND v.timestamp >= :from
+              AND v.timestamp < :to
+            ORDER BY v.timestamp ASC, v.id ASC
+            """)
+    Stream<VitalSample> streamSamplesByPatient(@Param("patientId") Long patientId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    /**
+     * {@link VitalSample} con el paciente, para recorridos que abarcan a todos los pacientes.
+     */
+    interface PatientVitalSample extends VitalSample {
+        Long getPatientId();
+    }
+
+    /**
+     * Recorre los valores de todas las mediciones con timestamp dentro de [from, to), sin cargar entidades.
+     * Resuelto por idx_vital_sign_records_ts. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT v.id AS id,
+                   v.patientId AS patientId,
+                   v.timestamp AS timestamp,
+                   v.heartRate.value AS heartRate,
+                   v.oxygenLevel.value AS oxygenLevel,
+                   v.temperature.value AS temperature
+            FROM VitalSignRecord v
+            WHERE v.timestamp >= :from
+              AND v.timestamp < :to
+            """)
+    Stream<PatientVitalSample> streamSamplesBetween(@Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Mediciones de un paciente a partir de un id, en orden de id: re-lectura de las mediciones
+     * que desbordaron el pipeline de alertas.
+     */
+    List<VitalSignRecord> findByPatientIdAndIdGreaterThanEqualOrderByIdAsc(Long patientId, Long fromId, Limit limit);
+
+    /**
+     * Cantidad de mediciones con timestamp dentro de [from, to): contraste de un mes particionado con sus rollups.
+     */
+    long countByTimestampGreaterThanEqualAndTimestampLessThan(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Medición más antigua (punto de partida del primer cálculo de rollups).
+     */
+    Optional<VitalSignRecord> findFirstByOrderByTimestampAsc();
+
     /**
      * Devuelve las mediciones realizadas dentro de un rango de tiempo.
      */
@@ -37,8 +157,20 @@ public interface VitalSignRecordRepository extends JpaRepository<VitalSignRecord
     Optional<VitalSignRecord> findFirstByPatientIdOrderByTimestampDesc(Long patientId);
 
     /**
-     * Devuelve los registros más recientes (limit N) — útil para dashboards.
+     * Devuelve la última medición de cada paciente indicado, en una sola consulta
+     * (máximo por grupo resuelto con idx_vital_sign_records_patient_ts). Ante empates de timestamp
+     * puede devolver más de una fila por paciente.
+     */
+    @Query("""
+            SELECT v FROM VitalSignRecord v
+            WHERE v.patientId IN :patientIds
+              AND v.timestamp = (SELECT MAX(v2.timestamp) FROM VitalSignRecord v2 WHERE v2.patientId = v.patientId)
+            """)
+    List<VitalSignRecord> findLatestByPatientIds(@Param("patientIds") Collection<Long> patientIds);
+
+    /**
+     * Devuelve los registros más recientes (top N) — útil para dashboards.
+     * Spring Data traduce el {@link Limit} al dialecto (LIMIT en MySQL, OFFSET/FETCH en SQL Server).
      */
-    @Query("SELECT v FROM VitalSignRecord v ORDER BY v.timestamp DESC LIMIT ?1")
-    List<VitalSignRecord> findRecent(int limit);
+    List<VitalSignRecord> findByOrderByTimestampDescIdDesc(Limit limit);
 }
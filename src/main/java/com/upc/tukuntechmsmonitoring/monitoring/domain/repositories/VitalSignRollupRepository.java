@@ -0,0 +1,112 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.repositories;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRollup;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de los rollups por minuto y por hora de signos vitales.
+ */
+@Repository
+public interface VitalSignRollupRepository extends JpaRepository<VitalSignRollup, Long> {
+
+    /**
+     * Rollups de todos los pacientes con inicio dentro de [from, to), para construir la resolución siguiente.
+     */
+    List<VitalSignRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Rollup de un paciente en un bucket concreto.
+     */
+    Optional<VitalSignRollup> findByGranularityAndPatientIdAndBucketStart(
+            RollupGranularity granularity, Long patientId, LocalDateTime bucketStart);
+
+    /**
+     * Valores de un rollup sin materializar la entidad (proyección por columnas).
+     */
+    interface RollupValues {
+        LocalDateTime getBucketStart();
+        int getSampleCount();
+        long getHeartRateSum();
+        int getHeartRateMin();
+        int getHeartRateMax();
+        long getOxygenLevelSum();
+        int getOxygenLevelMin();
+        int getOxygenLevelMax();
+        double getTemperatureSum();
+        double getTemperatureMin();
+        double getTemperatureMax();
+    }
+
+    /**
+     * Recorre los rollups de un paciente con inicio dentro de [from, to) en orden cronológico,
+     * sin cargar entidades. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT r.bucketStart AS bucketStart,
+                   r.sampleCount AS sampleCount,
+                   r.heartRateSum AS heartRateSum,
+                   r.heartRateMin AS heartRateMin,
+                   r.heartRateMax AS heartRateMax,
+                   r.oxygenLevelSum AS oxygenLevelSum,
+                   r.oxygenLevelMin AS oxygenLevelMin,
+                   r.oxygenLevelMax AS oxygenLevelMax,
+                   r.temperatureSum AS temperatureSum,
+                   r.temperatureMin AS temperatureMin,
+                   r.temperatureMax AS temperatureMax
+            FROM VitalSignRollup r
+            WHERE r.granularity = :granularity
+              AND r.patientId = :patientId
+              AND r.bucketStart >= :from
+              AND r.bucketStart < :to
+            ORDER BY r.bucketStart ASC
+            """)
+    Stream<RollupValues> streamByPatient(@Param("granularity") RollupGranularity granularity,
+                                         @Param("patientId") Long patientId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    /**
+     * Rollup más antiguo de una resolución (punto de partida del primer cálculo de la siguiente).
+     */
+    Optional<VitalSignRollup> findFirstByGranularityOrderByBucketStartAsc(RollupGranularity granularity);
+
+    /**
+     * Lecturas contenidas en los rollups de una resolución con inicio dentro de [from, to).
+     */
+    @Query("""
+            SELECT COALESCE(SUM(r.sampleCount), 0) FROM VitalSignRollup r
+            WHERE r.granularity = :granularity
+              AND r.bucketStart >= :from
+              AND r.bucketStart < :to
+            """)
+    long sumSampleCount(@Param("granularity") RollupGranularity granularity,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
+    /**
+     * Ids de un bloque de rollups anteriores a {@code cutoff}, para borrarlos por lotes acotados.
+     */
+    @Query("""
+            SELECT r.id FROM VitalSignRollup r
+            WHERE r.granularity = :granularity
+              AND r.bucketStart < :cutoff
+            """)
+    List<Long> findIdsOlderThan(@Param("granularity") RollupGranularity granularity,
+                                @Param("cutoff") LocalDateTime cutoff,
+                                Limit limit);
+}
@@ -0,0 +1,31 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+/**
+ * Histograma lineal de ancho fijo sobre el rango del sensor de cada signo vital.
+ * Es el "sketch" de cuantiles: unos pocos contadores por bucket de tiempo que se suman entre buckets,
+ * con error acotado a medio ancho de clase.
+ */
+record HistogramLayout(double lo, double width, int bins) {
+
+    private static final HistogramLayout[] LAYOUTS = {
+            new HistogramLayout(30, 5, 39),     // HEART_RATE: 30–220 bpm en clases de 5 bpm
+            new HistogramLayout(50, 1, 51),     // OXYGEN_LEVEL: 50–100 % en clases de 1 %
+            new HistogramLayout(30, 0.25, 61)   // TEMPERATURE: 30–45 °C en clases de 0.25 °C
+    };
+
+    static HistogramLayout of(VitalType vital) {
+        return LAYOUTS[vital.ordinal()];
+    }
+
+    int index(double value) {
+        int i = (int) ((value - lo) / width);
+        return Math.max(0, Math.min(bins - 1, i));
+    }
+
+    /** Valor en la posición fraccional {@code position} (0..1) dentro de la clase {@code bin}. */
+    double valueAt(int bin, double position) {
+        return lo + width * (bin + position);
+    }
+}
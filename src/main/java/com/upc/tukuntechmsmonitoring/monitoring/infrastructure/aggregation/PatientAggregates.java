@@ -0,0 +1,107 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agregados de un paciente en dos resoluciones: buckets de 1 minuto para la última hora
+ * y de 30 minutos para las últimas 24 horas. Cada ventana se responde con el anillo más fino que la cubre.
+ * <p>
+ * La carga inicial desde la BD ({@link #warmUp}) solo toma lo anterior a la creación de la instancia, así que
+ * las lecturas en vivo posteriores a ese instante nunca se cuentan dos veces. Las lecturas en vivo anteriores
+ * (un dispositivo que sube mediciones atrasadas) también se cuentan: mientras la carga no ha terminado se anota
+ * su id y la carga las salta si también las lee. Queda un solapamiento posible: una fila confirmada antes de que
+ * la carga la lea cuyo aviso en vivo llega después de terminar la carga. El aviso sale justo tras el commit,
+ * así que exige una pausa del hilo más larga que toda la carga.
+ */
+final class PatientAggregates {
+
+    static final Duration MAX_WINDOW = Duration.ofHours(24);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock warmUpLock = new ReentrantLock();
+    private final TimeBucketRing fine = new TimeBucketRing(Duration.ofMinutes(1), 60);
+    private final TimeBucketRing coarse = new TimeBucketRing(Duration.ofMinutes(30), 48);
+    private final long createdAtMillis;
+    private volatile boolean warm;
+    /** Ids de lecturas en vivo anteriores a la creación, registradas antes de terminar la carga. Protegido por {@code lock}. */
+    private Set<Long> lateBeforeWarm = new HashSet<>();
+
+    PatientAggregates(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    /** Lectura confirmada en la ingesta. */
+    void recordLive(long recordId, long timestampMillis, double[] values) {
+        lock.lock();
+        try {
+            if (timestampMillis < createdAtMillis) {
+                // Más vieja que la ventana: ningún anillo la conserva, y anotarla solo ocuparía memoria
+                if (timestampMillis < createdAtMillis - MAX_WINDOW.toMillis()) return;
+                if (lateBeforeWarm != null) lateBeforeWarm.add(recordId);
+            }
+            add(timestampMillis, values);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Lectura histórica cargada durante {@link #warmUp}. */
+    void recordHistorical(long recordId, long timestampMillis, double[] values) {
+        if (timestampMillis >= createdAtMillis) return;
+        lock.lock();
+        try {
+            if (lateBeforeWarm.contains(recordId)) return;
+            add(timestampMillis, values);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(long timestampMillis, double[] values) {
+        fine.add(timestampMillis, values);
+        coarse.add(timestampMillis, values);
+    }
+
+    /**
+     * Ejecuta {@code loader} una sola vez (la primera consulta del paciente); las consultas concurrentes esperan.
+     * Si falla, la siguiente consulta lo vuelve a intentar.
+     */
+    void warmUp(Runnable loader) {
+        if (warm) return;
+        warmUpLock.lock();
+        try {
+            if (!warm) {
+                loader.run();
+                lock.lock();
+                try {
+                    lateBeforeWarm = null;
+                    warm = true;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            warmUpLock.unlock();
+        }
+    }
+
+    VitalAccumulator[] summarize(long nowMillis, Duration window) {
+        long windowMillis = window.toMillis();
+        TimeBucketRing ring = windowMillis <= fine.spanMillis() ? fine : coarse;
+        VitalAccumulator[] accumulators = VitalAccumulator.forAllVitals();
+        lock.lock();
+        try {
+            ring.collect(nowMillis, windowMillis, accumulators);
+        } finally {
+            lock.unlock();
+        }
+        return accumulators;
+    }
+}
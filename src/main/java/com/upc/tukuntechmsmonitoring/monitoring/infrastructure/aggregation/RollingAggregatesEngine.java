@@ -0,0 +1,103 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache.LongKeyedCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Motor incremental de agregados por ventana deslizante (min, max, promedio y p95) por paciente y signo vital.
+ * La ingesta lo alimenta tras cada commit y las consultas se responden desde memoria sumando unos pocos buckets,
+ * sin leer vital_sign_records. La única lectura a la BD es la carga inicial de las últimas 24 h de un paciente,
+ * la primera vez que se consulta tras un reinicio o un desalojo.
+ */
+@Component
+public class RollingAggregatesEngine {
+
+    public static final Duration MAX_WINDOW = PatientAggregates.MAX_WINDOW;
+
+    private final VitalSignRecordRepository repository;
+    private final TransactionTemplate readOnlyTx;
+    private final LongKeyedCache<PatientAggregates> patients;
+
+    public RollingAggregatesEngine(VitalSignRecordRepository repository,
+                                   PlatformTransactionManager transactionManager,
+                                   RollingAggregatesProperties props) {
+        this.repository = repository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.patients = new LongKeyedCache<>(props.maxPatients());
+    }
+
+    /**
+     * Registra una medición confirmada.
+     */
+    public void record(VitalSignRecord record) {
+        double[] values = {
+                record.getHeartRate().getValue(),
+                record.getOxygenLevel().getValue(),
+                record.getTemperature().getValue()
+        };
+        aggregatesOf(record.getPatientId()).recordLive(record.getId(), toMillis(record.getTimestamp()), values);
+    }
+
+    /**
+     * Resumen de cada signo vital del paciente en los últimos {@code window} (máximo {@link #MAX_WINDOW}).
+     */
+    public Map<VitalType, VitalSummary> summarize(long patientId, Duration window) {
+        if (window.isNegative() || window.isZero() || window.compareTo(MAX_WINDOW) > 0)
+            throw new IllegalArgumentException("window must be within (0, " + MAX_WINDOW + "]");
+
+        PatientAggregates aggregates = aggregatesOf(patientId);
+        aggregates.warmUp(() -> loadHistory(patientId, aggregates));
+
+        VitalAccumulator[] accumulators = aggregates.summarize(toMillis(LocalDateTime.now()), window);
+        Map<VitalType, VitalSummary> summaries = new EnumMap<>(VitalType.class);
+        for (VitalType vital : VitalType.values()) {
+            summaries.put(vital, accumulators[vital.ordinal()].toSummary());
+        }
+        return summaries;
+    }
+
+    private PatientAggregates aggregatesOf(long patientId) {
+        return patients.computeIfAbsent(patientId, id -> new PatientAggregates(toMillis(LocalDateTime.now())));
+    }
+
+    /** Carga las 24 h anteriores a la creación de los agregados, leyendo solo columnas (sin entidades). */
+    private void loadHistory(long patientId, PatientAggregates aggregates) {
+        LocalDateTime to = fromMillis(aggregates.createdAtMillis());
+        LocalDateTime from = to.minus(MAX_WINDOW);
+        double[] values = new double[VitalType.values().length];
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<VitalSignRecordRepository.VitalSample> samples =
+                         repository.streamSamplesByPatient(patientId, from, to)) {
+                samples.forEach(sample -> {
+                    values[VitalType.HEART_RATE.ordinal()] = sample.getHeartRate();
+                    values[VitalType.OXYGEN_LEVEL.ordinal()] = sample.getOxygenLevel();
+                    values[VitalType.TEMPERATURE.ordinal()] = sample.getTemperature();
+                    aggregates.recordHistorical(sample.getId(), toMillis(sample.getTimestamp()), values);
+                });
+            }
+        });
+    }
+
+    /** Los timestamps son LocalDateTime del servidor; se convierten con un offset fijo solo para ubicar buckets. */
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
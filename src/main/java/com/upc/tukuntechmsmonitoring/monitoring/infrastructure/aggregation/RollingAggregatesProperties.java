@@ -0,0 +1,18 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración del motor de agregados por ventana deslizante (app.monitoring.rolling-aggregates).
+ *
+ * @param maxPatients pacientes con agregados en memoria (≈45 KB cada uno); al superarse se desalojan los menos usados
+ */
+@ConfigurationProperties(prefix = "app.monitoring.rolling-aggregates")
+public record RollingAggregatesProperties(
+        Integer maxPatients
+) {
+
+    public RollingAggregatesProperties {
+        if (maxPatients == null || maxPatients < 1) maxPatients = 2_000;
+    }
+}
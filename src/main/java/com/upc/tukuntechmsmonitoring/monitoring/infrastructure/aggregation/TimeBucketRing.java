@@ -0,0 +1,111 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Anillo de buckets de tiempo de ancho fijo con contadores primitivos para todos los signos vitales
+ * de un paciente: cantidad, suma, mínimo, máximo e histograma por bucket.
+ * Un bucket se reutiliza cuando el tiempo avanza una vuelta completa del anillo, así que la memoria
+ * es constante y agregar una lectura es O(1). No es thread-safe: lo protege {@link PatientAggregates}.
+ */
+final class TimeBucketRing {
+
+    private static final VitalType[] VITALS = VitalType.values();
+    private static final int VITAL_COUNT = VITALS.length;
+    private static final int[] BIN_OFFSET = new int[VITAL_COUNT];
+    private static final int TOTAL_BINS;
+
+    static {
+        int offset = 0;
+        for (VitalType vital : VITALS) {
+            BIN_OFFSET[vital.ordinal()] = offset;
+            offset += HistogramLayout.of(vital).bins();
+        }
+        TOTAL_BINS = offset;
+    }
+
+    private final long bucketMillis;
+    private final int buckets;
+    /** Índice absoluto (timestamp / ancho) del bucket que ocupa cada posición; -1 si está vacía. */
+    private final long[] epochs;
+    /** Los arreglos por signo vital se indexan como [posición * VITAL_COUNT + signo]. */
+    private final int[] counts;
+    private final double[] sums;
+    private final float[] mins;
+    private final float[] maxs;
+    /** Histogramas indexados como [posición * TOTAL_BINS + offset del signo + clase]. */
+    private final char[] histograms;
+
+    TimeBucketRing(Duration bucketWidth, int buckets) {
+        this.bucketMillis = bucketWidth.toMillis();
+        this.buckets = buckets;
+        this.epochs = new long[buckets];
+        this.counts = new int[buckets * VITAL_COUNT];
+        this.sums = new double[buckets * VITAL_COUNT];
+        this.mins = new float[buckets * VITAL_COUNT];
+        this.maxs = new float[buckets * VITAL_COUNT];
+        this.histograms = new char[buckets * TOTAL_BINS];
+        Arrays.fill(epochs, -1L);
+    }
+
+    /** Intervalo de tiempo total que cubre el anillo. */
+    long spanMillis() {
+        return bucketMillis * buckets;
+    }
+
+    /**
+     * Agrega una lectura; {@code values} se indexa por {@link VitalType#ordinal()}.
+     * Las lecturas más antiguas que el bucket que hoy ocupa su posición se descartan.
+     */
+    void add(long timestampMillis, double[] values) {
+        long epoch = Math.floorDiv(timestampMillis, bucketMillis);
+        int slot = (int) Math.floorMod(epoch, buckets);
+        if (epochs[slot] != epoch) {
+            if (epochs[slot] > epoch) return;
+            reset(slot, epoch);
+        }
+
+        for (int v = 0; v < VITAL_COUNT; v++) {
+            double value = values[v];
+            int i = slot * VITAL_COUNT + v;
+            float f = (float) value;
+            if (counts[i] == 0 || f < mins[i]) mins[i] = f;
+            if (counts[i] == 0 || f > maxs[i]) maxs[i] = f;
+            counts[i]++;
+            sums[i] += value;
+
+            int bin = slot * TOTAL_BINS + BIN_OFFSET[v] + HistogramLayout.of(VITALS[v]).index(value);
+            if (histograms[bin] != Character.MAX_VALUE) histograms[bin]++;
+        }
+    }
+
+    /**
+     * Suma en {@code out} (uno por signo vital) los buckets cuyo inicio cae dentro de los últimos
+     * {@code windowMillis} hasta {@code nowMillis}, incluido el bucket en curso.
+     */
+    void collect(long nowMillis, long windowMillis, VitalAccumulator[] out) {
+        long last = Math.floorDiv(nowMillis, bucketMillis);
+        long first = Math.max(last - buckets + 1, Math.floorDiv(nowMillis - windowMillis, bucketMillis) + 1);
+        for (long epoch = first; epoch <= last; epoch++) {
+            int slot = (int) Math.floorMod(epoch, buckets);
+            if (epochs[slot] != epoch) continue;
+            for (int v = 0; v < VITAL_COUNT; v++) {
+                int i = slot * VITAL_COUNT + v;
+                if (counts[i] == 0) continue;
+                out[v].merge(counts[i], sums[i], mins[i], maxs[i],
+                        histograms, slot * TOTAL_BINS + BIN_OFFSET[v]);
+            }
+        }
+    }
+
+    private void reset(int slot, long epoch) {
+        epochs[slot] = epoch;
+        int from = slot * VITAL_COUNT;
+        Arrays.fill(counts, from, from + VITAL_COUNT, 0);
+        Arrays.fill(sums, from, from + VITAL_COUNT, 0d);
+        Arrays.fill(histograms, slot * TOTAL_BINS, (slot + 1) * TOTAL_BINS, (char) 0);
+    }
+}
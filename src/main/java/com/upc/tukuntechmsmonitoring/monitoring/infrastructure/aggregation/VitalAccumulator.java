@@ -0,0 +1,67 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+/**
+ * Acumula los buckets de una ventana para un signo vital y calcula el resumen final.
+ */
+final class VitalAccumulator {
+
+    private final VitalType vital;
+    private final HistogramLayout layout;
+    private final long[] histogram;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    VitalAccumulator(VitalType vital) {
+        this.vital = vital;
+        this.layout = HistogramLayout.of(vital);
+        this.histogram = new long[layout.bins()];
+    }
+
+    static VitalAccumulator[] forAllVitals() {
+        VitalType[] vitals = VitalType.values();
+        VitalAccumulator[] accumulators = new VitalAccumulator[vitals.length];
+        for (VitalType vital : vitals) accumulators[vital.ordinal()] = new VitalAccumulator(vital);
+        return accumulators;
+    }
+
+    void merge(int bucketCount, double bucketSum, float bucketMin, float bucketMax, char[] bins, int offset) {
+        count += bucketCount;
+        sum += bucketSum;
+        min = Math.min(min, bucketMin);
+        max = Math.max(max, bucketMax);
+        for (int b = 0; b < histogram.length; b++) histogram[b] += bins[offset + b];
+    }
+
+    VitalSummary toSummary() {
+        if (count == 0) return VitalSummary.empty(vital);
+        return new VitalSummary(vital, count, round(min), round(max), round(sum / count), round(quantile(0.95)));
+    }
+
+    /**
+     * Cuantil aproximado: ubica la clase que contiene el rango pedido e interpola linealmente dentro de ella.
+     * Se acota a [min, max] exactos para que nunca salga del rango observado.
+     */
+    private double quantile(double q) {
+        long total = 0;
+        for (long c : histogram) total += c;
+        double rank = q * total;
+        long cumulative = 0;
+        for (int b = 0; b < histogram.length; b++) {
+            long c = histogram[b];
+            if (c > 0 && cumulative + c >= rank) {
+                double value = layout.valueAt(b, (rank - cumulative) / c);
+                return Math.max(min, Math.min(max, value));
+            }
+            cumulative += c;
+        }
+        return max;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10d) / 10d;
+    }
+}
@@ -0,0 +1,21 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+
+/**
+ * Resumen de un signo vital en una ventana de tiempo. Sin lecturas, los valores son null.
+ * El percentil 95 es aproximado (error máximo de medio ancho de clase del histograma).
+ */
+public record VitalSummary(
+        VitalType vital,
+        long count,
+        Double min,
+        Double max,
+        Double avg,
+        Double p95
+) {
+
+    static VitalSummary empty(VitalType vital) {
+        return new VitalSummary(vital, 0L, null, null, null, null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.LatestVitals;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché write-through de la última medición por paciente, para lecturas O(1) desde dashboards.
+ * La ingesta la actualiza tras cada commit; los pacientes ausentes se cargan de la BD en la primera
+ * lectura (una sola consulta para todo el lote) y se recuerda también cuando no tienen mediciones.
+ */
+@Component
+public class LatestVitalsCache {
+
+    /** Marca "el paciente no tiene mediciones" para no volver a consultar la BD en cada lectura. */
+    private static final LatestVitals NONE = new LatestVitals(0L, 0L, 0L, 0, 0, 0d, LocalDateTime.MIN);
+
+    private final VitalSignRecordRepository repository;
+    private final LongKeyedCache<LatestVitals> snapshots;
+
+    public LatestVitalsCache(VitalSignRecordRepository repository, LatestVitalsProperties props) {
+        this.repository = repository;
+        this.snapshots = new LongKeyedCache<>(props.maxPatients());
+    }
+
+    /**
+     * Registra una medición confirmada; se ignora si ya hay una instantánea más reciente.
+     */
+    public void update(VitalSignRecord record) {
+        LatestVitals snapshot = LatestVitals.of(record);
+        snapshots.merge(snapshot.patientId(), snapshot, LatestVitalsCache::newest);
+    }
+
+    /**
+     * Devuelve la última medición de cada paciente (en el orden pedido), omitiendo los que no tienen.
+     */
+    public List<LatestVitals> getLatest(Collection<Long> patientIds) {
+        Map<Long, LatestVitals> found = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long patientId : patientIds) {
+            LatestVitals snapshot = snapshots.get(patientId);
+            if (snapshot == null) misses.add(patientId);
+            found.put(patientId, snapshot);
+        }
+
+        if (!misses.isEmpty()) {
+            for (VitalSignRecord record : repository.findLatestByPatientIds(misses)) {
+                LatestVitals loaded = snapshots.merge(record.getPatientId(), LatestVitals.of(record), LatestVitalsCache::newest);
+                found.put(record.getPatientId(), loaded);
+            }
+            for (Long patientId : misses) {
+                if (found.get(patientId) == null) {
+                    found.put(patientId, snapshots.merge(patientId, NONE, LatestVitalsCache::newest));
+                }
+            }
+        }
+
+        List<LatestVitals> result = new ArrayList<>(found.size());
+        for (LatestVitals snapshot : found.values()) {
+            if (snapshot != null && snapshot != NONE) result.add(snapshot);
+        }
+        return result;
+    }
+
+    /** Conserva la instantánea más reciente (por timestamp y luego por id). */
+    private static LatestVitals newest(LatestVitals a, LatestVitals b) {
+        int cmp = a.timestamp().compareTo(b.timestamp());
+        if (cmp != 0) return cmp > 0 ? a : b;
+        return a.recordId() >= b.recordId() ? a : b;
+    }
+}
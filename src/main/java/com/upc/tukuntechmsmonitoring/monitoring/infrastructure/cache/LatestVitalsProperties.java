@@ -0,0 +1,18 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuración de la caché de últimas mediciones (app.monitoring.latest-vitals).
+ *
+ * @param maxPatients pacientes retenidos en memoria; al superarse se desalojan los menos consultados
+ */
+@ConfigurationProperties(prefix = "app.monitoring.latest-vitals")
+public record LatestVitalsProperties(
+        Integer maxPatients
+) {
+
+    public LatestVitalsProperties {
+        if (maxPatients == null || maxPatients < 1) maxPatients = 100_000;
+    }
+}
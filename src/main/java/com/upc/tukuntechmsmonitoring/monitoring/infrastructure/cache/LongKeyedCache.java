@@ -0,0 +1,247 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.function.LongFunction;
+
+/**
+ * Mapa concurrente y acotado con claves {@code long} primitivas (sin boxing).
+ * Se divide en segmentos con su propio lock; cada segmento es una tabla de direccionamiento abierto
+ * (sondeo lineal) y, al llenarse, desaloja con el algoritmo CLOCK (aproximación de LRU con un bit por entrada).
+ *
+ * @param <V> tipo de valor; los valores null no están permitidos
+ */
+public final class LongKeyedCache<V> {
+
+    /** Acción sobre cada entrada al recorrer el mapa. */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public LongKeyedCache(int maxEntries) {
+        if (maxEntries < SEGMENTS) maxEntries = SEGMENTS;
+        int perSegment = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment<>(perSegment);
+    }
+
+    public V get(long key) {
+        long h = mix(key);
+        return segmentFor(h).get(key, (int) h);
+    }
+
+    public void put(long key, V value) {
+        long h = mix(key);
+        segmentFor(h).merge(key, (int) h, value, null);
+    }
+
+    /**
+     * Inserta el valor o, si la clave existe, lo combina con el actual usando {@code remapping}
+     * (por ejemplo, quedarse con el más reciente). Devuelve el valor resultante.
+     */
+    public V merge(long key, V value, BinaryOperator<V> remapping) {
+        long h = mix(key);
+        return segmentFor(h).merge(key, (int) h, value, remapping);
+    }
+
+    /**
+     * Devuelve el valor de la clave o lo crea con {@code factory} bajo el lock del segmento.
+     * La fábrica debe ser barata (sin I/O): pensada para estado mutable por clave.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+        long h = mix(key);
+        return segmentFor(h).computeIfAbsent(key, (int) h, factory);
+    }
+
+    public boolean remove(long key) {
+        long h = mix(key);
+        return segmentFor(h).remove(key, (int) h);
+    }
+
+    /**
+     * Recorre todas las entradas, segmento por segmento. Cada segmento se bloquea solo mientras se recorre;
+     * la acción no debe volver a entrar en este mapa.
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+        for (Segment<V> segment : segments) segment.forEach(action);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) size += segment.size();
+        return size;
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return segments[(int) (hash >>> 60)];
+    }
+
+    /** Finalizador de MurmurHash3: dispersa claves secuenciales (ids) en toda la tabla. */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Segment<V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxEntries;
+        private final int mask;
+        private final long[] keys;
+        private final Object[] values;
+        private final boolean[] referenced;
+        private int size;
+        private int hand;
+
+        Segment(int maxEntries) {
+            this.maxEntries = maxEntries;
+            int capacity = Integer.highestOneBit(Math.max(2, maxEntries * 2 - 1)) << 1; // factor de carga <= 0.5
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.referenced = new boolean[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long key, int hash) {
+            lock.lock();
+            try {
+                int i = find(key, hash);
+                if (i < 0) return null;
+                referenced[i] = true;
+                return (V) values[i];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V merge(long key, int hash, V value, BinaryOperator<V> remapping) {
+            lock.lock();
+            try {
+                int i = find(key, hash);
+                if (i >= 0) {
+                    V merged = remapping == null ? value : remapping.apply((V) values[i], value);
+                    values[i] = merged;
+                    referenced[i] = true;
+                    return merged;
+                }
+                insert(key, hash, value);
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V computeIfAbsent(long key, int hash, LongFunction<? extends V> factory) {
+            lock.lock();
+            try {
+                int i = find(key, hash);
+                if (i >= 0) {
+                    referenced[i] = true;
+                    return (V) values[i];
+                }
+                V value = factory.apply(key);
+                insert(key, hash, value);
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(long key, int hash) {
+            lock.lock();
+            try {
+                int i = find(key, hash);
+                if (i < 0) return false;
+                deleteAt(i);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void forEach(EntryConsumer<? super V> action) {
+            lock.lock();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) action.accept(keys[i], (V) values[i]);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int find(long key, int hash) {
+            for (int i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return i;
+            }
+            return -1;
+        }
+
+        private void insert(long key, int hash, Object value) {
+            if (size >= maxEntries) evictOne();
+            int i = hash & mask;
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = key;
+            values[i] = value;
+            referenced[i] = true;
+            size++;
+        }
+
+        /** CLOCK: avanza la manecilla limpiando bits de referencia hasta encontrar una entrada no usada. */
+        private void evictOne() {
+            while (true) {
+                if (values[hand] != null) {
+                    if (!referenced[hand]) {
+                        deleteAt(hand);
+                        return;
+                    }
+                    referenced[hand] = false;
+                }
+                hand = (hand + 1) & mask;
+            }
+        }
+
+        /** Borrado con corrimiento hacia atrás: mantiene las cadenas de sondeo sin lápidas. */
+        private void deleteAt(int i) {
+            size--;
+            int j = i;
+            while (true) {
+                values[i] = null;
+                referenced[i] = false;
+                int home;
+                do {
+                    j = (j + 1) & mask;
+                    if (values[j] == null) return;
+                    home = (int) mix(keys[j]) & mask;
+                } while (i <= j ? (i < home && home <= j) : (i < home || home <= j));
+                keys[i] = keys[j];
+                values[i] = values[j];
+                referenced[i] = referenced[j];
+                i = j;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.partitioning;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.RollupProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.RollupProperties.RawPartitioning;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Particiones mensuales de vital_sign_records creadas por el script V11: crea los meses por adelantado y
+ * descarta el más antiguo entero. SQL nativo por motor, según {@code app.monitoring.rollups.raw-partitioning}.
+ * <ul>
+ *   <li>MySQL: particiones {@code p<yyyyMM>} por RANGE COLUMNS(timestamp) y {@code pmax} (MAXVALUE).</li>
+ *   <li>SQL Server: función {@code pf_vital_sign_records_month} RANGE RIGHT, un límite por mes; el último
+ *       límite abre la partición final, que cumple el papel de {@code pmax}.</li>
+ * </ul>
+ * La partición final se mantiene vacía creando {@link #MONTHS_AHEAD} meses por adelantado: así partirla es solo
+ * metadatos. Las operaciones son DDL y no participan de la transacción de quien las llama.
+ */
+@Component
+public class VitalSignRecordPartitions {
+
+    private static final Logger log = LoggerFactory.getLogger(VitalSignRecordPartitions.class);
+
+    /** Meses con partición propia después del actual. */
+    static final int MONTHS_AHEAD = 1;
+
+    private static final DateTimeFormatter MYSQL_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String SQLSERVER_FUNCTION = "pf_vital_sign_records_month";
+    private static final String SQLSERVER_SCHEME = "ps_vital_sign_records_month";
+
+    private final JdbcTemplate jdbc;
+    private final RawPartitioning mode;
+
+    public VitalSignRecordPartitions(JdbcTemplate jdbc, RollupProperties props) {
+        this.jdbc = jdbc;
+        this.mode = props.rawPartitioning();
+    }
+
+    public boolean enabled() {
+        return mode != RawPartitioning.NONE;
+    }
+
+    /**
+     * Meses con partición propia, del más antiguo al más reciente.
+     */
+    public List<YearMonth> months() {
+        return switch (mode) {
+            case NONE -> List.of();
+            case MYSQL -> jdbc.queryForList("""
+                            SELECT PARTITION_NAME FROM information_schema.PARTITIONS
+                            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'vital_sign_records'
+                              AND PARTITION_NAME <> 'pmax'
+                            ORDER BY PARTITION_ORDINAL_POSITION
+                            """, String.class).stream()
+                    .map(name -> YearMonth.parse(name, MYSQL_NAME))
+                    .toList();
+            case SQLSERVER -> {
+                List<LocalDate> bounds = jdbc.queryForList("""
+                        SELECT CAST(v.value AS DATE) FROM sys.partition_range_values v
+                        JOIN sys.partition_functions f ON f.function_id = v.function_id
+                        WHERE f.name = ?
+                        ORDER BY v.boundary_id
+                        """, LocalDate.class, SQLSERVER_FUNCTION);
+                // El último límite abre la partición final, sin mes propio
+                yield bounds.stream().limit(Math.max(0, bounds.size() - 1)).map(YearMonth::from).toList();
+            }
+        };
+    }
+
+    public Optional<YearMonth> oldestMonth() {
+        List<YearMonth> months = months();
+        return months.isEmpty() ? Optional.empty() : Optional.of(months.getFirst());
+    }
+
+    /**
+     * Crea las particiones que falten hasta {@link #MONTHS_AHEAD} meses después de {@code today}.
+     */
+    public void ensureMonthsAhead(LocalDate today) {
+        if (!enabled()) return;
+        List<YearMonth> months = months();
+        if (months.isEmpty()) {
+            log.warn("raw-partitioning is {} but vital_sign_records has no monthly partitions; apply V11", mode);
+            return;
+        }
+        YearMonth target = YearMonth.from(today).plusMonths(MONTHS_AHEAD);
+        for (YearMonth month = months.getLast().plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            addMonth(month);
+            log.info("Created vital_sign_records partition for {}", month);
+        }
+    }
+
+    /**
+     * Descarta el mes de lecturas crudas indicado, que debe ser el más antiguo.
+     */
+    public void dropMonth(YearMonth month) {
+        switch (mode) {
+            case NONE -> throw new IllegalStateException("vital_sign_records is not partitioned");
+            case MYSQL -> jdbc.execute("ALTER TABLE vital_sign_records DROP PARTITION " + MYSQL_NAME.format(month));
+            case SQLSERVER -> {
+                String start = literal(month);
+                Integer partition = jdbc.queryForObject(
+                        "SELECT $PARTITION." + SQLSERVER_FUNCTION + "(CAST(" + start + " AS DATETIME2(6)))", Integer.class);
+                jdbc.execute("TRUNCATE TABLE vital_sign_records WITH (PARTITIONS (" + partition + "))");
+                // Une la partición vaciada con la anterior, también vacía: solo metadatos
+                jdbc.execute("ALTER PARTITION FUNCTION " + SQLSERVER_FUNCTION + "() MERGE RANGE (" + start + ")");
+            }
+        }
+    }
+
+    private void addMonth(YearMonth month) {
+        switch (mode) {
+            case NONE -> throw new IllegalStateException("vital_sign_records is not partitioned");
+            case MYSQL -> jdbc.execute("ALTER TABLE vital_sign_records REORGANIZE PARTITION pmax INTO ("
+                    + "PARTITION " + MYSQL_NAME.format(month) + " VALUES LESS THAN (" + literal(month.plusMonths(1)) + "), "
+                    + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+            case SQLSERVER -> {
+                jdbc.execute("ALTER PARTITION SCHEME " + SQLSERVER_SCHEME + " NEXT USED [PRIMARY]");
+                jdbc.execute("ALTER PARTITION FUNCTION " + SQLSERVER_FUNCTION + "() SPLIT RANGE ("
+                        + literal(month.plusMonths(1)) + ")");
+            }
+        }
+    }
+
+    /** Primer día del mes como literal SQL: el DDL de particiones no admite parámetros. */
+    private static String literal(YearMonth month) {
+        return "'" + month.atDay(1) + "'";
+    }
+}
@@ -0,0 +1,25 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Datos de un evento que dependen del idioma de quien los recibe (p. ej. el mensaje de una alerta).
+ * Cada writer los arma con el locale de su suscripción, y no el hilo que publica con el suyo;
+ * se arman una sola vez por idioma.
+ */
+final class LocalizedPayload {
+
+    private final Function<Locale, ?> renderer;
+    private final Map<Locale, Object> rendered = new ConcurrentHashMap<>(2);
+
+    LocalizedPayload(Function<Locale, ?> renderer) {
+        this.renderer = renderer;
+    }
+
+    Object in(Locale locale) {
+        return rendered.computeIfAbsent(locale, renderer);
+    }
+}
@@ -0,0 +1,130 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Registro en memoria de los últimos eventos SSE publicados por paciente.
+ * Cada paciente tiene un buffer circular de tamaño fijo; permite que un cliente que se reconecta
+ * con Last-Event-ID reciba solo lo que se perdió en lugar de volver a consultar todo el historial.
+ * El buffer de un paciente sin eventos recientes se libera ({@link #evictIdle}); desde entonces,
+ * un Last-Event-ID anterior a su último evento se trata como pérdida.
+ */
+final class PatientEventLog {
+
+    record LoggedEvent(long id, String name, Object data) {}
+
+    /** Usa ReentrantLock y no synchronized: se escribe desde hilos de petición, que pueden ser virtuales. */
+    private static final class Ring {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LoggedEvent[] slots;
+        private int next;
+        private int size;
+        /** Id del último evento sobrescrito; si es mayor al Last-Event-ID del cliente, hubo pérdida. */
+        private long evictedUpTo;
+        private long lastId;
+        private long lastAppendMillis;
+
+        Ring(int capacity) {
+            this.slots = new LoggedEvent[capacity];
+        }
+
+        void append(LoggedEvent event, long nowMillis) {
+            lock.lock();
+            try {
+                lastId = event.id();
+                lastAppendMillis = nowMillis;
+                if (size == slots.length) {
+                    evictedUpTo = slots[next].id();
+                } else {
+                    size++;
+                }
+                slots[next] = event;
+                next = (next + 1) % slots.length;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean collectSince(long lastEventId, Predicate<String> names, List<LoggedEvent> out) {
+            lock.lock();
+            try {
+                int start = (next - size + slots.length) % slots.length;
+                for (int i = 0; i < size; i++) {
+                    LoggedEvent event = slots[(start + i) % slots.length];
+                    if (event.id() > lastEventId && names.test(event.name())) out.add(event);
+                }
+                return evictedUpTo > lastEventId;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+    /** Id más alto de los buffers liberados; un Last-Event-ID menor pudo perder eventos de esos pacientes. */
+    private final AtomicLong retiredUpTo = new AtomicLong();
+
+    PatientEventLog(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Se agrega dentro de compute para que {@link #evictIdle} no libere el buffer a mitad de una escritura. */
+    void append(Long patientId, long id, String name, Object data) {
+        LoggedEvent event = new LoggedEvent(id, name, data);
+        long now = System.currentTimeMillis();
+        rings.compute(patientId, (k, ring) -> {
+            if (ring == null) ring = new Ring(capacity);
+            ring.append(event, now);
+            return ring;
+        });
+    }
+
+    /**
+     * Libera los buffers de los pacientes sin eventos desde {@code idleSinceMillis}.
+     * Sin esto el registro crecería con cada paciente visto desde el arranque.
+     */
+    void evictIdle(long idleSinceMillis) {
+        for (Long patientId : rings.keySet()) {
+            rings.computeIfPresent(patientId, (k, ring) -> {
+                if (ring.lastAppendMillis >= idleSinceMillis) return ring;
+                retiredUpTo.accumulateAndGet(ring.lastId, Math::max);
+                return null;
+            });
+        }
+    }
+
+    int size() {
+        return rings.size();
+    }
+
+    /**
+     * Agrega a {@code out} los eventos del paciente posteriores a {@code lastEventId} cuyo nombre cumple el filtro.
+     *
+     * @return true si parte de los eventos posteriores ya fue descartada del buffer
+     */
+    boolean collectSince(Long patientId, long lastEventId, Predicate<String> names, List<LoggedEvent> out) {
+        Ring ring = rings.get(patientId);
+        if (ring == null) return lastEventId < retiredUpTo.get();
+        return ring.collectSince(lastEventId, names, out);
+    }
+
+    /**
+     * Igual que {@link #collectSince} pero para todos los pacientes excepto los indicados.
+     */
+    boolean collectSinceExcept(Set<Long> excluded, long lastEventId, Predicate<String> names,
+                               List<LoggedEvent> out) {
+        boolean gap = lastEventId < retiredUpTo.get();
+        for (Map.Entry<Long, Ring> entry : rings.entrySet()) {
+            if (excluded.contains(entry.getKey())) continue;
+            gap |= entry.getValue().collectSince(lastEventId, names, out);
+        }
+        return gap;
+    }
+}
@@ -1,98 +1,361 @@
 package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
 
-import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio responsable de manejar conexiones SSE (Server-Sent Events)
  * para notificaciones en tiempo real de mediciones y alertas.
+ * Publicar nunca escribe en el socket: cada suscripción tiene su buffer acotado
+ * y un writer propio (hilo virtual) que lo drena.
+ * Cada evento lleva un id creciente; los eventos por paciente se guardan en un registro acotado
+ * para reproducirlos a clientes que se reconectan con Last-Event-ID.
+ * Las alertas se publican sin idioma: cada writer arma el mensaje en el idioma de su suscriptor.
+ * Métricas: {@code monitoring.sse.fanout} (publicar un evento a todos sus suscriptores, por tipo de evento),
+ * {@code monitoring.sse.send} (cada escritura en el socket) y {@code monitoring.sse.send.failed}.
  */
 @Service
 public class SseEmitterService {
 
-    /** Clave: userId (paciente o cuidador) -> conexión SSE activa */
-    private final Map<Long, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private static final String VITAL_SIGN_EVENT = "vital-sign-update";
+    private static final String VITAL_SIGN_BATCH_EVENT = "vital-sign-batch";
+    private static final String ALERT_EVENT = "alert";
+    private static final String ALERT_RESOLVED_EVENT = "alert-resolved";
+    /** Indica al cliente que no se pudo reproducir todo lo perdido y debe volver a consultar por REST. */
+    private static final String RESYNC_EVENT = "resync";
+    private static final String BROADCAST_EVENT = "update";
+    /** Tag de fan-out de sendToUser: el nombre del evento lo elige quien llama y no se usa como tag. */
+    private static final String DIRECT_FANOUT = "direct";
 
+    /** Conexiones SSE activas, indexadas por usuario y por tópico (paciente / panel de administración) */
+    private final SseSubscriptionRegistry registry = new SseSubscriptionRegistry();
+
+    private final SseProperties props;
+    private final TaskScheduler scheduler;
+    private final PatientEventLog eventLog;
+    /**
+     * Primer valor de la secuencia de ids. Se toma del reloj para que los ids sigan creciendo tras un reinicio;
+     * un Last-Event-ID menor es de una ejecución anterior, cuyos eventos ya no están en el registro.
+     */
+    private final long sequenceStart = System.currentTimeMillis() * 1000;
+    private final AtomicLong eventSequence = new AtomicLong(sequenceStart);
     /**
-     * Registra un nuevo cliente para recibir eventos en tiempo real.
+     * Writers de las suscripciones, según el modo de hilos (spring.threads.virtual.enabled): un hilo virtual
+     * por drenaje, o un pool fijo de hilos de plataforma ({@code sse.writer-threads}). La cola del pool queda
+     * acotada por el número de suscripciones: cada una tiene a lo sumo un drenaje pendiente.
      */
-    public SseEmitter subscribe(Long userId) {
-        SseEmitter emitter = new SseEmitter(0L); // conexión indefinida (se mantiene abierta)
-        emitters.put(userId, emitter);
+    private final ExecutorService writers;
+
+    private final DistributionSummary subscriberDepth;
+    private final Counter droppedOverflow;
+    private final Counter droppedDisconnect;
+    private final Counter coalesced;
+    /** Un timer por tipo de evento publicado, armado en el constructor: el tag tiene valores fijos. */
+    private final Map<String, Timer> fanOut;
+    private final Timer send;
+    private final Counter sendFailedIo;
+    private final Counter sendFailedClosed;
+
+    public SseEmitterService(SseProperties props, TaskScheduler scheduler, MeterRegistry meterRegistry,
+                             Environment environment) {
+        this.props = props;
+        this.scheduler = scheduler;
+        this.eventLog = new PatientEventLog(props.replayBufferSize());
+        this.writers = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-writer-", 0).factory())
+                : Executors.newFixedThreadPool(props.writerThreads(),
+                        Thread.ofPlatform().name("sse-writer-", 0).daemon(true).factory());
+
+        Gauge.builder("monitoring.sse.buffered.events", registry, SseSubscriptionRegistry::bufferedEvents)
+                .description("Eventos pendientes de envío en todos los buffers SSE")
+                .register(meterRegistry);
+        this.subscriberDepth = DistributionSummary.builder("monitoring.sse.subscriber.queue.depth")
+                .description("Profundidad del buffer de un suscriptor al encolar un evento")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("monitoring.sse.subscriber.dropped")
+                .tag("reason", "drop_oldest")
+                .description("Eventos descartados por buffer de suscriptor lleno")
+                .register(meterRegistry);
+        this.droppedDisconnect = Counter.builder("monitoring.sse.subscriber.dropped")
+                .tag("reason", "disconnect")
+                .description("Eventos descartados por buffer de suscriptor lleno")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("monitoring.sse.subscriber.coalesced")
+                .description("vital-sign-update reemplazados por uno más reciente antes de enviarse")
+                .register(meterRegistry);
+
+        Gauge.builder("monitoring.sse.subscribers", registry, SseSubscriptionRegistry::size)
+                .description("Conexiones SSE activas")
+                .register(meterRegistry);
+        Gauge.builder("monitoring.sse.replay.patients", eventLog, PatientEventLog::size)
+                .description("Pacientes con registro de reproducción en memoria")
+                .register(meterRegistry);
+        this.fanOut = Stream.of(VITAL_SIGN_EVENT, VITAL_SIGN_BATCH_EVENT, ALERT_EVENT, ALERT_RESOLVED_EVENT,
+                        DIRECT_FANOUT, BROADCAST_EVENT)
+                .collect(Collectors.toUnmodifiableMap(event -> event, event -> Timer.builder("monitoring.sse.fanout")
+                        .tag("event", event)
+                        .description("Publicación de un evento en los buffers de todos sus suscriptores")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+        this.send = Timer.builder("monitoring.sse.send")
+                .description("Escritura de un evento en el socket de un suscriptor")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendFailedIo = Counter.builder("monitoring.sse.send.failed")
+                .tag("reason", "io")
+                .description("Envíos SSE fallidos; la suscripción se elimina")
+                .register(meterRegistry);
+        this.sendFailedClosed = Counter.builder("monitoring.sse.send.failed")
+                .tag("reason", "closed")
+                .description("Envíos SSE fallidos; la suscripción se elimina")
+                .register(meterRegistry);
+    }
 
-        emitter.onCompletion(() -> emitters.remove(userId));
-        emitter.onTimeout(() -> emitters.remove(userId));
-        emitter.onError(e -> emitters.remove(userId));
+    @PostConstruct
+    void startHeartbeats() {
+        scheduler.scheduleWithFixedDelay(this::sendHeartbeats, props.heartbeatInterval());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    /**
+     * Registra una nueva conexión para recibir eventos en tiempo real.
+     * Un mismo usuario puede mantener varias conexiones abiertas a la vez.
+     *
+     * @param userId         dueño de la conexión (recibe los eventos dirigidos a él)
+     * @param patientIds     pacientes cuyos signos vitales y alertas recibe la conexión
+     * @param adminDashboard si además recibe las alertas de todos los pacientes
+     * @param lastEventId    id del último evento recibido antes de reconectarse (cabecera Last-Event-ID), o null
+     * @param locale         idioma en el que la conexión recibe los mensajes de las alertas
+     */
+    public SseEmitter subscribe(Long userId, Set<Long> patientIds, boolean adminDashboard, Long lastEventId,
+                                Locale locale) {
+        // conexión indefinida
+        return subscribe(userId, patientIds, adminDashboard, lastEventId, locale, new SseEmitter(0L));
+    }
 
+    /** Registra la conexión sobre un emitter dado (los benchmarks usan emitters que descartan lo enviado). */
+    SseEmitter subscribe(Long userId, Set<Long> patientIds, boolean adminDashboard, Long lastEventId,
+                         Locale locale, SseEmitter emitter) {
+        boolean replay = lastEventId != null;
+        SseSubscription subscription = new SseSubscription(userId, patientIds, adminDashboard, locale, replay,
+                emitter, props.bufferSize(), props.slowConsumerPolicy());
+        registry.register(subscription);
+
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        // Se registra antes de reproducir: lo publicado mientras tanto queda en el buffer y no se pierde
+        if (replay) {
+            subscription.completeReplay(missedEvents(subscription, lastEventId));
+            scheduleDrain(subscription);
+        }
         return emitter;
     }
 
     /**
-     * Envía una medición actualizada (paciente).
+     * Eventos publicados después de {@code lastEventId} que le corresponden a la suscripción, en orden.
+     * Si el registro ya no los contiene a todos (o el id no es de esta ejecución) se antepone un evento resync.
+     */
+    private List<SseSubscription.PendingEvent> missedEvents(SseSubscription subscription, long lastEventId) {
+        List<PatientEventLog.LoggedEvent> logged = new ArrayList<>();
+        boolean gap = lastEventId < sequenceStart || lastEventId > eventSequence.get();
+        for (Long patientId : subscription.patientIds()) {
+            gap |= eventLog.collectSince(patientId, lastEventId, name -> true, logged);
+        }
+        if (subscription.adminDashboard()) {
+            gap |= eventLog.collectSinceExcept(subscription.patientIds(), lastEventId,
+                    name -> ALERT_EVENT.equals(name) || ALERT_RESOLVED_EVENT.equals(name), logged);
+        }
+        logged.sort(Comparator.comparingLong(PatientEventLog.LoggedEvent::id));
+
+        List<SseSubscription.PendingEvent> missed = new ArrayList<>(logged.size() + 1);
+        if (gap) {
+            missed.add(new SseSubscription.PendingEvent(
+                    lastEventId, RESYNC_EVENT, Map.of("reason", "events-lost"), null));
+        }
+        for (PatientEventLog.LoggedEvent event : logged) {
+            missed.add(new SseSubscription.PendingEvent(event.id(), event.name(), event.data(), null));
+        }
+        return missed;
+    }
+
+    /**
+     * Envía una medición actualizada a quienes observan al paciente (él mismo y sus cuidadores).
+     * Si un suscriptor aún no recibió la anterior del mismo paciente, se reemplaza por esta.
      */
     public void emitVitalSign(VitalSignRecord record) {
-        Long patientId = record.getPatientId();
-        sendToUser(patientId, "vital-sign-update", record);
+        fanOut.get(VITAL_SIGN_EVENT).record(() -> {
+            Long patientId = record.getPatientId();
+            long id = publishToLog(patientId, VITAL_SIGN_EVENT, record);
+            registry.forPatient(patientId, s -> enqueue(s, id, VITAL_SIGN_EVENT, record, patientId));
+        });
+    }
+
+    /**
+     * Envía un lote de mediciones: un único evento por paciente con todas sus lecturas del lote.
+     */
+    public void emitVitalSigns(List<VitalSignRecord> records) {
+        Map<Long, List<VitalSignRecord>> byPatient = records.stream()
+                .collect(Collectors.groupingBy(VitalSignRecord::getPatientId));
+        Timer timer = fanOut.get(VITAL_SIGN_BATCH_EVENT);
+        byPatient.forEach((patientId, patientRecords) -> timer.record(() -> {
+            long id = publishToLog(patientId, VITAL_SIGN_BATCH_EVENT, patientRecords);
+            registry.forPatient(patientId, s -> enqueue(s, id, VITAL_SIGN_BATCH_EVENT, patientRecords, null));
+        }));
     }
 
     /**
-     * Envía una alerta generada al paciente y/o a sus cuidadores.
+     * Envía una alerta a quienes observan al paciente y al panel de administración.
+     * El costo es proporcional a los interesados en ese paciente, no al total de conexiones.
+     *
+     * @param alert arma la alerta en un idioma; se llama al enviarla, una vez por idioma de los suscriptores
      */
-    public void emitAlert(Alert alert) {
-        // 🔸 Notificar al paciente directamente
-        sendToUser(alert.getPatientId(), "alert", alert);
+    public void emitAlert(Long patientId, Function<Locale, AlertResponse> alert) {
+        emitAlertEvent(ALERT_EVENT, patientId, alert);
+    }
 
-        // 🔸 Difundir a cuidadores (más adelante, se integrará con CareManagement)
-        broadcastToCaregivers(alert);
+    /**
+     * Avisa que el episodio de una alerta terminó (el signo vital volvió al rango normal),
+     * a los mismos destinatarios que la alerta.
+     */
+    public void emitAlertResolved(Long patientId, Function<Locale, AlertResponse> alert) {
+        emitAlertEvent(ALERT_RESOLVED_EVENT, patientId, alert);
+    }
+
+    private void emitAlertEvent(String eventName, Long patientId, Function<Locale, AlertResponse> alert) {
+        LocalizedPayload payload = new LocalizedPayload(alert);
+        fanOut.get(eventName).record(() -> {
+            long id = publishToLog(patientId, eventName, payload);
+            registry.forPatientAndAdmins(patientId, s -> enqueue(s, id, eventName, payload, null));
+        });
     }
 
     /**
-     * Envío directo a un usuario específico.
+     * Envío directo a todas las conexiones de un usuario específico.
      */
     public void sendToUser(Long userId, String eventName, Object data) {
-        SseEmitter emitter = emitters.get(userId);
-        if (emitter != null) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name(eventName)
-                        .data(data));
-            } catch (IOException e) {
-                emitters.remove(userId);
-            }
-        }
+        fanOut.get(DIRECT_FANOUT).record(() -> {
+            long id = eventSequence.incrementAndGet();
+            registry.forUser(userId, s -> enqueue(s, id, eventName, data, null));
+        });
     }
 
     /**
-     * Difunde un evento global (por ejemplo, para cuidadores o panel de monitoreo).
+     * Difunde un evento global a todas las conexiones abiertas (p. ej. avisos de mantenimiento).
      */
     public void broadcast(Object event) {
-        emitters.forEach((id, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event().name("update").data(event));
-            } catch (IOException e) {
-                emitters.remove(id);
-            }
+        fanOut.get(BROADCAST_EVENT).record(() -> {
+            long id = eventSequence.incrementAndGet();
+            registry.forAll(s -> enqueue(s, id, BROADCAST_EVENT, event, null));
         });
     }
 
     /**
-     * Difunde una alerta a todos los cuidadores registrados (futuro: basado en asignación).
+     * Envía un comentario keep-alive a las conexiones sin eventos pendientes.
+     * Mantiene abiertas las conexiones detrás de proxies y detecta sockets muertos en el próximo envío.
+     * En el mismo ciclo libera los registros de reproducción de pacientes inactivos.
      */
-    private void broadcastToCaregivers(Alert alert) {
-        emitters.forEach((userId, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("alert")
-                        .data(alert));
-            } catch (IOException e) {
-                emitters.remove(userId);
-            }
+    void sendHeartbeats() {
+        registry.forAll(s -> {
+            if (s.offerHeartbeat()) scheduleDrain(s);
         });
+        eventLog.evictIdle(System.currentTimeMillis() - props.replayRetention().toMillis());
+    }
+
+    /** Asigna id al evento de un paciente y lo guarda en el registro para reproducciones. */
+    private long publishToLog(Long patientId, String eventName, Object data) {
+        long id = eventSequence.incrementAndGet();
+        eventLog.append(patientId, id, eventName, data);
+        return id;
+    }
+
+    private void enqueue(SseSubscription subscription, long id, String eventName, Object data, Long coalesceKey) {
+        switch (subscription.offer(id, eventName, data, coalesceKey)) {
+            case COALESCED -> coalesced.increment();
+            case DROPPED_OLDEST -> droppedOverflow.increment();
+            case OVERFLOW -> {
+                // Política DISCONNECT: el cliente lento se desconecta y deberá reconectarse
+                droppedDisconnect.increment();
+                remove(subscription);
+                subscription.emitter().complete();
+                return;
+            }
+            case ACCEPTED -> { }
+        }
+        subscriberDepth.record(subscription.depth());
+        scheduleDrain(subscription);
+    }
+
+    private void scheduleDrain(SseSubscription subscription) {
+        if (subscription.tryStartDrain()) writers.execute(() -> drain(subscription));
+    }
+
+    /**
+     * Writer de una suscripción: envía todo lo pendiente y vuelve a verificar antes de liberar
+     * el flag de drenaje, para no perder eventos encolados mientras terminaba.
+     */
+    private void drain(SseSubscription subscription) {
+        do {
+            SseSubscription.PendingEvent event;
+            while ((event = subscription.poll()) != null) {
+                long start = System.nanoTime();
+                try {
+                    subscription.emitter().send(event.isHeartbeat()
+                            ? SseEmitter.event().comment("keep-alive")
+                            : SseEmitter.event()
+                                    .id(Long.toString(event.id))
+                                    .name(event.name)
+                                    .data(event.data instanceof LocalizedPayload localized
+                                            ? localized.in(subscription.locale())
+                                            : event.data));
+                    send.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } catch (IOException | IllegalStateException e) {
+                    // IllegalStateException: el emitter ya estaba completado (cerrado por el cliente o por timeout)
+                    (e instanceof IOException ? sendFailedIo : sendFailedClosed).increment();
+                    remove(subscription);
+                    subscription.finishDrain();
+                    return;
+                }
+            }
+            subscription.finishDrain();
+        } while (subscription.depth() > 0 && subscription.tryStartDrain());
+    }
+
+    private void remove(SseSubscription subscription) {
+        registry.unregister(subscription);
+        subscription.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las conexiones SSE (app.monitoring.sse).
+ *
+ * @param bufferSize         capacidad del buffer de salida de cada suscripción
+ * @param slowConsumerPolicy qué hacer cuando el buffer de un suscriptor lento está lleno
+ * @param replayBufferSize   eventos recientes que se conservan por paciente para reconexiones con Last-Event-ID
+ * @param heartbeatInterval  cada cuánto se envía un comentario keep-alive a las conexiones inactivas
+ * @param replayRetention    tiempo sin eventos tras el cual se libera el registro de reproducción de un paciente
+ * @param writerThreads      solo en modo plataforma: hilos que escriben en los sockets. Un writer bloqueado en
+ *                           un cliente lento ocupa uno; en modo virtual cada envío pendiente tiene su propio hilo
+ */
+@ConfigurationProperties(prefix = "app.monitoring.sse")
+public record SseProperties(
+        Integer bufferSize,
+        SlowConsumerPolicy slowConsumerPolicy,
+        Integer replayBufferSize,
+        Duration heartbeatInterval,
+        Duration replayRetention,
+        Integer writerThreads
+) {
+
+    public SseProperties {
+        if (bufferSize == null || bufferSize < 1) bufferSize = 256;
+        if (slowConsumerPolicy == null) slowConsumerPolicy = SlowConsumerPolicy.DROP_OLDEST;
+        if (replayBufferSize == null || replayBufferSize < 1) replayBufferSize = 100;
+        if (heartbeatInterval == null) heartbeatInterval = Duration.ofSeconds(15);
+        if (replayRetention == null) replayRetention = Duration.ofMinutes(10);
+        if (writerThreads == null || writerThreads < 1) writerThreads = 32;
+    }
+
+    public enum SlowConsumerPolicy {
+        /** Descarta el evento pendiente más antiguo para hacer lugar al nuevo. */
+        DROP_OLDEST,
+        /** Cierra la conexión; el cliente deberá reconectarse. */
+        DISCONNECT
+    }
+}
@@ -0,0 +1,213 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conexión SSE de un usuario con su propio buffer de salida acotado.
+ * Los productores solo encolan; un único writer por suscripción drena el buffer,
+ * de modo que una conexión lenta nunca bloquea a quien publica ni a otros suscriptores.
+ */
+final class SseSubscription {
+
+    /**
+     * Evento pendiente de envío. Un evento sin nombre es un comentario SSE (heartbeat).
+     */
+    static final class PendingEvent {
+        final String name;
+        final Long coalesceKey;
+        final long id;
+        final Object data;
+
+        PendingEvent(long id, String name, Object data, Long coalesceKey) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.coalesceKey = coalesceKey;
+        }
+
+        static PendingEvent heartbeat() {
+            return new PendingEvent(0L, null, null, null);
+        }
+
+        boolean isHeartbeat() { return name == null; }
+    }
+
+    enum OfferResult { ACCEPTED, COALESCED, DROPPED_OLDEST, OVERFLOW }
+
+    private final Long userId;
+    private final Set<Long> patientIds;
+    private final boolean adminDashboard;
+    /** Idioma del cliente (Accept-Language al suscribirse) para los {@link LocalizedPayload}. */
+    private final Locale locale;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final SseProperties.SlowConsumerPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<PendingEvent> buffer;
+    /** Último vital-sign-update pendiente por paciente, para reemplazarlo en lugar de encolar otro. */
+    private final Map<Long, PendingEvent> pendingByKey = new HashMap<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    /** Mientras se arma la reproducción de eventos perdidos, el writer no arranca. */
+    private volatile boolean replaying;
+    private volatile boolean closed;
+
+    SseSubscription(Long userId, Set<Long> patientIds, boolean adminDashboard, Locale locale, boolean replaying,
+                    SseEmitter emitter, int capacity, SseProperties.SlowConsumerPolicy policy) {
+        this.userId = userId;
+        this.patientIds = Set.copyOf(patientIds);
+        this.adminDashboard = adminDashboard;
+        this.locale = locale;
+        this.replaying = replaying;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.buffer = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    /**
+     * Encola un evento. Si {@code coalesceKey} no es null y ya hay un evento pendiente con la
+     * misma clave, ese evento se quita y el nuevo va al final (el cliente recibe únicamente el estado más nuevo).
+     * No se reutiliza el lugar del anterior: los ids deben salir en orden creciente, porque un cliente que
+     * se reconecta con Last-Event-ID no recibe nada con un id menor.
+     */
+    OfferResult offer(long id, String name, Object data, Long coalesceKey) {
+        lock.lock();
+        try {
+            PendingEvent event = new PendingEvent(id, name, data, coalesceKey);
+            if (coalesceKey != null) {
+                PendingEvent pending = pendingByKey.get(coalesceKey);
+                if (pending != null) {
+                    buffer.removeFirstOccurrence(pending);
+                    buffer.addLast(event);
+                    pendingByKey.put(coalesceKey, event);
+                    return OfferResult.COALESCED;
+                }
+            }
+            return append(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encola un heartbeat solo si no hay nada pendiente: cualquier otro evento ya mantiene viva la conexión.
+     */
+    boolean offerHeartbeat() {
+        lock.lock();
+        try {
+            if (!buffer.isEmpty()) return false;
+            buffer.addLast(PendingEvent.heartbeat());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private OfferResult append(PendingEvent event) {
+        OfferResult result = OfferResult.ACCEPTED;
+        if (buffer.size() >= capacity) {
+            if (policy == SseProperties.SlowConsumerPolicy.DISCONNECT) return OfferResult.OVERFLOW;
+            forget(buffer.pollFirst());
+            result = OfferResult.DROPPED_OLDEST;
+        }
+        buffer.addLast(event);
+        if (event.coalesceKey != null) pendingByKey.put(event.coalesceKey, event);
+        return result;
+    }
+
+    /**
+     * Antepone los eventos a reproducir (ordenados por id) a los que ya llegaron en vivo desde el registro,
+     * y habilita el writer. Solo se anteponen los anteriores al primer evento en vivo: los posteriores
+     * ya pasaron por este buffer (y siguen en él, o fueron coalescidos o descartados).
+     * Si no caben todos, se conservan los más recientes.
+     */
+    void completeReplay(List<PendingEvent> missed) {
+        lock.lock();
+        try {
+            long firstLive = Long.MAX_VALUE;
+            for (PendingEvent event : buffer) {
+                if (!event.isHeartbeat()) {
+                    firstLive = event.id;
+                    break;
+                }
+            }
+
+            int end = 0;
+            while (end < missed.size() && missed.get(end).id < firstLive) end++;
+            int room = Math.max(0, capacity - buffer.size());
+            for (int i = end - 1; i >= Math.max(0, end - room); i--) buffer.addFirst(missed.get(i));
+            replaying = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    PendingEvent poll() {
+        lock.lock();
+        try {
+            PendingEvent event = buffer.pollFirst();
+            forget(event);
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forget(PendingEvent event) {
+        if (event != null && event.coalesceKey != null) pendingByKey.remove(event.coalesceKey, event);
+    }
+
+    int depth() {
+        lock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Marca la suscripción como "en drenaje"; devuelve false si otro writer ya la está drenando. */
+    boolean tryStartDrain() {
+        return !closed && !replaying && draining.compareAndSet(false, true);
+    }
+
+    void finishDrain() {
+        draining.set(false);
+    }
+
+    void close() {
+        closed = true;
+        lock.lock();
+        try {
+            buffer.clear();
+            pendingByKey.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isClosed() { return closed; }
+
+    Long userId() { return userId; }
+
+    /** Pacientes cuyos eventos clínicos recibe esta conexión. */
+    Set<Long> patientIds() { return patientIds; }
+
+    /** Indica si la conexión recibe las alertas de todos los pacientes (panel de administración). */
+    boolean adminDashboard() { return adminDashboard; }
+
+    Locale locale() { return locale; }
+
+    SseEmitter emitter() { return emitter; }
+}
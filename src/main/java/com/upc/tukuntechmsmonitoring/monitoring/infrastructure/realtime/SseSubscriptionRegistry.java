@@ -0,0 +1,85 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice de suscripciones SSE activas.
+ * Un usuario puede tener varias conexiones (pestañas, dispositivos) y cada conexión se indexa
+ * además por los tópicos que le interesan: pacientes observados y panel de administración.
+ * Publicar en un tópico solo recorre las conexiones interesadas, no todas las abiertas.
+ */
+final class SseSubscriptionRegistry {
+
+    private final Map<Long, Set<SseSubscription>> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<SseSubscription>> byPatient = new ConcurrentHashMap<>();
+    private final Set<SseSubscription> adminDashboard = ConcurrentHashMap.newKeySet();
+
+    void register(SseSubscription subscription) {
+        byUser.computeIfAbsent(subscription.userId(), id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        for (Long patientId : subscription.patientIds()) {
+            byPatient.computeIfAbsent(patientId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        if (subscription.adminDashboard()) adminDashboard.add(subscription);
+    }
+
+    /** Quita la suscripción de todos los índices; devuelve false si ya no estaba registrada. */
+    boolean unregister(SseSubscription subscription) {
+        boolean removed = removeFrom(byUser, subscription.userId(), subscription);
+        for (Long patientId : subscription.patientIds()) {
+            removeFrom(byPatient, patientId, subscription);
+        }
+        adminDashboard.remove(subscription);
+        return removed;
+    }
+
+    private static boolean removeFrom(Map<Long, Set<SseSubscription>> index, Long key, SseSubscription subscription) {
+        boolean[] removed = {false};
+        index.computeIfPresent(key, (k, set) -> {
+            removed[0] = set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        return removed[0];
+    }
+
+    void forUser(Long userId, Consumer<SseSubscription> action) {
+        forEach(byUser.get(userId), action);
+    }
+
+    void forPatient(Long patientId, Consumer<SseSubscription> action) {
+        forEach(byPatient.get(patientId), action);
+    }
+
+    /**
+     * Interesados en un evento clínico de un paciente: quienes observan al paciente y el panel
+     * de administración, sin duplicar a quien está en ambos grupos.
+     */
+    void forPatientAndAdmins(Long patientId, Consumer<SseSubscription> action) {
+        Set<SseSubscription> watchers = byPatient.get(patientId);
+        forEach(watchers, action);
+        for (SseSubscription subscription : adminDashboard) {
+            if (watchers == null || !watchers.contains(subscription)) action.accept(subscription);
+        }
+    }
+
+    void forAll(Consumer<SseSubscription> action) {
+        byUser.values().forEach(set -> set.forEach(action));
+    }
+
+    int size() {
+        return byUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    int bufferedEvents() {
+        return byUser.values().stream()
+                .flatMap(Set::stream)
+                .mapToInt(SseSubscription::depth)
+                .sum();
+    }
+
+    private static void forEach(Set<SseSubscription> subscriptions, Consumer<SseSubscription> action) {
+        if (subscriptions != null) subscriptions.forEach(action);
+    }
+}
@@ -0,0 +1,198 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientWard;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.EarlyWarningScore;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientWardRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tablero en memoria del puntaje de alerta temprana: el último puntaje por paciente y rankings
+ * "más graves primero" del hospital y de cada sala, mantenidos en conjuntos ordenados concurrentes.
+ * Cada medición confirmada reemplaza la entrada del paciente en O(log n); consultar los N primeros
+ * de una sala no ordena ni recorre a los demás pacientes, ni consulta la BD.
+ * El tablero se llena con la ingesta: tras un reinicio aparece cada paciente con su próxima medición.
+ */
+@Component
+public class EarlyWarningBoard {
+
+    private static final Logger log = LoggerFactory.getLogger(EarlyWarningBoard.class);
+
+    /** Mayor puntaje primero; a igual puntaje, por id para que cada paciente tenga una única posición. */
+    private static final Comparator<PatientScore> RANKING = Comparator
+            .comparingInt(PatientScore::total).reversed()
+            .thenComparingLong(PatientScore::patientId);
+
+    private final PatientWardRepository wardRepository;
+    private final TaskScheduler scheduler;
+    private final EarlyWarningProperties props;
+    private final long maxAgeMillis;
+    private final double baselineTauMillis;
+
+    private final ConcurrentHashMap<Long, PatientScore> latest = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<PatientScore> hospital = new ConcurrentSkipListSet<>(RANKING);
+    private final ConcurrentHashMap<String, ConcurrentSkipListSet<PatientScore>> byWard = new ConcurrentHashMap<>();
+    private volatile Map<Long, String> wards = Map.of();
+    private final ReentrantLock wardsLock = new ReentrantLock();
+
+    public EarlyWarningBoard(PatientWardRepository wardRepository,
+                             TaskScheduler scheduler,
+                             EarlyWarningProperties props) {
+        this.wardRepository = wardRepository;
+        this.scheduler = scheduler;
+        this.props = props;
+        this.maxAgeMillis = props.maxAge().toMillis();
+        this.baselineTauMillis = props.baselineSmoothing().toMillis();
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::maintain, props.wardsReloadInterval());
+    }
+
+    /**
+     * Puntúa una medición confirmada y actualiza la posición del paciente en los rankings.
+     * Una medición más antigua que el puntaje vigente se ignora.
+     */
+    public void record(VitalSignRecord record) {
+        EarlyWarningScore score = EarlyWarningScore.of(
+                record.getHeartRate().getValue(),
+                record.getOxygenLevel().getValue(),
+                record.getTemperature().getValue());
+        long at = toMillis(record.getTimestamp());
+
+        latest.compute(record.getPatientId(), (patientId, previous) -> {
+            if (previous != null && previous.scoredAtMillis() > at) return previous;
+            PatientScore next = new PatientScore(patientId, wards.get(patientId), score,
+                    baseline(previous, score.total(), at), at, record.getTimestamp());
+            if (previous != null) unindex(previous);
+            index(next);
+            return next;
+        });
+    }
+
+    /**
+     * Los {@code limit} pacientes con mayor puntaje de la sala (o de todo el hospital si {@code ward} es null),
+     * omitiendo puntajes vencidos.
+     */
+    public List<PatientScore> top(String ward, int limit) {
+        Set<PatientScore> ranking = ward == null ? hospital : byWard.get(ward);
+        if (ranking == null) return List.of();
+        long cutoff = toMillis(LocalDateTime.now()) - maxAgeMillis;
+        List<PatientScore> result = new ArrayList<>(Math.min(limit, 64));
+        for (PatientScore entry : ranking) {
+            if (result.size() >= limit) break;
+            if (entry.scoredAtMillis() >= cutoff) result.add(entry);
+        }
+        return result;
+    }
+
+    /** Último puntaje del paciente, o null si no tiene uno vigente. */
+    public PatientScore scoreOf(long patientId) {
+        PatientScore score = latest.get(patientId);
+        return score != null && score.scoredAtMillis() >= toMillis(LocalDateTime.now()) - maxAgeMillis ? score : null;
+    }
+
+    /**
+     * Relee las salas y reubica a los pacientes que cambiaron; un fallo solo se registra.
+     * Se invoca tras cada cambio local y periódicamente (cambios hechos desde otra réplica).
+     */
+    public void refreshWards() {
+        try {
+            Map<Long, String> loaded = new HashMap<>();
+            for (PatientWard pw : wardRepository.findAll()) loaded.put(pw.getPatientId(), pw.getWard());
+            applyWards(loaded);
+        } catch (RuntimeException e) {
+            log.warn("Ward assignments reload failed", e);
+        }
+    }
+
+    void maintain() {
+        refreshWards();
+        evictStale();
+    }
+
+    private void applyWards(Map<Long, String> loaded) {
+        wardsLock.lock();
+        try {
+            applyWardsLocked(loaded);
+        } finally {
+            wardsLock.unlock();
+        }
+    }
+
+    private void applyWardsLocked(Map<Long, String> loaded) {
+        Map<Long, String> previous = wards;
+        if (loaded.equals(previous)) return;
+        // Primero se publica el mapa nuevo: lo que se puntúe desde ahora ya cae en la sala correcta
+        wards = loaded;
+        Set<Long> changed = new HashSet<>();
+        previous.forEach((id, ward) -> { if (!ward.equals(loaded.get(id))) changed.add(id); });
+        loaded.forEach((id, ward) -> { if (!ward.equals(previous.get(id))) changed.add(id); });
+        for (Long patientId : changed) {
+            latest.computeIfPresent(patientId, (id, current) -> {
+                String ward = loaded.get(id);
+                if (Objects.equals(ward, current.ward())) return current;
+                unindex(current);
+                PatientScore moved = current.inWard(ward);
+                index(moved);
+                return moved;
+            });
+        }
+    }
+
+    /** Quita del tablero a los pacientes sin mediciones recientes. */
+    private void evictStale() {
+        long cutoff = toMillis(LocalDateTime.now()) - maxAgeMillis;
+        for (Long patientId : latest.keySet()) {
+            latest.computeIfPresent(patientId, (id, current) -> {
+                if (current.scoredAtMillis() >= cutoff) return current;
+                unindex(current);
+                return null;
+            });
+        }
+    }
+
+    /** Promedio exponencial del puntaje con constante de tiempo; se reinicia si el anterior venció. */
+    private double baseline(PatientScore previous, int total, long at) {
+        if (previous == null || at - previous.scoredAtMillis() > maxAgeMillis) return total;
+        long dt = at - previous.scoredAtMillis();
+        double alpha = 1 - Math.exp(-dt / baselineTauMillis);
+        return previous.baseline() + alpha * (total - previous.baseline());
+    }
+
+    private void index(PatientScore entry) {
+        hospital.add(entry);
+        if (entry.ward() != null) byWard.computeIfAbsent(entry.ward(), w -> new ConcurrentSkipListSet<>(RANKING)).add(entry);
+    }
+
+    private void unindex(PatientScore entry) {
+        hospital.remove(entry);
+        if (entry.ward() == null) return;
+        Set<PatientScore> ranking = byWard.get(entry.ward());
+        if (ranking != null) ranking.remove(entry);
+    }
+
+    /** Mismo reloj que los timestamps de las mediciones (hora local del servicio). */
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
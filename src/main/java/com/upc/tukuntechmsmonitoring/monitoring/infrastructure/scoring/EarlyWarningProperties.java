@@ -0,0 +1,27 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración del tablero de alerta temprana (app.monitoring.early-warning).
+ *
+ * @param maxAge              un puntaje sin mediciones nuevas por más de este tiempo sale del ranking
+ * @param baselineSmoothing   constante de tiempo del promedio exponencial con el que se compara el puntaje
+ *                            para saber si sube o baja
+ * @param wardsReloadInterval cada cuánto se releen las salas de la BD y se limpian los puntajes vencidos
+ */
+@ConfigurationProperties(prefix = "app.monitoring.early-warning")
+public record EarlyWarningProperties(
+        Duration maxAge,
+        Duration baselineSmoothing,
+        Duration wardsReloadInterval
+) {
+
+    public EarlyWarningProperties {
+        if (maxAge == null) maxAge = Duration.ofHours(6);
+        if (baselineSmoothing == null) baselineSmoothing = Duration.ofHours(1);
+        if (wardsReloadInterval == null) wardsReloadInterval = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,39 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.EarlyWarningScore;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.ScoreTrend;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último puntaje de alerta temprana de un paciente. Inmutable: cada medición publica uno nuevo,
+ * de modo que el ranking puede quitar exactamente la entrada anterior.
+ *
+ * @param ward     sala del paciente, o null si no tiene
+ * @param baseline promedio exponencial reciente del puntaje total
+ */
+public record PatientScore(
+        long patientId,
+        String ward,
+        EarlyWarningScore score,
+        double baseline,
+        long scoredAtMillis,
+        LocalDateTime scoredAt
+) {
+
+    public int total() {
+        return score.total();
+    }
+
+    /** Sube o baja si el puntaje se aleja al menos un punto de su línea base. */
+    public ScoreTrend trend() {
+        double delta = score.total() - baseline;
+        if (delta >= 1) return ScoreTrend.RISING;
+        if (delta <= -1) return ScoreTrend.FALLING;
+        return ScoreTrend.STABLE;
+    }
+
+    PatientScore inWard(String ward) {
+        return new PatientScore(patientId, ward, score, baseline, scoredAtMillis, scoredAt);
+    }
+}
@@ -0,0 +1,121 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores de ingesta de un dispositivo. La ingesta los actualiza sin locks (solo CAS);
+ * el estado de silencio y la alerta abierta los escribe únicamente el barrido.
+ * La tasa se cuenta en {@link #RATE_BUCKETS} buckets circulares: cada slot guarda en un solo long
+ * el número de bucket (bits altos) y su conteo (20 bits bajos), así reiniciar un bucket viejo
+ * y sumarle la medición es un único CAS.
+ */
+public final class DeviceStats {
+
+    static final int RATE_BUCKETS = 12;
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long deviceId;
+    private final long bucketMillis;
+    private final AtomicLongArray rate = new AtomicLongArray(RATE_BUCKETS);
+    private final AtomicLong lastSeenMillis = new AtomicLong();
+    private final AtomicLong readings = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong longestGapMillis = new AtomicLong();
+    private volatile long patientId;
+
+    // Escritos solo por el barrido
+    private volatile boolean silent;
+    private volatile Long silentAlertId;
+    private volatile long silentSinceMillis;
+    /** Creado por la ingesta sin saber si el dispositivo tiene una alerta de silencio abierta en la BD. */
+    private volatile boolean alertUnknown = true;
+
+    DeviceStats(long deviceId, long patientId, long rateWindowMillis) {
+        this.deviceId = deviceId;
+        this.patientId = patientId;
+        this.bucketMillis = rateWindowMillis / RATE_BUCKETS;
+    }
+
+    /** Registra una medición recibida en {@code at}; cuenta un hueco si la anterior quedó a más de {@code gapAfterMillis}. */
+    void record(long patientId, long at, long gapAfterMillis) {
+        this.patientId = patientId;
+        readings.incrementAndGet();
+
+        long previous = lastSeenMillis.getAndAccumulate(at, Math::max);
+        long gap = at - previous;
+        if (previous > 0 && gap > gapAfterMillis) {
+            gaps.incrementAndGet();
+            longestGapMillis.accumulateAndGet(gap, Math::max);
+        }
+
+        long bucket = at / bucketMillis;
+        int i = (int) (bucket % RATE_BUCKETS);
+        long current, next;
+        do {
+            current = rate.get(i);
+            next = current >>> COUNT_BITS == bucket
+                    ? (current & COUNT_MASK) == COUNT_MASK ? current : current + 1
+                    : bucket << COUNT_BITS | 1;
+        } while (!rate.compareAndSet(i, current, next));
+    }
+
+    /** Mediciones por minuto en la ventana que termina en {@code now} (el bucket en curso cuenta completo). */
+    public double readingsPerMinute(long now) {
+        long newest = now / bucketMillis;
+        long count = 0;
+        for (int i = 0; i < RATE_BUCKETS; i++) {
+            long slot = rate.get(i);
+            long bucket = slot >>> COUNT_BITS;
+            if (bucket > newest - RATE_BUCKETS && bucket <= newest) count += slot & COUNT_MASK;
+        }
+        return count * 60_000.0 / (bucketMillis * RATE_BUCKETS);
+    }
+
+    public long deviceId() { return deviceId; }
+
+    /** Último paciente que reportó con este dispositivo. */
+    public long patientId() { return patientId; }
+
+    /** Instante del último reporte (mismo reloj que las mediciones), o 0 si no reportó desde el arranque. */
+    public long lastSeenMillis() { return lastSeenMillis.get(); }
+
+    public long readings() { return readings.get(); }
+
+    public long gaps() { return gaps.get(); }
+
+    public long longestGapMillis() { return longestGapMillis.get(); }
+
+    /** Si hay una alerta de dispositivo silencioso abierta. */
+    public boolean isSilent() { return silent; }
+
+    public Long silentAlertId() { return silentAlertId; }
+
+    /** Desde cuándo el barrido lo tiene por silencioso (apertura o reposición de la alerta). */
+    public long silentSinceMillis() { return silentSinceMillis; }
+
+    /**
+     * Si el barrido aún no consultó en la BD si el dispositivo tiene una alerta de silencio abierta:
+     * apareció tras el arranque o tras haber sido olvidado ({@link DeviceTelemetry#forget}).
+     */
+    public boolean isAlertUnknown() { return alertUnknown; }
+
+    public void markSilent(Long alertId, long since) {
+        this.silentAlertId = alertId;
+        this.silentSinceMillis = since;
+        this.silent = true;
+        this.alertUnknown = false;
+    }
+
+    public void markOnline() {
+        this.silent = false;
+        this.silentAlertId = null;
+        this.alertUnknown = false;
+    }
+
+    /** La BD no tiene una alerta de silencio abierta para el dispositivo. */
+    public void markAlertKnown() {
+        this.alertUnknown = false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Telemetría de ingesta por dispositivo en memoria: último reporte, tasa en ventana deslizante y huecos.
+ * La ingesta solo toca los contadores atómicos de su dispositivo; recorrer todos los dispositivos
+ * es O(dispositivos) sin consultas a la BD, para que el barrido de silencios pueda correr cada pocos segundos.
+ * Se llena con la ingesta: tras un reinicio un dispositivo aparece con su próximo reporte
+ * (o con su alerta de silencio abierta, que repone el barrido). Un dispositivo silencioso por más de
+ * {@code forget-after} se quita ({@link #forget}), así el barrido no recorre todos los dispositivos vistos alguna vez.
+ * <p>
+ * Los contadores son de esta instancia: solo ven las mediciones que recibió ella. Con varias réplicas,
+ * cada una considera silencioso a un dispositivo cuyas mediciones llegan a otra; ver
+ * {@code app.monitoring.devices.enabled}.
+ */
+@Component
+public class DeviceTelemetry {
+
+    private final ConcurrentHashMap<Long, DeviceStats> devices = new ConcurrentHashMap<>();
+    private final long gapAfterMillis;
+    private final long rateWindowMillis;
+    private final long silentAfterMillis;
+
+    public DeviceTelemetry(DeviceTelemetryProperties props, MeterRegistry meterRegistry) {
+        this.gapAfterMillis = props.gapAfter().toMillis();
+        this.rateWindowMillis = props.rateWindow().toMillis();
+        this.silentAfterMillis = props.silentAfter().toMillis();
+
+        Gauge.builder("monitoring.devices.tracked", devices, ConcurrentHashMap::size)
+                .description("Dispositivos con telemetría en memoria")
+                .register(meterRegistry);
+    }
+
+    /** Registra una medición confirmada en los contadores de su dispositivo. */
+    public void record(VitalSignRecord record) {
+        statsOf(record.getDeviceId(), record.getPatientId())
+                .record(record.getPatientId(), toMillis(record.getTimestamp()), gapAfterMillis);
+    }
+
+    /** Contadores del dispositivo, o null si no reportó desde el arranque o fue olvidado. */
+    public DeviceStats get(long deviceId) {
+        return devices.get(deviceId);
+    }
+
+    public void forEach(Consumer<DeviceStats> action) {
+        devices.values().forEach(action);
+    }
+
+    public int size() {
+        return devices.size();
+    }
+
+    /**
+     * Repone un dispositivo con su alerta de silencio abierta (leída de la BD al arrancar).
+     * Si ya reportó desde el arranque, el próximo barrido resolverá la alerta.
+     */
+    public void restoreSilent(long deviceId, long patientId, Long alertId, long now) {
+        statsOf(deviceId, patientId).markSilent(alertId, now);
+    }
+
+    /**
+     * Quita un dispositivo de la memoria. Una medición que llegue a la vez puede contarse en los contadores
+     * quitados; la siguiente vuelve a crear el dispositivo.
+     */
+    public void forget(DeviceStats stats) {
+        devices.remove(stats.deviceId(), stats);
+    }
+
+    /** Estado del dispositivo en {@code now}: silencioso si no reportó dentro del plazo. */
+    public boolean isQuiet(DeviceStats stats, long now) {
+        return now - stats.lastSeenMillis() > silentAfterMillis;
+    }
+
+    /** Instante actual en el reloj de las mediciones (hora local del servicio). */
+    public static long now() {
+        return toMillis(LocalDateTime.now());
+    }
+
+    public static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toTimestamp(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private DeviceStats statsOf(long deviceId, long patientId) {
+        DeviceStats stats = devices.get(deviceId);
+        if (stats != null) return stats;
+        return devices.computeIfAbsent(deviceId, id -> new DeviceStats(id, patientId, rateWindowMillis));
+    }
+}
@@ -0,0 +1,38 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la telemetría de dispositivos (app.monitoring.devices).
+ *
+ * @param enabled       si el barrido periódico abre y resuelve alertas de dispositivo silencioso
+ * @param gapAfter      dos reportes separados por más de este tiempo cuentan como un hueco
+ * @param silentAfter   un dispositivo sin reportar por más de este tiempo se considera silencioso
+ * @param rateWindow    ventana deslizante sobre la que se calcula la tasa de mediciones por minuto
+ * @param sweepInterval cada cuánto se recorren los dispositivos buscando silencios y recuperaciones
+ * @param forgetAfter   un dispositivo con su alerta de silencio abierta desde hace más de este tiempo se quita
+ *                      de la memoria; la alerta sigue abierta y se repone si el dispositivo vuelve a reportar
+ */
+@ConfigurationProperties(prefix = "app.monitoring.devices")
+public record DeviceTelemetryProperties(
+        Boolean enabled,
+        Duration gapAfter,
+        Duration silentAfter,
+        Duration rateWindow,
+        Duration sweepInterval,
+        Duration forgetAfter
+) {
+
+    public DeviceTelemetryProperties {
+        if (enabled == null) enabled = true;
+        if (gapAfter == null) gapAfter = Duration.ofMinutes(1);
+        if (silentAfter == null) silentAfter = Duration.ofMinutes(5);
+        if (rateWindow == null) rateWindow = Duration.ofMinutes(5);
+        if (sweepInterval == null) sweepInterval = Duration.ofSeconds(5);
+        if (forgetAfter == null || forgetAfter.isZero() || forgetAfter.isNegative()) forgetAfter = Duration.ofHours(24);
+        if (rateWindow.compareTo(Duration.ofSeconds(DeviceStats.RATE_BUCKETS)) < 0)
+            throw new IllegalArgumentException("rate-window must be at least " + DeviceStats.RATE_BUCKETS + "s");
+    }
+}
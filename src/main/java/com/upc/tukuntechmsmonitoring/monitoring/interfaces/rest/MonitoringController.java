@@ -2,11 +2,30 @@ package com.upc.tukuntechmsmonitoring.monitoring.interfaces.rest;
 
 
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertThresholdRuleRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertThresholdRuleResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.BatchMeasurementResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.CreateVitalSignRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.DeviceHealthResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.EarlyWarningScoreResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.MeasurementPageResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.MeasurementSeriesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.PatientCohortRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.PatientWardRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.RollingAggregatesResponse;
 import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSignResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.export.ExportFormat;
+import com.upc.tukuntechmsmonitoring.monitoring.application.queries.TimeWindow;
+import com.upc.tukuntechmsmonitoring.monitoring.application.series.DownsampleMode;
 import com.upc.tukuntechmsmonitoring.monitoring.application.service.AlertApplicationService;
+import com.upc.tukuntechmsmonitoring.monitoring.application.service.AlertRuleApplicationService;
+import com.upc.tukuntechmsmonitoring.monitoring.application.service.ExportApplicationService;
 import com.upc.tukuntechmsmonitoring.monitoring.application.service.MonitoringApplicationService;
+import com.upc.tukuntechmsmonitoring.monitoring.application.service.WardApplicationService;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.DeviceStatus;
 import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseEmitterService;
+import com.upc.tukuntechmsmonitoring.shared.security.CurrentUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,13 +35,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Tag(name = "Monitoring", description = "Endpoints for IoT vital sign monitoring")
 @SecurityRequirement(name = "bearerAuth")
@@ -33,13 +62,25 @@ public class MonitoringController {
     private final MonitoringApplicationService monitoringApp;
     private final AlertApplicationService alertApp;
     private final SseEmitterService emitterService;
+    private final CurrentUserService currentUserService;
+    private final ExportApplicationService exportApp;
+    private final AlertRuleApplicationService alertRuleApp;
+    private final WardApplicationService wardApp;
 
     public MonitoringController(MonitoringApplicationService monitoringApp,
                                 SseEmitterService emitterService,
-                                AlertApplicationService alertApp) {
+                                AlertApplicationService alertApp,
+                                CurrentUserService currentUserService,
+                                ExportApplicationService exportApp,
+                                AlertRuleApplicationService alertRuleApp,
+                                WardApplicationService wardApp) {
         this.monitoringApp = monitoringApp;
         this.emitterService = emitterService;
         this.alertApp = alertApp;
+        this.currentUserService = currentUserService;
+        this.exportApp = exportApp;
+        this.alertRuleApp = alertRuleApp;
+        this.wardApp = wardApp;
     }
 
     // ---- Measurements ----
@@ -100,11 +141,55 @@ public class MonitoringController {
                 .body(response);
     }
 
+    @Operation(
+            summary = "Submit a batch of vital sign measurements",
+            description = """
+        Receives an array of measurements buffered by a gateway. Each item is validated
+        independently: invalid items are reported by index in `errors` and valid items are
+        persisted together in a single transaction. Alert evaluation and SSE fan-out run
+        once per batch (patients receive one `vital-sign-batch` event with their readings).
+        Maximum batch size is 1000 items.
+        """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    description = "Array of vital sign payloads.",
+                    content = @Content(
+                            examples = @ExampleObject(
+                                    name = "Gateway batch",
+                                    value = """
+                        [
+                          { "patientId": 1, "deviceId": 101, "heartRate": 78, "oxygenLevel": 97, "temperature": 36.6 },
+                          { "patientId": 2, "deviceId": 102, "heartRate": 140, "oxygenLevel": 85, "temperature": 39.2 }
+                        ]
+                        """
+                            )
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "At least one measurement was created",
+                            content = @Content(schema = @Schema(implementation = BatchMeasurementResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Empty or oversized batch, or every item was invalid",
+                            content = @Content(schema = @Schema(implementation = BatchMeasurementResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PostMapping("/measurements/batch")
+    @PreAuthorize("hasAnyRole('PATIENT','CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<BatchMeasurementResponse> createMeasurements(@RequestBody List<CreateVitalSignRequest> requests) {
+        BatchMeasurementResponse response = monitoringApp.createMeasurements(requests);
+        HttpStatus status = response.accepted() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
 
 
     @Operation(
             summary = "Get all measurements of a patient",
-            description = "Returns all historical vital sign records for a given patient, sorted by most recent first.",
+            description = """
+        Returns all historical vital sign records for a given patient, sorted by most recent first.
+        Unbounded: prefer `/patients/{id}/measurements/page` for long histories.
+        """,
             responses = @ApiResponse(
                     responseCode = "200",
                     description = "List of measurements",
@@ -120,10 +205,224 @@ public class MonitoringController {
 
 
 
+    @Operation(
+            summary = "Get latest measurement of several patients",
+            description = """
+        Returns the most recent measurement of each requested patient (e.g. a whole ward) in one call,
+        served from an in-memory write-through cache. Patients without measurements are omitted.
+        At most 500 ids per request.
+        """,
+            parameters = @Parameter(name = "ids", description = "Patient ids", example = "1,2,3"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Latest measurements",
+                            content = @Content(schema = @Schema(implementation = VitalSignResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Missing or too many ids", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/patients/latest")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<List<VitalSignResponse>> getLatest(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(monitoringApp.getLatestMeasurements(ids));
+    }
+
+    @Operation(
+            summary = "Get rolling-window summaries of a patient's vitals",
+            description = """
+        Returns count, min, max, average and approximate p95 of heart rate, SpO2 and temperature
+        over the last `15m`, `1h` and `24h` (or the requested windows, up to 24h each).
+        Answered from an in-memory aggregation engine fed at ingest time: windows up to 1h use
+        1-minute buckets and longer windows use 30-minute buckets, so window edges are aligned
+        to that granularity. p95 is within half a histogram class (5 bpm, 1 %, 0.25 °C).
+        """,
+            parameters = @Parameter(name = "windows", description = "Window lengths (e.g. 15m, 1h, 24h or PT15M)",
+                    example = "15m,1h,24h"),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Summaries per window",
+                            content = @Content(schema = @Schema(implementation = RollingAggregatesResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid window", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/patients/{id}/aggregates")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR','PATIENT')")
+    public ResponseEntity<RollingAggregatesResponse> getAggregates(@PathVariable Long id,
+                                                                   @RequestParam(required = false) List<String> windows) {
+        return ResponseEntity.ok(monitoringApp.getRollingAggregates(id, windows));
+    }
+
+    @Operation(
+            summary = "Rank patients by early-warning score",
+            description = """
+        Returns the patients of a ward (or of the whole hospital when `ward` is omitted) ordered by
+        their latest NEWS2-style early-warning score, highest first (ties by patient id).
+        The score adds NEWS2 points for heart rate (0-3), SpO2 (0-3, scale 1) and temperature (0-3),
+        so it ranges 0-9; `risk` is LOW_MEDIUM when a single parameter scores 3, MEDIUM from 5 points, HIGH from 7.
+        `trend` compares the score with its exponentially smoothed recent baseline.
+        Scores are computed at ingest and kept in memory in ordered structures; patients without
+        measurements in the last 6h are not listed.
+        """,
+            parameters = {
+                    @Parameter(name = "ward", description = "Ward name; omit for the whole hospital", example = "icu-2"),
+                    @Parameter(name = "limit", description = "Maximum patients (1-500, default 50)", example = "20")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Patients by descending score",
+                            content = @Content(schema = @Schema(implementation = EarlyWarningScoreResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid limit", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/early-warning")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<List<EarlyWarningScoreResponse>> getEarlyWarningRanking(
+            @RequestParam(required = false) String ward,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(monitoringApp.getEarlyWarningRanking(ward, limit));
+    }
+
+    @Operation(
+            summary = "List device health",
+            description = """
+        Returns ingestion telemetry per device: last report, readings per minute over a sliding window
+        (5 min by default), number of reporting gaps (> 1 min by default) and the longest gap.
+        A device is `SILENT` when it has not reported for `app.monitoring.devices.silent-after`
+        (5 min by default); a background sweep then opens a `DEVICE_SILENT` alert, resolved when the
+        device reports again. Devices that are silent the longest come first.
+        Served from memory: only devices that reported (or had an open silence alert) since startup are listed.
+        """,
+            parameters = {
+                    @Parameter(name = "status", description = "Only devices in this status", example = "SILENT"),
+                    @Parameter(name = "limit", description = "Maximum devices (1-1000, default 100)", example = "100")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Device health",
+                            content = @Content(schema = @Schema(implementation = DeviceHealthResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid status or limit", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/devices/health")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<List<DeviceHealthResponse>> getDeviceHealth(
+            @RequestParam(required = false) DeviceStatus status,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(monitoringApp.getDeviceHealth(status, limit));
+    }
+
+    @Operation(
+            summary = "Get a device's health",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Device health",
+                            content = @Content(schema = @Schema(implementation = DeviceHealthResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "No telemetry for the device since startup",
+                            content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/devices/{id}/health")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<DeviceHealthResponse> getDeviceHealthById(@PathVariable Long id) {
+        return ResponseEntity.ok(monitoringApp.getDeviceHealth(id));
+    }
+
+    @Operation(
+            summary = "Get a page of a patient's measurements",
+            description = """
+        Cursor-paginated history of a patient within an optional [from, to] window, most recent first.
+        Pass the returned `nextCursor` to fetch the next page; it is null on the last page.
+        Page size defaults to 100 and is capped at 500.
+        """,
+            parameters = {
+                    @Parameter(name = "from", description = "Window start (ISO date-time, inclusive)", example = "2025-01-01T00:00:00"),
+                    @Parameter(name = "to", description = "Window end (ISO date-time, inclusive)", example = "2025-01-02T00:00:00"),
+                    @Parameter(name = "cursor", description = "Opaque cursor from the previous page"),
+                    @Parameter(name = "size", description = "Page size (max 500)", example = "100")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page of measurements",
+                            content = @Content(schema = @Schema(implementation = MeasurementPageResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid window, size or cursor", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/patients/{id}/measurements/page")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR','PATIENT')")
+    public ResponseEntity<MeasurementPageResponse> getPageByPatient(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(monitoringApp.getMeasurementsPage(id, from, to, cursor, size));
+    }
+
+    @Operation(
+            summary = "Get a downsampled measurement series for charts",
+            description = """
+        Returns at most `points` points per vital for the [from, to) range (default: last 24h),
+        so a week of 1 Hz data can be charted without sending every reading.
+        `MIN_MAX_AVG` returns one point per equal time interval with min, max, avg and count;
+        `LTTB` returns real readings chosen by Largest-Triangle-Three-Buckets to keep the visual shape.
+        Rows are reduced while they are streamed from the database, so cost depends on `points`.
+        When each point spans at least a minute (or an hour), minute (or hour) rollup tables are
+        read instead of raw readings; `resolution` in the response tells which one was used.
+        """,
+            parameters = {
+                    @Parameter(name = "from", description = "Range start (ISO date-time, inclusive)", example = "2025-01-01T00:00:00"),
+                    @Parameter(name = "to", description = "Range end (ISO date-time, exclusive)", example = "2025-01-08T00:00:00"),
+                    @Parameter(name = "points", description = "Maximum points per vital (3–5000)", example = "500"),
+                    @Parameter(name = "mode", description = "MIN_MAX_AVG or LTTB", example = "LTTB")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Downsampled series",
+                            content = @Content(schema = @Schema(implementation = MeasurementSeriesResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid range or points", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/patients/{id}/measurements/series")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR','PATIENT')")
+    public ResponseEntity<MeasurementSeriesResponse> getSeries(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(defaultValue = "MIN_MAX_AVG") DownsampleMode mode) {
+        return ResponseEntity.ok(monitoringApp.getMeasurementSeries(id, from, to, points, mode));
+    }
+
+    @Operation(
+            summary = "Export a patient's measurements",
+            description = """
+        Streams the patient's measurements within an optional [from, to] window in chronological
+        order, as NDJSON (one JSON object per line) or CSV. Rows are written as they are read from
+        the database, so exports of any length run in constant memory.
+        """,
+            parameters = {
+                    @Parameter(name = "format", description = "ndjson or csv", example = "ndjson"),
+                    @Parameter(name = "from", description = "Window start (ISO date-time, inclusive)"),
+                    @Parameter(name = "to", description = "Window end (ISO date-time, inclusive)")
+            },
+            responses = @ApiResponse(responseCode = "200", description = "Export stream"),
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/patients/{id}/measurements/export")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR','PATIENT')")
+    public ResponseEntity<StreamingResponseBody> exportMeasurements(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TimeWindow window = TimeWindow.of(from, to);
+        return exportResponse("measurements-" + id, format,
+                out -> exportApp.exportMeasurements(id, window, format, out));
+    }
+
     @Operation(
             summary = "Get most recent measurements",
             description = "Fetches the N most recent measurements system-wide (useful for dashboards).",
-            parameters = @Parameter(name = "limit", description = "Number of recent records to fetch", example = "20"),
+            parameters = @Parameter(name = "limit", description = "Number of recent records to fetch (max 500)", example = "20"),
             responses = @ApiResponse(
                     responseCode = "200",
                     description = "List of recent measurements",
@@ -156,7 +455,11 @@ public class MonitoringController {
 
     @Operation(
             summary = "Get alerts for a specific patient",
-            description = "Returns all alerts generated for a given patient, ordered from most recent to oldest.",
+            description = "Returns a page of alerts generated for a given patient, ordered from most recent to oldest.",
+            parameters = {
+                    @Parameter(name = "page", description = "Zero-based page index", example = "0"),
+                    @Parameter(name = "size", description = "Page size (max 200)", example = "50")
+            },
             responses = @ApiResponse(
                     responseCode = "200",
                     description = "List of alerts",
@@ -166,26 +469,306 @@ public class MonitoringController {
     )
     @GetMapping("/patients/{id}/alerts")
     @PreAuthorize("hasAnyRole('PATIENT','CAREGIVER','ADMINISTRATOR')")
-    public ResponseEntity<List<AlertResponse>> getAlertsByPatient(@PathVariable Long id) {
-        return ResponseEntity.ok(alertApp.getAlertsByPatient(id));
+    public ResponseEntity<List<AlertResponse>> getAlertsByPatient(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(alertApp.getAlertsByPatient(id, page, size));
+    }
+
+    @Operation(
+            summary = "Get recent alerts",
+            description = "Returns a page of alerts created in the last N hours across all patients, most recent first.",
+            parameters = {
+                    @Parameter(name = "hours", description = "Look-back window in hours", example = "24"),
+                    @Parameter(name = "page", description = "Zero-based page index", example = "0"),
+                    @Parameter(name = "size", description = "Page size (max 200)", example = "50")
+            },
+            responses = @ApiResponse(
+                    responseCode = "200",
+                    description = "List of alerts",
+                    content = @Content(schema = @Schema(implementation = AlertResponse.class))
+            ),
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/alerts/recent")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<List<AlertResponse>> getRecentAlerts(@RequestParam(defaultValue = "24") int hours,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(alertApp.getRecentAlerts(hours, page, size));
+    }
+
+    @Operation(
+            summary = "Get alerts by severity",
+            description = "Returns a page of alerts with the given severity across all patients, most recent first.",
+            parameters = {
+                    @Parameter(name = "severity", description = "Alert severity", example = "CRITICAL"),
+                    @Parameter(name = "page", description = "Zero-based page index", example = "0"),
+                    @Parameter(name = "size", description = "Page size (max 200)", example = "50")
+            },
+            responses = @ApiResponse(
+                    responseCode = "200",
+                    description = "List of alerts",
+                    content = @Content(schema = @Schema(implementation = AlertResponse.class))
+            ),
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/alerts/severity/{severity}")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<List<AlertResponse>> getAlertsBySeverity(@PathVariable String severity,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(alertApp.getAlertsBySeverity(severity, page, size));
+    }
+
+    @Operation(
+            summary = "Get alerts by type",
+            description = """
+        Returns a page of alerts of the given type across all patients, most recent first.
+        With `minValue` and/or `maxValue` only alerts whose measured value falls in that
+        (inclusive) range are returned, e.g. every SpO2 alert below 85 %.
+        """,
+            parameters = {
+                    @Parameter(name = "type", description = "HEART_RATE, OXYGENATION, TEMPERATURE or GENERAL",
+                            example = "OXYGENATION"),
+                    @Parameter(name = "minValue", description = "Lowest measured value (inclusive)"),
+                    @Parameter(name = "maxValue", description = "Highest measured value (inclusive)", example = "85"),
+                    @Parameter(name = "page", description = "Zero-based page index", example = "0"),
+                    @Parameter(name = "size", description = "Page size (max 200)", example = "50")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "List of alerts",
+                            content = @Content(schema = @Schema(implementation = AlertResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Unknown type or empty range", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/alerts/type/{type}")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR')")
+    public ResponseEntity<List<AlertResponse>> getAlertsByType(@PathVariable AlertType type,
+                                                               @RequestParam(required = false) Double minValue,
+                                                               @RequestParam(required = false) Double maxValue,
+                                                               @RequestParam(defaultValue = "0") int page,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(alertApp.getAlertsByType(type, minValue, maxValue, page, size));
+    }
+
+
+    @Operation(
+            summary = "Export a patient's alerts",
+            description = """
+        Streams the patient's alerts within an optional [from, to] window in chronological
+        order, as NDJSON or CSV, without materializing the full list.
+        """,
+            parameters = {
+                    @Parameter(name = "format", description = "ndjson or csv", example = "csv"),
+                    @Parameter(name = "from", description = "Window start (ISO date-time, inclusive)"),
+                    @Parameter(name = "to", description = "Window end (ISO date-time, inclusive)")
+            },
+            responses = @ApiResponse(responseCode = "200", description = "Export stream"),
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/patients/{id}/alerts/export")
+    @PreAuthorize("hasAnyRole('CAREGIVER','ADMINISTRATOR','PATIENT')")
+    public ResponseEntity<StreamingResponseBody> exportAlerts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TimeWindow window = TimeWindow.of(from, to);
+        return exportResponse("alerts-" + id, format,
+                out -> exportApp.exportAlerts(id, window, format, out));
+    }
+
+    // ---- Alert threshold rules ----
+    @Operation(
+            summary = "List alert threshold rules",
+            description = "Returns every global, cohort and patient threshold rule.",
+            responses = @ApiResponse(responseCode = "200", description = "List of rules",
+                    content = @Content(schema = @Schema(implementation = AlertThresholdRuleResponse.class))),
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @GetMapping("/alert-rules")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<List<AlertThresholdRuleResponse>> getAlertRules() {
+        return ResponseEntity.ok(alertRuleApp.getRules());
+    }
+
+    @Operation(
+            summary = "Create or replace an alert threshold rule",
+            description = """
+        Sets the WARNING or CRITICAL thresholds of one vital sign for a patient (`patientId`),
+        a cohort (`cohort`) or everybody (neither). An existing rule with the same vital,
+        severity and scope is replaced. An alert opens below `lowEnter` or above `highEnter`
+        and resolves back inside [`lowExit`, `highExit`]; a missing exit equals its enter.
+        The most specific rule wins (patient, then cohort, then global, then the service defaults).
+        Changes apply to the next reading of each patient, without a restart.
+        """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(examples = @ExampleObject(
+                            name = "COPD cohort SpO2 warning",
+                            value = """
+                        { "vital": "OXYGEN_LEVEL", "severity": "WARNING", "cohort": "copd",
+                          "lowEnter": 86, "lowExit": 88 }
+                        """))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Rule saved",
+                            content = @Content(schema = @Schema(implementation = AlertThresholdRuleResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Inconsistent thresholds or scope", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "The same rule was created concurrently; retry",
+                            content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PutMapping("/alert-rules")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<AlertThresholdRuleResponse> upsertAlertRule(@RequestBody @Valid AlertThresholdRuleRequest request) {
+        return ResponseEntity.ok(alertRuleApp.upsertRule(request));
+    }
+
+    @Operation(
+            summary = "Delete an alert threshold rule",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Rule deleted"),
+                    @ApiResponse(responseCode = "404", description = "Rule not found")
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @DeleteMapping("/alert-rules/{id}")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<Void> deleteAlertRule(@PathVariable Long id) {
+        alertRuleApp.deleteRule(id);
+        return ResponseEntity.noContent().build();
     }
 
+    @Operation(
+            summary = "Assign a patient to a cohort",
+            description = "The patient's alerts use the cohort's threshold rules unless it has its own.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Cohort assigned"),
+                    @ApiResponse(responseCode = "400", description = "Missing cohort", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PutMapping("/patients/{id}/cohort")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<Void> assignCohort(@PathVariable Long id, @RequestBody @Valid PatientCohortRequest request) {
+        alertRuleApp.assignCohort(id, request.cohort());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Remove a patient from its cohort",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Cohort removed"),
+                    @ApiResponse(responseCode = "404", description = "Patient has no cohort")
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @DeleteMapping("/patients/{id}/cohort")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<Void> removeCohort(@PathVariable Long id) {
+        alertRuleApp.removeCohort(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ---- Wards ----
+
+    @Operation(
+            summary = "Place a patient in a ward",
+            description = "The patient is ranked within that ward in the early-warning ranking.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Ward assigned"),
+                    @ApiResponse(responseCode = "400", description = "Missing ward", content = @Content)
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PutMapping("/patients/{id}/ward")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<Void> assignWard(@PathVariable Long id, @RequestBody @Valid PatientWardRequest request) {
+        wardApp.assignWard(id, request.ward());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Remove a patient from its ward",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Ward removed"),
+                    @ApiResponse(responseCode = "404", description = "Patient has no ward")
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @DeleteMapping("/patients/{id}/ward")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR')")
+    public ResponseEntity<Void> removeWard(@PathVariable Long id) {
+        wardApp.removeWard(id);
+        return ResponseEntity.noContent().build();
+    }
 
     @Operation(
             summary = "Subscribe to real-time monitoring stream",
             description = """
         Opens a Server-Sent Events (SSE) channel that pushes real-time data updates
         (vital signs and alerts) for the specified user (patient or caregiver).
+        A user may keep several streams open at once (tabs, devices), and may only open
+        streams for themselves: `userId` must be the caller's id.
+        Patients receive their own events; caregivers and administrators receive the
+        events of the patients listed in `patientIds`; administrators additionally
+        receive every alert (admin dashboard).
+        This service does not hold caregiver–patient assignments: a caregiver may watch any
+        `patientIds`, exactly like the REST reads of a patient's data. Until assignments are
+        available here, restricting caregivers to their patients must be enforced upstream (gateway).
+        An `alert` event opens an alert episode; `alert-resolved` closes it once the
+        vital sign is back inside its normal band (the alert then carries `resolvedAt`).
+        Every event carries an id; a client reconnecting with `Last-Event-ID` gets the
+        missed events replayed, or a `resync` event if they are no longer retained.
+        Alert messages are written in the language of the `Accept-Language` header sent when subscribing.
+        Idle streams receive a keep-alive comment periodically.
         """,
+            parameters = {
+                    @Parameter(name = "patientIds",
+                            description = "Patients to watch (caregivers / administrators)", example = "1,2,3"),
+                    @Parameter(name = "Last-Event-ID", in = io.swagger.v3.oas.annotations.enums.ParameterIn.HEADER,
+                            description = "Id of the last event received before reconnecting")
+            },
             responses = {
                     @ApiResponse(responseCode = "200", description = "SSE stream started"),
-                    @ApiResponse(responseCode = "401", description = "Unauthorized access")
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "403", description = "userId is not the caller's id")
             },
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @GetMapping(value = "/stream/user/{userId}", produces = "text/event-stream")
-    public SseEmitter subscribeRealtime(@PathVariable Long userId) {
-        return emitterService.subscribe(userId);
+    public SseEmitter subscribeRealtime(@PathVariable Long userId,
+                                        @RequestParam(required = false) List<Long> patientIds,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                        Locale locale) {
+        CurrentUserService.CurrentUser user = currentUserService.getCurrentUser();
+        // La conexión recibe los envíos directos al usuario: solo puede abrirla el propio usuario
+        if (!user.id().equals(userId))
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot subscribe on behalf of another user");
+        Set<String> roles = user.roles();
+        boolean caregiverOrAdmin = roles.contains("CAREGIVER") || roles.contains("ADMINISTRATOR");
+
+        Set<Long> topics = new HashSet<>();
+        if (roles.contains("PATIENT")) topics.add(user.id());
+        // Sin las asignaciones cuidador–paciente (viven en otro servicio) no se puede filtrar patientIds:
+        // un cuidador puede observar a cualquier paciente, igual que con las lecturas REST. Ver la descripción
+        if (caregiverOrAdmin && patientIds != null) topics.addAll(patientIds);
+        topics.remove(null);
+
+        return emitterService.subscribe(userId, topics, roles.contains("ADMINISTRATOR"), lastEventId, locale);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportFormat format,
+                                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + format.extension() + "\"")
+                .body(body);
     }
 
 }
@@ -0,0 +1,30 @@
+package com.upc.tukuntechmsmonitoring.shared.config;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertEngineProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.TrendDetectionProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.pipeline.AlertPipelineProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.RollupProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.aggregation.RollingAggregatesProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache.LatestVitalsProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.scoring.EarlyWarningProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.telemetry.DeviceTelemetryProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({
+        AlertPipelineProperties.class,
+        AlertEngineProperties.class,
+        TrendDetectionProperties.class,
+        SseProperties.class,
+        LatestVitalsProperties.class,
+        RollingAggregatesProperties.class,
+        RollupProperties.class,
+        EarlyWarningProperties.class,
+        DeviceTelemetryProperties.class
+})
+public class MonitoringConfig {
+}
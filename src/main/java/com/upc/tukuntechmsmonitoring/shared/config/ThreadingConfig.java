@@ -0,0 +1,10 @@
+package com.upc.tukuntechmsmonitoring.shared.config;
+
+import com.upc.tukuntechmsmonitoring.shared.threading.PinningDiagnosticsProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(PinningDiagnosticsProperties.class)
+public class ThreadingConfig {
+}
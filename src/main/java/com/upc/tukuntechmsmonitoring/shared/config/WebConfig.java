@@ -0,0 +1,35 @@
+package com.upc.tukuntechmsmonitoring.shared.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Locale;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Los enums de parámetros y rutas ({@code ?format=ndjson}, {@code /alerts/type/heart_rate}) se aceptan
+     * sin distinguir mayúsculas; el conversor por defecto de Spring exige el nombre exacto de la constante.
+     */
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverterFactory(new CaseInsensitiveEnumConverterFactory());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final class CaseInsensitiveEnumConverterFactory implements ConverterFactory<String, Enum> {
+
+        @Override
+        public <T extends Enum> Converter<String, T> getConverter(Class<T> targetType) {
+            return source -> {
+                String value = source.trim();
+                if (value.isEmpty()) return null;
+                return (T) Enum.valueOf(targetType, value.toUpperCase(Locale.ROOT));
+            };
+        }
+    }
+}
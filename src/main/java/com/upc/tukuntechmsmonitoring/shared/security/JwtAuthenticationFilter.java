@@ -10,7 +10,6 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.HashSet;
 
 
 @Component
@@ -28,7 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return path.startsWith("/api/v1/api-docs")
                 || path.startsWith("/api/v1/swagger-ui")
                 || path.startsWith("/api/v1/swagger-resources")
-                || path.startsWith("/api/v1/actuator")
+                || path.startsWith("/api/v1/actuator/health")
+                || path.startsWith("/api/v1/actuator/info")
                 || path.startsWith("/api/v1/error")
                 || path.startsWith("/favicon.ico");
     }
@@ -52,17 +52,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        if (!jwtService.validateToken(token)) {
+        UserPrincipal principal = jwtService.parse(token);
+        if (principal == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String email = jwtService.getEmailFromToken(token);
-        Long userId = jwtService.getUserIdFromToken(token);
-        var roles = new HashSet<>(jwtService.getRolesFromToken(token));
-
-        UserPrincipal principal = new UserPrincipal(userId, email, roles);
-
         var authToken = new UsernamePasswordAuthenticationToken(
                 principal,
                 null,
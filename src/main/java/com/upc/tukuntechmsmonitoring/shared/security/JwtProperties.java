@@ -2,9 +2,17 @@ package com.upc.tukuntechmsmonitoring.shared.security;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * @param tokenCacheSize máximo de tokens verificados que se recuerdan hasta su vencimiento (0 desactiva la caché)
+ */
 @ConfigurationProperties(prefix = "app.security.jwt")
 public record JwtProperties(
         String secret,
-        String issuer
+        String issuer,
+        Integer tokenCacheSize
 ) {
+
+    public JwtProperties {
+        if (tokenCacheSize == null) tokenCacheSize = 10_000;
+    }
 }
\ No newline at end of file
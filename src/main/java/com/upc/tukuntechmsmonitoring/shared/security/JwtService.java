@@ -1,63 +1,88 @@
 package com.upc.tukuntechmsmonitoring.shared.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Service;
 import java.security.Key;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
+/**
+ * Verifica los JWT emitidos por el servicio de identidad y los convierte en un {@link UserPrincipal}.
+ * El parser se arma una sola vez (es inmutable y thread-safe) y cada token se parsea una sola vez;
+ * los tokens ya verificados se guardan hasta su {@code exp}, de modo que las peticiones repetidas
+ * de un mismo cliente no vuelven a verificar la firma.
+ */
 @Service
 public class JwtService {
 
-    private final JwtProperties props;
-    private final Key signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verified;
 
     public JwtService(JwtProperties props) {
-        this.props = props;
         byte[] keyBytes = Decoders.BASE64.decode(props.secret());
-        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
+        Key signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
                 .setSigningKey(signingKey)
                 .requireIssuer(props.issuer())
                 .setAllowedClockSkewSeconds(60)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+                .build();
+        this.verified = props.tokenCacheSize() > 0 ? new VerifiedTokenCache(props.tokenCacheSize()) : null;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifica el token y devuelve su principal, o null si el token no es válido
+     * (firma, emisor, vigencia o un uid no numérico).
+     */
+    public UserPrincipal parse(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedTokenCache.TokenKey key = null;
+        if (verified != null) {
+            key = VerifiedTokenCache.keyOf(token);
+            UserPrincipal cached = verified.get(key, now);
+            if (cached != null) return cached;
+        }
+
+        Claims claims;
         try {
-            parseClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        UserPrincipal principal;
+        try {
+            principal = new UserPrincipal(userIdOf(claims), claims.getSubject(), rolesOf(claims));
+        } catch (NumberFormatException e) {
+            return null;
         }
-    }
 
-    public String getEmailFromToken(String token) {
-        return parseClaims(token).getSubject();
+        // Sin exp el token no vence: no se guarda para no retenerlo indefinidamente
+        Date expiration = claims.getExpiration();
+        if (verified != null && expiration != null) verified.put(key, principal, expiration.getTime(), now);
+        return principal;
     }
 
-    public Long getUserIdFromToken(String token) {
-        Object uid = parseClaims(token).get("uid");
+    private static Long userIdOf(Claims claims) {
+        Object uid = claims.get("uid");
         if (uid == null) return null;
         if (uid instanceof Integer i) return i.longValue();
         if (uid instanceof Long l) return l;
         return Long.parseLong(uid.toString());
     }
 
-    @SuppressWarnings("unchecked")
-    public List<String> getRolesFromToken(String token) {
-        Object roles = parseClaims(token).get("roles");
+    private static Set<String> rolesOf(Claims claims) {
+        Object roles = claims.get("roles");
         if (roles instanceof List<?> list) {
-            return list.stream().map(Object::toString).toList();
+            return list.stream().map(Object::toString).collect(Collectors.toUnmodifiableSet());
         }
-        return List.of();
+        return Set.of();
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,11 @@ import java.util.Collection;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-public class UserPrincipal implements UserDetails {
+/**
+ * Usuario autenticado a partir de un JWT. Inmutable: la misma instancia se reutiliza
+ * en todas las peticiones que presentan el mismo token.
+ */
+public final class UserPrincipal implements UserDetails {
 
     private final Long id;
     private final String email;
@@ -17,11 +21,11 @@ public class UserPrincipal implements UserDetails {
     public UserPrincipal(Long id, String email, Set<String> roles) {
         this.id = id;
         this.email = email;
-        this.roles = roles;
+        this.roles = Set.copyOf(roles);
         this.authorities = roles.stream()
                 .map(r -> "ROLE_" + r)
                 .map(org.springframework.security.core.authority.SimpleGrantedAuthority::new)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     public Long getId() {
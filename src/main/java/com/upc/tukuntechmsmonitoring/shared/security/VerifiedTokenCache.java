@@ -0,0 +1,86 @@
+package com.upc.tukuntechmsmonitoring.shared.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché acotada de tokens ya verificados: evita repetir la verificación de firma y el parseo
+ * de un token que el mismo cliente (p. ej. un dispositivo) envía en cada petición.
+ * La clave es el SHA-256 completo del token, nunca el token en sí; cada entrada vence en el {@code exp}
+ * del token. Al llenarse se descartan primero las vencidas y, si no alcanza, una fracción cualquiera.
+ * Quien llama calcula la clave una vez ({@link #keyOf}) y la usa para la consulta y, si falla, para guardar.
+ */
+final class VerifiedTokenCache {
+
+    /** SHA-256 del token en cuatro longs: igualdad y hash baratos sin guardar el token. */
+    record TokenKey(long h0, long h1, long h2, long h3) {}
+
+    private record Entry(UserPrincipal principal, long expiresAtMillis) {}
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<TokenKey, Entry> entries;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+    }
+
+    /** Principal del token si ya fue verificado y no venció; null en otro caso. */
+    UserPrincipal get(TokenKey key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAtMillis() <= now) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    void put(TokenKey key, UserPrincipal principal, long expiresAtMillis, long now) {
+        if (expiresAtMillis <= now) return;
+        if (entries.size() >= maxEntries && !makeRoom(now)) return;
+        entries.put(key, new Entry(principal, expiresAtMillis));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /** Libera lugar; si otro hilo ya lo está haciendo, esta inserción simplemente se omite. */
+    private boolean makeRoom(long now) {
+        if (!evictionLock.tryLock()) return false;
+        try {
+            entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+            int excess = entries.size() - maxEntries * 7 / 8;
+            Iterator<TokenKey> it = entries.keySet().iterator();
+            while (excess-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Clave del token. Se hashean sus bytes UTF-8: un carácter fuera de ASCII no colapsa en '?' con otros.
+     * Un MessageDigest por llamada: un ThreadLocal no se reutiliza con hilos virtuales, uno por petición.
+     */
+    static TokenKey keyOf(String token) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+}
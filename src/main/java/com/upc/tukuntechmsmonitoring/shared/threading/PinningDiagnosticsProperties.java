@@ -0,0 +1,26 @@
+package com.upc.tukuntechmsmonitoring.shared.threading;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Diagnóstico de hilos virtuales fijados a su carrier (app.threading.pinning).
+ *
+ * @param enabled      si se escuchan los eventos JFR jdk.VirtualThreadPinned (solo con hilos virtuales activos)
+ * @param threshold    duración mínima de un pinning para registrarlo
+ * @param logInterval  como máximo un stack trace por sitio (clase.método) en este intervalo
+ */
+@ConfigurationProperties(prefix = "app.threading.pinning")
+public record PinningDiagnosticsProperties(
+        Boolean enabled,
+        Duration threshold,
+        Duration logInterval
+) {
+
+    public PinningDiagnosticsProperties {
+        if (enabled == null) enabled = true;
+        if (threshold == null) threshold = Duration.ofMillis(20);
+        if (logInterval == null) logInterval = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.upc.tukuntechmsmonitoring.shared.threading;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta hilos virtuales que quedan fijados (pinned) a su carrier por más de un umbral, por ejemplo al
+ * bloquearse dentro de un bloque synchronized o de código nativo. Escucha el evento JFR
+ * jdk.VirtualThreadPinned en proceso, cuenta cada caso en monitoring.virtual.pinned (por sitio)
+ * y registra su stack trace con un límite por sitio.
+ * Solo existe con spring.threads.virtual.enabled=true; en modo de hilos de plataforma no aplica.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final PinningDiagnosticsProperties props;
+    private final MeterRegistry meterRegistry;
+    private final Timer pinnedTime;
+    /** Último log por sitio, para no inundar el log con el mismo stack trace. */
+    private final ConcurrentHashMap<String, Long> lastLoggedNanos = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(PinningDiagnosticsProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+        this.pinnedTime = Timer.builder("monitoring.virtual.pinned.duration")
+                .description("Tiempo que un hilo virtual estuvo fijado a su carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!props.enabled()) return;
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(props.threshold()).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("Virtual thread pinning diagnostics enabled (threshold {})", props.threshold());
+        } catch (RuntimeException | Error e) {
+            // JFR no disponible en la JVM (imagen recortada): el servicio sigue sin el diagnóstico
+            stream = null;
+            log.warn("Virtual thread pinning diagnostics unavailable: {}", e.toString());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = siteOf(event.getStackTrace());
+        pinnedTime.record(event.getDuration().toNanos(), TimeUnit.NANOSECONDS);
+        Counter.builder("monitoring.virtual.pinned")
+                .description("Hilos virtuales fijados a su carrier por encima del umbral")
+                .tag("site", site)
+                .register(meterRegistry)
+                .increment();
+
+        long now = System.nanoTime();
+        long interval = props.logInterval().toNanos();
+        Long last = lastLoggedNanos.get(site);
+        if (last != null && now - last < interval) return;
+        lastLoggedNanos.put(site, now);
+        log.warn("Virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), site,
+                framesOf(event.getStackTrace()));
+    }
+
+    /** Primer frame de la aplicación (o el primero del stack si no hay), como clase.método. */
+    private static String siteOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) return "unknown";
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame chosen = frames.getFirst();
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith("com.upc.")) {
+                chosen = frame;
+                break;
+            }
+        }
+        return frame(chosen);
+    }
+
+    private static String framesOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return "    (no stack trace)";
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(f -> "    at " + frame(f) + ":" + f.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
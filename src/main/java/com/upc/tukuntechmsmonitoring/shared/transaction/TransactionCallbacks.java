@@ -0,0 +1,30 @@
+package com.upc.tukuntechmsmonitoring.shared.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para diferir efectos fuera de la base de datos (SSE, cachés en memoria)
+ * hasta que la transacción actual se confirme.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Ejecuta la acción tras el commit de la transacción actual (o de inmediato si no hay transacción),
+     * para no exponer datos que podrían revertirse.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
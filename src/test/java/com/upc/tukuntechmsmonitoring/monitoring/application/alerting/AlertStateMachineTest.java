@@ -0,0 +1,136 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertThresholdRuleRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientCohortRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Umbrales por defecto de frecuencia cardiaca: se entra por encima de 110 y se sale por debajo de 105;
+ * 3 lecturas para abrir y 3 para resolver, deduplicación de 5 minutos.
+ */
+class AlertStateMachineTest {
+
+    private static final long PATIENT = 7L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private static final LongFunction<List<Alert>> NO_OPEN_ALERTS = id -> List.of();
+
+    private AlertStateMachine machine;
+    private LocalDateTime clock;
+    private final List<Alert> opened = new ArrayList<>();
+    private final List<Alert> resolved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AlertEngineProperties props = new AlertEngineProperties(3, 3, Duration.ofMinutes(5), 100, null,
+                null, null, null);
+        ThresholdRuleRegistry rules = new ThresholdRuleRegistry(mock(AlertThresholdRuleRepository.class),
+                mock(PatientCohortRepository.class), mock(TaskScheduler.class), props);
+        TrendDetectionProperties trends = new TrendDetectionProperties(false, null, null, null, null,
+                null, null, null);
+        machine = new AlertStateMachine(props, rules, trends);
+        clock = T0;
+    }
+
+    @Test
+    void opensAfterConsecutiveAbnormalReadings() {
+        heartRate(120, 125);
+        assertThat(opened).isEmpty();
+
+        heartRate(130);
+
+        assertThat(opened).singleElement().satisfies(alert -> {
+            assertThat(alert.getType()).isEqualTo(AlertType.HEART_RATE);
+            assertThat(alert.getSeverity()).isEqualTo(AlertSeverity.CRITICAL);
+            assertThat(alert.getMeasuredValue()).isEqualTo(130.0);
+            assertThat(alert.getPatientId()).isEqualTo(PATIENT);
+        });
+    }
+
+    @Test
+    void normalReadingResetsTheStreak() {
+        heartRate(120, 120, 80, 120, 120);
+
+        assertThat(opened).isEmpty();
+    }
+
+    @Test
+    void resolvesOnlyAfterReturningBelowTheExitThreshold() {
+        heartRate(120, 120, 120);
+        Alert alert = opened.getFirst();
+
+        heartRate(107, 107, 107, 107);
+        assertThat(resolved).isEmpty();
+
+        heartRate(100, 100);
+        assertThat(resolved).isEmpty();
+        heartRate(100);
+
+        assertThat(resolved).containsExactly(alert);
+        assertThat(alert.getResolvedAt()).isEqualTo(clock);
+    }
+
+    @Test
+    void suppressesANewEpisodeWithinTheDedupWindowUntilItOutlastsIt() {
+        heartRate(120, 120, 120);
+        heartRate(80, 80, 80);
+        opened.clear();
+
+        heartRate(120, 120, 120);
+        assertThat(opened).isEmpty();
+
+        clock = T0.plusMinutes(6);
+        heartRate(120);
+        assertThat(opened).hasSize(1);
+    }
+
+    @Test
+    void rebuildsStateFromOpenAlerts() {
+        Alert existing = Alert.create(PATIENT, 1L, T0.minusMinutes(30), AlertSeverity.CRITICAL,
+                AlertType.HEART_RATE, 130);
+
+        for (int i = 0; i < 3; i++) machine.evaluate(reading(80), id -> List.of(existing), opened, resolved);
+
+        assertThat(opened).isEmpty();
+        assertThat(resolved).containsExactly(existing);
+    }
+
+    @Test
+    void ignoresReadingsOlderThanTheLastOne() {
+        heartRate(120, 120);
+        clock = T0.minusMinutes(1);
+        heartRate(120);
+
+        assertThat(opened).isEmpty();
+    }
+
+    private void heartRate(int... values) {
+        for (int value : values) machine.evaluate(reading(value), NO_OPEN_ALERTS, opened, resolved);
+    }
+
+    private VitalSignRecord reading(int heartRate) {
+        clock = clock.plusSeconds(10);
+        VitalSignRecord record = VitalSignRecord.create(PATIENT, 1L,
+                new HeartRate(heartRate), new OxygenLevel(97), new Temperature(36.8));
+        ReflectionTestUtils.setField(record, "timestamp", clock);
+        return record;
+    }
+}
@@ -0,0 +1,136 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.AlertThresholdRule;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.PatientCohort;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertThresholdRuleRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientCohortRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Umbral CRITICAL alto por defecto de frecuencia cardiaca: entra en 110, sale en 105. Sin umbrales WARNING.
+ * Paciente 1 en la cohorte "cardio", paciente 2 sin cohorte, paciente 3 en "cardio" con reglas propias.
+ */
+class ThresholdRuleRegistryTest {
+
+    private static final double NO_LOW = Double.NEGATIVE_INFINITY;
+    private static final double NO_HIGH = Double.POSITIVE_INFINITY;
+
+    private final AlertThresholdRuleRepository ruleRepository = mock(AlertThresholdRuleRepository.class);
+    private final PatientCohortRepository cohortRepository = mock(PatientCohortRepository.class);
+    private final List<AlertThresholdRule> rules = new ArrayList<>();
+    private ThresholdRuleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        when(ruleRepository.findAll()).thenReturn(rules);
+        when(cohortRepository.findAll()).thenReturn(List.of(
+                new PatientCohort(1L, "cardio"), new PatientCohort(3L, "cardio")));
+        registry = new ThresholdRuleRegistry(ruleRepository, cohortRepository, mock(TaskScheduler.class),
+                new AlertEngineProperties(null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    void withoutRulesEveryPatientUsesTheConfiguredCriticalBands() {
+        registry.reload();
+
+        assertThat(band(2L, AlertSeverity.CRITICAL)).containsExactly(50, 55, 110, 105);
+        assertThat(band(1L, AlertSeverity.CRITICAL)).containsExactly(50, 55, 110, 105);
+        assertThat(band(2L, AlertSeverity.WARNING)).containsExactly(NO_LOW, NO_LOW, NO_HIGH, NO_HIGH);
+    }
+
+    @Test
+    void patientRuleOverridesCohortRuleWhichOverridesGlobalRule() {
+        rule(AlertSeverity.CRITICAL, null, null, null, null, 120d, 115d);
+        rule(AlertSeverity.CRITICAL, null, "cardio", 50d, 55d, 130d, 125d);
+        rule(AlertSeverity.CRITICAL, 3L, null, 40d, 45d, 140d, 135d);
+
+        registry.reload();
+
+        assertThat(band(2L, AlertSeverity.CRITICAL)).containsExactly(NO_LOW, NO_LOW, 120, 115);
+        assertThat(band(1L, AlertSeverity.CRITICAL)).containsExactly(50, 55, 130, 125);
+        assertThat(band(3L, AlertSeverity.CRITICAL)).containsExactly(40, 45, 140, 135);
+    }
+
+    @Test
+    void rulesOfOneScopeOnlyReplaceTheirOwnVitalAndTier() {
+        rule(AlertSeverity.WARNING, 3L, null, null, null, 100d, 95d);
+
+        registry.reload();
+
+        assertThat(band(3L, AlertSeverity.WARNING)).containsExactly(NO_LOW, NO_LOW, 100, 95);
+        assertThat(band(3L, AlertSeverity.CRITICAL)).containsExactly(50, 55, 110, 105);
+        assertThat(band(1L, AlertSeverity.WARNING)).containsExactly(NO_LOW, NO_LOW, NO_HIGH, NO_HIGH);
+    }
+
+    @Test
+    void warningAndCriticalTiersAreIndependent() {
+        rule(AlertSeverity.WARNING, null, null, null, null, 100d, 95d);
+        rule(AlertSeverity.CRITICAL, null, null, 50d, 55d, 130d, 125d);
+
+        registry.reload();
+
+        assertThat(band(2L, AlertSeverity.WARNING)).containsExactly(NO_LOW, NO_LOW, 100, 95);
+        assertThat(band(2L, AlertSeverity.CRITICAL)).containsExactly(50, 55, 130, 125);
+    }
+
+    @Test
+    void versionOnlyAdvancesWhenRulesChange() {
+        registry.reload();
+        long first = registry.current().version();
+        registry.reload();
+        assertThat(registry.current().version()).isEqualTo(first);
+
+        rule(AlertSeverity.CRITICAL, 2L, null, null, null, 150d, 145d);
+        registry.reload();
+
+        assertThat(registry.current().version()).isEqualTo(first + 1);
+        assertThat(band(2L, AlertSeverity.CRITICAL)).containsExactly(NO_LOW, NO_LOW, 150, 145);
+    }
+
+    @Test
+    void failedReloadKeepsTheCurrentRules() {
+        rule(AlertSeverity.CRITICAL, null, null, null, null, 120d, 115d);
+        registry.reload();
+        when(ruleRepository.findAll()).thenThrow(new IllegalStateException("db down"));
+
+        registry.refresh();
+
+        assertThat(band(2L, AlertSeverity.CRITICAL)).containsExactly(NO_LOW, NO_LOW, 120, 115);
+    }
+
+    @Test
+    void scopeKeyIsUniquePerTarget() {
+        assertThat(AlertThresholdRule.scopeOf(7L, null)).isEqualTo("patient:7");
+        assertThat(AlertThresholdRule.scopeOf(null, "cardio")).isEqualTo("cohort:cardio");
+        assertThat(AlertThresholdRule.scopeOf(null, null)).isEqualTo("global");
+        assertThat(AlertThresholdRule.create(VitalType.HEART_RATE, AlertSeverity.WARNING, 7L, null).getScope())
+                .isEqualTo("patient:7");
+    }
+
+    /** Regla de frecuencia cardiaca: reemplaza los cuatro umbrales de su nivel (un lado null no se vigila). */
+    private void rule(AlertSeverity severity, Long patientId, String cohort,
+                      Double lowEnter, Double lowExit, Double highEnter, Double highExit) {
+        AlertThresholdRule rule = AlertThresholdRule.create(VitalType.HEART_RATE, severity, patientId, cohort);
+        rule.updateBands(lowEnter, lowExit, highEnter, highExit);
+        rules.add(rule);
+    }
+
+    private double[] band(long patientId, AlertSeverity severity) {
+        ThresholdBands bands = registry.current().bandsFor(patientId);
+        int base = ThresholdBands.slot(VitalType.HEART_RATE.ordinal(), ThresholdBands.tierOf(severity)) * 4;
+        return new double[]{
+                bands.values[base + ThresholdBands.LOW_ENTER], bands.values[base + ThresholdBands.LOW_EXIT],
+                bands.values[base + ThresholdBands.HIGH_ENTER], bands.values[base + ThresholdBands.HIGH_EXIT]};
+    }
+}
@@ -0,0 +1,123 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.alerting;
+
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.Alert;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Límite por defecto de frecuencia cardiaca: 30 bpm en 10 minutos (3 bpm/min), pendiente suavizada
+ * con una constante de 3 min 20 s; 5 lecturas mínimas y 3 seguidas para abrir o resolver.
+ * Una lectura cada 30 segundos.
+ */
+class TrendDetectorTest {
+
+    private static final int HR = VitalType.HEART_RATE.ordinal();
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private final List<Alert> opened = new ArrayList<>();
+    private final List<Alert> resolved = new ArrayList<>();
+    private TrendDetector detector;
+    private PatientTrendState state;
+    private LocalDateTime clock;
+    private double heartRate;
+
+    @BeforeEach
+    void setUp() {
+        detector = new TrendDetector(defaults(true));
+        state = new PatientTrendState();
+        clock = T0;
+        heartRate = 70;
+    }
+
+    @Test
+    void stableReadingsNeverAlert() {
+        for (int i = 0; i < 60; i++) read(i % 2 == 0 ? 1 : -1, false);
+
+        assertThat(opened).isEmpty();
+    }
+
+    @Test
+    void opensWarningWhenTheRateOfChangeExceedsTheLimit() {
+        for (int i = 0; i < 30; i++) read(3, false); // 6 bpm/min: siempre por debajo de 110
+
+        assertThat(opened).singleElement().satisfies(alert -> {
+            assertThat(alert.getType()).isEqualTo(AlertType.HEART_RATE_TREND);
+            assertThat(alert.getSeverity()).isEqualTo(AlertSeverity.WARNING);
+            assertThat(alert.getPatientId()).isEqualTo(7L);
+        });
+    }
+
+    @Test
+    void resolvesOnceTheSlopeSettles() {
+        for (int i = 0; i < 30; i++) read(3, false);
+        Alert alert = opened.getFirst();
+
+        for (int i = 0; i < 40 && resolved.isEmpty(); i++) read(0, false);
+
+        assertThat(resolved).containsExactly(alert);
+        assertThat(alert.getResolvedAt()).isNotNull();
+    }
+
+    @Test
+    void doesNotOpenWhileAThresholdEpisodeIsActive() {
+        for (int i = 0; i < 30; i++) read(3, true);
+
+        assertThat(opened).isEmpty();
+    }
+
+    @Test
+    void waitsForTheSmoothingWindowBeforeAlerting() {
+        for (int i = 0; i < 6; i++) read(10, false); // 20 bpm/min, pero solo 2 min 30 s de datos
+
+        assertThat(opened).isEmpty();
+    }
+
+    @Test
+    void aLongGapRestartsTheEstimate() {
+        for (int i = 0; i < 5; i++) read(3, false);
+        clock = clock.plusMinutes(20);
+        for (int i = 0; i < 6; i++) read(3, false);
+
+        assertThat(state.samples[HR]).isEqualTo(6);
+        assertThat(opened).isEmpty();
+    }
+
+    @Test
+    void disabledDetectorIgnoresReadings() {
+        detector = new TrendDetector(defaults(false));
+
+        for (int i = 0; i < 30; i++) read(3, false);
+
+        assertThat(opened).isEmpty();
+        assertThat(state.samples[HR]).isZero();
+    }
+
+    private void read(double delta, boolean thresholdActive) {
+        clock = clock.plusSeconds(30);
+        heartRate += delta;
+        VitalSignRecord record = VitalSignRecord.create(7L, 1L,
+                new HeartRate((int) Math.round(heartRate)), new OxygenLevel(97), new Temperature(36.8));
+        ReflectionTestUtils.setField(record, "timestamp", clock);
+        long now = clock.toInstant(ZoneOffset.UTC).toEpochMilli();
+        detector.update(state, record, HR, heartRate, now, thresholdActive, opened, resolved);
+    }
+
+    private static TrendDetectionProperties defaults(boolean enabled) {
+        return new TrendDetectionProperties(enabled, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,166 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.pipeline;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.AlertStateMachine;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.application.service.AlertDomainService;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime.SseEmitterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Desborde de las colas del pipeline. Los workers no se arrancan: las colas solo se vacían a mano.
+ */
+class AlertPipelineSpillTest {
+
+    private static final long PATIENT = 7L;
+
+    private final VitalSignRecordRepository repository = mock(VitalSignRecordRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readingsAfterASpillWaitForTheRescanEvenIfTheQueueHasRoom() {
+        AlertPipeline pipeline = pipeline(AlertPipelineProperties.OverflowPolicy.SPILL);
+
+        pipeline.submit(record(1));
+        pipeline.submit(record(2));
+        queue(pipeline).clear();
+        pipeline.submit(record(3));
+
+        assertThat(queue(pipeline)).isEmpty();
+        assertThat(spilled()).isEqualTo(2);
+        assertThat(spilledPatients()).isEqualTo(1);
+    }
+
+    @Test
+    void rescanQueuesFromTheFirstSpilledIdAndReleasesThePatientOnceCaughtUp() {
+        AlertPipeline pipeline = pipeline(AlertPipelineProperties.OverflowPolicy.SPILL);
+        pipeline.submit(record(1));
+        pipeline.submit(record(2));
+        pipeline.submit(record(3));
+        queue(pipeline).clear();
+
+        // La cola tiene lugar para una: se encola la 2 y el paciente sigue pendiente desde la 3
+        when(repository.findByPatientIdAndIdGreaterThanEqualOrderByIdAsc(PATIENT, 2L, Limit.of(100)))
+                .thenReturn(List.of(record(2), record(3)));
+        pipeline.rescanSpilled();
+        assertThat(queuedIds(pipeline)).containsExactly(2L);
+        assertThat(spilledPatients()).isEqualTo(1);
+
+        queue(pipeline).clear();
+        when(repository.findByPatientIdAndIdGreaterThanEqualOrderByIdAsc(PATIENT, 3L, Limit.of(100)))
+                .thenReturn(List.of(record(3)));
+        pipeline.rescanSpilled();
+        assertThat(queuedIds(pipeline)).containsExactly(3L);
+        assertThat(spilledPatients()).isZero();
+
+        queue(pipeline).clear();
+        pipeline.submit(record(4));
+        assertThat(queuedIds(pipeline)).containsExactly(4L);
+    }
+
+    @Test
+    void aReadingArrivingDuringTheRescanKeepsThePatientPending() {
+        AlertPipeline pipeline = pipeline(AlertPipelineProperties.OverflowPolicy.SPILL);
+        pipeline.submit(record(1));
+        pipeline.submit(record(2));
+        queue(pipeline).clear();
+
+        when(repository.findByPatientIdAndIdGreaterThanEqualOrderByIdAsc(PATIENT, 2L, Limit.of(100)))
+                .thenAnswer(invocation -> {
+                    pipeline.submit(record(3)); // confirmada después de la lectura
+                    return List.of(record(2));
+                });
+        pipeline.rescanSpilled();
+
+        assertThat(queuedIds(pipeline)).containsExactly(2L);
+        assertThat(spilledPatients()).isEqualTo(1);
+    }
+
+    @Test
+    void blockSpillsInsteadOfWaitingOnARequestThread() {
+        AlertPipeline pipeline = pipeline(AlertPipelineProperties.OverflowPolicy.BLOCK);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        long start = System.nanoTime();
+        pipeline.submit(record(1));
+        pipeline.submit(record(2));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(spilled()).isEqualTo(1);
+        assertThat(registry.counter("monitoring.alert.pipeline.blocked").count()).isZero();
+    }
+
+    @Test
+    void blockWaitsOutsideARequestThreadAndThenDrops() {
+        AlertPipeline pipeline = pipeline(AlertPipelineProperties.OverflowPolicy.BLOCK);
+
+        pipeline.submit(record(1));
+        pipeline.submit(record(2));
+
+        assertThat(registry.counter("monitoring.alert.pipeline.blocked").count()).isEqualTo(1);
+        assertThat(registry.counter("monitoring.alert.pipeline.dropped").count()).isEqualTo(1);
+        assertThat(spilled()).isZero();
+    }
+
+    private AlertPipeline pipeline(AlertPipelineProperties.OverflowPolicy policy) {
+        AlertPipelineProperties props = new AlertPipelineProperties(1, 1, null, policy,
+                Duration.ofMillis(50), null, null);
+        AlertPipeline pipeline = new AlertPipeline(mock(AlertDomainService.class), mock(AlertStateMachine.class),
+                mock(SseEmitterService.class), mock(AlertMapper.class), repository, mock(TaskScheduler.class),
+                props, registry, new MockEnvironment());
+        ReflectionTestUtils.setField(pipeline, "running", true);
+        return pipeline;
+    }
+
+    private static VitalSignRecord record(long id) {
+        VitalSignRecord record = VitalSignRecord.create(PATIENT, 1L,
+                new HeartRate(80), new OxygenLevel(97), new Temperature(36.7));
+        ReflectionTestUtils.setField(record, "id", id);
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BlockingQueue<Object> queue(AlertPipeline pipeline) {
+        return ((List<BlockingQueue<Object>>) ReflectionTestUtils.getField(pipeline, "queues")).get(0);
+    }
+
+    private static List<Long> queuedIds(AlertPipeline pipeline) {
+        return queue(pipeline).stream()
+                .map(pending -> ((VitalSignRecord) ReflectionTestUtils.getField(pending, "record")).getId())
+                .toList();
+    }
+
+    private double spilled() {
+        return registry.counter("monitoring.alert.pipeline.spilled").count();
+    }
+
+    private double spilledPatients() {
+        return registry.get("monitoring.alert.pipeline.spilled.patients").gauge().value();
+    }
+}
@@ -0,0 +1,243 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.rollup;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.VitalSignRollupService.RawMonth;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.RollupWatermark;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRecord;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.VitalSignRollup;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.HeartRate;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.OxygenLevel;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.RollupGranularity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.Temperature;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.RollupWatermarkRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRecordRepository.PatientVitalSample;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.VitalSignRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VitalSignRollupServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 18, 10, 0);
+
+    private final VitalSignRecordRepository recordRepo = mock(VitalSignRecordRepository.class);
+    private final VitalSignRollupRepository rollupRepo = mock(VitalSignRollupRepository.class);
+    private final RollupWatermarkRepository watermarkRepo = mock(RollupWatermarkRepository.class);
+
+    @Test
+    void rollUpMinutesAggregatesTheClosedMinutesAndAdvancesTheWatermark() {
+        VitalSignRollupService service = service(null);
+        RollupWatermark minuteMark = lock(RollupGranularity.MINUTE, T0);
+        LocalDateTime limit = T0.plusMinutes(10);
+        when(recordRepo.streamSamplesBetween(T0, limit)).thenReturn(Stream.of(
+                sample(1, 1L, T0.plusSeconds(5), 80),
+                sample(2, 1L, T0.plusSeconds(40), 90),
+                sample(3, 2L, T0.plusMinutes(3), 70)));
+
+        // lateness 30s: a las 10:10:40 el último minuto cerrado termina a las 10:10
+        boolean more = service.rollUpMinutes(limit.plusSeconds(40));
+
+        assertThat(more).isFalse();
+        assertThat(minuteMark.getRolledUpTo()).isEqualTo(limit);
+        List<VitalSignRollup> saved = savedRollups();
+        assertThat(saved).hasSize(2);
+        VitalSignRollup first = saved.stream().filter(r -> r.getPatientId() == 1L).findFirst().orElseThrow();
+        assertThat(first.getBucketStart()).isEqualTo(T0);
+        assertThat(first.getSampleCount()).isEqualTo(2);
+        assertThat(first.getHeartRateSum()).isEqualTo(170);
+    }
+
+    @Test
+    void rollUpMinutesStopsAtMaxChunkAndReportsThatMoreRemain() {
+        VitalSignRollupService service = service(null);
+        RollupWatermark minuteMark = lock(RollupGranularity.MINUTE, T0);
+        when(recordRepo.streamSamplesBetween(any(), any())).thenReturn(Stream.empty());
+
+        boolean more = service.rollUpMinutes(T0.plusHours(3));
+
+        assertThat(more).isTrue();
+        assertThat(minuteMark.getRolledUpTo()).isEqualTo(T0.plusHours(1));
+    }
+
+    @Test
+    void reaggregateRecentCorrectsAMinuteWithLateReadingsAndGrowsItsHour() {
+        VitalSignRollupService service = service(null);
+        LocalDateTime minute = T0.plusMinutes(6);
+        lock(RollupGranularity.MINUTE, T0.plusMinutes(10));
+        lock(RollupGranularity.HOUR, T0.plusHours(1));
+        VitalSignRollup stored = rollup(RollupGranularity.MINUTE, minute, 80, 82);
+        VitalSignRollup hour = rollup(RollupGranularity.HOUR, T0, 80, 82, 84, 86);
+        when(rollupRepo.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                RollupGranularity.MINUTE, T0.plusMinutes(5), T0.plusMinutes(10))).thenReturn(List.of(stored));
+        when(rollupRepo.findByGranularityAndPatientIdAndBucketStart(RollupGranularity.HOUR, 1L, T0))
+                .thenReturn(Optional.of(hour));
+        when(recordRepo.streamSamplesBetween(T0.plusMinutes(5), T0.plusMinutes(10))).thenReturn(Stream.of(
+                sample(1, 1L, minute, 80),
+                sample(2, 1L, minute.plusSeconds(10), 82),
+                sample(3, 1L, minute.plusSeconds(20), 120)));
+
+        int corrected = service.reaggregateRecent();
+
+        assertThat(corrected).isEqualTo(1);
+        assertThat(stored.getSampleCount()).isEqualTo(3);
+        assertThat(stored.getHeartRateMax()).isEqualTo(120);
+        assertThat(hour.getSampleCount()).isEqualTo(5);
+        assertThat(hour.getHeartRateSum()).isEqualTo(80 + 82 + 84 + 86 + 120);
+    }
+
+    @Test
+    void reaggregateRecentLeavesCompleteMinutesAlone() {
+        VitalSignRollupService service = service(null);
+        LocalDateTime minute = T0.plusMinutes(6);
+        lock(RollupGranularity.MINUTE, T0.plusMinutes(10));
+        VitalSignRollup stored = rollup(RollupGranularity.MINUTE, minute, 80, 82);
+        when(rollupRepo.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                RollupGranularity.MINUTE, T0.plusMinutes(5), T0.plusMinutes(10))).thenReturn(List.of(stored));
+        when(recordRepo.streamSamplesBetween(any(), any())).thenReturn(Stream.of(
+                sample(1, 1L, minute, 80),
+                sample(2, 1L, minute.plusSeconds(10), 82)));
+
+        assertThat(service.reaggregateRecent()).isZero();
+        assertThat(stored.getSampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rawPurgeNeverReachesReadingsBehindTheMinuteWatermark() {
+        VitalSignRollupService service = service(Duration.ofDays(30));
+        LocalDateTime now = T0;
+        // Lecturas vencidas hace meses, pero los minutos solo están calculados hasta la más antigua
+        LocalDateTime oldest = now.minusDays(90);
+        lock(RollupGranularity.MINUTE, oldest);
+        when(recordRepo.findFirstByOrderByTimestampAsc()).thenReturn(Optional.of(record(oldest)));
+
+        assertThat(service.prepareRawPurge(now)).isEmpty();
+        verify(recordRepo, never()).streamSamplesBetween(any(), any());
+    }
+
+    @Test
+    void rawPurgeReconcilesTheOldestMinuteAndReturnsOnlyTheReadingsItRolledUp() {
+        VitalSignRollupService service = service(Duration.ofDays(30));
+        LocalDateTime minute = T0.minusDays(60);
+        lock(RollupGranularity.MINUTE, T0.minusDays(10));
+        when(recordRepo.findFirstByOrderByTimestampAsc()).thenReturn(Optional.of(record(minute.plusSeconds(30))));
+        VitalSignRollup stored = rollup(RollupGranularity.MINUTE, minute, 80, 82);
+        when(rollupRepo.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+                RollupGranularity.MINUTE, minute, minute.plusMinutes(1))).thenReturn(List.of(stored));
+        when(recordRepo.streamSamplesBetween(minute, minute.plusMinutes(1))).thenReturn(Stream.of(
+                sample(5, 1L, minute.plusSeconds(30), 80),
+                sample(6, 1L, minute.plusSeconds(40), 82),
+                sample(7, 1L, minute.plusSeconds(50), 84)));
+
+        List<Long> ids = service.prepareRawPurge(T0);
+
+        assertThat(ids).containsExactly(5L, 6L, 7L);
+        assertThat(stored.getSampleCount()).isEqualTo(3);
+    }
+
+    @Test
+    void withoutRawRetentionNothingIsPurged() {
+        VitalSignRollupService service = service(null);
+
+        assertThat(service.prepareRawPurge(T0)).isEmpty();
+        assertThat(service.checkRawMonth(YearMonth.of(2020, 1), T0)).isEqualTo(RawMonth.RETAINED);
+        verify(watermarkRepo, never()).lockByGranularity(any());
+    }
+
+    @Test
+    void aRawMonthIsDroppableOnlyOnceExpiredRolledUpAndMatchingItsMinutes() {
+        VitalSignRollupService service = service(Duration.ofDays(30));
+        YearMonth august = YearMonth.of(2026, 8);
+        LocalDateTime from = august.atDay(1).atStartOfDay();
+        LocalDateTime to = august.plusMonths(1).atDay(1).atStartOfDay();
+        RollupWatermark minuteMark = lock(RollupGranularity.MINUTE, to.minusMinutes(1));
+
+        // La marca de minutos todavía no pasó el fin del mes
+        assertThat(service.checkRawMonth(august, T0)).isEqualTo(RawMonth.RETAINED);
+        // Septiembre no venció: termina después de now - 30d
+        minuteMark.advanceTo(T0);
+        assertThat(service.checkRawMonth(august.plusMonths(1), T0)).isEqualTo(RawMonth.RETAINED);
+
+        when(recordRepo.countByTimestampGreaterThanEqualAndTimestampLessThan(from, to)).thenReturn(1_000L);
+        when(rollupRepo.sumSampleCount(RollupGranularity.MINUTE, from, to)).thenReturn(999L);
+        assertThat(service.checkRawMonth(august, T0)).isEqualTo(RawMonth.INCOMPLETE);
+
+        when(rollupRepo.sumSampleCount(RollupGranularity.MINUTE, from, to)).thenReturn(1_000L);
+        assertThat(service.checkRawMonth(august, T0)).isEqualTo(RawMonth.ROLLED_UP);
+    }
+
+    @Test
+    void minuteRollupsAreKeptWhileTheirRawReadingsRemain() {
+        VitalSignRollupService service = service(Duration.ofDays(30));
+        when(watermarkRepo.findById(RollupGranularity.HOUR)).thenReturn(Optional.of(
+                new RollupWatermark(RollupGranularity.HOUR, T0)));
+        LocalDateTime oldestRaw = T0.minusDays(120).plusSeconds(30);
+        when(recordRepo.findFirstByOrderByTimestampAsc()).thenReturn(Optional.of(record(oldestRaw)));
+        when(rollupRepo.findIdsOlderThan(any(), any(), any())).thenReturn(List.of());
+
+        service.purgeRollupBatch(RollupGranularity.MINUTE, T0);
+
+        verify(rollupRepo).findIdsOlderThan(RollupGranularity.MINUTE,
+                RollupGranularity.MINUTE.truncate(oldestRaw), Limit.of(1_000));
+    }
+
+    private VitalSignRollupService service(Duration rawRetention) {
+        RollupProperties props = new RollupProperties(true, null, Duration.ofSeconds(30), Duration.ofMinutes(5),
+                Duration.ofHours(1), rawRetention, null, Duration.ofDays(90), null, null);
+        return new VitalSignRollupService(recordRepo, rollupRepo, watermarkRepo, props);
+    }
+
+    private RollupWatermark lock(RollupGranularity granularity, LocalDateTime rolledUpTo) {
+        RollupWatermark watermark = new RollupWatermark(granularity, rolledUpTo);
+        when(watermarkRepo.lockByGranularity(granularity)).thenReturn(Optional.of(watermark));
+        return watermark;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<VitalSignRollup> savedRollups() {
+        ArgumentCaptor<Iterable<VitalSignRollup>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(rollupRepo).saveAll(saved.capture());
+        List<VitalSignRollup> rollups = new ArrayList<>();
+        saved.getValue().forEach(rollups::add);
+        return rollups;
+    }
+
+    private static VitalSignRollup rollup(RollupGranularity granularity, LocalDateTime start, int... heartRates) {
+        VitalSignRollup rollup = VitalSignRollup.start(granularity, 1L, start);
+        for (int heartRate : heartRates) rollup.add(heartRate, 97, 36.7);
+        return rollup;
+    }
+
+    private static VitalSignRecord record(LocalDateTime timestamp) {
+        VitalSignRecord record = VitalSignRecord.create(1L, 1L,
+                new HeartRate(80), new OxygenLevel(97), new Temperature(36.7));
+        ReflectionTestUtils.setField(record, "timestamp", timestamp);
+        return record;
+    }
+
+    private static PatientVitalSample sample(long id, Long patientId, LocalDateTime timestamp, int heartRate) {
+        return new PatientVitalSample() {
+            @Override public long getId() { return id; }
+            @Override public Long getPatientId() { return patientId; }
+            @Override public LocalDateTime getTimestamp() { return timestamp; }
+            @Override public int getHeartRate() { return heartRate; }
+            @Override public int getOxygenLevel() { return 97; }
+            @Override public double getTemperature() { return 36.7; }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.series;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.SeriesPointResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.VitalSeriesResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LttbDownsamplerTest {
+
+    private static final long FROM = 1_700_000_000_000L;
+    private static final long TO = FROM + 10_000_000L;
+
+    @Test
+    void returnsEmptySeriesWithoutReadings() {
+        List<VitalSeriesResponse> series = new LttbDownsampler(FROM, TO, 10).finish();
+
+        assertThat(series).extracting(VitalSeriesResponse::vital).containsExactly(VitalType.values());
+        assertThat(series).allSatisfy(s -> assertThat(s.points()).isEmpty());
+    }
+
+    @Test
+    void keepsEveryReadingWhenThereAreFewerThanPoints() {
+        LttbDownsampler downsampler = new LttbDownsampler(FROM, TO, 10);
+        for (int i = 0; i < 5; i++) {
+            downsampler.accept(FROM + i * 1_000L, new double[]{70 + i, 95, 36.5});
+        }
+
+        List<SeriesPointResponse> points = heartRate(downsampler.finish());
+
+        assertThat(points).extracting(SeriesPointResponse::value).containsExactly(70.0, 71.0, 72.0, 73.0, 74.0);
+        assertThat(points).extracting(SeriesPointResponse::timestamp)
+                .containsExactly(at(FROM), at(FROM + 1_000), at(FROM + 2_000), at(FROM + 3_000), at(FROM + 4_000));
+    }
+
+    @Test
+    void reducesToRequestedPointsKeepingEndsAndSpikes() {
+        int points = 50;
+        LttbDownsampler downsampler = new LttbDownsampler(FROM, TO, points);
+        int readings = 10_000;
+        long step = (TO - FROM) / readings;
+        for (int i = 0; i < readings; i++) {
+            double heartRate = i == 4_321 ? 180 : i == 7_654 ? 30 : 70 + (i % 7);
+            downsampler.accept(FROM + i * step, new double[]{heartRate, 95, 36.5});
+        }
+
+        List<SeriesPointResponse> result = heartRate(downsampler.finish());
+
+        assertThat(result).hasSize(points);
+        assertThat(result.getFirst().timestamp()).isEqualTo(at(FROM));
+        assertThat(result.getLast().timestamp()).isEqualTo(at(FROM + (readings - 1) * step));
+        assertThat(result).extracting(SeriesPointResponse::value).contains(180.0, 30.0);
+        assertThat(result).extracting(SeriesPointResponse::timestamp).isSorted().doesNotHaveDuplicates();
+        assertThat(result).allSatisfy(p -> assertThat(p.min()).isNull());
+    }
+
+    @Test
+    void ignoresReadingsOutsideTheRange() {
+        LttbDownsampler downsampler = new LttbDownsampler(FROM, TO, 10);
+        downsampler.accept(FROM - 1, new double[]{200, 80, 40});
+        downsampler.accept(FROM, new double[]{70, 95, 36.5});
+        downsampler.accept(TO, new double[]{200, 80, 40});
+
+        assertThat(heartRate(downsampler.finish())).extracting(SeriesPointResponse::value).containsExactly(70.0);
+    }
+
+    private static List<SeriesPointResponse> heartRate(List<VitalSeriesResponse> series) {
+        return series.get(VitalType.HEART_RATE.ordinal()).points();
+    }
+
+    private static LocalDateTime at(long millis) {
+        return SeriesDownsampler.fromMillis(millis);
+    }
+}
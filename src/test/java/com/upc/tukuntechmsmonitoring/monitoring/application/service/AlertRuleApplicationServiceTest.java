@@ -0,0 +1,71 @@
+package com.upc.tukuntechmsmonitoring.monitoring.application.service;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.alerting.ThresholdRuleRegistry;
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertThresholdRuleRequest;
+import com.upc.tukuntechmsmonitoring.monitoring.application.mapper.AlertThresholdRuleMapper;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.entity.AlertThresholdRule;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.VitalType;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.AlertThresholdRuleRepository;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.repositories.PatientCohortRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlertRuleApplicationServiceTest {
+
+    private final AlertThresholdRuleRepository ruleRepository = mock(AlertThresholdRuleRepository.class);
+    private final ThresholdRuleRegistry registry = mock(ThresholdRuleRegistry.class);
+    private final AlertRuleApplicationService service = new AlertRuleApplicationService(ruleRepository,
+            mock(PatientCohortRepository.class), new AlertThresholdRuleMapper(), registry);
+
+    @Test
+    void replacesTheBandsOfTheRuleWithTheSameScope() {
+        AlertThresholdRule existing = AlertThresholdRule.create(VitalType.HEART_RATE, AlertSeverity.WARNING, null, "cardio");
+        existing.updateBands(null, null, 100d, 95d);
+        when(ruleRepository.findByVitalAndSeverityAndScope(VitalType.HEART_RATE, AlertSeverity.WARNING, "cohort:cardio"))
+                .thenReturn(Optional.of(existing));
+        when(ruleRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.upsertRule(request(" cardio ", 120d, 115d));
+
+        verify(ruleRepository).saveAndFlush(existing);
+        assertThat(existing.getHighEnter()).isEqualTo(120d);
+        assertThat(existing.getHighExit()).isEqualTo(115d);
+        verify(registry).refresh();
+    }
+
+    @Test
+    void concurrentCreationOfTheSameScopeIsAConflict() {
+        when(ruleRepository.findByVitalAndSeverityAndScope(any(), any(), any())).thenReturn(Optional.empty());
+        when(ruleRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_alert_threshold_rules_scope"));
+
+        assertThatThrownBy(() -> service.upsertRule(request("cardio", 120d, 115d)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void invalidBandsAreABadRequest() {
+        when(ruleRepository.findByVitalAndSeverityAndScope(any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.upsertRule(request("cardio", 100d, 105d)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static AlertThresholdRuleRequest request(String cohort, Double highEnter, Double highExit) {
+        return new AlertThresholdRuleRequest(VitalType.HEART_RATE, AlertSeverity.WARNING, null, cohort,
+                null, null, highEnter, highExit);
+    }
+}
@@ -0,0 +1,52 @@
+package com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EarlyWarningScoreTest {
+
+    @ParameterizedTest
+    @CsvSource({"40, 3", "41, 1", "50, 1", "51, 0", "90, 0", "91, 1", "110, 1", "111, 2", "130, 2", "131, 3"})
+    void heartRateBands(int bpm, int points) {
+        assertThat(EarlyWarningScore.of(bpm, 98, 37.0).heartRatePoints()).isEqualTo(points);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"91, 3", "92, 2", "93, 2", "94, 1", "95, 1", "96, 0", "100, 0"})
+    void oxygenBands(int spo2, int points) {
+        assertThat(EarlyWarningScore.of(70, spo2, 37.0).oxygenPoints()).isEqualTo(points);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"35.0, 3", "35.1, 1", "36.0, 1", "36.1, 0", "38.0, 0", "38.1, 1", "39.0, 1", "39.1, 2"})
+    void temperatureBands(double celsius, int points) {
+        assertThat(EarlyWarningScore.of(70, 98, celsius).temperaturePoints()).isEqualTo(points);
+    }
+
+    @Test
+    void normalVitalsScoreZeroAndLowRisk() {
+        EarlyWarningScore score = EarlyWarningScore.of(70, 98, 37.0);
+
+        assertThat(score.total()).isZero();
+        assertThat(score.risk()).isEqualTo(ClinicalRisk.LOW);
+    }
+
+    @Test
+    void singleExtremeParameterIsLowMedium() {
+        EarlyWarningScore score = EarlyWarningScore.of(70, 90, 37.0);
+
+        assertThat(score.total()).isEqualTo(3);
+        assertThat(score.risk()).isEqualTo(ClinicalRisk.LOW_MEDIUM);
+    }
+
+    @Test
+    void riskFollowsTheTotal() {
+        assertThat(EarlyWarningScore.of(115, 94, 37.0).risk()).isEqualTo(ClinicalRisk.LOW);        // 2 + 1
+        assertThat(EarlyWarningScore.of(115, 93, 38.5).risk()).isEqualTo(ClinicalRisk.MEDIUM);     // 2 + 2 + 1
+        assertThat(EarlyWarningScore.of(135, 93, 39.5).risk()).isEqualTo(ClinicalRisk.HIGH);       // 3 + 2 + 2
+        assertThat(EarlyWarningScore.of(135, 90, 34.0).total()).isEqualTo(9);
+    }
+}
@@ -0,0 +1,96 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongKeyedCacheTest {
+
+    @Test
+    void putGetAndRemove() {
+        LongKeyedCache<String> cache = new LongKeyedCache<>(100);
+        cache.put(1L, "a");
+        cache.put(-7L, "b");
+        cache.put(1L, "c");
+
+        assertThat(cache.get(1L)).isEqualTo("c");
+        assertThat(cache.get(-7L)).isEqualTo("b");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+
+        assertThat(cache.remove(1L)).isTrue();
+        assertThat(cache.remove(1L)).isFalse();
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void mergeCombinesWithExistingValue() {
+        LongKeyedCache<Integer> cache = new LongKeyedCache<>(100);
+
+        assertThat(cache.merge(5L, 3, Math::max)).isEqualTo(3);
+        assertThat(cache.merge(5L, 1, Math::max)).isEqualTo(3);
+        assertThat(cache.merge(5L, 9, Math::max)).isEqualTo(9);
+        assertThat(cache.get(5L)).isEqualTo(9);
+    }
+
+    @Test
+    void computeIfAbsentCreatesOnce() {
+        LongKeyedCache<StringBuilder> cache = new LongKeyedCache<>(100);
+        AtomicInteger created = new AtomicInteger();
+
+        StringBuilder first = cache.computeIfAbsent(42L, key -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        });
+        StringBuilder second = cache.computeIfAbsent(42L, key -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    void staysWithinCapacity() {
+        LongKeyedCache<Long> cache = new LongKeyedCache<>(160);
+        for (long key = 0; key < 10_000; key++) {
+            cache.put(key, key);
+            assertThat(cache.size()).isLessThanOrEqualTo(160);
+        }
+
+        Map<Long, Long> seen = new HashMap<>();
+        cache.forEach(seen::put);
+        assertThat(seen).hasSize(cache.size());
+        seen.forEach((key, value) -> assertThat(cache.get(key)).isEqualTo(key));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        LongKeyedCache<Long> cache = new LongKeyedCache<>(1_000_000);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(cache.remove(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                long value = random.nextLong();
+                cache.put(key, value);
+                expected.put(key, value);
+            }
+        }
+
+        assertThat(cache.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertThat(cache.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.partitioning;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.RollupProperties;
+import com.upc.tukuntechmsmonitoring.monitoring.application.rollup.RollupProperties.RawPartitioning;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VitalSignRecordPartitionsTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+    @Test
+    void mysqlCreatesTheMissingMonthsBySplittingPmax() {
+        VitalSignRecordPartitions partitions = partitions(RawPartitioning.MYSQL);
+        when(jdbc.queryForList(anyString(), eq(String.class))).thenReturn(List.of("p202608", "p202609"));
+
+        partitions.ensureMonthsAhead(LocalDate.of(2026, 10, 18));
+
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc).execute("ALTER TABLE vital_sign_records REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p202610 VALUES LESS THAN ('2026-11-01'), PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+        order.verify(jdbc).execute("ALTER TABLE vital_sign_records REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p202611 VALUES LESS THAN ('2026-12-01'), PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    @Test
+    void mysqlDropsTheMonthPartition() {
+        VitalSignRecordPartitions partitions = partitions(RawPartitioning.MYSQL);
+        when(jdbc.queryForList(anyString(), eq(String.class))).thenReturn(List.of("p202608", "p202609"));
+
+        assertThat(partitions.oldestMonth()).contains(YearMonth.of(2026, 8));
+        partitions.dropMonth(YearMonth.of(2026, 8));
+
+        verify(jdbc).execute("ALTER TABLE vital_sign_records DROP PARTITION p202608");
+    }
+
+    @Test
+    void sqlServerMonthsExcludeTheBoundaryThatOpensTheFinalPartition() {
+        VitalSignRecordPartitions partitions = partitions(RawPartitioning.SQLSERVER);
+        when(jdbc.queryForList(anyString(), eq(LocalDate.class), eq("pf_vital_sign_records_month"))).thenReturn(List.of(
+                LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1), LocalDate.of(2026, 12, 1)));
+
+        assertThat(partitions.months()).containsExactly(YearMonth.of(2026, 10), YearMonth.of(2026, 11));
+
+        partitions.ensureMonthsAhead(LocalDate.of(2026, 10, 18));
+        verify(jdbc, never()).execute(anyString());
+    }
+
+    @Test
+    void sqlServerTruncatesTheMonthAndMergesItsBoundary() {
+        VitalSignRecordPartitions partitions = partitions(RawPartitioning.SQLSERVER);
+        when(jdbc.queryForObject(
+                "SELECT $PARTITION.pf_vital_sign_records_month(CAST('2026-08-01' AS DATETIME2(6)))", Integer.class))
+                .thenReturn(2);
+
+        partitions.dropMonth(YearMonth.of(2026, 8));
+
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc).execute("TRUNCATE TABLE vital_sign_records WITH (PARTITIONS (2))");
+        order.verify(jdbc).execute("ALTER PARTITION FUNCTION pf_vital_sign_records_month() MERGE RANGE ('2026-08-01')");
+    }
+
+    private VitalSignRecordPartitions partitions(RawPartitioning mode) {
+        return new VitalSignRecordPartitions(jdbc,
+                new RollupProperties(true, null, null, null, null, null, mode, null, null, null));
+    }
+}
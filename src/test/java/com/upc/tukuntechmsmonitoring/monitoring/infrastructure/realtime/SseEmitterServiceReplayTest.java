@@ -0,0 +1,167 @@
+package com.upc.tukuntechmsmonitoring.monitoring.infrastructure.realtime;
+
+import com.upc.tukuntechmsmonitoring.monitoring.application.dto.AlertResponse;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertSeverity;
+import com.upc.tukuntechmsmonitoring.monitoring.domain.model.valueobject.AlertType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reproducción de eventos con Last-Event-ID. Registro de 3 eventos por paciente.
+ */
+class SseEmitterServiceReplayTest {
+
+    private static final long PATIENT = 1L;
+    private static final long OTHER_PATIENT = 2L;
+
+    private SseEmitterService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SseEmitterService(new SseProperties(null, null, 3, null, null, null), null, new SimpleMeterRegistry(),
+                new MockEnvironment());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void replaysOnlyTheMissedEventsOfWatchedPatientsInOrder() throws InterruptedException {
+        RecordingEmitter live = subscribe(Set.of(PATIENT), false, null);
+        alert(PATIENT, 1);
+        alert(OTHER_PATIENT, 2);
+        alert(PATIENT, 3);
+        List<Event> received = live.take(2);
+
+        RecordingEmitter reconnected = subscribe(Set.of(PATIENT), false, received.getFirst().id());
+        alert(PATIENT, 4);
+
+        List<Event> replayed = reconnected.take(2);
+        assertThat(replayed).extracting(Event::alertId).containsExactly(3L, 4L);
+        assertThat(replayed.getFirst().id()).isEqualTo(received.get(1).id());
+        assertThat(reconnected.events).isEmpty();
+    }
+
+    @Test
+    void adminDashboardReplaysAlertsOfEveryPatient() throws InterruptedException {
+        RecordingEmitter live = subscribe(Set.of(), true, null);
+        alert(PATIENT, 1);
+        alert(OTHER_PATIENT, 2);
+        alert(PATIENT, 3);
+        long first = live.take(3).getFirst().id();
+
+        RecordingEmitter reconnected = subscribe(Set.of(), true, first);
+
+        assertThat(reconnected.take(2)).extracting(Event::alertId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void sendsResyncWhenTheMissedEventsWereOverwritten() throws InterruptedException {
+        RecordingEmitter live = subscribe(Set.of(PATIENT), false, null);
+        for (long i = 1; i <= 5; i++) alert(PATIENT, i);
+        long first = live.take(5).getFirst().id();
+
+        RecordingEmitter reconnected = subscribe(Set.of(PATIENT), false, first);
+
+        List<Event> replayed = reconnected.take(4);
+        assertThat(replayed.getFirst().name()).isEqualTo("resync");
+        assertThat(replayed.subList(1, 4)).extracting(Event::alertId).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void sendsResyncForAnIdFromAPreviousRun() throws InterruptedException {
+        alert(PATIENT, 1);
+
+        RecordingEmitter reconnected = subscribe(Set.of(PATIENT), false, 42L);
+
+        List<Event> replayed = reconnected.take(2);
+        assertThat(replayed.getFirst().name()).isEqualTo("resync");
+        assertThat(replayed.get(1).alertId()).isEqualTo(1L);
+    }
+
+    @Test
+    void upToDateClientGetsNothingReplayed() throws InterruptedException {
+        RecordingEmitter live = subscribe(Set.of(PATIENT), false, null);
+        alert(PATIENT, 1);
+        long last = live.take(1).getFirst().id();
+
+        RecordingEmitter reconnected = subscribe(Set.of(PATIENT), false, last);
+        alert(PATIENT, 2);
+
+        assertThat(reconnected.take(1)).extracting(Event::alertId).containsExactly(2L);
+        assertThat(reconnected.events).isEmpty();
+    }
+
+    private RecordingEmitter subscribe(Set<Long> patients, boolean admin, Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.subscribe(99L, patients, admin, lastEventId, Locale.ENGLISH, emitter);
+        return emitter;
+    }
+
+    private void alert(long patientId, long alertId) {
+        AlertResponse alert = new AlertResponse(alertId, patientId, 1L, AlertType.HEART_RATE, AlertSeverity.CRITICAL,
+                135.0, null, LocalDateTime.now(), null);
+        service.emitAlert(patientId, locale -> alert);
+    }
+
+    record Event(long id, String name, Object data) {
+        Long alertId() {
+            return data instanceof AlertResponse alert ? alert.id() : null;
+        }
+    }
+
+    /** Guarda lo enviado en lugar de escribirlo en un socket; los writers envían desde otros hilos. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+        RecordingEmitter() {
+            super(0L);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            long id = 0;
+            String name = null;
+            Object data = null;
+            for (var item : builder.build()) {
+                if (item.getData() instanceof String text) {
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("id:")) id = Long.parseLong(line.substring(3));
+                        else if (line.startsWith("event:")) name = line.substring(6);
+                    }
+                } else {
+                    data = item.getData();
+                }
+            }
+            if (name != null) events.add(new Event(id, name, data));
+        }
+
+        List<Event> take(int count) throws InterruptedException {
+            List<Event> taken = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Event event = events.poll(5, TimeUnit.SECONDS);
+                assertThat(event).as("evento %d de %d", i + 1, count).isNotNull();
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.upc.tukuntechmsmonitoring.shared.security;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "dGhpcy1pcy1hLXRlc3Qtc2VjcmV0LWZvci1obWFjLXNoYTI1Ni1zaWduaW5n";
+    private static final String ISSUER = "tukuntech-iam";
+
+    private final JwtService service = new JwtService(new JwtProperties(SECRET, ISSUER, 100));
+
+    @Test
+    void parsesAValidTokenAndCachesIt() {
+        String token = token(SECRET, ISSUER, minutesFromNow(10)).compact();
+
+        UserPrincipal first = service.parse(token);
+
+        assertThat(first.getId()).isEqualTo(7L);
+        assertThat(first.getUsername()).isEqualTo("ana@tukuntech.pe");
+        assertThat(first.getRoles()).containsExactly("CAREGIVER");
+        assertThat(service.parse(token)).isSameAs(first);
+        assertThat(cacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenWithoutExpirationIsNotCached() {
+        String token = token(SECRET, ISSUER, null).compact();
+
+        UserPrincipal first = service.parse(token);
+
+        assertThat(first).isNotNull();
+        assertThat(service.parse(token)).isNotSameAs(first);
+        assertThat(cacheSize()).isZero();
+    }
+
+    @Test
+    void tamperedSignatureIsRejectedAndNeverCached() {
+        String token = token(SECRET, ISSUER, minutesFromNow(10)).compact();
+        int dot = token.lastIndexOf('.');
+        char last = token.charAt(dot + 1);
+        String tampered = token.substring(0, dot + 1) + (last == 'A' ? 'B' : 'A') + token.substring(dot + 2);
+
+        assertThat(service.parse(tampered)).isNull();
+        assertThat(cacheSize()).isZero();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String other = "b3RoZXItc2VjcmV0LXRoYXQtaXMtYWxzby1sb25nLWVub3VnaC1mb3ItaHMyNTY=";
+
+        assertThat(service.parse(token(other, ISSUER, minutesFromNow(10)).compact())).isNull();
+        assertThat(cacheSize()).isZero();
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndNotCached() {
+        String token = token(SECRET, ISSUER, minutesFromNow(-5)).compact();
+
+        assertThat(service.parse(token)).isNull();
+        assertThat(cacheSize()).isZero();
+    }
+
+    @Test
+    void wrongIssuerIsRejected() {
+        assertThat(service.parse(token(SECRET, "someone-else", minutesFromNow(10)).compact())).isNull();
+    }
+
+    @Test
+    void worksWithTheCacheDisabled() {
+        JwtService uncached = new JwtService(new JwtProperties(SECRET, ISSUER, 0));
+        String token = token(SECRET, ISSUER, minutesFromNow(10)).compact();
+
+        assertThat(uncached.parse(token).getId()).isEqualTo(7L);
+        assertThat(uncached.parse(token("b3RoZXItc2VjcmV0LXRoYXQtaXMtYWxzby1sb25nLWVub3VnaC1mb3ItaHMyNTY=",
+                ISSUER, minutesFromNow(10)).compact())).isNull();
+    }
+
+    private int cacheSize() {
+        return ((VerifiedTokenCache) ReflectionTestUtils.getField(service, "verified")).size();
+    }
+
+    private static JwtBuilder token(String secret, String issuer, Date expiration) {
+        return Jwts.builder()
+                .setSubject("ana@tukuntech.pe")
+                .setIssuer(issuer)
+                .claim("uid", 7)
+                .claim("roles", List.of("CAREGIVER"))
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256);
+    }
+
+    private static Date minutesFromNow(int minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000L);
+    }
+}
@@ -0,0 +1,72 @@
+package com.upc.tukuntechmsmonitoring.shared.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final UserPrincipal USER = new UserPrincipal(1L, "ana@tukuntech.pe", Set.of("PATIENT"));
+
+    @Test
+    void servesAVerifiedTokenUntilItsExpiration() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedTokenCache.TokenKey key = VerifiedTokenCache.keyOf("token-a");
+        cache.put(key, USER, NOW + 1_000, NOW);
+
+        assertThat(cache.get(VerifiedTokenCache.keyOf("token-a"), NOW + 999)).isSameAs(USER);
+        assertThat(cache.get(VerifiedTokenCache.keyOf("token-b"), NOW)).isNull();
+    }
+
+    @Test
+    void expiredEntryIsNotServedAndIsRemoved() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedTokenCache.TokenKey key = VerifiedTokenCache.keyOf("token-a");
+        cache.put(key, USER, NOW + 1_000, NOW);
+
+        assertThat(cache.get(key, NOW + 1_000)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotStored() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put(VerifiedTokenCache.keyOf("token-a"), USER, NOW, NOW);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void keyDistinguishesNonAsciiCharacters() {
+        assertThat(VerifiedTokenCache.keyOf("tokén")).isNotEqualTo(VerifiedTokenCache.keyOf("tokún"));
+        assertThat(VerifiedTokenCache.keyOf("tokén")).isEqualTo(VerifiedTokenCache.keyOf("tokén"));
+    }
+
+    @Test
+    void evictsExpiredEntriesFirstOnceFull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(8);
+        for (int i = 0; i < 4; i++) cache.put(VerifiedTokenCache.keyOf("short-" + i), USER, NOW + 10, NOW);
+        for (int i = 0; i < 4; i++) cache.put(VerifiedTokenCache.keyOf("long-" + i), USER, NOW + 60_000, NOW);
+
+        cache.put(VerifiedTokenCache.keyOf("new"), USER, NOW + 60_000, NOW + 100);
+
+        assertThat(cache.size()).isEqualTo(5);
+        assertThat(cache.get(VerifiedTokenCache.keyOf("new"), NOW + 100)).isSameAs(USER);
+        for (int i = 0; i < 4; i++) {
+            assertThat(cache.get(VerifiedTokenCache.keyOf("long-" + i), NOW + 100)).isSameAs(USER);
+        }
+    }
+
+    @Test
+    void staysWithinCapacityWhenNothingHasExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(8);
+        for (int i = 0; i < 100; i++) {
+            cache.put(VerifiedTokenCache.keyOf("token-" + i), USER, NOW + 60_000, NOW);
+            assertThat(cache.size()).isLessThanOrEqualTo(8);
+        }
+        assertThat(cache.get(VerifiedTokenCache.keyOf("token-99"), NOW)).isSameAs(USER);
+    }
+}